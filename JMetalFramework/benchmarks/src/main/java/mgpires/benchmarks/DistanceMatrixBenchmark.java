@@ -0,0 +1,70 @@
+package mgpires.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.util.Distance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark measures jmetal.util.Distance.distanceMatrix, used by SPEA2,
+ * computed pair by pair (scalar, the original code and the default) and by
+ * the blocked kernel of DistanceKernel. The size 2000 is close to the number of training samples
+ * of the titanic folds, the largest set of points of the experiments.
+ *
+ * @date 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceMatrixBenchmark {
+
+    @Param({"100", "200", "2000"})
+    public int size;
+
+    @Param({"2", "3"})
+    public int numberOfObjectives;
+
+    private SolutionSet solutionSet_;
+    private Distance distance_;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+
+        solutionSet_ = new SolutionSet(size);
+        for (int i = 0; i < size; i++) {
+            Solution solution = new Solution(numberOfObjectives);
+            for (int j = 0; j < numberOfObjectives; j++)
+                solution.setObjective(j, random.nextDouble());
+            solutionSet_.add(solution);
+        }
+        distance_ = new Distance();
+    } // end setUp method
+
+    @Benchmark
+    public double[][] scalar() {
+        return distance_.distanceMatrix(solutionSet_);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Djmetal.distanceKernel=blocked")
+    public double[][] blocked() {
+        return distance_.distanceMatrix(solutionSet_);
+    }
+
+} // end DistanceMatrixBenchmark class
@@ -0,0 +1,81 @@
+package mgpires.benchmarks;
+
+import mgpires.core.Samples;
+
+/**
+ * This class is a copy of Samples.getEuclideanDistanceMatrix as it was before
+ * the numeric columns (the samples kept only as strings): the values of both
+ * samples are parsed again for every pair. It is the baseline of
+ * SamplesDistanceBenchmark.
+ *
+ * @date 2026/10/18
+ */
+public class OriginalDistance {
+
+    private OriginalDistance() {
+    }
+
+    /**
+     * This method calculates the Euclidean distance matrix as the original code
+     * @param samples The samples
+     * @param flag "test", "knn" or "train", as in Samples.getEuclideanDistanceMatrix
+     * @return one double[][] Euclidean distance matrix
+     */
+    public static double[][] getEuclideanDistanceMatrix(Samples samples, String flag) {
+
+        int numberOfTraSamples = samples.getNumberOfTraSamples();
+        int numberOfTestSamples = samples.getNumberOfTestSamples();
+        boolean[] selectedSamples = samples.getSelectedSamples();
+        String[][] traSamples = samples.getTraSamples();
+        String[][] testSamples = samples.getTestSamples();
+        int dimensions = samples.getNumberOfVariables() - 1;
+
+        switch (flag) {
+            case "test":
+            {
+                int column;
+                double[][] distance = new double[numberOfTestSamples][samples.getNumberOfSelectedSamples()];
+                for (int i = 0; i < numberOfTestSamples; i++) {
+                    column = 0;
+                    for (int j = 0; j < numberOfTraSamples; j++) {
+                        if (selectedSamples[j] == true) {
+                            distance[i][column] = calculateEuclideanDistance(testSamples[i], traSamples[j], dimensions);
+                            column++;
+                        }
+                    }
+                }
+                return distance;
+            }
+            case "knn":
+            {
+                double[][] distance = new double[numberOfTestSamples][numberOfTraSamples];
+                for (int i = 0; i < numberOfTestSamples; i++)
+                    for (int j = 0; j < numberOfTraSamples; j++)
+                        distance[i][j] = calculateEuclideanDistance(testSamples[i], traSamples[j], dimensions);
+                return distance;
+            }
+            case "train":
+            {
+                double[][] distance = new double[numberOfTraSamples][numberOfTraSamples];
+                for (int i = 0; i < numberOfTraSamples; i++)
+                    for (int j = i + 1; j < numberOfTraSamples; j++)
+                        distance[i][j] = calculateEuclideanDistance(traSamples[i], traSamples[j], dimensions);
+                return distance;
+            }
+            default:
+                throw new IllegalArgumentException(flag);
+        }
+    } // end getEuclideanDistanceMatrix method
+
+    private static double calculateEuclideanDistance(String[] first, String[] second, int dimensions) {
+        double aux = 0.0, x, y;
+
+        for (int var = 0; var < dimensions; var++) {
+            x = Double.parseDouble(first[var]);
+            y = Double.parseDouble(second[var]);
+            aux += (x - y) * (x - y);
+        }
+        return Math.sqrt(aux);
+    } // end calculateEuclideanDistance method
+
+} // end OriginalDistance class
@@ -0,0 +1,86 @@
+package mgpires.benchmarks;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import mgpires.core.Samples;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark measures Samples.getEuclideanDistanceMatrix on the first
+ * fold of the datasets in dataset-test: as the original code, which parses the
+ * strings of the samples for every pair (OriginalDistance); point by point on
+ * the numeric columns (scalar, the default); and by the blocked kernel of
+ * DistanceKernel.
+ * The "test" matrix is computed with half of the training samples selected.
+ *
+ * @date 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SamplesDistanceBenchmark {
+
+    @Param({"titanic", "car"})
+    public String dataset;
+
+    @Param({"train", "knn", "test"})
+    public String flag;
+
+    private Samples samples_;
+
+    @Setup
+    public void setUp() {
+        String dir = System.getProperty("dataset.dir", ".." + File.separator + "dataset-test");
+
+        samples_ = new Samples();
+        samples_.setTypeDataSet("classification");
+        samples_.setTypeProcedure("training");
+        samples_.loadSamples(dir + File.separator + dataset + File.separator + dataset, "10", 1);
+
+        // the same half of the samples is selected in every fork
+        Random random = new Random(1);
+        int selected = 0;
+        for (int i = 0; i < samples_.getNumberOfTraSamples(); i++) {
+            boolean value = random.nextBoolean();
+            samples_.setSelectedSamples(i, value);
+            if (value)
+                selected++;
+        }
+        samples_.setNumberOfSelectedSamples(selected);
+
+        // the strings are created on demand, only once
+        samples_.getTraSamples();
+        samples_.getTestSamples();
+    } // end setUp method
+
+    @Benchmark
+    public double[][] original() {
+        return OriginalDistance.getEuclideanDistanceMatrix(samples_, flag);
+    }
+
+    @Benchmark
+    public double[][] scalar() {
+        return samples_.getEuclideanDistanceMatrix(flag);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Djmetal.distanceKernel=blocked")
+    public double[][] blocked() {
+        return samples_.getEuclideanDistanceMatrix(flag);
+    }
+
+} // end SamplesDistanceBenchmark class
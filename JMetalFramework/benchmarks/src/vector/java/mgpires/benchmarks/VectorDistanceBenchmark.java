@@ -0,0 +1,76 @@
+package mgpires.benchmarks;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import jmetal.util.DistanceKernel;
+import mgpires.core.Samples;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark compares the blocked kernel of DistanceKernel with the same
+ * kernel written with the Vector API, on the training and test samples of the
+ * first fold of the datasets in dataset-test.
+ *
+ * @date 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class VectorDistanceBenchmark {
+
+    @Param({"titanic", "car"})
+    public String dataset;
+
+    private double[][] traColumns_, testColumns_;
+    private int dimensions_, numberOfTraSamples_, numberOfTestSamples_;
+
+    @Setup
+    public void setUp() {
+        String dir = System.getProperty("dataset.dir", ".." + File.separator + "dataset-test");
+
+        Samples samples = new Samples();
+        samples.setTypeDataSet("classification");
+        samples.setTypeProcedure("training");
+        samples.loadSamples(dir + File.separator + dataset + File.separator + dataset, "10", 1);
+
+        traColumns_ = samples.getTraColumns();
+        testColumns_ = samples.getTestColumns();
+        dimensions_ = samples.getNumberOfVariables() - 1;
+        numberOfTraSamples_ = samples.getNumberOfTraSamples();
+        numberOfTestSamples_ = samples.getNumberOfTestSamples();
+    } // end setUp method
+
+    @Benchmark
+    public double[][] blockedTrain() {
+        return DistanceKernel.upperTriangle(traColumns_, dimensions_, numberOfTraSamples_);
+    }
+
+    @Benchmark
+    public double[][] vectorTrain() {
+        return VectorDistanceKernel.upperTriangle(traColumns_, dimensions_, numberOfTraSamples_);
+    }
+
+    @Benchmark
+    public double[][] blockedKnn() {
+        return DistanceKernel.cross(testColumns_, numberOfTestSamples_, traColumns_, numberOfTraSamples_, dimensions_);
+    }
+
+    @Benchmark
+    public double[][] vectorKnn() {
+        return VectorDistanceKernel.cross(testColumns_, numberOfTestSamples_, traColumns_, numberOfTraSamples_, dimensions_);
+    }
+
+} // end VectorDistanceBenchmark class
@@ -0,0 +1,93 @@
+package mgpires.benchmarks;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+import jmetal.util.DistanceKernel;
+
+/**
+ * This class is the kernel of jmetal.util.DistanceKernel written with the
+ * Vector API: the cells of a row are computed one vector of lanes at a time
+ * and the end of the row is computed one cell at a time. The tiles are the
+ * same and each lane adds the squared differences in the order of the
+ * dimensions, without fused multiply-add, so the distances are exactly the
+ * ones of DistanceKernel.
+ * It is only compiled by the vector profile, because the framework is built
+ * for Java 8 and the Vector API needs JDK 17 with jdk.incubator.vector.
+ *
+ * @date 2026/10/17
+ */
+public class VectorDistanceKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorDistanceKernel() {
+    }
+
+    /**
+     * @see DistanceKernel#upperTriangle(double[][], int, int)
+     */
+    public static double[][] upperTriangle(double[][] points, int dimensions, int size) {
+        double[][] distance = new double[size][size];
+
+        for (int rowStart = 0; rowStart < size; rowStart += DistanceKernel.BLOCK_ROWS) {
+            int rowEnd = Math.min(rowStart + DistanceKernel.BLOCK_ROWS, size);
+            for (int columnStart = rowStart + 1; columnStart < size; columnStart += DistanceKernel.BLOCK_COLUMNS) {
+                int columnEnd = Math.min(columnStart + DistanceKernel.BLOCK_COLUMNS, size);
+                for (int i = rowStart; i < rowEnd; i++) {
+                    int from = Math.max(columnStart, i + 1);
+                    if (from < columnEnd)
+                        accumulate(points, i, points, dimensions, from, columnEnd, distance[i]);
+                }
+            }
+            for (int i = rowStart; i < rowEnd; i++)
+                squareRoot(distance[i], i + 1, size);
+        }
+        return distance;
+    } // end upperTriangle method
+
+    /**
+     * @see DistanceKernel#cross(double[][], int, double[][], int, int)
+     */
+    public static double[][] cross(double[][] rows, int numberOfRows,
+                                   double[][] columns, int numberOfColumns, int dimensions) {
+        double[][] distance = new double[numberOfRows][numberOfColumns];
+
+        for (int rowStart = 0; rowStart < numberOfRows; rowStart += DistanceKernel.BLOCK_ROWS) {
+            int rowEnd = Math.min(rowStart + DistanceKernel.BLOCK_ROWS, numberOfRows);
+            for (int columnStart = 0; columnStart < numberOfColumns; columnStart += DistanceKernel.BLOCK_COLUMNS) {
+                int columnEnd = Math.min(columnStart + DistanceKernel.BLOCK_COLUMNS, numberOfColumns);
+                for (int i = rowStart; i < rowEnd; i++)
+                    accumulate(rows, i, columns, dimensions, columnStart, columnEnd, distance[i]);
+            }
+            for (int i = rowStart; i < rowEnd; i++)
+                squareRoot(distance[i], 0, numberOfColumns);
+        }
+        return distance;
+    } // end cross method
+
+    private static void accumulate(double[][] rows, int i, double[][] columns,
+                                   int dimensions, int from, int to, double[] row) {
+        int bound = from + SPECIES.loopBound(to - from);
+
+        for (int d = 0; d < dimensions; d++) {
+            double x = rows[d][i];
+            double[] column = columns[d];
+            DoubleVector xs = DoubleVector.broadcast(SPECIES, x);
+            int j = from;
+            for (; j < bound; j += SPECIES.length()) {
+                DoubleVector diff = DoubleVector.fromArray(SPECIES, column, j).sub(xs);
+                DoubleVector.fromArray(SPECIES, row, j).add(diff.mul(diff)).intoArray(row, j);
+            }
+            for (; j < to; j++) {
+                double diff = column[j] - x;
+                row[j] += diff * diff;
+            }
+        }
+    } // end accumulate method
+
+    private static void squareRoot(double[] row, int from, int to) {
+        for (int j = from; j < to; j++)
+            row[j] = Math.sqrt(row[j]);
+    } // end squareRoot method
+
+} // end VectorDistanceKernel class
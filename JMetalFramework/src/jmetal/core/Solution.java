@@ -499,7 +499,8 @@ public class Solution implements Serializable {
 
     for (int i = 0;  i < variable_.length  ; i++)
       if ((variable_[i].getVariableType() == jmetal.encodings.variable.Binary.class) ||
-          (variable_[i].getVariableType() == jmetal.encodings.variable.BinaryReal.class))
+          (variable_[i].getVariableType() == jmetal.encodings.variable.BinaryReal.class) ||
+          (variable_[i].getVariableType() == jmetal.encodings.variable.CompactBinary.class))
 
         bits += ((Binary)(variable_[i])).getNumberOfBits() ;
 
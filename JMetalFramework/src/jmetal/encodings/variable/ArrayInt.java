@@ -122,7 +122,7 @@ public class ArrayInt extends Variable {
    * Copy Constructor
    * @param arrayInt The arrayInt to copy
    */
-  private ArrayInt(ArrayInt arrayInt) {
+  protected ArrayInt(ArrayInt arrayInt) {
     size_   = arrayInt.size_;
     array_ = new int[size_];
         	
@@ -124,6 +124,32 @@ public class Binary extends Variable {
     bits_.set(bit, value) ;
   } //getNumberOfBits
 
+  /**
+   * Flips the value of the ith bit.
+   * @param bit The bit to flip
+   */
+  public void flip(int bit){
+    bits_.flip(bit) ;
+  } //flip
+
+  /**
+   * Returns the number of bits set to true.
+   * @return The number of ones
+   */
+  public int cardinality(){
+    return bits_.cardinality() ;
+  } //cardinality
+
+  /**
+   * Returns the index of the first bit set to true that occurs on or after
+   * the specified bit.
+   * @param fromIndex The bit to start checking from (inclusive)
+   * @return The index of the next one, or -1 if there is no such bit
+   */
+  public int nextSetBit(int fromIndex){
+    return bits_.nextSetBit(fromIndex) ;
+  } //nextSetBit
+
   
  /**
   * Obtain the hamming distance between two binary strings
@@ -131,6 +157,10 @@ public class Binary extends Variable {
   * @return The hamming distance
   */
   public int hammingDistance(Binary other) {
+    // a CompactBinary does not use bits_
+    if (other instanceof CompactBinary)
+      return other.hammingDistance(this);
+
     int distance = 0;
     int i = 0;
     while (i < bits_.size()) {
@@ -0,0 +1,214 @@
+//  CompactBinary.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.encodings.variable;
+
+import jmetal.core.Variable;
+import jmetal.util.PseudoRandom;
+
+/**
+ * This class implements a binary string stored in an array of 64-bit words
+ * instead of a BitSet. Counting the ones, comparing two strings and iterating
+ * over the ones are done one word at a time.
+ * A copy shares the words with the original until one of them is modified
+ * (copy-on-write), so copies that are never changed do not copy the bits.
+ * The bits_ field inherited from <code>Binary</code> is not used; the bits
+ * must be accessed through the methods of the class.
+ */
+public class CompactBinary extends Binary {
+
+  /**
+   * Stores the bits of the string. Bit i is the bit (i % 64) of word (i / 64)
+   */
+  private long[] words_ ;
+
+  /**
+   * True while words_ may be shared with a copy. Any change copies the words first
+   */
+  private boolean shared_ ;
+
+  /**
+   *  Constructor. The bits are initialized at random, as in <code>Binary</code>
+   *  @param numberOfBits Length of the bit string
+   */
+  public CompactBinary(int numberOfBits) {
+    numberOfBits_ = numberOfBits ;
+    words_ = new long[(numberOfBits + 63) >>> 6] ;
+    shared_ = false ;
+
+    for (int i = 0; i < numberOfBits_; i++) {
+      if (PseudoRandom.randDouble() < 0.5) {
+        words_[i >>> 6] |= 1L << i ;
+      }
+    }
+  } // CompactBinary
+
+  /**
+   * Copy constructor. The words are shared until one of the strings is modified
+   * @param variable The CompactBinary encodings.variable to copy.
+   */
+  public CompactBinary(CompactBinary variable) {
+    numberOfBits_ = variable.numberOfBits_ ;
+    words_ = variable.words_ ;
+    shared_ = true ;
+    variable.shared_ = true ;
+  } // CompactBinary
+
+  /**
+   * Creates an exact copy of a CompactBinary object
+   * @return An exact copy of the object.
+   **/
+  public Variable deepCopy() {
+    return new CompactBinary(this) ;
+  } // deepCopy
+
+  /**
+   * Returns the value of the ith bit.
+   * @param bit The bit to retrieve
+   * @return The ith bit
+   */
+  public boolean getIth(int bit) {
+    return (words_[bit >>> 6] & (1L << bit)) != 0 ;
+  } // getIth
+
+  /**
+   * Sets the value of the ith bit.
+   * @param bit The bit to set
+   */
+  public void setIth(int bit, boolean value) {
+    ensureNotShared() ;
+    if (value)
+      words_[bit >>> 6] |= 1L << bit ;
+    else
+      words_[bit >>> 6] &= ~(1L << bit) ;
+  } // setIth
+
+  /**
+   * Flips the value of the ith bit.
+   * @param bit The bit to flip
+   */
+  public void flip(int bit) {
+    ensureNotShared() ;
+    words_[bit >>> 6] ^= 1L << bit ;
+  } // flip
+
+  /**
+   * Returns the number of bits set to true, counted one word at a time
+   * @return The number of ones
+   */
+  public int cardinality() {
+    int count = 0 ;
+    for (long word : words_)
+      count += Long.bitCount(word) ;
+    return count ;
+  } // cardinality
+
+  /**
+   * Returns the index of the first bit set to true that occurs on or after
+   * the specified bit
+   * @param fromIndex The bit to start checking from (inclusive)
+   * @return The index of the next one, or -1 if there is no such bit
+   */
+  public int nextSetBit(int fromIndex) {
+    if (fromIndex >= numberOfBits_)
+      return -1 ;
+
+    int index = fromIndex >>> 6 ;
+    // the bits before fromIndex are masked out of the first word
+    long word = words_[index] & (-1L << fromIndex) ;
+    while (word == 0) {
+      index++ ;
+      if (index == words_.length)
+        return -1 ;
+      word = words_[index] ;
+    }
+    return (index << 6) + Long.numberOfTrailingZeros(word) ;
+  } // nextSetBit
+
+ /**
+  * Obtain the hamming distance between two binary strings. When both are
+  * CompactBinary the strings are compared one word at a time
+  * @param other The binary string to compare
+  * @return The hamming distance
+  */
+  public int hammingDistance(Binary other) {
+    if (other instanceof CompactBinary) {
+      long[] otherWords = ((CompactBinary) other).words_ ;
+      int distance = 0 ;
+      for (int i = 0; i < Math.min(words_.length, otherWords.length); i++)
+        distance += Long.bitCount(words_[i] ^ otherWords[i]) ;
+      return distance ;
+    }
+
+    int distance = 0 ;
+    for (int i = 0; i < Math.max(numberOfBits_, other.getNumberOfBits()); i++) {
+      boolean mine = (i < numberOfBits_) && getIth(i) ;
+      boolean theirs = (i < other.getNumberOfBits()) && other.getIth(i) ;
+      if (mine != theirs)
+        distance++ ;
+    }
+    return distance ;
+  } // hammingDistance
+
+  /**
+   * Returns the number of 64-bit words that store the string
+   * @return The number of words
+   */
+  public int getNumberOfWords() {
+    return words_.length ;
+  } // getNumberOfWords
+
+  /**
+   * Returns one word of the string. Bit i of the string is the bit (i % 64)
+   * of the word (i / 64)
+   * @param index The index of the word
+   * @return The word
+   */
+  public long getWord(int index) {
+    return words_[index] ;
+  } // getWord
+
+  /**
+   * Flips the bits of one word that are set in the mask
+   * @param index The index of the word
+   * @param mask The bits to flip
+   */
+  public void xorWord(int index, long mask) {
+    if (mask == 0)
+      return ;
+    ensureNotShared() ;
+    words_[index] ^= mask ;
+  } // xorWord
+
+ /**
+  *
+  */
+  public String toString() {
+    StringBuilder result = new StringBuilder(numberOfBits_) ;
+    for (int i = 0; i < numberOfBits_; i++)
+      result.append(getIth(i) ? '1' : '0') ;
+    return result.toString() ;
+  } // toString
+
+  /**
+   * Copies the words before the first change made after they were shared
+   */
+  private void ensureNotShared() {
+    if (shared_) {
+      words_ = words_.clone() ;
+      shared_ = false ;
+    }
+  } // ensureNotShared
+} // CompactBinary
@@ -47,6 +47,13 @@ public class CrossoverFactory {
       return new TwoPointsCrossover(parameters);
     else if (name.equalsIgnoreCase("HUXCrossover"))
       return new HUXCrossover(parameters);
+    else if (name.equalsIgnoreCase("WordHUXCrossover"))
+      return new WordHUXCrossover(parameters);
+    else if (name.equalsIgnoreCase("WordUniformCrossover")) {
+      HashMap uniformParameters = new HashMap(parameters) ;
+      uniformParameters.put("uniform", true) ;
+      return new WordHUXCrossover(uniformParameters);
+    }
     else if (name.equalsIgnoreCase("DifferentialEvolutionCrossover"))
       return new DifferentialEvolutionCrossover(parameters);
     else if (name.equalsIgnoreCase("BLXAlphaCrossover"))
@@ -177,9 +177,9 @@ public class SBXSinglePointCrossover extends Crossover {
 
 			//5. Make the crossover;
 			for (int i = crossoverPoint; i < totalNumberOfBits; i++) {
-				boolean swap = binaryChild0.bits_.get(i);
-				binaryChild0.bits_.set(i, binaryChild1.bits_.get(i));
-				binaryChild1.bits_.set(i, swap);
+				boolean swap = binaryChild0.getIth(i);
+				binaryChild0.setIth(i, binaryChild1.getIth(i));
+				binaryChild1.setIth(i, swap);
 			} // for
 		} // if
 
@@ -29,6 +29,7 @@ import jmetal.encodings.variable.Binary;
 import jmetal.util.Configuration;
 import jmetal.util.JMException;
 import jmetal.util.PseudoRandom;
+import mgpires.solutionType.ArrayBinarySolutionType;
 
 import java.util.Arrays;
 import java.util.HashMap;
@@ -44,7 +45,8 @@ public class SinglePointCrossover extends Crossover {
    */
   private static final List VALID_TYPES = Arrays.asList(BinarySolutionType.class,
   		                                            BinaryRealSolutionType.class,
-  		                                            IntSolutionType.class) ;
+  		                                            IntSolutionType.class,
+  		                                            ArrayBinarySolutionType.class) ;
 
   private Double crossoverProbability_ = null;
 
@@ -84,7 +86,8 @@ public class SinglePointCrossover extends Crossover {
     try {
       if (PseudoRandom.randDouble() < probability) {
         if ((parent1.getType().getClass() == BinarySolutionType.class) ||
-            (parent1.getType().getClass() == BinaryRealSolutionType.class)) {
+            (parent1.getType().getClass() == BinaryRealSolutionType.class) ||
+            (parent1.getType().getClass() == ArrayBinarySolutionType.class)) {
           //1. Compute the total number of bits
           int totalNumberOfBits = 0;
           for (int i = 0; i < parent1.getDecisionVariables().length; i++) {
@@ -121,9 +124,9 @@ public class SinglePointCrossover extends Crossover {
           for (int i = intoVariableCrossoverPoint;
                   i < offSpring1.getNumberOfBits();
                   i++) {
-            boolean swap = offSpring1.bits_.get(i);
-            offSpring1.bits_.set(i, offSpring2.bits_.get(i));
-            offSpring2.bits_.set(i, swap);
+            boolean swap = offSpring1.getIth(i);
+            offSpring1.setIth(i, offSpring2.getIth(i));
+            offSpring2.setIth(i, swap);
           }
 
           offSpring[0].getDecisionVariables()[variable] = offSpring1;
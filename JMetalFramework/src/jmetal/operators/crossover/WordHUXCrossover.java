@@ -0,0 +1,208 @@
+//  WordHUXCrossover.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.operators.crossover;
+
+import jmetal.core.Solution;
+import jmetal.encodings.variable.Binary;
+import jmetal.encodings.variable.CompactBinary;
+import jmetal.util.Configuration;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * This class implements the HUX crossover one 64-bit word at a time.
+ * The bits that differ between the parents are found with a xor of their
+ * words, and the bits to swap are chosen among them with a mask: exactly
+ * half of them (rounded down), chosen at random, as in the original HUX.
+ * With the parameter "uniform" set to true, each differing bit is swapped
+ * with probability 0.5 instead, which is what <code>HUXCrossover</code> does
+ * bit by bit.
+ * The swap is a xor of each offspring with the mask of the chosen bits.
+ * NOTE: the operator is applied to every variable of the solutions, and
+ * the type of the solutions must be Binary, BinaryReal or ArrayBinary
+ */
+public class WordHUXCrossover extends HUXCrossover {
+
+  private boolean uniform_ = false ;
+
+  /**
+   * Constructor
+   * Create a new instance of the word HUX crossover operator.
+   * @param parameters "probability" and, optionally, "uniform"
+   */
+  public WordHUXCrossover(HashMap<String, Object> parameters) {
+    super(parameters) ;
+
+    if (parameters.get("uniform") != null)
+      uniform_ = (Boolean) parameters.get("uniform") ;
+  } // WordHUXCrossover
+
+  /**
+   * Perform the crossover operation
+   * @param probability Crossover probability
+   * @param parent1 The first parent
+   * @param parent2 The second parent
+   * @return An array containing the two offsprings
+   * @throws JMException
+   */
+  public Solution[] doCrossover(double   probability,
+                                Solution parent1,
+                                Solution parent2) throws JMException {
+    Solution [] offSpring = new Solution[2];
+    offSpring[0] = new Solution(parent1);
+    offSpring[1] = new Solution(parent2);
+    try {
+      if (PseudoRandom.randDouble() < probability) {
+        for (int var = 0; var < parent1.getDecisionVariables().length; var++) {
+          Binary p1 = (Binary)parent1.getDecisionVariables()[var];
+          Binary p2 = (Binary)parent2.getDecisionVariables()[var];
+
+          long [] difference = words(p1) ;
+          long [] other = words(p2) ;
+          for (int i = 0; i < difference.length; i++)
+            difference[i] ^= other[i] ;
+
+          long [] swap = uniform_ ? uniformMask(difference) : halfMask(difference) ;
+          xor((Binary)offSpring[0].getDecisionVariables()[var], swap) ;
+          xor((Binary)offSpring[1].getDecisionVariables()[var], swap) ;
+        }
+        // Decode the results
+        for (int i = 0; i < offSpring[0].getDecisionVariables().length; i++)
+        {
+          ((Binary)offSpring[0].getDecisionVariables()[i]).decode();
+          ((Binary)offSpring[1].getDecisionVariables()[i]).decode();
+        }
+      }
+    }catch (ClassCastException e1) {
+
+      Configuration.logger_.severe("WordHUXCrossover.doCrossover: Cannot perfom " +
+          "WordHUXCrossover ") ;
+      Class cls = java.lang.String.class;
+      String name = cls.getName();
+      throw new JMException("Exception in " + name + ".doCrossover()") ;
+    }
+    return offSpring;
+  } // doCrossover
+
+  /**
+   * Chooses each bit of a mask with probability 0.5
+   * @param mask The bits to choose from
+   * @return The chosen bits
+   */
+  static long [] uniformMask(long [] mask) {
+    long [] chosen = new long[mask.length] ;
+    for (int i = 0; i < mask.length; i++)
+      if (mask[i] != 0)
+        chosen[i] = mask[i] & randomWord() ;
+    return chosen ;
+  } // uniformMask
+
+  /**
+   * Chooses half of the bits of a mask, rounded down, all the subsets of
+   * that size with the same probability. It starts with a uniform choice,
+   * which has about half of the bits, and then removes or adds bits chosen
+   * at random until it has exactly half
+   * @param mask The bits to choose from
+   * @return The chosen bits
+   */
+  static long [] halfMask(long [] mask) {
+    int total = bitCount(mask) ;
+    int half = total / 2 ;
+
+    long [] chosen = uniformMask(mask) ;
+    int count = bitCount(chosen) ;
+
+    while (count > half) {
+      int bit = select(chosen, null, PseudoRandom.randInt(0, count - 1)) ;
+      chosen[bit >>> 6] &= ~(1L << bit) ;
+      count-- ;
+    }
+    while (count < half) {
+      // the bits of the mask not chosen yet
+      int bit = select(mask, chosen, PseudoRandom.randInt(0, total - count - 1)) ;
+      chosen[bit >>> 6] |= 1L << bit ;
+      count++ ;
+    }
+
+    return chosen ;
+  } // halfMask
+
+  /**
+   * Finds the n-th bit (from 0) set in words and not set in excluded,
+   * skipping whole words by their number of bits
+   */
+  private static int select(long [] words, long [] excluded, int n) {
+    for (int i = 0; i < words.length; i++) {
+      long word = (excluded == null) ? words[i] : words[i] & ~excluded[i] ;
+      int count = Long.bitCount(word) ;
+      if (n < count) {
+        for (; n > 0; n--)
+          word &= word - 1 ;
+        return (i << 6) + Long.numberOfTrailingZeros(word) ;
+      }
+      n -= count ;
+    } // for
+    throw new IllegalArgumentException("WordHUXCrossover: not enough bits to select") ;
+  } // select
+
+  private static int bitCount(long [] words) {
+    int count = 0 ;
+    for (long word : words)
+      count += Long.bitCount(word) ;
+    return count ;
+  } // bitCount
+
+  /**
+   * @return A word of 64 random bits, from two random numbers
+   */
+  private static long randomWord() {
+    long high = (long) (PseudoRandom.randDouble() * 4294967296.0) ;
+    long low = (long) (PseudoRandom.randDouble() * 4294967296.0) ;
+    return (high << 32) | low ;
+  } // randomWord
+
+  /**
+   * Returns a copy of the words of a binary string
+   */
+  private static long [] words(Binary binary) {
+    int numberOfWords = (binary.getNumberOfBits() + 63) >>> 6 ;
+    if (binary instanceof CompactBinary) {
+      CompactBinary compact = (CompactBinary) binary ;
+      long [] words = new long[numberOfWords] ;
+      for (int i = 0; i < numberOfWords; i++)
+        words[i] = compact.getWord(i) ;
+      return words ;
+    }
+    return Arrays.copyOf(binary.bits_.toLongArray(), numberOfWords) ;
+  } // words
+
+  /**
+   * Flips the bits of a binary string set in a mask
+   */
+  private static void xor(Binary binary, long [] mask) {
+    if (binary instanceof CompactBinary) {
+      CompactBinary compact = (CompactBinary) binary ;
+      for (int i = 0; i < mask.length; i++)
+        compact.xorWord(i, mask[i]) ;
+    }
+    else
+      binary.bits_.xor(BitSet.valueOf(mask)) ;
+  } // xor
+} // WordHUXCrossover
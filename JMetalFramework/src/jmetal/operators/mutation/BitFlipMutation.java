@@ -70,11 +70,12 @@ public class BitFlipMutation extends Mutation {
 	public void doMutation(double probability, Solution solution) throws JMException {
 		try {
 			if ((solution.getType().getClass() == BinarySolutionType.class) ||
-					(solution.getType().getClass() == BinaryRealSolutionType.class)) {
+					(solution.getType().getClass() == BinaryRealSolutionType.class) ||
+					(solution.getType().getClass() == ArrayBinarySolutionType.class)) {
 				for (int i = 0; i < solution.getDecisionVariables().length; i++) {
 					for (int j = 0; j < ((Binary) solution.getDecisionVariables()[i]).getNumberOfBits(); j++) {
 						if (PseudoRandom.randDouble() < probability) {
-							((Binary) solution.getDecisionVariables()[i]).bits_.flip(j);
+							((Binary) solution.getDecisionVariables()[i]).flip(j);
 						}
 					}
 				}
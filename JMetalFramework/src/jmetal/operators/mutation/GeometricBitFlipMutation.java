@@ -0,0 +1,132 @@
+//  GeometricBitFlipMutation.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.operators.mutation;
+
+import jmetal.core.Solution;
+import jmetal.core.Variable;
+import jmetal.encodings.solutionType.BinaryRealSolutionType;
+import jmetal.encodings.solutionType.BinarySolutionType;
+import jmetal.encodings.variable.Binary;
+import jmetal.encodings.variable.CompactBinary;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import mgpires.solutionType.ArrayBinarySolutionType;
+
+/**
+ * This class implements a bit flip mutation operator that draws the
+ * positions of the flipped bits instead of one random number per bit.
+ * The number of bits kept between two flips follows a geometric distribution
+ * with parameter equal to the mutation probability, so every bit flips
+ * independently with that probability, as in <code>BitFlipMutation</code>,
+ * but only about probability * numberOfBits random numbers are drawn.
+ * The flips of a 64-bit word are applied at once with a mask.
+ * Integer solutions get the same treatment: the positions of the mutated
+ * variables are drawn in the same way.
+ */
+public class GeometricBitFlipMutation extends BitFlipMutation {
+
+	/**
+	 * Constructor
+	 * Creates a new instance of the geometric Bit Flip mutation operator
+	 */
+	public GeometricBitFlipMutation(HashMap<String, Object> parameters) {
+		super(parameters) ;
+	} // GeometricBitFlipMutation
+
+	/**
+	 * Perform the mutation operation
+	 * @param probability Mutation probability
+	 * @param solution The solution to mutate
+	 * @throws JMException
+	 */
+	public void doMutation(double probability, Solution solution) throws JMException {
+		Variable[] variables = solution.getDecisionVariables() ;
+
+		if ((solution.getType().getClass() == BinarySolutionType.class) ||
+				(solution.getType().getClass() == BinaryRealSolutionType.class) ||
+				(solution.getType().getClass() == ArrayBinarySolutionType.class)) {
+			for (int i = 0; i < variables.length; i++) {
+				flipBits((Binary) variables[i], probability) ;
+				((Binary) variables[i]).decode() ;
+			}
+		} // if
+		else { // Integer representation
+			for (int i = nextFlip(-1, probability, variables.length); i < variables.length;
+					 i = nextFlip(i, probability, variables.length)) {
+				int value = PseudoRandom.randInt((int) variables[i].getLowerBound(),
+						                             (int) variables[i].getUpperBound()) ;
+				variables[i].setValue(value) ;
+			} // for
+		} // else
+	} // doMutation
+
+	/**
+	 * Flips the bits of a binary string, one word at a time
+	 * @param binary The binary string
+	 * @param probability Mutation probability
+	 */
+	private static void flipBits(Binary binary, double probability) {
+		int numberOfBits = binary.getNumberOfBits() ;
+		int bit = nextFlip(-1, probability, numberOfBits) ;
+		if (bit == numberOfBits)
+			return ;
+
+		if (binary instanceof CompactBinary) {
+			CompactBinary compact = (CompactBinary) binary ;
+			while (bit < numberOfBits) {
+				int word = bit >>> 6 ;
+				long mask = 0 ;
+				while ((bit < numberOfBits) && ((bit >>> 6) == word)) {
+					mask |= 1L << bit ;
+					bit = nextFlip(bit, probability, numberOfBits) ;
+				}
+				compact.xorWord(word, mask) ;
+			} // while
+		}
+		else {
+			long[] mask = new long[(numberOfBits + 63) >>> 6] ;
+			while (bit < numberOfBits) {
+				mask[bit >>> 6] |= 1L << bit ;
+				bit = nextFlip(bit, probability, numberOfBits) ;
+			}
+			binary.bits_.xor(BitSet.valueOf(mask)) ;
+		} // else
+	} // flipBits
+
+	/**
+	 * Returns the position of the next element to mutate
+	 * @param position The position of the last element mutated, -1 at the start
+	 * @param probability Mutation probability
+	 * @param length The number of elements
+	 * @return The position, or length if no other element is mutated
+	 */
+	static int nextFlip(int position, double probability, int length) {
+		if (probability <= 0.0)
+			return length ;
+		if (probability >= 1.0)
+			return position + 1 ;
+
+		// P(gap >= k) = P(u <= (1 - p)^k) = (1 - p)^k, with u uniform in (0, 1]
+		double u = 1.0 - PseudoRandom.randDouble() ;
+		double gap = Math.floor(Math.log(u) / Math.log1p(-probability)) ;
+		if (gap >= length - position - 1)
+			return length ;
+		return position + 1 + (int) gap ;
+	} // nextFlip
+} // GeometricBitFlipMutation
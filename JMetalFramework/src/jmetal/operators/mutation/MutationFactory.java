@@ -43,6 +43,8 @@ public class MutationFactory {
       return new PolynomialMutation(parameters);
     else if (name.equalsIgnoreCase("BitFlipMutation"))
       return new BitFlipMutation(parameters);
+    else if (name.equalsIgnoreCase("GeometricBitFlipMutation"))
+      return new GeometricBitFlipMutation(parameters);
     else if (name.equalsIgnoreCase("NonUniformMutation"))
       return new NonUniformMutation(parameters);
     else if (name.equalsIgnoreCase("SwapMutation"))
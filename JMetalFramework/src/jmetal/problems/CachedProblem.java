@@ -0,0 +1,191 @@
+//  CachedProblem.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.problems;
+
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.core.Variable;
+import jmetal.encodings.variable.ArrayInt;
+import jmetal.encodings.variable.ArrayReal;
+import jmetal.encodings.variable.Binary;
+import jmetal.encodings.variable.CompactBinary;
+import jmetal.encodings.variable.Permutation;
+import jmetal.util.FitnessCache;
+import jmetal.util.JMException;
+
+/**
+ * This class wraps a problem, keeping the objective values of the evaluated
+ * chromosomes in a <code>FitnessCache</code>. A chromosome that is evaluated
+ * again (for example, an offspring equal to one of its parents) takes the
+ * values from the cache instead of being evaluated by the problem.
+ * The problem must be deterministic. The constraints are not cached:
+ * <code>evaluateConstraints</code> always calls the problem.
+ * The variables supported are Binary (and its subclasses), Real, Int,
+ * ArrayReal, ArrayInt and Permutation.
+ */
+public class CachedProblem extends Problem {
+
+  private final Problem problem_ ;
+  private final FitnessCache cache_ ;
+
+  /**
+   * Constructor
+   * @param problem The problem to evaluate the chromosomes not in the cache
+   * @param capacity Maximum number of chromosomes kept in the cache
+   */
+  public CachedProblem(Problem problem, int capacity) {
+    this(problem, new FitnessCache(capacity)) ;
+  } // CachedProblem
+
+  /**
+   * Constructor
+   * @param problem The problem to evaluate the chromosomes not in the cache
+   * @param cache The cache. It may be shared by problems that compute the same values
+   */
+  public CachedProblem(Problem problem, FitnessCache cache) {
+    super(problem.getSolutionType()) ;
+    problem_ = problem ;
+    cache_ = cache ;
+
+    problemName_ = problem.getName() ;
+    numberOfVariables_ = problem.getNumberOfVariables() ;
+    numberOfObjectives_ = problem.getNumberOfObjectives() ;
+    numberOfConstraints_ = problem.getNumberOfConstraints() ;
+  } // CachedProblem
+
+  /**
+   * Evaluates a solution, taking its objective values from the cache when
+   * the same chromosome was evaluated before
+   * @param solution The solution to evaluate
+   * @throws JMException
+   */
+  public void evaluate(Solution solution) throws JMException {
+    long fingerprint = fingerprint(solution) ;
+    double [] objectives = cache_.get(fingerprint) ;
+
+    if (objectives == null) {
+      problem_.evaluate(solution) ;
+      objectives = new double[solution.getNumberOfObjectives()] ;
+      for (int i = 0; i < objectives.length; i++)
+        objectives[i] = solution.getObjective(i) ;
+      cache_.put(fingerprint, objectives) ;
+    }
+    else {
+      for (int i = 0; i < objectives.length; i++)
+        solution.setObjective(i, objectives[i]) ;
+    }
+  } // evaluate
+
+  /**
+   * Evaluates the constraints of a solution. They are not cached
+   * @param solution The solution
+   * @throws JMException
+   */
+  public void evaluateConstraints(Solution solution) throws JMException {
+    problem_.evaluateConstraints(solution) ;
+  } // evaluateConstraints
+
+  public double getLowerLimit(int i) {
+    return problem_.getLowerLimit(i) ;
+  } // getLowerLimit
+
+  public double getUpperLimit(int i) {
+    return problem_.getUpperLimit(i) ;
+  } // getUpperLimit
+
+  public int getPrecision(int var) {
+    return problem_.getPrecision(var) ;
+  } // getPrecision
+
+  public int [] getPrecision() {
+    return problem_.getPrecision() ;
+  } // getPrecision
+
+  public int getLength(int var) {
+    return problem_.getLength(var) ;
+  } // getLength
+
+  public int getNumberOfBits() {
+    return problem_.getNumberOfBits() ;
+  } // getNumberOfBits
+
+  /**
+   * @return The problem wrapped by this one
+   */
+  public Problem getProblem() {
+    return problem_ ;
+  } // getProblem
+
+  /**
+   * @return The cache, with the counters of hits and misses
+   */
+  public FitnessCache getCache() {
+    return cache_ ;
+  } // getCache
+
+  /**
+   * Computes the fingerprint of the decision variables of a solution
+   * @param solution The solution
+   * @return The fingerprint
+   * @throws JMException If the type of one variable is not supported
+   */
+  public static long fingerprint(Solution solution) throws JMException {
+    Variable [] variables = solution.getDecisionVariables() ;
+    long h = FitnessCache.SEED ;
+
+    for (Variable variable : variables) {
+      if (variable instanceof CompactBinary) {
+        CompactBinary binary = (CompactBinary) variable ;
+        for (int i = 0; i < binary.getNumberOfWords(); i++)
+          h = FitnessCache.combine(h, binary.getWord(i)) ;
+        h = FitnessCache.combine(h, binary.getNumberOfBits()) ;
+      }
+      else if (variable instanceof Binary) {
+        Binary binary = (Binary) variable ;
+        // the same words of a CompactBinary with the same bits
+        long [] words = binary.bits_.toLongArray() ;
+        int numberOfWords = (binary.getNumberOfBits() + 63) >>> 6 ;
+        for (int i = 0; i < numberOfWords; i++)
+          h = FitnessCache.combine(h, (i < words.length) ? words[i] : 0L) ;
+        h = FitnessCache.combine(h, binary.getNumberOfBits()) ;
+      }
+      else if (variable instanceof ArrayReal) {
+        ArrayReal array = (ArrayReal) variable ;
+        for (int i = 0; i < array.getLength(); i++)
+          h = FitnessCache.combine(h, Double.doubleToLongBits(array.getValue(i))) ;
+        h = FitnessCache.combine(h, array.getLength()) ;
+      }
+      else if (variable instanceof ArrayInt) {
+        ArrayInt array = (ArrayInt) variable ;
+        for (int i = 0; i < array.getLength(); i++)
+          h = FitnessCache.combine(h, array.getValue(i)) ;
+        h = FitnessCache.combine(h, array.getLength()) ;
+      }
+      else if (variable instanceof Permutation) {
+        Permutation permutation = (Permutation) variable ;
+        for (int i = 0; i < permutation.getLength(); i++)
+          h = FitnessCache.combine(h, permutation.vector_[i]) ;
+        h = FitnessCache.combine(h, permutation.getLength()) ;
+      }
+      else {
+        // Real and Int; the other variables throw a JMException
+        h = FitnessCache.combine(h, Double.doubleToLongBits(variable.getValue())) ;
+      }
+    } // for
+
+    return h ;
+  } // fingerprint
+} // CachedProblem
@@ -48,6 +48,17 @@ public class Distance {
   public double [][] distanceMatrix(SolutionSet solutionSet) {
     Solution solutionI, solutionJ;
 
+    if (DistanceKernel.ENABLED && solutionSet.size() > 0) {
+      int numberOfObjectives = solutionSet.get(0).getNumberOfObjectives();
+      //-> Store the objectives by dimension and compute the matrix by tiles
+      double [][] objectives = new double[numberOfObjectives][solutionSet.size()];
+      for (int i = 0; i < solutionSet.size(); i++)
+        for (int nObj = 0; nObj < numberOfObjectives; nObj++)
+          objectives[nObj][i] = solutionSet.get(i).getObjective(nObj);
+
+      return DistanceKernel.symmetric(objectives, numberOfObjectives, solutionSet.size());
+    } // if
+
     //The matrix of distances
     double [][] distance = new double [solutionSet.size()][solutionSet.size()];
     //-> Calculate the distances
@@ -0,0 +1,173 @@
+//  DistanceKernel.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util;
+
+/**
+ * This class computes matrices of euclidean distances among points stored by
+ * dimension: points[d][i] is the coordinate d of the point i, so the
+ * coordinates of one dimension are contiguous in memory.
+ * The matrix is computed by tiles of BLOCK_ROWS x BLOCK_COLUMNS cells. For
+ * each cell of a row the same dimension of many points is read in sequence,
+ * which is a loop the JIT compiler can vectorise, and the coordinates read
+ * for a tile are reused by all the rows of the tile while they are in cache.
+ * The squared differences are added in the order of the dimensions, so the
+ * distances are exactly the ones computed point by point.
+ * The callers compute the distances point by point unless the system
+ * property <code>jmetal.distanceKernel=blocked</code> is set, which makes
+ * them use the kernel. The results of both are in
+ * benchmarks/RESULTS.md.
+ */
+public class DistanceKernel {
+
+  /**
+   * Number of rows of a tile
+   */
+  public static final int BLOCK_ROWS = 16 ;
+
+  /**
+   * Number of columns of a tile
+   */
+  public static final int BLOCK_COLUMNS = 256 ;
+
+  /**
+   * True when the system property jmetal.distanceKernel is "blocked"
+   */
+  public static final boolean ENABLED =
+    "blocked".equals(System.getProperty("jmetal.distanceKernel")) ;
+
+  private DistanceKernel() {
+    //do nothing.
+  } // DistanceKernel
+
+  /**
+   * Computes the distances among the points of a set. Only the cells above
+   * the diagonal (j > i) are filled, the others are left as zero.
+   * @param points The points, stored by dimension
+   * @param dimensions The number of dimensions
+   * @param size The number of points
+   * @return A size x size matrix with distance[i][j] for j > i
+   */
+  public static double[][] upperTriangle(double[][] points, int dimensions, int size) {
+    double[][] distance = new double[size][size] ;
+
+    for (int rowStart = 0; rowStart < size; rowStart += BLOCK_ROWS) {
+      int rowEnd = Math.min(rowStart + BLOCK_ROWS, size) ;
+      // the columns before rowStart + 1 are below the diagonal for every row of the block
+      for (int columnStart = rowStart + 1; columnStart < size; columnStart += BLOCK_COLUMNS) {
+        int columnEnd = Math.min(columnStart + BLOCK_COLUMNS, size) ;
+        for (int i = rowStart; i < rowEnd; i++) {
+          int from = Math.max(columnStart, i + 1) ;
+          if (from < columnEnd)
+            accumulate(points, i, points, dimensions, from, columnEnd, distance[i]) ;
+        } // for
+      } // for
+      for (int i = rowStart; i < rowEnd; i++)
+        squareRoot(distance[i], i + 1, size) ;
+    } // for
+
+    return distance ;
+  } // upperTriangle
+
+  /**
+   * Computes the distances among the points of a set. The matrix is full:
+   * distance[i][j] == distance[j][i] and the diagonal is zero.
+   * @param points The points, stored by dimension
+   * @param dimensions The number of dimensions
+   * @param size The number of points
+   * @return A size x size matrix of distances
+   */
+  public static double[][] symmetric(double[][] points, int dimensions, int size) {
+    double[][] distance = upperTriangle(points, dimensions, size) ;
+
+    for (int i = 0; i < size; i++)
+      for (int j = i + 1; j < size; j++)
+        distance[j][i] = distance[i][j] ;
+
+    return distance ;
+  } // symmetric
+
+  /**
+   * Computes the distances from each point of one set to each point of another
+   * @param rows The points of the first set, stored by dimension
+   * @param numberOfRows The number of points of the first set
+   * @param columns The points of the second set, stored by dimension
+   * @param numberOfColumns The number of points of the second set
+   * @param dimensions The number of dimensions
+   * @return A numberOfRows x numberOfColumns matrix where distance[i][j] is
+   * the distance from the point i of the first set to the point j of the second
+   */
+  public static double[][] cross(double[][] rows, int numberOfRows,
+                                 double[][] columns, int numberOfColumns,
+                                 int dimensions) {
+    double[][] distance = new double[numberOfRows][numberOfColumns] ;
+
+    for (int rowStart = 0; rowStart < numberOfRows; rowStart += BLOCK_ROWS) {
+      int rowEnd = Math.min(rowStart + BLOCK_ROWS, numberOfRows) ;
+      for (int columnStart = 0; columnStart < numberOfColumns; columnStart += BLOCK_COLUMNS) {
+        int columnEnd = Math.min(columnStart + BLOCK_COLUMNS, numberOfColumns) ;
+        for (int i = rowStart; i < rowEnd; i++)
+          accumulate(rows, i, columns, dimensions, columnStart, columnEnd, distance[i]) ;
+      } // for
+      for (int i = rowStart; i < rowEnd; i++)
+        squareRoot(distance[i], 0, numberOfColumns) ;
+    } // for
+
+    return distance ;
+  } // cross
+
+  /**
+   * Copies some points of a set, keeping them stored by dimension
+   * @param points The points, stored by dimension
+   * @param dimensions The number of dimensions
+   * @param selected The indexes of the points to copy, in the order of the copy
+   * @param numberOfSelected The number of indexes used from selected
+   * @return The selected points, stored by dimension
+   */
+  public static double[][] gather(double[][] points, int dimensions,
+                                  int[] selected, int numberOfSelected) {
+    double[][] result = new double[dimensions][numberOfSelected] ;
+
+    for (int d = 0; d < dimensions; d++) {
+      double[] source = points[d] ;
+      double[] target = result[d] ;
+      for (int j = 0; j < numberOfSelected; j++)
+        target[j] = source[selected[j]] ;
+    } // for
+
+    return result ;
+  } // gather
+
+  /**
+   * Adds to row[from..to) the squared differences between the point i of
+   * rows and the points from..to of columns, one dimension at a time
+   */
+  private static void accumulate(double[][] rows, int i, double[][] columns,
+                                 int dimensions, int from, int to, double[] row) {
+    for (int d = 0; d < dimensions; d++) {
+      double x = rows[d][i] ;
+      double[] column = columns[d] ;
+      for (int j = from; j < to; j++) {
+        double diff = column[j] - x ;
+        row[j] += diff * diff ;
+      } // for
+    } // for
+  } // accumulate
+
+  private static void squareRoot(double[] row, int from, int to) {
+    for (int j = from; j < to; j++)
+      row[j] = Math.sqrt(row[j]) ;
+  } // squareRoot
+} // DistanceKernel
@@ -0,0 +1,352 @@
+//  DominanceSort.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util;
+
+import java.util.Arrays;
+
+/**
+ * This class computes the non-dominated fronts of a set of points
+ * (minimization) on primitive arrays, giving the same fronts as the pairwise
+ * comparisons of <code>Ranking</code>.
+ * The points are sorted lexicographically, so a point can only be dominated
+ * by the points before it, and each point is placed with a binary search on
+ * the fronts found so far (Efficient Non-dominated Sort, binary search
+ * version): if a front dominates the point, all the fronts before it do too.
+ * With two objectives the last point added to a front is the only one that
+ * must be checked, and the sort is O(N log N). With more objectives every
+ * point of a front may be checked, O(M N^2) in the worst case but usually
+ * much less.
+ * Setting the system property <code>jmetal.ranking=pairwise</code> makes
+ * <code>Ranking</code> go back to the pairwise comparisons.
+ */
+public class DominanceSort {
+
+  /**
+   * True unless the system property jmetal.ranking is "pairwise"
+   */
+  public static final boolean ENABLED =
+    !"pairwise".equals(System.getProperty("jmetal.ranking")) ;
+
+  private DominanceSort() {
+    //do nothing.
+  } // DominanceSort
+
+  /**
+   * Computes the front of every point
+   * @param objectives The points: objectives[i][m] is the objective m of the
+   * point i. All the points must have numberOfObjectives values
+   * @param numberOfObjectives The number of objectives
+   * @return The front of each point, from 0 (the non-dominated points)
+   */
+  public static int[] sort(double[][] objectives, int numberOfObjectives) {
+    int size = objectives.length ;
+    int[] order = new int[size] ;
+    for (int i = 0; i < size; i++)
+      order[i] = i ;
+    mergeSort(order, new int[size], 0, size, objectives, numberOfObjectives) ;
+
+    if (numberOfObjectives == 2)
+      return sortTwoObjectives(objectives, order) ;
+    return sortObjectives(objectives, order, numberOfObjectives) ;
+  } // sort
+
+  /**
+   * @param ranks The fronts returned by sort
+   * @return The number of fronts
+   */
+  public static int numberOfFronts(int[] ranks) {
+    int fronts = 0 ;
+    for (int rank : ranks)
+      fronts = Math.max(fronts, rank + 1) ;
+    return fronts ;
+  } // numberOfFronts
+
+  /**
+   * Lists the points of every front in the order of the pairwise comparisons
+   * of <code>Ranking</code>: the first front in the order of the points, and
+   * every other front by the position, in the front before it, of the last
+   * point that dominates each of its points, then in the order of the points
+   * @param objectives The points, as in sort
+   * @param numberOfObjectives The number of objectives
+   * @param rank The fronts returned by sort
+   * @return The points of each front: fronts[f][k] is the k-th point of the
+   * front f
+   */
+  public static int[][] fronts(double[][] objectives, int numberOfObjectives, int[] rank) {
+    int size = objectives.length ;
+    int numberOfFronts = numberOfFronts(rank) ;
+
+    int[][] fronts = new int[numberOfFronts][] ;
+    int[] frontSize = new int[numberOfFronts] ;
+    for (int p = 0; p < size; p++)
+      frontSize[rank[p]]++ ;
+    for (int f = 0; f < numberOfFronts; f++)
+      fronts[f] = new int[frontSize[f]] ;
+    Arrays.fill(frontSize, 0) ;
+    for (int p = 0; p < size; p++)
+      fronts[rank[p]][frontSize[rank[p]]++] = p ;
+    if (numberOfFronts == 0)
+      return fronts ;
+
+    // position[p] is the position of the point p in its front
+    int[] position = new int[size] ;
+    for (int k = 0; k < fronts[0].length; k++)
+      position[fronts[0][k]] = k ;
+
+    for (int f = 1; f < numberOfFronts; f++) {
+      int[] previous = fronts[f - 1] ;
+      int[] front = fronts[f] ;
+      int[] last = (numberOfObjectives == 2)
+        ? lastDominatorsTwoObjectives(objectives, previous, position, front)
+        : lastDominators(objectives, previous, front, numberOfObjectives) ;
+
+      // counting sort by the last dominator, stable, so the ties keep the
+      // order of the points
+      int[] start = new int[previous.length + 1] ;
+      for (int k = 0; k < front.length; k++)
+        start[last[k] + 1]++ ;
+      for (int k = 0; k < previous.length; k++)
+        start[k + 1] += start[k] ;
+      int[] sorted = new int[front.length] ;
+      for (int k = 0; k < front.length; k++)
+        sorted[start[last[k]]++] = front[k] ;
+
+      fronts[f] = sorted ;
+      for (int k = 0; k < sorted.length; k++)
+        position[sorted[k]] = k ;
+    } // for
+
+    return fronts ;
+  } // fronts
+
+  /**
+   * Any number of objectives: the front before is checked from its last
+   * point
+   */
+  private static int[] lastDominators(double[][] objectives, int[] previous, int[] front,
+                                      int numberOfObjectives) {
+    int[] last = new int[front.length] ;
+    for (int k = 0; k < front.length; k++) {
+      int dominator = previous.length - 1 ;
+      while (!dominates(objectives[previous[dominator]], objectives[front[k]], numberOfObjectives))
+        dominator-- ;
+      last[k] = dominator ;
+    } // for
+    return last ;
+  } // lastDominators
+
+  /**
+   * Two objectives: in lexicographic order, the points of the front before
+   * that dominate a point are the ones with a first objective not greater
+   * and a second objective not greater, a range found with two binary
+   * searches. The last of them is the maximum position in the range, read
+   * from a sparse table
+   */
+  private static int[] lastDominatorsTwoObjectives(double[][] objectives, int[] previous,
+                                                   int[] position, int[] front) {
+    int size = previous.length ;
+    int[] sorted = previous.clone() ;
+    mergeSort(sorted, new int[size], 0, size, objectives, 2) ;
+
+    // table[j][i] is the maximum position of the points sorted[i .. i + 2^j - 1]
+    int levels = 32 - Integer.numberOfLeadingZeros(size) ;
+    int[][] table = new int[levels][] ;
+    table[0] = new int[size] ;
+    for (int i = 0; i < size; i++)
+      table[0][i] = position[sorted[i]] ;
+    for (int j = 1; j < levels; j++) {
+      int width = 1 << (j - 1) ;
+      table[j] = new int[size - 2 * width + 1] ;
+      for (int i = 0; i < table[j].length; i++)
+        table[j][i] = Math.max(table[j - 1][i], table[j - 1][i + width]) ;
+    } // for
+
+    int[] last = new int[front.length] ;
+    for (int k = 0; k < front.length; k++) {
+      double first = objectives[front[k]][0] ;
+      double second = objectives[front[k]][1] ;
+
+      // the first point with a second objective not greater
+      int low = 0 ;
+      int high = size ;
+      while (low < high) {
+        int middle = (low + high) >>> 1 ;
+        if (objectives[sorted[middle]][1] > second)
+          low = middle + 1 ;
+        else
+          high = middle ;
+      } // while
+      int from = low ;
+
+      // the first point with a greater first objective
+      high = size ;
+      while (low < high) {
+        int middle = (low + high) >>> 1 ;
+        if (objectives[sorted[middle]][0] <= first)
+          low = middle + 1 ;
+        else
+          high = middle ;
+      } // while
+      int to = low - 1 ;
+
+      int j = 31 - Integer.numberOfLeadingZeros(to - from + 1) ;
+      last[k] = Math.max(table[j][from], table[j][to - (1 << j) + 1]) ;
+    } // for
+    return last ;
+  } // lastDominatorsTwoObjectives
+
+  private static boolean dominates(double[] a, double[] b, int numberOfObjectives) {
+    boolean better = false ;
+    for (int m = 0; m < numberOfObjectives; m++) {
+      if (a[m] > b[m])
+        return false ;
+      if (a[m] < b[m])
+        better = true ;
+    } // for
+    return better ;
+  } // dominates
+
+  /**
+   * Two objectives: in lexicographic order, the points of a front have
+   * decreasing second objectives, so the last point of a front dominates a
+   * new point if any point of the front does
+   */
+  private static int[] sortTwoObjectives(double[][] objectives, int[] order) {
+    int[] rank = new int[objectives.length] ;
+    double[] lastFirst = new double[objectives.length] ;
+    double[] lastSecond = new double[objectives.length] ;
+    int fronts = 0 ;
+
+    for (int point : order) {
+      double first = objectives[point][0] ;
+      double second = objectives[point][1] ;
+
+      // the first front whose last point does not dominate this one. The last
+      // point precedes this one, so its first objective is not greater
+      int low = 0 ;
+      int high = fronts ;
+      while (low < high) {
+        int middle = (low + high) >>> 1 ;
+        if ((lastSecond[middle] < second) ||
+            ((lastSecond[middle] == second) && (lastFirst[middle] < first)))
+          low = middle + 1 ;
+        else
+          high = middle ;
+      } // while
+
+      rank[point] = low ;
+      lastFirst[low] = first ;
+      lastSecond[low] = second ;
+      if (low == fronts)
+        fronts++ ;
+    } // for
+
+    return rank ;
+  } // sortTwoObjectives
+
+  /**
+   * Any number of objectives: the points of a front are checked from the
+   * last one, which is the most likely to dominate the new point
+   */
+  private static int[] sortObjectives(double[][] objectives, int[] order, int numberOfObjectives) {
+    int size = objectives.length ;
+    int[] rank = new int[size] ;
+    int[][] front = new int[size][] ;
+    int[] frontSize = new int[size] ;
+    int fronts = 0 ;
+
+    for (int point : order) {
+      int low = 0 ;
+      int high = fronts ;
+      while (low < high) {
+        int middle = (low + high) >>> 1 ;
+        if (isDominatedByFront(objectives, front[middle], frontSize[middle], point, numberOfObjectives))
+          low = middle + 1 ;
+        else
+          high = middle ;
+      } // while
+
+      if (low == fronts) {
+        front[fronts] = new int[8] ;
+        fronts++ ;
+      }
+      if (frontSize[low] == front[low].length)
+        front[low] = Arrays.copyOf(front[low], 2 * front[low].length) ;
+      front[low][frontSize[low]++] = point ;
+      rank[point] = low ;
+    } // for
+
+    return rank ;
+  } // sortObjectives
+
+  private static boolean isDominatedByFront(double[][] objectives, int[] front, int size,
+                                            int point, int numberOfObjectives) {
+    double[] candidate = objectives[point] ;
+    for (int k = size - 1; k >= 0; k--) {
+      double[] member = objectives[front[k]] ;
+      // the member precedes the candidate, so it can't be dominated by it
+      boolean better = false ;
+      boolean worse = false ;
+      for (int m = 0; (m < numberOfObjectives) && !worse; m++) {
+        if (member[m] < candidate[m])
+          better = true ;
+        else if (member[m] > candidate[m])
+          worse = true ;
+      } // for
+      if (better && !worse)
+        return true ;
+    } // for
+    return false ;
+  } // isDominatedByFront
+
+  /**
+   * Sorts the indexes of the points lexicographically by their objectives
+   */
+  private static void mergeSort(int[] order, int[] buffer, int from, int to,
+                                double[][] objectives, int numberOfObjectives) {
+    if (to - from < 2)
+      return ;
+
+    int middle = (from + to) >>> 1 ;
+    mergeSort(order, buffer, from, middle, objectives, numberOfObjectives) ;
+    mergeSort(order, buffer, middle, to, objectives, numberOfObjectives) ;
+
+    if (compare(objectives[order[middle - 1]], objectives[order[middle]], numberOfObjectives) <= 0)
+      return ;
+
+    System.arraycopy(order, from, buffer, from, to - from) ;
+    int left = from ;
+    int right = middle ;
+    for (int k = from; k < to; k++) {
+      if ((right >= to) ||
+          ((left < middle) &&
+           (compare(objectives[buffer[left]], objectives[buffer[right]], numberOfObjectives) <= 0)))
+        order[k] = buffer[left++] ;
+      else
+        order[k] = buffer[right++] ;
+    } // for
+  } // mergeSort
+
+  private static int compare(double[] a, double[] b, int numberOfObjectives) {
+    for (int m = 0; m < numberOfObjectives; m++) {
+      if (a[m] < b[m])
+        return -1 ;
+      if (a[m] > b[m])
+        return 1 ;
+    } // for
+    return 0 ;
+  } // compare
+} // DominanceSort
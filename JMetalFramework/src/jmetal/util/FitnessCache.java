@@ -0,0 +1,195 @@
+//  FitnessCache.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class stores the objective values of the last evaluated chromosomes,
+ * keyed by a 64-bit fingerprint of the chromosome (see <code>combine</code>).
+ * The cache is bounded: when it is full, the least recently used entry is
+ * removed. The entries are split in SEGMENTS segments by the fingerprint,
+ * each one with its own lock, so it can be used by parallel evaluators.
+ * Two different chromosomes with the same fingerprint would share the same
+ * values; with 64-bit fingerprints this is negligible for the number of
+ * chromosomes evaluated by a run.
+ */
+public class FitnessCache {
+
+  /**
+   * Number of segments (a power of two)
+   */
+  public static final int SEGMENTS = 16 ;
+
+  /**
+   * Initial value of a fingerprint
+   */
+  public static final long SEED = 0x2545F4914F6CDD1DL ;
+
+  private final Segment [] segments_ ;
+  private final int capacity_ ;
+  private final LongAdder hits_ ;
+  private final LongAdder misses_ ;
+
+  /**
+   * Constructor
+   * @param capacity Maximum number of chromosomes kept in the cache
+   */
+  public FitnessCache(int capacity) {
+    if (capacity < 1)
+      throw new IllegalArgumentException("FitnessCache: invalid capacity " + capacity) ;
+
+    capacity_ = capacity ;
+    segments_ = new Segment[SEGMENTS] ;
+    int segmentCapacity = Math.max(1, (capacity + SEGMENTS - 1) / SEGMENTS) ;
+    for (int i = 0; i < SEGMENTS; i++)
+      segments_[i] = new Segment(segmentCapacity) ;
+
+    hits_ = new LongAdder() ;
+    misses_ = new LongAdder() ;
+  } // FitnessCache
+
+  /**
+   * Returns the values stored for a chromosome and marks it as recently used
+   * @param fingerprint The fingerprint of the chromosome
+   * @return The values, or null if the chromosome is not in the cache. The
+   * array must not be modified
+   */
+  public double [] get(long fingerprint) {
+    Segment segment = segmentOf(fingerprint) ;
+    double [] values ;
+    synchronized (segment) {
+      values = segment.get(fingerprint) ;
+    }
+
+    if (values == null)
+      misses_.increment() ;
+    else
+      hits_.increment() ;
+    return values ;
+  } // get
+
+  /**
+   * Stores the values of a chromosome, removing the least recently used one
+   * of its segment if the segment is full
+   * @param fingerprint The fingerprint of the chromosome
+   * @param values The values. The array is kept by the cache, so it must not
+   * be modified after this call
+   */
+  public void put(long fingerprint, double [] values) {
+    Segment segment = segmentOf(fingerprint) ;
+    synchronized (segment) {
+      segment.put(fingerprint, values) ;
+    }
+  } // put
+
+  /**
+   * Removes all the entries. The counters are not reset
+   */
+  public void clear() {
+    for (Segment segment : segments_) {
+      synchronized (segment) {
+        segment.clear() ;
+      }
+    } // for
+  } // clear
+
+  /**
+   * @return The number of chromosomes in the cache
+   */
+  public int size() {
+    int size = 0 ;
+    for (Segment segment : segments_) {
+      synchronized (segment) {
+        size += segment.size() ;
+      }
+    } // for
+    return size ;
+  } // size
+
+  /**
+   * @return The maximum number of chromosomes in the cache
+   */
+  public int getCapacity() {
+    return capacity_ ;
+  } // getCapacity
+
+  /**
+   * @return The number of lookups that found the chromosome
+   */
+  public long getHits() {
+    return hits_.sum() ;
+  } // getHits
+
+  /**
+   * @return The number of lookups that did not find the chromosome
+   */
+  public long getMisses() {
+    return misses_.sum() ;
+  } // getMisses
+
+  /**
+   * @return The fraction of lookups that found the chromosome
+   */
+  public double getHitRate() {
+    long hits = getHits() ;
+    long lookups = hits + getMisses() ;
+    return (lookups == 0) ? 0.0 : (double) hits / lookups ;
+  } // getHitRate
+
+  /**
+   * Adds one value to a fingerprint. A fingerprint starts as SEED and
+   * receives, in order, every value that identifies the chromosome
+   * (the words of a binary string, the bits of a double, ...)
+   * @param fingerprint The fingerprint computed so far
+   * @param value The next value
+   * @return The new fingerprint
+   */
+  public static long combine(long fingerprint, long value) {
+    long h = fingerprint * 0x9E3779B97F4A7C15L + value ;
+    // finalizer of MurmurHash3, so that every bit of the value changes half of the bits of the result
+    h ^= h >>> 33 ;
+    h *= 0xFF51AFD7ED558CCDL ;
+    h ^= h >>> 33 ;
+    h *= 0xC4CEB9FE1A85EC53L ;
+    h ^= h >>> 33 ;
+    return h ;
+  } // combine
+
+  private Segment segmentOf(long fingerprint) {
+    // the low bits of the fingerprint are used by the hash tables of the segments
+    return segments_[(int) (fingerprint >>> 60) & (SEGMENTS - 1)] ;
+  } // segmentOf
+
+  /**
+   * A LinkedHashMap in access order that removes its eldest entry when full
+   */
+  private static class Segment extends LinkedHashMap<Long, double []> {
+    private final int capacity_ ;
+
+    Segment(int capacity) {
+      super(16, 0.75f, true) ;
+      capacity_ = capacity ;
+    } // Segment
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Long, double []> eldest) {
+      return size() > capacity_ ;
+    } // removeEldestEntry
+  } // Segment
+} // FitnessCache
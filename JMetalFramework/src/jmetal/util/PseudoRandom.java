@@ -21,8 +21,16 @@
 
 package jmetal.util;
 
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
- * Class representing a pseudo-random number generator
+ * Class representing a pseudo-random number generator.
+ * A thread can have its own generator (see setThreadGenerator and
+ * setThreadSeed), which it uses without any lock. The threads without one
+ * share a single generator, and the calls to it are counted, as well as the
+ * ones that had to wait for another thread (getSharedCalls and
+ * getContendedCalls).
  */
 public class PseudoRandom  {
     
@@ -31,6 +39,15 @@ public class PseudoRandom  {
    */
   private static IRandomGenerator random_ = null;
   private static RandomGenerator defaultGenerator_ = new RandomGenerator() ;
+
+  /**
+   * generator of each thread, null for the threads that use random_
+   */
+  private static final ThreadLocal<IRandomGenerator> threadGenerator_ = new ThreadLocal<IRandomGenerator>() ;
+
+  private static final ReentrantLock sharedLock_ = new ReentrantLock() ;
+  private static final LongAdder sharedCalls_ = new LongAdder() ;
+  private static final LongAdder contendedCalls_ = new LongAdder() ;
                
   /** 
    * Constructor.
@@ -46,16 +63,64 @@ public class PseudoRandom  {
   public static void setRandomGenerator(IRandomGenerator generator) {
   	random_ = generator ;
   }
+
+  /**
+   * Sets the generator of the current thread. It is used only by this thread,
+   * without locks, until removeThreadGenerator is called
+   * @param generator The generator, or null to use the shared one
+   */
+  public static void setThreadGenerator(IRandomGenerator generator) {
+    if (generator == null)
+      threadGenerator_.remove() ;
+    else
+      threadGenerator_.set(generator) ;
+  } // setThreadGenerator
+
+  /**
+   * Gives the current thread its own stream, so that the numbers it gets
+   * depend only on the seed and not on the other threads
+   * @param seed The seed of the stream
+   */
+  public static void setThreadSeed(long seed) {
+    threadGenerator_.set(new RandomStream(seed)) ;
+  } // setThreadSeed
+
+  /**
+   * Makes the current thread go back to the shared generator
+   */
+  public static void removeThreadGenerator() {
+    threadGenerator_.remove() ;
+  } // removeThreadGenerator
+
+  /**
+   * @return The number of values taken from the shared generator
+   */
+  public static long getSharedCalls() {
+    return sharedCalls_.sum() ;
+  } // getSharedCalls
+
+  /**
+   * @return The number of values taken from the shared generator that had to
+   * wait for another thread using it
+   */
+  public static long getContendedCalls() {
+    return contendedCalls_.sum() ;
+  } // getContendedCalls
+
+  /**
+   * Sets the counters of the shared generator to zero
+   */
+  public static void resetCounters() {
+    sharedCalls_.reset() ;
+    contendedCalls_.reset() ;
+  } // resetCounters
   
   /** 
    * Returns a random int value using the Java random generator.
    * @return A random int value.
    */
   public static int randInt() {
-    if (random_ == null) {
-      random_ = defaultGenerator_ ;
-    }
-    return random_.nextInt(Integer.MAX_VALUE);
+    return nextInt(Integer.MAX_VALUE);
   } // randInt
     
   /** 
@@ -63,11 +128,8 @@ public class PseudoRandom  {
    * Returns A random double value.
    */
   public static double randDouble() {
-    if (random_ == null) {
-      random_ = defaultGenerator_ ;
-    }
     //return random_.rndReal(0.0,1.0);
-    return random_.nextDouble();
+    return nextDouble();
     //return randomJava.nextDouble();
   } // randDouble
     
@@ -79,10 +141,7 @@ public class PseudoRandom  {
    * Return A pseudo random int value between minBound and maxBound.
    */
   public static int randInt(int minBound, int maxBound) {
-    if (random_ == null) {
-      random_ = defaultGenerator_ ;
-    }
-    return minBound + random_.nextInt(maxBound-minBound);
+    return minBound + nextInt(maxBound-minBound);
     //return minBound + randomJava.nextInt(maxBound-minBound+1);
   } // randInt
     
@@ -93,10 +152,53 @@ public class PseudoRandom  {
    * @return A pseudo random double value between minBound and maxBound
    */
   public static double randDouble(double minBound, double maxBound) {
+    return minBound + nextDouble() * (maxBound-minBound);
+    //return minBound + (maxBound - minBound)*randomJava.nextDouble();
+  } // randDouble    
+
+  private static int nextInt(int upperBound) {
+    IRandomGenerator generator = threadGenerator_.get() ;
+    if (generator != null)
+      return generator.nextInt(upperBound) ;
+
+    lockShared() ;
+    try {
+      return sharedGenerator().nextInt(upperBound) ;
+    } finally {
+      sharedLock_.unlock() ;
+    }
+  } // nextInt
+
+  private static double nextDouble() {
+    IRandomGenerator generator = threadGenerator_.get() ;
+    if (generator != null)
+      return generator.nextDouble() ;
+
+    lockShared() ;
+    try {
+      return sharedGenerator().nextDouble() ;
+    } finally {
+      sharedLock_.unlock() ;
+    }
+  } // nextDouble
+
+  /**
+   * Takes the lock of the shared generator, counting the call and whether it
+   * had to wait. The lock also serialises generators set with
+   * setRandomGenerator that are not synchronized
+   */
+  private static void lockShared() {
+    sharedCalls_.increment() ;
+    if (!sharedLock_.tryLock()) {
+      contendedCalls_.increment() ;
+      sharedLock_.lock() ;
+    }
+  } // lockShared
+
+  private static IRandomGenerator sharedGenerator() {
     if (random_ == null) {
       random_ = defaultGenerator_ ;
     }
-    return minBound + random_.nextDouble() * (maxBound-minBound);
-    //return minBound + (maxBound - minBound)*randomJava.nextDouble();
-  } // randDouble    
+    return random_ ;
+  } // sharedGenerator
 } // PseudoRandom
@@ -0,0 +1,93 @@
+//  RandomStream.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util;
+
+/**
+ * This class implements a stream of random numbers for a single thread,
+ * backed by a <code>MersenneTwisterFast</code>. It is not synchronized, so it
+ * must be used only by the thread that owns it (see
+ * <code>PseudoRandom.setThreadGenerator</code>).
+ * A stream is identified by its seed and can be split in independent
+ * streams: split(i) always returns the same stream for the same i, so the
+ * numbers of a fold or a run do not depend on the thread that runs it.
+ * nextInt(upperBound) includes the bound, as in <code>RandomGenerator</code>,
+ * so <code>PseudoRandom</code> returns the same ranges with both generators.
+ */
+public class RandomStream implements IRandomGenerator {
+
+  private final long seed_ ;
+  private final MersenneTwisterFast generator_ ;
+
+  /**
+   * Constructor
+   * @param seed The seed of the stream
+   */
+  public RandomStream(long seed) {
+    seed_ = seed ;
+    generator_ = new MersenneTwisterFast(seed) ;
+  } // RandomStream
+
+  /**
+   * Returns a stream derived from this one. The streams returned for
+   * different ids are independent, and the same id returns the same stream
+   * @param id The id of the stream, for example the index of a fold or a run
+   * @return The derived stream
+   */
+  public RandomStream split(long id) {
+    return new RandomStream(mix(seed_, id)) ;
+  } // split
+
+  /**
+   * @return The seed of the stream
+   */
+  public long getSeed() {
+    return seed_ ;
+  } // getSeed
+
+  /**
+   * Returns a random int between 0 and upperBound, both included
+   * @param upperBound The upper bound
+   * @return The value; 0 when upperBound is not positive
+   */
+  public int nextInt(int upperBound) {
+    if (upperBound <= 0)
+      return 0 ;
+    if (upperBound == Integer.MAX_VALUE)
+      return generator_.nextInt() & Integer.MAX_VALUE ;
+    return generator_.nextInt(upperBound + 1) ;
+  } // nextInt
+
+  /**
+   * @return A random double in [0, 1)
+   */
+  public double nextDouble() {
+    return generator_.nextDouble() ;
+  } // nextDouble
+
+  /**
+   * Computes the seed of a derived stream with the SplitMix64 finalizer, so
+   * that close ids (fold 1, fold 2, ...) give unrelated seeds
+   * @param seed The seed of the parent stream
+   * @param id The id of the derived stream
+   * @return The seed of the derived stream
+   */
+  public static long mix(long seed, long id) {
+    long z = seed + (id + 1) * 0x9E3779B97F4A7C15L ;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L ;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL ;
+    return z ^ (z >>> 31) ;
+  } // mix
+} // RandomStream
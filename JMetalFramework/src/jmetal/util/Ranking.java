@@ -69,6 +69,12 @@ public class Ranking {
   public Ranking(SolutionSet solutionSet) {        
     solutionSet_ = solutionSet ;
 
+    // Without constraint violations the fronts depend only on the objectives
+    if (DominanceSort.ENABLED && !hasConstraintViolations(solutionSet)) {
+      sortByObjectives() ;
+      return ;
+    }
+
     // dominateMe[i] contains the number of solutions dominating i        
     int [] dominateMe = new int[solutionSet_.size()];
 
@@ -181,6 +187,43 @@ public class Ranking {
     
   } // Ranking
 
+  /**
+   * Computes the fronts with <code>DominanceSort</code>. The solutions of each
+   * front are in the order of the pairwise comparisons
+   */
+  private void sortByObjectives() {
+    int size = solutionSet_.size() ;
+    int numberOfObjectives = (size == 0) ? 0 : solutionSet_.get(0).getNumberOfObjectives() ;
+
+    double [][] objectives = new double[size][numberOfObjectives] ;
+    for (int p = 0; p < size; p++)
+      for (int m = 0; m < numberOfObjectives; m++)
+        objectives[p][m] = solutionSet_.get(p).getObjective(m) ;
+
+    int [] rank = DominanceSort.sort(objectives, numberOfObjectives) ;
+    int [][] fronts = DominanceSort.fronts(objectives, numberOfObjectives, rank) ;
+
+    ranking_ = new SolutionSet[fronts.length] ;
+    for (int j = 0; j < fronts.length; j++) {
+      ranking_[j] = new SolutionSet(fronts[j].length) ;
+      for (int p : fronts[j]) {
+        solutionSet_.get(p).setRank(j) ;
+        ranking_[j].add(solutionSet_.get(p)) ;
+      }
+    }
+  } // sortByObjectives
+
+  /**
+   * @return true if any solution violates its constraints. Then the pairwise
+   * comparisons are used, which compare the violations first
+   */
+  private static boolean hasConstraintViolations(SolutionSet solutionSet) {
+    for (int p = 0; p < solutionSet.size(); p++)
+      if (solutionSet.get(p).getOverallConstraintViolation() != 0.0)
+        return true ;
+    return false ;
+  } // hasConstraintViolations
+
   /**
    * Returns a <code>SolutionSet</code> containing the solutions of a given rank. 
    * @param rank The rank
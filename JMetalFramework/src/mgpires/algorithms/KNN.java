@@ -143,18 +143,57 @@ public class KNN {
 
     } // end of calcAccuracyAndReduction method
 
+    /**
+     * This version uses the neighbour ranking built once from the distance
+     * matrix. The closest neighbour of each sample is the first one of its
+     * ranking, so the chromosome is checked in linear time instead of scanning
+     * all samples for each selected bit. The result is the same of the version
+     * with the double matrix distance
+     *
+     * @param solution Is the chromosome that codifies the samples that were
+     * selected
+     * @param classes Code of the output of each sample (Samples.getTraClasses())
+     * @param ranking Closest neighbours of each training sample
+     * @param numberOfSamples Number of samples
+     * @return one double vector with two values. 1) accuracy (rate) 2)
+     * reduction of samples (rate)
+     */
+    public static double[] calcAccuracyAndReduction(Solution solution, int[] classes, NeighbourRanking ranking, int numberOfSamples) {
+
+        Binary sol = (Binary) solution.getDecisionVariables()[0];
+        double[] result = new double[2];
+        int idxMinDist, accuracy = 0, count = sol.cardinality(); // count is the number of selected samples
+
+        // this for runs only over the selected samples of the chromosome
+        for (int i = sol.nextSetBit(0); i >= 0; i = sol.nextSetBit(i + 1)) {
+            // idxMinDist is the index of the closest neighbor
+            idxMinDist = ranking.getNearest(i);
+
+            // if the class of samples are equals, the classification is correct
+            if (classes[i] == classes[idxMinDist]) {
+                accuracy++;
+            }
+        } // end for
+
+        result[0] = accuracy / (double) numberOfSamples;
+        // the samples reduction rate means that lower number of selected samples better is the rate
+        result[1] = (numberOfSamples - count) / (double) numberOfSamples;
+
+        return result;
+
+    } // end of calcAccuracyAndReduction method
+
     // this version uses a double matrix distance
     public static double[] calcAccuracyAndReduction(Solution solution, double[][] distance, Samples samples, String flag) {
 
         Binary sol = (Binary) solution.getDecisionVariables()[0];
         double dist, minDist;
         double[] result = new double[2];
-        int idxMinDist, bits = sol.getNumberOfBits(), accuracy = 0, count = 0,
-           var = samples.getNumberOfVariables(), numberOfSamples;
+        int idxMinDist, bits = sol.getNumberOfBits(), accuracy = 0, count = 0, numberOfSamples;
 
         if (flag.equals("train")) {
-            // get the training samples
-            String[][] sampleMatrix = samples.getTraSamples();
+            // get the output of the training samples
+            int[] classes = samples.getTraClasses();
             numberOfSamples = samples.getNumberOfTraSamples();
 
             // this for run the chromosome, checking the selected samples
@@ -186,15 +225,15 @@ public class KNN {
                      idxMinDist is the index of the closest neighbor
                      */
                     //System.out.println(i + " " + idxMinDist + " " + (nVar-1));
-                    if (sampleMatrix[i][var - 1].equals(sampleMatrix[idxMinDist][var - 1])) {
+                    if (classes[i] == classes[idxMinDist]) {
                         accuracy++;
                     }
                 } // end if        
             } // end for    
         } // end if
         else {
-            String[][] sampleTra = samples.getTraSamples();
-            String[][] sampleTest = samples.getTestSamples();
+            int[] classesTra = samples.getTraClasses();
+            int[] classesTest = samples.getTestClasses();
             numberOfSamples = samples.getNumberOfTestSamples();
             int column;
             // this for checks all test samples
@@ -226,7 +265,7 @@ public class KNN {
                  idxMinDist is the index of the closest neighbor
                  */
                 //System.out.println(i + " " + idxMinDist + " " + (nVar-1));
-                if (sampleTest[i][var - 1].equals(sampleTra[idxMinDist][var - 1])) {
+                if (classesTest[i] == classesTra[idxMinDist]) {
                     accuracy++;
                 }
 
@@ -259,10 +298,10 @@ public class KNN {
     public static double calcAccuracy(double[][] distance, Samples samples) {
 
         double dist, minDist, result;        
-        int idxMinDist, accuracy = 0, var = samples.getNumberOfVariables(), numberOfTestSamples, numberOfTraSamples;
+        int idxMinDist, accuracy = 0, numberOfTestSamples, numberOfTraSamples;
 
-        String[][] sampleTra  = samples.getTraSamples();
-        String[][] sampleTest = samples.getTestSamples();
+        int[] classesTra      = samples.getTraClasses();
+        int[] classesTest     = samples.getTestClasses();
         numberOfTraSamples    = samples.getNumberOfTraSamples();
         numberOfTestSamples   = samples.getNumberOfTestSamples();
         
@@ -285,7 +324,7 @@ public class KNN {
             /* if the class of samples are equals, the classification is correct
                idxMinDist is the index of the closest neighbor */
             //System.out.println(i + " " + idxMinDist + " " + (nVar-1));
-            if (sampleTest[i][var - 1].equals(sampleTra[idxMinDist][var - 1])) {
+            if (classesTest[i] == classesTra[idxMinDist]) {
                 accuracy++;
             }
         }        
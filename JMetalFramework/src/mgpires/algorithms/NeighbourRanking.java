@@ -0,0 +1,90 @@
+package mgpires.algorithms;
+
+/**
+ * This class stores, for each training sample, the indexes of its closest
+ * training samples ordered by distance. The ranking is built only once from
+ * the distance matrix, so the K-NN classifier does not need to scan all the
+ * samples in every evaluation.
+ * Samples with the same distance are ordered by index, which is the same
+ * choice done by the linear scan of the KNN class.
+ *
+ * @date 2026/10/17
+ */
+public class NeighbourRanking {
+
+    // neighbours_[i][r] is the index of the r-th closest sample to sample i
+    private final int[][] neighbours_;
+    private final int numberOfSamples_;
+
+    /**
+     * This constructor builds the ranking truncated in k neighbours
+     * @param distance Upper triangular matrix with the distance values among
+     * the training samples (the one returned by Samples.getEuclideanDistanceMatrix("train"))
+     * @param numberOfSamples Number of training samples
+     * @param k Number of neighbours kept for each sample
+     */
+    public NeighbourRanking(double[][] distance, int numberOfSamples, int k) {
+        numberOfSamples_ = numberOfSamples;
+        k = Math.min(k, numberOfSamples - 1);
+        neighbours_ = new int[numberOfSamples][];
+
+        // distances of the neighbours kept so far, in the same order of neighbours_[i]
+        double[] best = new double[Math.max(k, 0)];
+        double dist;
+        int size, pos;
+
+        for (int i = 0; i < numberOfSamples; i++) {
+            int[] ranking = new int[Math.max(k, 0)];
+            size = 0;
+
+            for (int j = 0; j < numberOfSamples; j++) {
+                // samples equals are not compared
+                if (i == j)
+                    continue;
+
+                dist = (j < i) ? distance[j][i] : distance[i][j];
+
+                // the j-th sample only enters the ranking when it is strictly closer
+                // than the last one kept, so ties keep the lowest index first
+                if (size == k && (k == 0 || dist >= best[k - 1]))
+                    continue;
+
+                pos = (size < k) ? size++ : k - 1;
+                while (pos > 0 && best[pos - 1] > dist) {
+                    best[pos] = best[pos - 1];
+                    ranking[pos] = ranking[pos - 1];
+                    pos--;
+                }
+                best[pos] = dist;
+                ranking[pos] = j;
+            }
+            neighbours_[i] = ranking;
+        }
+    } // end of constructor
+
+    /**
+     * @param sample Index of the training sample
+     * @return The index of the closest training sample, or -1 when there is
+     * only one sample
+     */
+    public int getNearest(int sample) {
+        return (neighbours_[sample].length > 0) ? neighbours_[sample][0] : -1;
+    }
+
+    /**
+     * @param sample Index of the training sample
+     * @param rank Position in the ranking, 0 is the closest sample
+     * @return The index of the rank-th closest training sample
+     */
+    public int getNeighbour(int sample, int rank) {
+        return neighbours_[sample][rank];
+    }
+
+    /**
+     * @return The number of neighbours kept for each sample
+     */
+    public int getNumberOfNeighbours() {
+        return (numberOfSamples_ > 0) ? neighbours_[0].length : 0;
+    }
+
+} // end NeighbourRanking class
@@ -4,7 +4,6 @@ import java.util.Arrays;
 import jmetal.core.Solution;
 import jmetal.encodings.variable.ArrayInt;
 import jmetal.util.JMException;
-import jmetal.util.wrapper.XInt;
 import mgpires.solutionType.ArrayIntAndRealSolutionType;
 
 /**
@@ -17,7 +16,13 @@ import mgpires.solutionType.ArrayIntAndRealSolutionType;
 public class Rules {
     
 /**
- * This method delete the duplicate rules from offSpring parameter 
+ * This method delete the duplicate rules from offSpring parameter. When two or
+ * more rules have the same antecedent, only the first one is kept, and only if
+ * all of them have the same output. Otherwise, all of them are deleted
+ * (conflicting rules).
+ * The rules are verified in one pass: the antecedent of each rule is searched
+ * in one hash table (open addressing) with the first rule of each antecedent
+ * already seen. The genes are read directly from the chromosome, without copies
  * @param offSpring Is the chromosome that encodes the rules. Its type must be 
  * ArrayIntAndRealSolutionType
  * @throws JMException 
@@ -26,89 +31,71 @@ public static void deleteDuplicateRules(Solution offSpring) throws JMException {
     
     if (offSpring.getType().getClass() == ArrayIntAndRealSolutionType.class) {        
     
-        int numberOfRules, numberOfVariables, idx;            
-        int[] rule1, rule2, ant1, ant2, verifiedRules;
+        int numberOfRules, numberOfVariables, numberOfInputVariables;
+        int capacity, mask, slot, first, begin;
+        int[] genes, table;
+        boolean[] keptRules;
         boolean flag = false;
 
         numberOfRules = (int)offSpring.getDecisionVariables()[2].getValue();        
         numberOfVariables = offSpring.numberOfVariables();
-
-        // Initializing the verifiedRules array with -1. This mean that the
-        // rules were not evaluated
-        verifiedRules = new int[numberOfRules]; 
-        for (int i = 0; i < numberOfRules; i++)
-            verifiedRules[i] = -1;   
-
-        idx = 1;
-        for (int i = 0; i < numberOfRules; i++) {            
-            if (verifiedRules[i] == -1) {                
-                rule1 = getRule(offSpring, i, numberOfVariables);                            
-                verifiedRules[i] = idx;
-                idx++;          
-                for (int j = 0; j < numberOfRules; j++) {                
-                    if (i !=j) {
-                        if (verifiedRules[j] == -1) {
-                            rule2 = getRule(offSpring, j, numberOfVariables);                            
-
-                            if (Arrays.equals(rule1, rule2)) {
-                                // if the rules are equals, one of them will be set with zero
-                                verifiedRules[j] = 0;
-                                flag = true;
-                            }
-                            /* if the rules are not equals, I need to compare the
-                            antecedent part
-                            */                            
-                            else {
-                                ant1 = getAntecedent(offSpring, i, numberOfVariables);
-                                ant2 = getAntecedent(offSpring, j, numberOfVariables);
-
-                                // If the antecedents are equals, both rules will be deleted
-                                if (Arrays.equals(ant1, ant2)) {
-                                    verifiedRules[i] = 0;
-                                    verifiedRules[j] = 0;
-                                    flag = true;
-                                }
-                            }                            
-                        }       
-                    }
-                }          
-            }        
+        numberOfInputVariables = numberOfVariables - 1;
+        genes = ((ArrayInt)offSpring.getDecisionVariables()[0]).array_;
+
+        // table[slot] is the index (starting in 1) of the first rule of one
+        // antecedent, 0 means an empty slot. It's never more than half full
+        capacity = 2;
+        while (capacity < 2 * numberOfRules)
+            capacity <<= 1;
+        mask = capacity - 1;
+        table = new int[capacity];
+        // keptRules[i] == true means that the "rule i" is single and not conflict
+        keptRules = new boolean[numberOfRules];
+
+        for (int i = 0; i < numberOfRules; i++) {
+            begin = i * numberOfVariables;
+            slot = hashAntecedent(genes, begin, numberOfInputVariables) & mask;
+            while (true) {
+                first = table[slot];
+                if (first == 0) {
+                    // it's the first rule with this antecedent
+                    table[slot] = i + 1;
+                    keptRules[i] = true;
+                    break;
+                }
+                first = (first - 1) * numberOfVariables;
+                if (equalsAntecedent(genes, first, begin, numberOfInputVariables)) {
+                    // if the rules are equals, only the first one is kept. If only
+                    // the antecedents are equals, both rules will be deleted
+                    if (genes[first + numberOfInputVariables] != genes[begin + numberOfInputVariables])
+                        keptRules[first / numberOfVariables] = false;
+                    flag = true;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
         }    
         // if there are duplicate rules, it must delete them   
         if (flag == true) {
-            //System.out.println("There are duplicate rules");
-            int begin, end, count;
+            int idx, count;
             int maxLength = ((ArrayIntAndRealSolutionType)offSpring.getType()).getMaxLengthOfArrayInt_();
-            XInt offs = new XInt(offSpring);
-            XInt auxOff = new XInt(offSpring);
             
+            // the rules kept are moved to the beginning of the chromosome, in the same order
             idx = 0; count = 0;
             for (int i = 0; i < numberOfRules; i ++) {
-                // verifiedRules[i] != 0 means that the "rule i" is single and not conflict
-                if (verifiedRules[i] != 0) {
+                if (keptRules[i]) {
                     // count stores the number of rules (no duplicates) 
                     count++;
-                    if (i == 0) {
-                        begin = 0;
-                        end = numberOfVariables;
-                    }
-                    else {
-                        begin = i * numberOfVariables;
-                        end = (i + 1) * numberOfVariables;
-                    }                
-                    for (int j = begin; j < end; j++) {                    
-                        offs.setValue(idx, auxOff.getValue(j));                    
-                        idx++;
-                    }                
+                    begin = i * numberOfVariables;
+                    if (begin != idx)
+                        System.arraycopy(genes, begin, genes, idx, numberOfVariables);
+                    idx += numberOfVariables;
                 }
             }
-            if (idx < maxLength) {
+            if (idx < maxLength)
                 // filling the rest of chromosome with -1 (no rules)
-                for (int j = idx; j < maxLength; j++)
-                    offs.setValue(j, -1);
-            }
+                Arrays.fill(genes, idx, maxLength, -1);
             // updating the chromosomes' number of rules
-            //System.out.println("New number of rules = " + count);
             offSpring.getDecisionVariables()[2].setValue(count);
         }        
     }
@@ -121,73 +108,34 @@ public static void deleteDuplicateRules(Solution offSpring) throws JMException {
 } // end deleteDuplicateRules method
 
 /**
- * This method returns one rule from the one chromosome
- * @param offSpring Chromosome that encodes the rules (Rule Base)
- * @param idxRule Index of rule
- * @param numberOfVariables Number of variables of the database
- * @return One int array that encodes the rule
- * @throws JMException 
+ * This method calculates the hash code of the antecedent of one rule
+ * @param genes The genes of the chromosome that encodes the rules
+ * @param begin Index of the first gene of the rule
+ * @param numberOfInputVariables Number of input variables of the database
+ * @return The hash code, with the bits mixed to be used as index of one table
  */
-private static int[] getRule(Solution offSpring, int idxRule, int numberOfVariables) throws JMException {
-    int[] aux = new int[numberOfVariables];
-
-    // begin is the first index of the rule (offSpring)
-    // end is the last index of the rule (offSpring)
-    int begin, end;
-
-    if (idxRule == 0) {
-        begin = 0;
-        end = numberOfVariables;
-    }
-    else {
-        begin = idxRule * numberOfVariables;
-        end = (idxRule + 1) * numberOfVariables;
-    }
-
-    //System.out.println("getRule method. Idx rule = " + idxRule + " Variables = " + 
-       //numberOfVariables + " Begin = " + begin + " End = " + end);
-    int idx = 0;
-    for (int i = begin; i < end; i++) {
-        aux[idx] = ((ArrayInt)offSpring.getDecisionVariables()[0]).getValue(i);
-        idx++;
-    }
-    return aux;        
-} // end getRule method
+private static int hashAntecedent(int[] genes, int begin, int numberOfInputVariables) {
+    int hash = 1;
+    for (int i = begin; i < begin + numberOfInputVariables; i++)
+        hash = 31 * hash + genes[i];
+    hash *= 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+} // end hashAntecedent method
 
 /**
- * This method returns the antecedent of one rule
- * @param offSpring Chromosome that encodes the rules (Rule Base)
- * @param idxRule Index of rule
- * @param numberOfVariables Number of variables of the database
- * @return One int array that encodes the antecedent of the rule
- * @throws JMException 
+ * This method compares the antecedents of two rules
+ * @param genes The genes of the chromosome that encodes the rules
+ * @param begin1 Index of the first gene of the first rule
+ * @param begin2 Index of the first gene of the second rule
+ * @param numberOfInputVariables Number of input variables of the database
+ * @return True if the antecedents are equals
  */
-private static int[] getAntecedent(Solution offSpring, int idxRule, int numberOfVariables) throws JMException {
-    int[] aux = new int[numberOfVariables - 1];
-
-    // begin is the first index of the rule (offSpring)
-    // end is the last index of the rule (offSpring)
-    int begin, end;
-
-    if (idxRule == 0) {
-        begin = 0;
-        // -1 because I don't want to get the output variable
-        end = numberOfVariables - 1;
-    }
-    else {
-        begin = idxRule * numberOfVariables;
-        end = ((idxRule + 1) * numberOfVariables) - 1;
-    }
-
-    //System.out.println("getRule method. Idx rule = " + idxRule + " Variables = " + 
-       //numberOfVariables + " Begin = " + begin + " End = " + end);
-    int idx = 0;
-    for (int i = begin; i < end; i++) {
-        aux[idx] = ((ArrayInt)offSpring.getDecisionVariables()[0]).getValue(i);
-        idx++;
-    }
-    return aux;        
-} // end getRule method
+private static boolean equalsAntecedent(int[] genes, int begin1, int begin2, int numberOfInputVariables) {
+    for (int i = 0; i < numberOfInputVariables; i++)
+        if (genes[begin1 + i] != genes[begin2 + i])
+            return false;
+    return true;
+} // end equalsAntecedent method
 
 /**
  * This method calculates the number of conditions of the rule base
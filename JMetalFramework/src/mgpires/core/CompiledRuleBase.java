@@ -0,0 +1,205 @@
+package mgpires.core;
+
+import java.util.Arrays;
+import jmetal.core.Solution;
+import jmetal.encodings.variable.ArrayInt;
+import jmetal.encodings.variable.ArrayReal;
+import jmetal.encodings.variable.Binary;
+import jmetal.util.JMException;
+import jmetal.util.wrapper.XReal;
+
+/**
+ * This class is one rule base decoded only once per evaluation, to be used by
+ * the FuzzyInferenceEngine class. The antecedents of the rules are kept as
+ * flat int arrays and the triangles of the fuzzy sets as one flat double
+ * array, so the fuzzy reasoning does not read the chromosome (or the String
+ * matrix of the RuleBase class) for each sample.
+ *
+ * Only the fuzzy sets used by some rule are kept, each one only once. So, the
+ * membership degree of a sample in a fuzzy set is computed once and it is
+ * shared by all the rules with the same fuzzy set. The conditions of each rule
+ * keep the order of the variables, so the compatibility degrees are the same
+ * products, in the same order, of the FuzzyReasoning class.
+ *
+ * @date 2026/10/17
+ */
+public class CompiledRuleBase {
+
+    final int numberOfRules_;
+    int numberOfUsedSets_;
+    // triangles_[3 * s], triangles_[3 * s + 1] and triangles_[3 * s + 2] are the
+    // left extreme, the core and the right extreme of the used fuzzy set s
+    final double[] triangles_;
+    // variables_[s] is the input variable of the used fuzzy set s
+    final int[] variables_;
+    // the conditions of the rule r are the used fuzzy sets
+    // conditions_[ruleStart_[r]] ... conditions_[ruleStart_[r + 1] - 1], in the
+    // order of the variables. The don't care conditions are not stored
+    final int[] conditions_;
+    final int[] ruleStart_;
+    // a disabled rule has compatibility zero with all samples
+    final boolean[] disabled_;
+    // ruleClasses_[r] is the code of the output of the rule r, -1 when no sample has it
+    final int[] ruleClasses_;
+
+    // offsets_[v] is the index of the first fuzzy set of the variable v, in
+    // the order of the real part of the chromosomes
+    private final int[] offsets_;
+    // column_[s] is the position of the fuzzy set s (numbered as in offsets_)
+    // between the used fuzzy sets, -1 while no rule uses it
+    private final int[] column_;
+    private int numberOfConditions_;
+
+    private CompiledRuleBase(PartitionFuzzy partition, int numberOfInputVariables, int numberOfRules) {
+        int[] vet = partition.getNumberOfFuzzySets_();
+
+        numberOfRules_ = numberOfRules;
+        offsets_ = new int[numberOfInputVariables + 1];
+        for (int v = 0; v < numberOfInputVariables; v++)
+            offsets_[v + 1] = offsets_[v] + vet[v];
+
+        column_ = new int[offsets_[numberOfInputVariables]];
+        Arrays.fill(column_, -1);
+        triangles_ = new double[3 * column_.length];
+        variables_ = new int[column_.length];
+        conditions_ = new int[numberOfRules * numberOfInputVariables];
+        ruleStart_ = new int[numberOfRules + 1];
+        disabled_ = new boolean[numberOfRules];
+        ruleClasses_ = new int[numberOfRules];
+    }
+
+    /**
+     * This constructor decodes the rules and the cores of one
+     * ArrayIntAndRealSolutionType chromosome (LearningKB problem)
+     * @param solution Is the chromosome that encodes the rules and the core values
+     * of membership functions
+     * @param partition Partition fuzzy of the variables
+     * @param samples Samples of the dataset, to get the codes of the outputs
+     * @throws JMException
+     */
+    public CompiledRuleBase(Solution solution, PartitionFuzzy partition, Samples samples) throws JMException {
+        this(partition, samples.getNumberOfVariables() - 1, (int)solution.getDecisionVariables()[2].getValue());
+
+        ArrayInt rules = (ArrayInt)solution.getDecisionVariables()[0];
+        ArrayReal cores = (ArrayReal)solution.getDecisionVariables()[1];
+        int numberOfVariables = samples.getNumberOfVariables();
+        int numberOfInputVariables = numberOfVariables - 1;
+        int set, idx, s;
+
+        for (int r = 0; r < numberOfRules_; r++) {
+            ruleStart_[r] = numberOfConditions_;
+            idx = r * numberOfVariables;
+            for (int v = 0; v < numberOfInputVariables; v++) {
+                set = rules.getValue(idx + v);
+                // set == -1 means no rule, its compatibility degree is zero
+                if (set == -1)
+                    disabled_[r] = true;
+                else if (set < -1) {
+                    System.out.println("CompiledRuleBase class > constructor error: index out of bounds!!!");
+                    System.out.println("idxVar = " + v + " idxSet - 1 = " + (set - 1));
+                    System.exit(-1);
+                }
+                else if (set != 0) {
+                    // set == 0 means that is a don't care condition, it's not stored
+                    s = offsets_[v] + set - 1;
+                    // the extremes come from the partition, the core from the chromosome
+                    if (column_[s] == -1)
+                        addSet(s, v, partition.getValuePartition(v, set - 1, 0, "input"), cores.getValue(s),
+                            partition.getValuePartition(v, set - 1, 2, "input"));
+                    conditions_[numberOfConditions_++] = column_[s];
+                }
+            }
+            // the output of the rule is the last value of the rule
+            set = rules.getValue(idx + numberOfInputVariables);
+            ruleClasses_[r] = samples.getClassCode(Integer.toString(set));
+        }
+        ruleStart_[numberOfRules_] = numberOfConditions_;
+    } // end constructor
+
+    /**
+     * This constructor decodes the rules of one RuleBase, with the lateral
+     * displacements of the fuzzy sets and the rules selected by one
+     * ArrayRealAndBinarySolutionType chromosome (WangMendelRuleSelectionTuningBD problem)
+     * @param partition Partition fuzzy of the variables
+     * @param samples Samples of the dataset, to get the codes of the outputs
+     * @param rulebase The fuzzy rules
+     * @param displacements The displacement of each fuzzy set
+     * @param ruleSelected It "says" if one rule is selected or not. The rules
+     * not selected are disabled
+     * @throws JMException
+     */
+    public CompiledRuleBase(PartitionFuzzy partition, Samples samples, RuleBase rulebase, XReal displacements,
+        Binary ruleSelected) throws JMException {
+
+        this(partition, partition.getNumberOfInputVariables_(), rulebase.getNumberOfRules_());
+
+        double[][][] partitionFuzzy = partition.getPartitionFuzzyInput_();
+        int numberOfInputVariables = partition.getNumberOfInputVariables_();
+        int set, s;
+        double displacement;
+
+        for (int r = 0; r < numberOfRules_; r++) {
+            ruleStart_[r] = numberOfConditions_;
+            if (ruleSelected.getIth(r) == true) {
+                for (int v = 0; v < numberOfInputVariables; v++) {
+                    // the fuzzy sets codification starts in 1
+                    set = Integer.parseInt(rulebase.getFuzzySetfromRule(r, v)) - 1;
+                    s = offsets_[v] + set;
+                    if (column_[s] == -1) {
+                        /* If displacement is smaller than 0 (negative), the fuzzy set displacement
+                        must be on left. If is greater than 0 (positive), must be on right.
+                        The same calculation of the MembershipDegree class
+                        */
+                        displacement = displacements.getValue(s);
+                        if (displacement < 0)
+                            addSet(s, v, partitionFuzzy[v][set][0] - displacement, partitionFuzzy[v][set][1] - displacement,
+                                partitionFuzzy[v][set][2] - displacement);
+                        else
+                            addSet(s, v, partitionFuzzy[v][set][0] + displacement, partitionFuzzy[v][set][1] + displacement,
+                                partitionFuzzy[v][set][2] + displacement);
+                    }
+                    conditions_[numberOfConditions_++] = column_[s];
+                }
+            }
+            else
+                disabled_[r] = true;
+            ruleClasses_[r] = samples.getClassCode(rulebase.getFuzzySetfromRule(r, numberOfInputVariables));
+        }
+        ruleStart_[numberOfRules_] = numberOfConditions_;
+    } // end constructor
+
+    // adds the fuzzy set s of the variable v to the used fuzzy sets
+    private void addSet(int s, int v, double left, double core, double right) {
+        column_[s] = numberOfUsedSets_;
+        triangles_[3 * numberOfUsedSets_]     = left;
+        triangles_[3 * numberOfUsedSets_ + 1] = core;
+        triangles_[3 * numberOfUsedSets_ + 2] = right;
+        variables_[numberOfUsedSets_] = v;
+        numberOfUsedSets_++;
+    }
+
+    /**
+     * @param idxRule Index of the rule, starting in one
+     * @return The code of the output of the rule, -1 when no sample has it
+     */
+    public int getRuleClass(int idxRule) {
+        return ruleClasses_[idxRule - 1];
+    }
+
+    public int getNumberOfRules() {
+        return numberOfRules_;
+    }
+
+    public int getNumberOfUsedSets() {
+        return numberOfUsedSets_;
+    }
+
+    /**
+     * @return The number of conditions stored, without the don't care
+     * conditions. It is the number of products for each sample
+     */
+    public int getNumberOfConditions() {
+        return numberOfConditions_;
+    }
+
+} // end CompiledRuleBase class
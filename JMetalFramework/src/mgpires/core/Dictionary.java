@@ -0,0 +1,67 @@
+package mgpires.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class maps the labels of one nominal variable (or of the classes) to
+ * integer codes. The codes start in zero and follow the order in which the
+ * labels were added, so the labels declared in the header of the dataset
+ * keep the header order.
+ *
+ * @date 2026/10/17
+ */
+public class Dictionary {
+
+    private final Map<String, Integer> codes_;
+    private final List<String> labels_;
+
+    public Dictionary() {
+        codes_  = new HashMap<>();
+        labels_ = new ArrayList<>();
+    }
+
+    /**
+     * Returns the code of one label. If the label is new, it is added to the
+     * dictionary
+     * @param label Label of the nominal value
+     * @return The code of the label
+     */
+    public int encode(String label) {
+        Integer code = codes_.get(label);
+
+        if (code == null) {
+            code = labels_.size();
+            codes_.put(label, code);
+            labels_.add(label);
+        }
+        return code;
+    }
+
+    /**
+     * @param label Label of the nominal value
+     * @return The code of the label, or -1 if the label is not in the dictionary
+     */
+    public int getCode(String label) {
+        Integer code = codes_.get(label);
+        return (code == null) ? -1 : code;
+    }
+
+    /**
+     * @param code Code of the nominal value
+     * @return The label of the code
+     */
+    public String getLabel(int code) {
+        return labels_.get(code);
+    }
+
+    /**
+     * @return The number of labels in the dictionary
+     */
+    public int size() {
+        return labels_.size();
+    }
+
+} // end Dictionary class
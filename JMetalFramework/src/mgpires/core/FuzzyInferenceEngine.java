@@ -0,0 +1,196 @@
+package mgpires.core;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class is the classic fuzzy reasoning (product T-norm and the rule with
+ * the maximum compatibility degree wins) over one CompiledRuleBase.
+ *
+ * The samples are processed in blocks. For each block, the membership degrees
+ * of the samples in each used fuzzy set are stored contiguous, and all rules
+ * are evaluated over contiguous arrays with the compatibility degrees of the
+ * block, so the inner loops run along the samples. In large datasets the
+ * blocks are split across the common ForkJoinPool.
+ *
+ * Each sample is still evaluated as in the FuzzyReasoning class: the same
+ * products in the same order, the first rule with the maximum degree, and no
+ * rule when two or more rules have the maximum degree. So the results do not
+ * depend on the number of threads.
+ *
+ * @date 2026/10/17
+ */
+public class FuzzyInferenceEngine {
+
+    // number of samples of one block. The arrays of one block fit in the cache
+    private static final int BLOCK_SIZE = 256;
+    // the samples are split across threads only when there are more products
+    // (samples x conditions) than this. Smaller datasets run in the caller thread
+    private static final long PARALLEL_THRESHOLD = 1 << 18;
+    // number of samples processed by one task, at least
+    private static final int TASK_SIZE = 4 * BLOCK_SIZE;
+
+    /**
+     * This method applies the fuzzy reasoning to the samples
+     * @param ruleBase The rules
+     * @param columns The samples in numeric form: columns[variable][sample]
+     * @param rows The indexes of the used samples, null when all of them are used
+     * @param numberOfSamples Number of used samples
+     * @return For each used sample, the index of the rule with higher compatibility
+     * degree, starting in one. -1 when no rule is compatible with the sample or
+     * when two or more rules have the higher compatibility degree
+     */
+    public static int[] classify(CompiledRuleBase ruleBase, double[][] columns, int[] rows, int numberOfSamples) {
+        return classify(ruleBase, columns, rows, numberOfSamples, null);
+    } // end classify method
+
+    /**
+     * This method applies the fuzzy reasoning to the samples and also returns
+     * the higher compatibility degree of each sample
+     * @param ruleBase The rules
+     * @param columns The samples in numeric form: columns[variable][sample]
+     * @param rows The indexes of the used samples, null when all of them are used
+     * @param numberOfSamples Number of used samples
+     * @param maxDegrees If not null, it receives the higher compatibility degree
+     * of each used sample
+     * @return For each used sample, the index of the rule with higher compatibility
+     * degree, starting in one. -1 when no rule is compatible with the sample or
+     * when two or more rules have the higher compatibility degree
+     */
+    public static int[] classify(CompiledRuleBase ruleBase, double[][] columns, int[] rows, int numberOfSamples,
+        double[] maxDegrees) {
+
+        int[] result = new int[numberOfSamples];
+        long work = (long)numberOfSamples * (ruleBase.getNumberOfConditions() + ruleBase.getNumberOfRules());
+
+        if (work <= PARALLEL_THRESHOLD || numberOfSamples <= TASK_SIZE)
+            new Blocks(ruleBase, columns, rows, result, maxDegrees, 0, numberOfSamples).classify();
+        else {
+            Blocks task = new Blocks(ruleBase, columns, rows, result, maxDegrees, 0, numberOfSamples);
+            // inside the pool the task is run by the current thread, which forks the halves
+            if (ForkJoinTask.inForkJoinPool())
+                task.invoke();
+            else
+                ForkJoinPool.commonPool().invoke(task);
+        }
+        return result;
+    } // end classify method
+
+    /**
+     * This class classifies the samples [from, to). If they are many, the task
+     * is split in two halves
+     */
+    private static class Blocks extends RecursiveAction {
+
+        private final CompiledRuleBase ruleBase;
+        private final double[][] columns;
+        private final int[] rows, result;
+        // null when the degrees are not returned
+        private final double[] maxDegrees;
+        private final int from, to;
+
+        Blocks(CompiledRuleBase ruleBase, double[][] columns, int[] rows, int[] result, double[] maxDegrees,
+            int from, int to) {
+            this.ruleBase = ruleBase;
+            this.columns = columns;
+            this.rows = rows;
+            this.result = result;
+            this.maxDegrees = maxDegrees;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= TASK_SIZE)
+                classify();
+            else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Blocks(ruleBase, columns, rows, result, maxDegrees, from, middle),
+                    new Blocks(ruleBase, columns, rows, result, maxDegrees, middle, to));
+            }
+        } // end compute method
+
+        // classifies the samples of the task, one block after the other, reusing the arrays
+        void classify() {
+            int size = Math.min(BLOCK_SIZE, to - from);
+            double[] membership = new double[ruleBase.numberOfUsedSets_ * size];
+            double[] prod = new double[size], max = new double[size];
+            double[] firstMax = new double[size], secondMax = new double[size];
+
+            for (int start = from; start < to; start += BLOCK_SIZE)
+                classifyBlock(start, Math.min(start + BLOCK_SIZE, to), membership, prod, max, firstMax, secondMax);
+        } // end classify method
+
+        private void classifyBlock(int start, int end, double[] membership, double[] prod, double[] max,
+            double[] firstMax, double[] secondMax) {
+
+            int n = end - start, offset;
+            int[] conditions = ruleBase.conditions_;
+            double[] triangles = ruleBase.triangles_;
+
+            // membership[s * n + b] is the degree of the b-th sample of the block in the used fuzzy set s
+            for (int s = 0; s < ruleBase.numberOfUsedSets_; s++) {
+                double[] column = columns[ruleBase.variables_[s]];
+                double left = triangles[3 * s], core = triangles[3 * s + 1], right = triangles[3 * s + 2];
+                offset = s * n;
+                if (rows == null)
+                    for (int b = 0; b < n; b++)
+                        membership[offset + b] = MembershipDegree.calcMembershipTriangularFunction(column[start + b], left, core, right);
+                else
+                    for (int b = 0; b < n; b++)
+                        membership[offset + b] = MembershipDegree.calcMembershipTriangularFunction(column[rows[start + b]], left, core, right);
+            }
+
+            Arrays.fill(result, start, end, -1);
+            // max == 0 means that has not compatibility between rule and pattern
+            Arrays.fill(max, 0, n, 0);
+            // the two higher compatibility degrees of each sample, to detect the ties
+            Arrays.fill(firstMax, 0, n, Double.NEGATIVE_INFINITY);
+            Arrays.fill(secondMax, 0, n, Double.NEGATIVE_INFINITY);
+
+            for (int r = 0; r < ruleBase.numberOfRules_; r++) {
+                if (ruleBase.disabled_[r])
+                    Arrays.fill(prod, 0, n, 0);
+                else {
+                    // it's applying the product operator, one condition at a time for all the block
+                    Arrays.fill(prod, 0, n, 1.0);
+                    for (int c = ruleBase.ruleStart_[r]; c < ruleBase.ruleStart_[r + 1]; c++) {
+                        offset = conditions[c] * n;
+                        for (int b = 0; b < n; b++)
+                            prod[b] *= membership[offset + b];
+                    }
+                }
+
+                for (int b = 0; b < n; b++) {
+                    double degree = prod[b];
+                    if (degree > max[b]) {
+                        max[b] = degree;
+                        result[start + b] = r + 1;
+                    }
+                    if (degree > firstMax[b]) {
+                        secondMax[b] = firstMax[b];
+                        firstMax[b] = degree;
+                    }
+                    else if (degree > secondMax[b])
+                        secondMax[b] = degree;
+                }
+            }
+
+            /* firstMax == secondMax means that have 2 or more rules with the same
+             compatibility degree, so, in this case, the pattern is not classified
+             as correct
+            */
+            if (ruleBase.numberOfRules_ > 1)
+                for (int b = 0; b < n; b++)
+                    if (firstMax[b] == secondMax[b])
+                        result[start + b] = -1;
+            if (maxDegrees != null)
+                System.arraycopy(max, 0, maxDegrees, start, n);
+        } // end classifyBlock method
+
+    } // end Blocks class
+
+} // end FuzzyInferenceEngine class
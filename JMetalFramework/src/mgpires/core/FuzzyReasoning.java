@@ -1,15 +1,12 @@
 package mgpires.core;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import jmetal.core.Solution;
-import jmetal.encodings.variable.ArrayInt;
-import jmetal.encodings.variable.ArrayReal;
+import jmetal.core.Variable;
 import jmetal.encodings.variable.Binary;
 import jmetal.util.JMException;
 import jmetal.util.wrapper.XReal;
 import mgpires.solutionType.ArrayIntAndRealSolutionType;
+import mgpires.solutionType.ArrayIntRules;
 
 /**
  * @author Matheus Giovanni Pires
@@ -35,106 +32,63 @@ public static double classicFuzzyReasoning (
 
     if (solution.getType().getClass() == ArrayIntAndRealSolutionType.class) {             
     
-        int numberOfSamples, numberOfRules, numberOfInputVariables, idx, set, count;
-        double prod, value;
-        double[] points;
-        String[][] auxSamples;        
-        List<Double> listCompatRules = new ArrayList<>(); 
-        numberOfRules = (int)solution.getDecisionVariables()[2].getValue();         
-        numberOfInputVariables = samples.getNumberOfVariables() - 1;           
+        int numberOfSamples, count, sample, rule;
+        // the samples are read in numeric form: columns[variable][sample]. 
+        // rows has the indexes of the used samples, null when all of them are used
+        double[][] columns;
+        int[] classes, rows, resultFuzzyReasoning;
 
         if (type.equalsIgnoreCase("training")) {
-            auxSamples = getSelectedSamples(samples);
+            rows = getSelectedSamples(samples);
+            columns = samples.getTraColumns();
+            classes = samples.getTraClasses();
             numberOfSamples = samples.getNumberOfSelectedSamples();
             
         }
         // in this case, only the learning KB will be executed
         else if (type.equalsIgnoreCase("trainingKB")) {
             numberOfSamples = samples.getNumberOfTraSamples();
-            auxSamples = samples.getTraSamples();
+            rows = null;
+            columns = samples.getTraColumns();
+            classes = samples.getTraClasses();
             
         }
         else {
             numberOfSamples = samples.getNumberOfTestSamples();
-            auxSamples = samples.getTestSamples();
+            rows = null;
+            columns = samples.getTestColumns();
+            classes = samples.getTestClasses();
         }     
 
-        int[] resultFuzzyReasoning = new int[numberOfSamples]; 
-
-        for (int idxSample = 0; idxSample < numberOfSamples; idxSample++) {            
-            /* indice to "run" in ArrayInt (rules)
-            idx can not exceed the (number of rules * number of variables) value
-            of the chromosome (solution)
-            */
-            idx = 0;
-            for (int idxRule = 0; idxRule < numberOfRules; idxRule++) {                
-                prod = 1.0;  
-                //System.out.println("\nSample " + (idxSample+1) + " Rule " + (idxRule+1));                
-                
-                for (int idxVar = 0; idxVar <= numberOfInputVariables; idxVar++) {                    
-                    /* if idxVar == numberOfInputVariables means that idxVar is the 
-                    ouput variable indice. So, in this case, I only increment idx,
-                    to continue reading the input variables of the next rule.
-                    */
-                    if (idxVar == numberOfInputVariables)
-                        idx++;
-                    else {
-                        // set is the value encoded in the rule idx                        
-                        set = ((ArrayInt)solution.getDecisionVariables()[0]).getValue(idx);
-                        idx++;
-                        // set == 0 means that is a don't care condition. In this case, I don't take into account                        
-                        if ((set != 0) && (set != -1)) {
-                            // points gets the partition fuzzy values of the set of the idxVar                            
-                            points = getPointsOfMembershipFunction(solution, partition, idxVar, set);
-                            // values gets the membership degree
-                            value = MembershipDegree.calcMembershipTriangularFunction(auxSamples[idxSample][idxVar], points);                              
-
-                            //System.out.println("Var " + (idxVar+1) + " Set " + set + " Point 1 " + points[0] + " Point 2 " + points[1] +
-                                //" Point 3 " + points[2] + " Samples " + auxSamples[idxSample][idxVar] + " Degree " + value);
-
-                            // it's applying the product operator
-                            prod *= value;                         
-                        }
-                        else if (set == -1)
-                            prod = 0;
-                    }                    
-                }
-                //System.out.println("Degree compatibility: " + prod);
-                /* listCompatRules stores the compatitibility degree of all 
-                rules "idxRule" with the sample "idxSample" */
-                listCompatRules.add(prod);                
-            }
-            // resultFuzzyReasoning stores the rule index which the sample idxSample has higher compatibility                       
-            resultFuzzyReasoning[idxSample] = getRuleIdxWithMaxCompatibility(listCompatRules); 
-            //System.out.println("Compatible rule: " + resultFuzzyReasoning[idxSample]);            
-            listCompatRules.clear();
+        /* the chromosome is decoded only once, and the membership degree of each
+        sample in each fuzzy set is calculated only once, for all the rules
+        that use the fuzzy set. resultFuzzyReasoning stores the rule index
+        which each sample has higher compatibility
+        */
+        CompiledRuleBase ruleBase = new CompiledRuleBase(solution, partition, samples);
+        Variable rules = solution.getDecisionVariables()[0];
+        
+        /* in the training, the chromosome keeps the result of its last evaluation,
+        so only the rules changed since then are evaluated again
+        */
+        if (!type.equalsIgnoreCase("test") && (rules instanceof ArrayIntRules)) {
+            FuzzyReasoningState state = FuzzyReasoningState.evaluate(((ArrayIntRules)rules).getReasoningState_(),
+                ruleBase, columns, rows, numberOfSamples);
+            ((ArrayIntRules)rules).setReasoningState_(state);
+            resultFuzzyReasoning = state.getResult();
         }
-                
-        //for (int i = 0; i < resultFuzzyReasoning.length; i++)
-            //System.out.print(resultFuzzyReasoning[i] + " ");        
-        //System.out.println(" ");
+        else
+            resultFuzzyReasoning = FuzzyInferenceEngine.classify(ruleBase, columns, rows, numberOfSamples);
 
         count = 0;
         for (int idxSample = 0; idxSample < numberOfSamples; idxSample++) {
-            //System.out.println("Sample " + (i+1) + " is compatible with rule " + (resultFuzzyReasoning[i] + 1));
+            sample = (rows == null) ? idxSample : rows[idxSample];
+            rule = resultFuzzyReasoning[idxSample];
 
-            // resultFuzzyReasoning[idxSample] == -1 means that has not compatibility between rule and pattern 
-            if (resultFuzzyReasoning[idxSample] != -1) {                                                
-                // idx is the index on ArrayInt of the output variable of the compatible rule with the sample "idxSample"                
-                idx = (resultFuzzyReasoning[idxSample] * samples.getNumberOfVariables()) - 1;                                     
-                
-                // set is the output variable of the compatible rule with the sample "idxSample"                
-                set = ((ArrayInt)solution.getDecisionVariables()[0]).getValue(idx);
-                
-                //System.out.println("Idx sample = " + (idxSample + 1) + " Output sample = " + auxSamples[idxSample][numberOfInputVariables] +
-                    //" Idx compatible rule = " + resultFuzzyReasoning[idxSample] + " Output rule = " + set);
-                
-                // If the output of the sample is equal to output of the rule, the sample is classified as correct.
-                if (auxSamples[idxSample][numberOfInputVariables].equalsIgnoreCase(Integer.toString(set))) {
-                    count++;
-                    //System.out.println("Is compatible!!!");
-                }                    
-            }
+            // rule == -1 means that has not compatibility between rule and pattern 
+            // If the output of the sample is equal to output of the rule, the sample is classified as correct.
+            if ((rule != -1) && (classes[sample] == ruleBase.getRuleClass(rule)))
+                count++;
         }
         /* count is the number of samples classified as correct
            coutn / numberOfSamples is the percentage of correct classification
@@ -165,73 +119,29 @@ public static double classicFuzzyReasoning (
  * @throws jmetal.util.JMException
  */
 public static int classicFuzzyReasoning(PartitionFuzzy partition, Samples samples, RuleBase rulebase, XReal displacements, Binary ruleSelected) throws JMException {
-    // listCompatSample stores the compatitibility degree of each rule with one sample
-    List<Double> listCompatSample = new ArrayList<>();       
-    double value, prod;
-    int count, numberOfSamples, numberOfInputVariables, numberOfRules, index, aux;
+    int count, numberOfSamples, numberOfInputVariables, numberOfRules;
 
     //numberOfSamples = samples.getNumberOfSamples();
     numberOfSamples = samples.getNumberOfTestSamples();
     numberOfRules = rulebase.getNumberOfRules_();        
     numberOfInputVariables = partition.getNumberOfInputVariables_();        
-    int[] resultFuzzyReasoning = new int[numberOfSamples];        
-
-    for (int i = 0; i < numberOfSamples; i++) {
+    int[] classes = samples.getTestClasses();
 
-        for (int j = 0; j < numberOfRules; j++) {
-
-            if (ruleSelected.getIth(j) == true) {
-                aux = 0;
-                // prod stores the product of the membership degrees of the
-                // jth rule's antecedent
-                prod = 1.0;                
-                for (int k = 0; k < numberOfInputVariables; k++) {                   
-                    /* I did rulease.getFuzzySetfromRule(j,k))-1 because the 
-                    fuzzy sets codification starts in 1. In other words, the 
-                    first fuzzy set is one, the second is 2, and so on. But, 
-                    in the partitionFuzzyInput_ matrix, the first index starts in zero.
-                    The vector "displacements" stores the values of displacements
-                    for each fuzzy set. So, it's necessary to get the correct
-                    displacement value. The code below do this. 
-                    */
-                    if (k == 0) {
-                        index = Integer.parseInt(rulebase.getFuzzySetfromRule(j,k)) - 1;
-                        //System.out.println(index);
-                    }    
-                    else {
-                        aux = aux + partition.getNumberOfFuzzySetsOfIthVariable(k - 1);
-                        index = (aux + Integer.parseInt(rulebase.getFuzzySetfromRule(j,k))) - 1;
-                        //System.out.println("partition = "+ partition.getNumberOfFuzzySetsOfIthVariable(k) + " aux = " + aux);
-                    }                        
-
-                    value = MembershipDegree.calcMembershipWithLateralDisplacement(samples.getValueOfTestSamples(i, k), k, 
-                            Integer.parseInt(rulebase.getFuzzySetfromRule(j,k))-1,
-                            partition.getPartitionFuzzyInput_(), "input", displacements.getValue(index));
-
-                    //System.out.println("rule = " + j + " variable = " + k + " index = " + index + " displacement value = " + displacements.getValue(index));
-
-                    //System.out.println("Value: " + samples.getAttribute(i, k) + " Attribute: " + k + " Fuzzy set: " + 
-                            //Integer.parseInt(rulebase.getFuzzySetfromRule(j,k)) + " Membership: " + value);                  
+    /* The rules are decoded only once, with the displacement of each fuzzy set.
+    If the rule is not selected, then the compatibiliy degree is zero.
+    resultFuzzyReasoning stores the rule index which the ith sample has higher compatibility
+    */
+    CompiledRuleBase compiledRuleBase = new CompiledRuleBase(partition, samples, rulebase, displacements, ruleSelected);
+    int[] resultFuzzyReasoning = FuzzyInferenceEngine.classify(compiledRuleBase, samples.getTestColumns(), null, numberOfSamples);
 
-                    // it's applying the product operator
-                    prod *= value;                   
-                }
-                listCompatSample.add(prod);
-                //System.out.println("compatibility sample " + (i + 1) + " with rule " + (j + 1) + " = " + compatSample[j]); 
-            } // end if                
-            else
-            /* If the rule is not selected, then the compatibiliy degree
-            is zero. I need add zero to listCompatSample because the
-            getRuleIdxWithMaxCompatibility method uses the position on the
-            list as rule index                
-            */
-                listCompatSample.add(0.0);
-        }
+    /* ruleClasses[j] is the code of the output of the jth rule, so the output
+    of the samples is compared as integer. -1 means that no sample has the 
+    output of the rule
+    */
+    int[] ruleClasses = new int[numberOfRules];
+    for (int j = 0; j < numberOfRules; j++)
+        ruleClasses[j] = samples.getClassCode(rulebase.getFuzzySetfromRule(j, numberOfInputVariables));
 
-        // resultFuzzyReasoning stores the rule index which the ith sample has higher compatibility            
-        resultFuzzyReasoning[i] = getRuleIdxWithMaxCompatibility(listCompatSample);        
-        listCompatSample.clear();
-    }        
     count = 0;
     for (int i = 0; i < numberOfSamples; i++) {
         //System.out.println("Sample " + (i+1) + " is compatible with rule " + (resultFuzzyReasoning[i] + 1));
@@ -248,7 +158,7 @@ public static int classicFuzzyReasoning(PartitionFuzzy partition, Samples sample
 
             if these are equals, so, the pattern is classified as correct!                
             */          
-            if (samples.getValueOfTestSamples(i, numberOfInputVariables).compareTo(rulebase.getFuzzySetfromRule(resultFuzzyReasoning[i], numberOfInputVariables)) == 0)
+            if (classes[i] == ruleClasses[resultFuzzyReasoning[i]])
                 count++;
         }
     }
@@ -313,113 +223,16 @@ public void classicFuzzyReasoning() {
 */
 
 /**
- * Returns the index of the rule with higher compatibility degree
- * @param list is the list with the compatibility degrees 
- * @return index of the rule with higher compatibility degree. The index starts in one,
- * i.e, the first rule has index one.
- */
-private static int getRuleIdxWithMaxCompatibility(List<Double> list) {
-    double max, firstMax, secondMax, degree;
-    int idx = -1;        
-    
-    max = 0;
-    for (int i = 0; i < list.size(); i++) {        
-        degree = list.get(i);
-        // max == 0 means that has not compatibility between rule and pattern
-        if (degree > max) {
-            max = degree;                
-            /* idx + 1 because I want that the index of the first rule be 1, the 
-            indice of the second rule be 2, and so on. */
-            idx = i + 1;
-        }            
-    }        
-    Collections.sort(list);               
-    /* 
-     firstMax == secondMax means that have 2 or more rules with the same
-     compatibility degree, so, in this case, the pattern is not classified
-     as correct         
-    */
-    if (list.size() > 1) {
-        firstMax = list.get(list.size()-1);
-        secondMax = list.get(list.size()-2);
-        if (firstMax == secondMax)
-            idx = -1;
-    }
-       
-    return idx;
-}
-
-/**
- * Returns the points of a triangular membership function
- * @param solution Is the chromosome
- * @param partition Partition fuzzy of the variables
- * @param idxVar Index of variable
- * @param idxSet Index of fuzzy set
- * @return A double array with three values 
- * (points of triangular membership function)
- * @throws JMException 
- */
-private static double[] getPointsOfMembershipFunction(Solution solution, PartitionFuzzy partition, int idxVar, int idxSet) throws JMException {             
-
-    if (solution.getType().getClass() == ArrayIntAndRealSolutionType.class) {
-
-        double[] result = new double[3];
-        /* The parameter always will be "input" because this fuzzy reasoning works
-        only to classification problems. So, the necessary variables are only the
-        input variables
-        */
-        if ((idxVar < 0) || (idxSet - 1) < 0) {
-            System.out.println("FuzzyReasoning class > getPointsOfMembershipFunction method error: index out of bounds!!!");
-            System.out.println("idxVar = " + idxVar + " idxSet - 1 = " + (idxSet - 1));
-            System.out.println("Number of rules = " + solution.getDecisionVariables()[2].getValue());
-            
-            ArrayInt inteiros = (ArrayInt)solution.getDecisionVariables()[0];
-            int size = inteiros.getLength();        
-            for (int k = 0; k < size; k++)
-                System.out.print(inteiros.getValue(k) + " ");
-            
-            System.exit(-1);
-        }
-        // left extreme of fuzzy set
-        result[0] = partition.getValuePartition(idxVar, idxSet - 1, 0, "input");
-
-        // right extreme of fuzzy set
-        result[2] = partition.getValuePartition(idxVar, idxSet - 1, 2, "input");                     
-
-        int idx = -1;        
-        if ((idxVar == 0) && (idxSet == 0))
-            idx = 0;
-        else {
-            // vet contain the number of fuzzy sets of each variable
-            int vet[] = partition.getNumberOfFuzzySets_();
-            
-            for (int i = 0; i < idxVar; i++)                    
-                idx = idx + vet[i];
-
-            idx = idx + idxSet;
-        }
-        // core of fuzzy set. This value is gotten from chromosome's part real (solution)
-        //System.out.println("idxVar = " + idxVar + " idxSet = " + idxSet + " Idx = " + idx + " Size array real = " + cores.size());        
-        result[1] = ((ArrayReal)solution.getDecisionVariables()[1]).getValue(idx);
-
-        return result;
-    }
-    else
-        return null;        
-    
-} // end getPointsOfMembershipFunction method
-
-/**
- * This method returns the matrix with the selected samples
+ * This method returns the indexes of the selected samples
  * @param samples Object with the samples (training and test)
- * @return A matrix string[][] with the selected samples
+ * @return A vector int[] with the indexes of the selected training samples
  */
-private static String[][] getSelectedSamples(Samples samples) {
+private static int[] getSelectedSamples(Samples samples) {
     int size, line;
     boolean[] sel;
     size = samples.getNumberOfTraSamples();
     sel = samples.getSelectedSamples();
-    String[][] auxSamples = new String[samples.getNumberOfSelectedSamples()][samples.getNumberOfVariables()];        
+    int[] auxSamples = new int[samples.getNumberOfSelectedSamples()];        
 
     if (sel.length != size) {
         System.err.println("FuzzyReasoning class > getSelectedSamples method error: length of arrays incompatibles");
@@ -430,12 +243,7 @@ private static String[][] getSelectedSamples(Samples samples) {
         //System.out.println("Number of selected samples = " + samples.getNumberOfSelectedSamples());
         for (int i = 0; i < size; i++) {            
             if (sel[i] == true) {
-                //System.out.print("Sample " + i + " = ");
-                for (int j = 0; j < samples.getNumberOfVariables(); j++) {
-                    auxSamples[line][j] = samples.getValueOfTraSamples(i, j);
-                    //System.out.print(auxSamples[line][j] + " ");
-                }
-                //System.out.print("\n");
+                auxSamples[line] = i;
                 line++;
             }            
         }        
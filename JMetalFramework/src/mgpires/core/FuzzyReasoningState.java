@@ -0,0 +1,298 @@
+package mgpires.core;
+
+import java.util.Arrays;
+
+/**
+ * This class is the result of the fuzzy reasoning of one rule base over the
+ * samples: for each sample, the rule with higher compatibility degree and the
+ * degree. It is kept by the chromosome (ArrayIntRules class), so the offspring
+ * created by the operators, which usually change only a few rules or a few
+ * cores of the membership functions, are evaluated incrementally:
+ *   1. The rules of the offspring are matched with the rules of the state. One
+ *      rule is unchanged when it has the same conditions with the same fuzzy
+ *      sets (the output is not considered, it does not change the degrees).
+ *   2. The rules of the state that were deleted or changed are evaluated
+ *      again. The samples where one of them had the higher degree lost their
+ *      winner, and they are evaluated again with all the rules.
+ *   3. The new or changed rules of the offspring are evaluated and compared
+ *      with the higher degree of the other samples.
+ * When many rules or many samples are affected, all the rule base is
+ * evaluated by the FuzzyInferenceEngine class.
+ *
+ * The degrees are the same products, in the same order, of the
+ * FuzzyInferenceEngine class, and the winner is the only rule with the higher
+ * degree (two or more rules with the higher degree are a tie). So the result
+ * is the same of evaluating all the rule base.
+ *
+ * The state is never modified after it is created, so it can be shared by
+ * the copies of one chromosome.
+ *
+ * @date 2026/10/17
+ */
+public class FuzzyReasoningState {
+
+    // when more than this fraction of the rules or of the samples are affected,
+    // all the rule base is evaluated
+    private static final double MAX_FRACTION_CHANGED = 0.5;
+
+    private final CompiledRuleBase ruleBase_;
+    // the samples of the evaluation, to detect when the samples changed
+    private final double[][] columns_;
+    private final int[] rows_;
+    private final int numberOfSamples_;
+    // result_[i] is the index (starting in one) of the rule with higher compatibility
+    // degree with the sample i, -1 when no rule is compatible or when there is a tie
+    private final int[] result_;
+    // maxDegree_[i] is the higher compatibility degree of the sample i. When
+    // result_[i] == -1 and maxDegree_[i] > 0, there is a tie
+    private final double[] maxDegree_;
+
+    private FuzzyReasoningState(CompiledRuleBase ruleBase, double[][] columns, int[] rows, int numberOfSamples,
+        int[] result, double[] maxDegree) {
+
+        ruleBase_        = ruleBase;
+        columns_         = columns;
+        rows_            = rows;
+        numberOfSamples_ = numberOfSamples;
+        result_          = result;
+        maxDegree_       = maxDegree;
+    }
+
+    /**
+     * This method applies the fuzzy reasoning to the samples, reusing the
+     * state of the last evaluation of the chromosome
+     * @param previous The state of the last evaluation, null when there is not
+     * @param ruleBase The rules
+     * @param columns The samples in numeric form: columns[variable][sample]
+     * @param rows The indexes of the used samples, null when all of them are used
+     * @param numberOfSamples Number of used samples
+     * @return The state of this evaluation. The previous state is not changed
+     */
+    public static FuzzyReasoningState evaluate(FuzzyReasoningState previous, CompiledRuleBase ruleBase,
+        double[][] columns, int[] rows, int numberOfSamples) {
+
+        // the state is valid only for the same samples
+        if ((previous == null) || (previous.columns_ != columns) || (previous.numberOfSamples_ != numberOfSamples) ||
+            !Arrays.equals(previous.rows_, rows))
+            return evaluateAll(ruleBase, columns, rows, numberOfSamples);
+
+        CompiledRuleBase oldRuleBase = previous.ruleBase_;
+        int[] oldToNew = matchRules(oldRuleBase, ruleBase);
+        boolean[] unchanged = new boolean[ruleBase.numberOfRules_];
+        int numberOfRemoved = 0, numberOfAdded;
+
+        for (int r = 0; r < oldRuleBase.numberOfRules_; r++) {
+            if (oldToNew[r] == -1)
+                numberOfRemoved++;
+            else
+                unchanged[oldToNew[r]] = true;
+        }
+        numberOfAdded = ruleBase.numberOfRules_ - (oldRuleBase.numberOfRules_ - numberOfRemoved);
+
+        if (numberOfRemoved + numberOfAdded > MAX_FRACTION_CHANGED * ruleBase.numberOfRules_)
+            return evaluateAll(ruleBase, columns, rows, numberOfSamples);
+
+        int[] result = new int[numberOfSamples];
+        double[] maxDegree = Arrays.copyOf(previous.maxDegree_, numberOfSamples);
+        double[] degrees = new double[numberOfSamples];
+        boolean[] invalid = new boolean[numberOfSamples];
+        int numberOfInvalid = 0, rule;
+
+        // the winners are renumbered to the new rule base
+        for (int i = 0; i < numberOfSamples; i++) {
+            rule = previous.result_[i];
+            result[i] = (rule == -1) ? -1 : oldToNew[rule - 1] + 1;
+        }
+
+        // the samples where one removed rule had the higher degree must be evaluated again
+        for (int r = 0; r < oldRuleBase.numberOfRules_; r++) {
+            if (oldToNew[r] == -1) {
+                calcDegrees(oldRuleBase, r, columns, rows, null, numberOfSamples, degrees);
+                for (int i = 0; i < numberOfSamples; i++) {
+                    if (!invalid[i] && (maxDegree[i] > 0) && (degrees[i] == maxDegree[i])) {
+                        invalid[i] = true;
+                        numberOfInvalid++;
+                    }
+                }
+            }
+        }
+
+        if (numberOfInvalid > MAX_FRACTION_CHANGED * numberOfSamples)
+            return evaluateAll(ruleBase, columns, rows, numberOfSamples);
+
+        // the other samples are compared only with the added rules
+        for (int q = 0; q < ruleBase.numberOfRules_; q++) {
+            if (!unchanged[q]) {
+                calcDegrees(ruleBase, q, columns, rows, null, numberOfSamples, degrees);
+                for (int i = 0; i < numberOfSamples; i++)
+                    if (!invalid[i])
+                        compare(q, degrees[i], i, result, maxDegree);
+            }
+        }
+
+        if (numberOfInvalid > 0) {
+            int[] samples = new int[numberOfInvalid];
+            int idx = 0;
+            for (int i = 0; i < numberOfSamples; i++) {
+                if (invalid[i]) {
+                    samples[idx++] = i;
+                    // max == 0 means that has not compatibility between rule and pattern
+                    result[i] = -1;
+                    maxDegree[i] = 0;
+                }
+            }
+            for (int q = 0; q < ruleBase.numberOfRules_; q++) {
+                calcDegrees(ruleBase, q, columns, rows, samples, numberOfInvalid, degrees);
+                for (int j = 0; j < numberOfInvalid; j++)
+                    compare(q, degrees[j], samples[j], result, maxDegree);
+            }
+        }
+
+        return new FuzzyReasoningState(ruleBase, columns, rows, numberOfSamples, result, maxDegree);
+    } // end evaluate method
+
+    /**
+     * @return For each used sample, the index of the rule with higher compatibility
+     * degree, starting in one. -1 when no rule is compatible with the sample or
+     * when two or more rules have the higher compatibility degree
+     */
+    public int[] getResult() {
+        return result_;
+    }
+
+    // evaluates all the rule base
+    private static FuzzyReasoningState evaluateAll(CompiledRuleBase ruleBase, double[][] columns, int[] rows,
+        int numberOfSamples) {
+
+        double[] maxDegree = new double[numberOfSamples];
+        int[] result = FuzzyInferenceEngine.classify(ruleBase, columns, rows, numberOfSamples, maxDegree);
+        return new FuzzyReasoningState(ruleBase, columns, rows, numberOfSamples, result, maxDegree);
+    } // end evaluateAll method
+
+    // updates the winner of the sample i with the degree of the rule q (starting in zero)
+    private static void compare(int q, double degree, int i, int[] result, double[] maxDegree) {
+        if (degree > maxDegree[i]) {
+            maxDegree[i] = degree;
+            result[i] = q + 1;
+        }
+        // two rules with the higher degree: the sample is not classified
+        else if ((degree == maxDegree[i]) && (degree > 0))
+            result[i] = -1;
+    } // end compare method
+
+    /**
+     * This method calculates the compatibility degree of one rule with the samples
+     * @param ruleBase The rules
+     * @param r Index of the rule, starting in zero
+     * @param columns The samples in numeric form: columns[variable][sample]
+     * @param rows The indexes of the used samples, null when all of them are used
+     * @param samples The positions (between the used samples) of the samples to
+     * evaluate, null to evaluate the first numberOfSamples used samples
+     * @param numberOfSamples Number of samples to evaluate
+     * @param degrees It receives the degree of each evaluated sample
+     */
+    private static void calcDegrees(CompiledRuleBase ruleBase, int r, double[][] columns, int[] rows, int[] samples,
+        int numberOfSamples, double[] degrees) {
+
+        if (ruleBase.disabled_[r]) {
+            Arrays.fill(degrees, 0, numberOfSamples, 0);
+            return;
+        }
+        // it's applying the product operator, one condition at a time
+        Arrays.fill(degrees, 0, numberOfSamples, 1.0);
+        int s, sample;
+        for (int c = ruleBase.ruleStart_[r]; c < ruleBase.ruleStart_[r + 1]; c++) {
+            s = ruleBase.conditions_[c];
+            double[] column = columns[ruleBase.variables_[s]];
+            double left = ruleBase.triangles_[3 * s], core = ruleBase.triangles_[3 * s + 1];
+            double right = ruleBase.triangles_[3 * s + 2];
+            for (int j = 0; j < numberOfSamples; j++) {
+                sample = (samples == null) ? j : samples[j];
+                if (rows != null)
+                    sample = rows[sample];
+                degrees[j] *= MembershipDegree.calcMembershipTriangularFunction(column[sample], left, core, right);
+            }
+        }
+    } // end calcDegrees method
+
+    /**
+     * This method matches the rules of two rule bases. Two rules match when
+     * they have the same compatibility degrees with all the samples: the same
+     * input variables with the same fuzzy sets, or both are disabled. Each rule
+     * matches one rule at most
+     * @param oldRuleBase The rules of the state
+     * @param ruleBase The new rules
+     * @return For each old rule, the index of the matched new rule, -1 when it
+     * was removed or changed
+     */
+    private static int[] matchRules(CompiledRuleBase oldRuleBase, CompiledRuleBase ruleBase) {
+        int[] oldToNew = new int[oldRuleBase.numberOfRules_];
+        Arrays.fill(oldToNew, -1);
+
+        // table[slot] is the index (starting in 1) of one old rule, 0 means an empty slot
+        int capacity = 2;
+        while (capacity < 2 * oldRuleBase.numberOfRules_)
+            capacity <<= 1;
+        int mask = capacity - 1, slot;
+        int[] table = new int[capacity];
+
+        for (int r = 0; r < oldRuleBase.numberOfRules_; r++) {
+            slot = hashRule(oldRuleBase, r) & mask;
+            while (table[slot] != 0)
+                slot = (slot + 1) & mask;
+            table[slot] = r + 1;
+        }
+
+        // equal old rules are in the same sequence of slots, the first not matched is used
+        int r;
+        for (int q = 0; q < ruleBase.numberOfRules_; q++) {
+            slot = hashRule(ruleBase, q) & mask;
+            while (table[slot] != 0) {
+                r = table[slot] - 1;
+                if ((oldToNew[r] == -1) && equalsRule(oldRuleBase, r, ruleBase, q)) {
+                    oldToNew[r] = q;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+        return oldToNew;
+    } // end matchRules method
+
+    // the hash code of the conditions of the rule r, with the bits mixed to be used as index of one table
+    private static int hashRule(CompiledRuleBase ruleBase, int r) {
+        if (ruleBase.disabled_[r])
+            return 0;
+        int hash = 1, s;
+        long bits;
+        for (int c = ruleBase.ruleStart_[r]; c < ruleBase.ruleStart_[r + 1]; c++) {
+            s = ruleBase.conditions_[c];
+            bits = Double.doubleToLongBits(ruleBase.triangles_[3 * s + 1]);
+            hash = 31 * hash + ruleBase.variables_[s];
+            hash = 31 * hash + (int)(bits ^ (bits >>> 32));
+        }
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    } // end hashRule method
+
+    // compares the conditions of the rule r of ruleBase1 and the rule q of ruleBase2
+    private static boolean equalsRule(CompiledRuleBase ruleBase1, int r, CompiledRuleBase ruleBase2, int q) {
+        if (ruleBase1.disabled_[r] || ruleBase2.disabled_[q])
+            return ruleBase1.disabled_[r] && ruleBase2.disabled_[q];
+
+        int c1 = ruleBase1.ruleStart_[r], c2 = ruleBase2.ruleStart_[q], s1, s2;
+        if (ruleBase1.ruleStart_[r + 1] - c1 != ruleBase2.ruleStart_[q + 1] - c2)
+            return false;
+        for (; c1 < ruleBase1.ruleStart_[r + 1]; c1++, c2++) {
+            s1 = ruleBase1.conditions_[c1];
+            s2 = ruleBase2.conditions_[c2];
+            if ((ruleBase1.variables_[s1] != ruleBase2.variables_[s2]) ||
+                (ruleBase1.triangles_[3 * s1] != ruleBase2.triangles_[3 * s2]) ||
+                (ruleBase1.triangles_[3 * s1 + 1] != ruleBase2.triangles_[3 * s2 + 1]) ||
+                (ruleBase1.triangles_[3 * s1 + 2] != ruleBase2.triangles_[3 * s2 + 2]))
+                return false;
+        }
+        return true;
+    } // end equalsRule method
+
+} // end FuzzyReasoningState class
@@ -13,6 +13,13 @@ public class MembershipDegree {
     public static double calcMembershipWithLateralDisplacement(String sample, int variable, int set, 
             double[][][] partitionFuzzy, String typeVariable, double displacement) {
         
+        return calcMembershipWithLateralDisplacement(Double.parseDouble(sample), variable, set, 
+                partitionFuzzy, typeVariable, displacement);
+    }
+    
+    public static double calcMembershipWithLateralDisplacement(double sample, int variable, int set, 
+            double[][][] partitionFuzzy, String typeVariable, double displacement) {
+        
         double result = 0;  
         double[] points = new double[3];
         
@@ -50,6 +57,11 @@ public class MembershipDegree {
     // Calculate the membership function of the one triangular function
     // caculate the membership degree of the sample in the set of the variable
     public static double calcMembership(String sample, int variable, int set, double[][][] partitionFuzzy, String typeVariable) {
+        return calcMembership(Double.parseDouble(sample), variable, set, partitionFuzzy, typeVariable);
+    }
+    
+    // the same as the prior method, but the sample is already in numeric form
+    public static double calcMembership(double sample, int variable, int set, double[][][] partitionFuzzy, String typeVariable) {
         double result = 0;
         double[] points = new double[3];       
         
@@ -80,9 +92,20 @@ public class MembershipDegree {
     } 
     
     public static double calcMembershipTriangularFunction(String sample, double[] points) {
+        return calcMembershipTriangularFunction(Double.parseDouble(sample), points);
+    }
+    
+    // the sample is read in numeric form from Samples, so it is not parsed
+    // again in each membership calculation
+    public static double calcMembershipTriangularFunction(double value, double[] points) {
+        return calcMembershipTriangularFunction(value, points[0], points[1], points[2]);
+    }
+    
+    // the same as the prior method, but the points are not in an array. It is
+    // used by the CompiledRuleBase class, which keeps all the triangles in one array
+    public static double calcMembershipTriangularFunction(double value, double point1, double point2, double point3) {
         
-        double value, result = 0;        
-        value = Double.parseDouble(sample);
+        double result = 0;        
         
         /* this code is wrong!
         if (value <= point1)
@@ -102,25 +125,25 @@ public class MembershipDegree {
          in the prior code, the membership degree was zero!        
         */
 
-        if (value <= points[0])
+        if (value <= point1)
             result = 0;
         
-        if ((value >= points[0]) && (value <= points[1])) {
+        if ((value >= point1) && (value <= point2)) {
             // if point2 - point1 == 0, error division by zero
-            if ((points[1] - points[0]) == 0)
+            if ((point2 - point1) == 0)
                 result = 1;
             else
-                result = ((value - points[0]) / (points[1] - points[0]));
+                result = ((value - point1) / (point2 - point1));
         }
         
-        if ((value >= points[1]) && (value <= points[2]))
+        if ((value >= point2) && (value <= point3))
             // if point3 - point2 == 0, error division by zero
-            if ((points[2] - points[1]) == 0)
+            if ((point3 - point2) == 0)
                 result = 1;
             else
-                result = ((points[2] - value) / (points[2] - points[1]));
+                result = ((point3 - value) / (point3 - point2));
         
-        if (value > points[2])
+        if (value > point3)
             result = 0;
         
         return result;
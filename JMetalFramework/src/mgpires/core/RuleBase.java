@@ -1,9 +1,10 @@
   
 package mgpires.core;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * @author Matheus Giovanni Pires
@@ -11,6 +12,9 @@ import java.util.List;
  * @data   2014/10/03
  */
 public class RuleBase {
+    // number of samples scanned by one task of the Wang and Mendel algorithm, at least
+    private static final int TASK_SIZE = 1024;
+    
     private String[][] ruleBase_;
     private int numberOfRules_;
     private int numberOfVar_; // input and output variables
@@ -98,204 +102,279 @@ public class RuleBase {
         
     // creates one rule base from partitionFuzzyInput, partitionFuzzyOutput and samples
     // Wang and Mendel algorithm version 1
+    /* The samples are scanned in parallel chunks. Each chunk keeps its candidate
+    rules in one Candidates map, keyed by the antecedent, and the maps of the
+    chunks are merged in the order of the samples. So, the rule base is the same
+    of the sequential algorithm, whatever the number of threads
+    */
     public void createRulesWithWangMendel(double[][][] partitionFuzzyInput, double[][][] partitionFuzzyOutput, String[][] samples, 
         int numberOfSamples, int[] numberOfFuzzySets, String[] outputDiscrete, String typeOfOutputVariable) {        
         
-        List<Double> listValuesOfMembership = new ArrayList<>(); 
-        List<int[]> listOfRules = new ArrayList<>();
-        List<Double> listOfDegreeRules = new ArrayList();
-        double value, auxDegreeRule;
-        int idxSet;
-        int[] rule;
+        // rules[i * numberOfVar_ + j] is the fuzzy set of the variable j in the rule of the sample i
+        int[] rules = new int[numberOfSamples * numberOfVar_];
+        double[] degrees = new double[numberOfSamples];
+        int[] hashes = new int[numberOfSamples];
         
-        for (int i = 0; i < numberOfSamples; i++) {
-            auxDegreeRule = 1.0;
-            rule = new int[numberOfVar_];
-            
-            for (int j = 0; j < numberOfVar_; j++) {
-                
-                for (int k = 0; k < numberOfFuzzySets[j]; k++) {
-                    
-                    if ((j == numberOfVar_-1) && (typeOfOutputVariable.equals("continuous"))) {
-                        //value = calcMembership(samples[i][j], j, k, partitionFuzzyOutput);                        
-                        value = MembershipDegree.calcMembership(samples[i][j], j, k, partitionFuzzyOutput, "output");
-                        //System.out.println("Sample: " + samples[i][j] + " Set: " + k + " Membership value: " + value);
-                    }
-                    else if ((j == numberOfVar_-1) && (typeOfOutputVariable.equals("discrete"))) {
-                        //value = calcMembership(samples[i][j], outputDiscrete[k]);
-                        value = MembershipDegree.calcMembership(samples[i][j], outputDiscrete[k]);
-                        //System.out.println("Sample: " + samples[i][j] + " Set: " + k + " Membership value: " + value);
-                    }
-                    else {                       
-                        //value = calcMembership(samples[i][j], j, k, partitionFuzzyInput);
-                        value = MembershipDegree.calcMembership(samples[i][j], j, k, partitionFuzzyInput, "input");
-                        //System.out.println("Sample: " + samples[i][j] + " Set: " + k + " Membership value: " + value);
-                    }                    
-                    //System.out.print(value + " ");
-                    listValuesOfMembership.add(value);                    
-                } // end third for
-                
-                // returnIdxSet returns the fuzzy set index with highest membership degree in relation to the sample
-                idxSet = returnIdxSet(listValuesOfMembership);
-                rule[j] = idxSet;                
-                Collections.sort(listValuesOfMembership);
-                //System.out.println("Idx set " + idxSet + "  Greater degree " + 
-                        //listValuesOfMembership.get(listValuesOfMembership.size()-1));
-                
-                // auxDegreeRule is the rule degree, which is the product among the membership degrees
-                auxDegreeRule *= listValuesOfMembership.get(listValuesOfMembership.size()-1);
-                listValuesOfMembership.clear();                
-                
-            } // end second for
-            
-            /*
-            System.out.print("Rule.: ");
-            for (int r = 0; r < numberOfVariables; r++) {
-                System.out.print(rule[r] + " ");
-            } */
-            
-            listOfRules.add(i, rule);
-            listOfDegreeRules.add(i, auxDegreeRule);
-            
-            //System.out.println(" Rule degree.: " + auxDegreeRule);
-            //System.out.println(" ");  
-            
-        } // end first for        
+        WangMendelTask task = new WangMendelTask(partitionFuzzyInput, partitionFuzzyOutput, samples, numberOfFuzzySets, 
+            outputDiscrete, typeOfOutputVariable, numberOfVar_, rules, degrees, hashes, 0, numberOfSamples);
+        Candidates candidates;
+        if (numberOfSamples <= TASK_SIZE)
+            candidates = task.compute();
+        // inside the pool the task is run by the current thread, which forks the halves
+        else if (ForkJoinTask.inForkJoinPool())
+            candidates = task.invoke();
+        else
+            candidates = ForkJoinPool.commonPool().invoke(task);
         
-        /*
-        System.out.println("Printing the rule base..." + listOfRules.size() + " rules " + listOfDegreeRules.size() + " degrees");
-        for (int i = 0; i < listOfRules.size(); i++) {
-            int[] get = listOfRules.get(i);
-            for (int j = 0; j < get.length; j++) {
-                System.out.print(get[j] + " ");               
-            }
-            System.out.print(listOfDegreeRules.get(i));
-            System.out.println(" ");            
-        }
-        */
+        // the rules kept are in the order of the samples that created them
+        int[] winners = candidates.getWinners();
+        Arrays.sort(winners);
         
-        // cleanRuleBase eliminates duplicated rules       
-        listOfRules = cleanRuleBase(listOfRules, listOfDegreeRules, numberOfVar_);
-        numberOfRules_ = listOfRules.size();
+        numberOfRules_ = winners.length;
         ruleBase_ = new String[numberOfRules_][numberOfVar_];        
-        
-        //System.out.println(" ");
-        //System.out.println("Rule base cleaned! " + numberOfRules_+ " rules ");
-        for (int i = 0; i < numberOfRules_; i++) {
-            int[] get = listOfRules.get(i);
-            for (int j = 0; j < get.length; j++) {                
-                ruleBase_[i][j] = String.valueOf(get[j]);
-                //System.out.print(ruleBase_[i][j] + " ");
-            }            
-            //System.out.println(" ");
-        }
+        for (int i = 0; i < numberOfRules_; i++)
+            for (int j = 0; j < numberOfVar_; j++)
+                ruleBase_[i][j] = String.valueOf(rules[winners[i] * numberOfVar_ + j]);
     } //end createRuleBase method
     
     /**
-     * Returns the fuzzy set index which the sample has greater membership degree
-     * @param listValuesOfMembership is the list with the membership degrees 
+     * This class creates the rules of the samples [from, to) and returns them
+     * as candidates. If they are many, the task is split in two halves and the
+     * candidates of the halves are merged
      */
-    private int returnIdxSet(List<Double> listValuesOfMembership) {
-        double max;
-        int idx=0;
-        List<Double> list = new ArrayList<>();
-        max = 0;
-        for (int i = 0; i < listValuesOfMembership.size(); i++) {
-            Double get = listValuesOfMembership.get(i);
-            if (get >= max) {
-                max = get;                
-                // I am adding 1 because I want that the first fuzzy set to be one,
-                // and not zero! I will let zero for dont' care                
-                idx = i + 1;                 
-            }            
+    private static class WangMendelTask extends RecursiveTask<Candidates> {
+        
+        private final double[][][] partitionFuzzyInput, partitionFuzzyOutput;
+        private final String[][] samples;
+        private final int[] numberOfFuzzySets;
+        private final String[] outputDiscrete;
+        private final String typeOfOutputVariable;
+        private final int numberOfVar;
+        private final int[] rules, hashes;
+        private final double[] degrees;
+        private final int from, to;
+        
+        WangMendelTask(double[][][] partitionFuzzyInput, double[][][] partitionFuzzyOutput, String[][] samples,
+            int[] numberOfFuzzySets, String[] outputDiscrete, String typeOfOutputVariable, int numberOfVar,
+            int[] rules, double[] degrees, int[] hashes, int from, int to) {
+            
+            this.partitionFuzzyInput = partitionFuzzyInput;
+            this.partitionFuzzyOutput = partitionFuzzyOutput;
+            this.samples = samples;
+            this.numberOfFuzzySets = numberOfFuzzySets;
+            this.outputDiscrete = outputDiscrete;
+            this.typeOfOutputVariable = typeOfOutputVariable;
+            this.numberOfVar = numberOfVar;
+            this.rules = rules;
+            this.degrees = degrees;
+            this.hashes = hashes;
+            this.from = from;
+            this.to = to;
         }
-        return idx;
-    }
-
-    // cleanRuleBase elimiates duplicate rules
-    private List<int[]> cleanRuleBase(List<int[]> listOfRules, List<Double> listOfDegree, int numberOfVariables) {
-        // ant1 is the antecedent of the rule 1
-        // ant2 is the antecedent of the rule 2
-        String ant1, ant2, aux;        
-        List<int[]> newList = new ArrayList<>();
-        int count = 0, idx, idxRule;
-        int[] auxRule;
-        int[] verifiedRules = new int[listOfRules.size()]; 
-        double max, degreeRule1, degreeRule2;        
         
-        // Initializing the verifiedRules array with -1. This mean that the
-        // rules were not evaluated
-        for (int i = 0; i < listOfRules.size(); i ++)
-            verifiedRules[i] = -1;
+        @Override
+        protected Candidates compute() {
+            if (to - from <= TASK_SIZE)
+                return createRules();
+            
+            int middle = (from + to) >>> 1;
+            WangMendelTask left = new WangMendelTask(partitionFuzzyInput, partitionFuzzyOutput, samples, numberOfFuzzySets,
+                outputDiscrete, typeOfOutputVariable, numberOfVar, rules, degrees, hashes, from, middle);
+            WangMendelTask right = new WangMendelTask(partitionFuzzyInput, partitionFuzzyOutput, samples, numberOfFuzzySets,
+                outputDiscrete, typeOfOutputVariable, numberOfVar, rules, degrees, hashes, middle, to);
+            right.fork();
+            Candidates candidates = left.compute();
+            candidates.merge(right.join());
+            return candidates;
+        } // end compute method
         
-        idx = 1;
-        for (int i = 0; i < listOfRules.size(); i++) {            
-            if (verifiedRules[i] == -1) {
-                int[] rule = listOfRules.get(i); 
-                degreeRule1 = listOfDegree.get(i);
-                ant1 = copyAntecedent(rule);
-                idxRule = i;                
-                verifiedRules[i] = 0; // if the rule was compared, verifiedRules stores zero
-                max = 0;            
-                for (int j = 0; j < listOfRules.size(); j++) {
-                    int[] rule2 = listOfRules.get(j);                
-                    degreeRule2 = listOfDegree.get(j);
-                    ant2 = copyAntecedent(rule2);                    
-                    //System.out.println(ant1 + " = " + ant2 + " ?");
-                    if ((i != j) && (verifiedRules[j] == -1) && (ant1.equals(ant2))) {                        
-                        //System.out.println("Yes");
-                        count++;
-                        //System.out.println("Degree 1 = " + degreeRule1 + " Degree 2 = " + degreeRule2);
-                        if (degreeRule1 > degreeRule2) {
-                            if (degreeRule1 >= max) {
-                                idxRule = i;
-                                max = degreeRule1;
-                            }
+        // creates the rule of each sample of the task
+        private Candidates createRules() {
+            Candidates candidates = new Candidates(rules, degrees, hashes, numberOfVar, to - from);
+            int output = numberOfVar - 1, idxSet, begin;
+            double value, max, sample = 0, auxDegreeRule;
+            double[] points;
+            
+            for (int i = from; i < to; i++) {
+                auxDegreeRule = 1.0;
+                begin = i * numberOfVar;
+                
+                for (int j = 0; j < numberOfVar; j++) {
+                    boolean discrete = (j == output) && typeOfOutputVariable.equals("discrete");
+                    // the sample is parsed once, and not once per fuzzy set
+                    if (!discrete)
+                        sample = Double.parseDouble(samples[i][j]);
+                    
+                    // idxSet is the fuzzy set index with highest membership degree in relation to the sample.
+                    // I am adding 1 because I want that the first fuzzy set to be one,
+                    // and not zero! I will let zero for dont' care
+                    max = 0;
+                    idxSet = 0;
+                    for (int k = 0; k < numberOfFuzzySets[j]; k++) {
+                        if ((j == output) && (typeOfOutputVariable.equals("continuous"))) {
+                            // Currently, I am considering problems with only one output variable!
+                            points = partitionFuzzyOutput[0][k];
+                            value = MembershipDegree.calcMembershipTriangularFunction(sample, points[0], points[1], points[2]);
                         }
+                        else if (discrete)
+                            value = MembershipDegree.calcMembership(samples[i][j], outputDiscrete[k]);
                         else {
-                            if (degreeRule2 >= max) {
-                                idxRule = j;
-                                max = degreeRule2;
-                            } 
+                            points = partitionFuzzyInput[j][k];
+                            value = MembershipDegree.calcMembershipTriangularFunction(sample, points[0], points[1], points[2]);
+                        }
+                        if (value >= max) {
+                            max = value;
+                            idxSet = k + 1;
                         }
-                        // set the rule j like compared!
-                        verifiedRules[j] = 0;
-                    }               
+                    }
+                    rules[begin + j] = idxSet;
+                    // auxDegreeRule is the rule degree, which is the product among the membership degrees
+                    auxDegreeRule *= max;
                 }
-                //System.out.println("Winner degree = " + max + " Winner rule = " + idx);
-                verifiedRules[idxRule] = idx;
-                idx++;
+                degrees[i] = auxDegreeRule;
+                candidates.add(i);
             }
+            return candidates;
+        } // end createRules method
+        
+    } // end WangMendelTask class
+    
+    /**
+     * This class is one primitive hash map (open addressing) with the candidate
+     * rules of consecutive samples, keyed by the antecedent of the rules. For
+     * each antecedent, it keeps the first sample, the last sample and the last
+     * sample with the highest rule degree, which are enough to know the rule
+     * kept by the sequential algorithm. The antecedents and the degrees are read
+     * from the arrays shared by all the maps
+     */
+    private static class Candidates {
+        
+        private final int[] rules, hashes;
+        private final double[] degrees;
+        private final int numberOfVar;
+        // table[slot] is the index (starting in 1) of one entry, 0 means an empty slot
+        private int[] table;
+        private int[] first, last, best;
+        private int size;
+        
+        Candidates(int[] rules, double[] degrees, int[] hashes, int numberOfVar, int expectedSize) {
+            this.rules = rules;
+            this.degrees = degrees;
+            this.hashes = hashes;
+            this.numberOfVar = numberOfVar;
+            int capacity = 16;
+            while (capacity < 2 * expectedSize)
+                capacity <<= 1;
+            table = new int[capacity];
+            first = new int[capacity / 2];
+            last = new int[capacity / 2];
+            best = new int[capacity / 2];
+            size = 0;
         }
         
-        idx = 0;        
-        for (int i = 0; i < verifiedRules.length; i++) {
-            // copying the rules to new list            
-            if (verifiedRules[i] != 0) { 
-                auxRule = new int[numberOfVar_];
-                auxRule = listOfRules.get(i);
-                newList.add(idx, auxRule);
-                idx++;
+        // adds the rule of the sample i, after the samples already added
+        void add(int i) {
+            int hash = 1, begin = i * numberOfVar;
+            // numberOfVar - 1 because the antecedent has only the input variables
+            for (int j = begin; j < begin + numberOfVar - 1; j++)
+                hash = 31 * hash + rules[j];
+            hash *= 0x9E3779B9;
+            hashes[i] = hash ^ (hash >>> 16);
+            
+            int slot = find(i);
+            if (table[slot] == 0)
+                insert(slot, i, i, i);
+            else {
+                int entry = table[slot] - 1;
+                last[entry] = i;
+                if (degrees[i] >= degrees[best[entry]])
+                    best[entry] = i;
             }
-        }
-        //System.out.println(" ");
-        //System.out.println("Final number of rules: " + newList.size());
+        } // end add method
+        
+        // merges the candidates of the samples after the samples of this map
+        void merge(Candidates other) {
+            int slot, entry;
+            for (int e = 0; e < other.size; e++) {
+                slot = find(other.first[e]);
+                if (table[slot] == 0)
+                    insert(slot, other.first[e], other.last[e], other.best[e]);
+                else {
+                    entry = table[slot] - 1;
+                    last[entry] = other.last[e];
+                    if (degrees[other.best[e]] >= degrees[best[entry]])
+                        best[entry] = other.best[e];
+                }
+            }
+        } // end merge method
+        
+        /* returns the sample of the rule kept for each antecedent. The sequential
+        algorithm compares the first rule with each other rule, in the order of
+        the samples, and keeps the last one with the highest degree. When the
+        first rule has the highest degree and the following rule has not, the
+        first rule is the one compared. So, the first rule is kept when it has
+        the highest degree and the last rule has not
+        */
+        int[] getWinners() {
+            int[] winners = new int[size];
+            for (int e = 0; e < size; e++) {
+                if ((degrees[first[e]] == degrees[best[e]]) && (best[e] != last[e]))
+                    winners[e] = first[e];
+                else
+                    winners[e] = best[e];
+            }
+            return winners;
+        } // end getWinners method
         
-        //System.out.println(" ");       
-        //System.out.println("Number of duplicate rules.: " + count);
+        // returns the slot of the antecedent of the sample i, or the empty slot where it must be inserted
+        private int find(int i) {
+            int mask = table.length - 1, slot = hashes[i] & mask, entry;
+            while (table[slot] != 0) {
+                entry = table[slot] - 1;
+                if ((hashes[first[entry]] == hashes[i]) && equalsAntecedent(first[entry], i))
+                    return slot;
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        } // end find method
         
-        return newList;
+        private void insert(int slot, int firstSample, int lastSample, int bestSample) {
+            first[size] = firstSample;
+            last[size] = lastSample;
+            best[size] = bestSample;
+            size++;
+            table[slot] = size;
+            // the table is never more than half full
+            if (2 * size >= table.length)
+                resize();
+        } // end insert method
         
-    } // end cleanRuleBase method
+        private void resize() {
+            int[] oldTable = table;
+            int mask, slot;
+            table = new int[2 * oldTable.length];
+            mask = table.length - 1;
+            for (int entry : oldTable) {
+                if (entry != 0) {
+                    slot = hashes[first[entry - 1]] & mask;
+                    while (table[slot] != 0)
+                        slot = (slot + 1) & mask;
+                    table[slot] = entry;
+                }
+            }
+            first = Arrays.copyOf(first, table.length / 2);
+            last = Arrays.copyOf(last, table.length / 2);
+            best = Arrays.copyOf(best, table.length / 2);
+        } // end resize method
         
-    // Returns the antecedent of the one rule
-    private String copyAntecedent(int[] rule) {
-        String aux = "";
-        // length - 1 because I need to get only antecedent of the rule
-        for (int k = 0; k < rule.length - 1; k++)
-            aux += String.valueOf(rule[k]); 
+        private boolean equalsAntecedent(int sample1, int sample2) {
+            int begin1 = sample1 * numberOfVar, begin2 = sample2 * numberOfVar;
+            for (int j = 0; j < numberOfVar - 1; j++)
+                if (rules[begin1 + j] != rules[begin2 + j])
+                    return false;
+            return true;
+        } // end equalsAntecedent method
         
-        return aux;
-    }
+    } // end Candidates class
     
 } // end class WangMendell
@@ -2,8 +2,10 @@
 package mgpires.core;
 
 import java.io.BufferedReader;
+import jmetal.util.DistanceKernel;
 import java.io.FileReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
@@ -17,11 +19,22 @@ import java.util.StringTokenizer;
 public class Samples {    
     // traSamples_ stores the training data
     // testSamples_ stores the test data    
-    private String[][] traSamples_, testSamples_;    
+    // They are read from the files only when they are asked for, by the first
+    // of the threads that share the samples
+    private volatile String[][] traSamples_, testSamples_;    
+    // traFileName_ and testFileName_ are the files of the loaded folds
+    private String traFileName_, testFileName_;
+    // traColumns_ and testColumns_ store the same data in numeric form, one
+    // vector per variable: traColumns_[var][sample]. The nominal values are
+    // stored by their codes in the dictionary of the variable
+    private double[][] traColumns_, testColumns_;
+    // traClasses_ and testClasses_ store the code of the output of each sample
+    private int[] traClasses_, testClasses_;
+    // nominalValues_ has one dictionary per variable, null for the numeric ones
+    private List<Dictionary> nominalValues_;
+    // classLabels_ is the dictionary of the output variable
+    private Dictionary classLabels_;
     private int numberOfVariables_, numberOfTestSamples_, numberOfTraSamples_;
-    // numberOfSamples_ not should be used, because it is only one auxiliar
-    // variable used in loadSamples method
-    private int numberOfSamples_;
     
     // this vector indicates which samples are or not selected. true is equal selected,
     // and false is equal not selected
@@ -39,11 +52,18 @@ public class Samples {
     public Samples() {
         traSamples_              = null;
         testSamples_             = null;        
+        traFileName_             = null;
+        testFileName_            = null;
+        traColumns_              = null;
+        testColumns_             = null;
+        traClasses_              = null;
+        testClasses_             = null;
+        nominalValues_           = null;
+        classLabels_             = null;
         selectedSamples_         = null;        
         numberOfTestSamples_     = 0;
         numberOfTraSamples_      = 0; 
         numberOfVariables_       = 0;       
-        numberOfSamples_         = 0;       
         typeDataSet_             = null;
         typeProcedure_           = null;
         numberOfSelectedSamples_ = 0;
@@ -55,21 +75,113 @@ public class Samples {
      * @return one attribute from the database   
      */
     public String getValueOfTestSamples (int line, int column) {
-        return testSamples_[line][column];
+        return getTestSamples()[line][column];
     }
     
     public String getValueOfTraSamples (int line, int column) {
-        return traSamples_[line][column];
+        return getTraSamples()[line][column];
     }
     
+    /**
+     * The samples are read straight into the numeric columns, so this matrix
+     * is read from the fold the first time it is asked for. It has the same
+     * strings of the file
+     * @return The test data: [sample][variable]
+     */
     public String[][] getTestSamples() {
-        return testSamples_;
+        String[][] samples = testSamples_;
+        if (samples == null) {
+            synchronized (this) {
+                samples = testSamples_;
+                if (samples == null)
+                    testSamples_ = samples = readSamples(testFileName_, numberOfTestSamples_);
+            }
+        }
+        return samples;
     }
 
+    /**
+     * @see #getTestSamples()
+     * @return The training data: [sample][variable]
+     */
     public String[][] getTraSamples() {
-        return traSamples_;
+        String[][] samples = traSamples_;
+        if (samples == null) {
+            synchronized (this) {
+                samples = traSamples_;
+                if (samples == null)
+                    traSamples_ = samples = readSamples(traFileName_, numberOfTraSamples_);
+            }
+        }
+        return samples;
     } 
 
+    /**
+     * Returns one attribute from the database in numeric form. Nominal values
+     * are returned by their codes
+     * @param line is the line of the database
+     * @param column is the column of the database
+     * @return one attribute from the database
+     */
+    public double getNumericValueOfTestSamples (int line, int column) {
+        return testColumns_[column][line];
+    }
+
+    public double getNumericValueOfTraSamples (int line, int column) {
+        return traColumns_[column][line];
+    }
+
+    /**
+     * @return The test data, one vector per variable: [variable][sample]
+     */
+    public double[][] getTestColumns() {
+        return testColumns_;
+    }
+
+    /**
+     * @return The training data, one vector per variable: [variable][sample]
+     */
+    public double[][] getTraColumns() {
+        return traColumns_;
+    }
+
+    /**
+     * @return The code of the output of each test sample
+     */
+    public int[] getTestClasses() {
+        return testClasses_;
+    }
+
+    /**
+     * @return The code of the output of each training sample
+     */
+    public int[] getTraClasses() {
+        return traClasses_;
+    }
+
+    /**
+     * @param label Label of the output, as written in the dataset
+     * @return The code of the label, or -1 if no sample has this output
+     */
+    public int getClassCode(String label) {
+        return classLabels_.getCode(label);
+    }
+
+    /**
+     * @param code Code of the output
+     * @return The label of the output, as written in the dataset
+     */
+    public String getClassLabel(int code) {
+        return classLabels_.getLabel(code);
+    }
+
+    /**
+     * @return The number of different outputs
+     */
+    public int getNumberOfClasses() {
+        return classLabels_.size();
+    }
+
     public int getNumberOfVariables() {
         return numberOfVariables_;
     }
@@ -174,7 +286,7 @@ public class Samples {
         
         for (int i = 0; i < numberOfTestSamples_; i++) {
             for (int j = 0; j < numberOfVariables_; j++)
-                System.out.print(testSamples_[i][j] + " ");                
+                System.out.print(getValueOfTestSamples(i, j) + " ");                
             
             System.out.println(" ");
         }
@@ -186,7 +298,7 @@ public class Samples {
         
         for (int i = 0; i < numberOfTraSamples_; i++) {
             for (int j = 0; j < numberOfVariables_; j++)
-                System.out.print(traSamples_[i][j] + " ");                
+                System.out.print(getValueOfTraSamples(i, j) + " ");                
             
             System.out.println(" ");
         }
@@ -210,21 +322,30 @@ public class Samples {
      * @param index Index of the fold that will be used    
      */   
     public void loadSamples (String datasetName, String stratificationDataset, int index) { 
-        List<String[]> listOfSamples;        
+        Fold fold;
+        
+        // the dictionaries are shared by the test and training folds, so one
+        // label has the same code in both of them
+        nominalValues_ = new ArrayList<>();
+        classLabels_   = new Dictionary();
         
         // Name of test fold. Example name: adult-5-1tst.dat            
         String name = datasetName + "-" + stratificationDataset + "-" + Integer.toString(index) + "tst.dat";        
-        listOfSamples = readDataSet(name);
-        numberOfTestSamples_ = numberOfSamples_;
-        testSamples_ = new String[numberOfTestSamples_][numberOfVariables_];
-        testSamples_ = copySamplesFromList(listOfSamples, numberOfTestSamples_);        
+        fold = readDataSet(name);
+        numberOfTestSamples_ = fold.size_;
+        testColumns_ = fold.columns_;
+        testClasses_ = fold.classes_;
+        testSamples_ = null;
+        testFileName_ = name;
         
         // Name of training fold. Example name: adult-5-1tra.dat            
         name = datasetName + "-" + stratificationDataset + "-" + Integer.toString(index) + "tra.dat";         
-        listOfSamples = readDataSet(name);
-        numberOfTraSamples_ = numberOfSamples_;
-        traSamples_ = new String[numberOfTraSamples_][numberOfVariables_];
-        traSamples_ = copySamplesFromList(listOfSamples, numberOfTraSamples_); 
+        fold = readDataSet(name);
+        numberOfTraSamples_ = fold.size_;
+        traColumns_ = fold.columns_;
+        traClasses_ = fold.classes_;
+        traSamples_ = null;
+        traFileName_ = name;
         
         /* this vector indicates which samples are or not selected. true is 
         equal selected, and false is equal not selected
@@ -237,166 +358,207 @@ public class Samples {
     } //end loadSamples method
 
     /**
-     * This method reads the dataset
-     * @param fileName Name of dataset
-     * @return List which contain the data of dataset
+     * This method reads one fold of the dataset in one pass: the header gives
+     * the variables and their dictionaries, and each sample is converted to
+     * numeric form while it is read. The nominal values are replaced by their 
+     * codes, the values that are not numbers (missing values, for example) by
+     * NaN and the output by its code in the classLabels_ dictionary
+     * @param fileName Name of the fold
+     * @return The fold, one vector per variable
      */
-    /*
-    private List<String[]> readDataSet (String fileName) {       
-        try {
-            FileReader reader = new FileReader(fileName);            
-            BufferedReader leitor = new BufferedReader(reader);  
-            StringTokenizer st;   
-            String line, data;
-            String[] oneSample;
-            int idx, count, inputs = 0; // inputs is the counter of the input variables            
-            boolean flagInputs = false;        
-            List<String[]> listOfSamples;
-            listOfSamples = new ArrayList<>();
-            line = leitor.readLine();
+    private Fold readDataSet (String fileName) {       
+        try (FileReader reader = new FileReader(fileName);            
+             BufferedReader leitor = new BufferedReader(reader); )  
+        {    
+            String line, header;
+            int vars = 0; // vars is the counter of the variables            
             
             // this while reads the file's header
-            while (line != null) {
-                st = new StringTokenizer(line, ",| ");
+            while ((line = leitor.readLine()) != null) {
+                header = line.trim().toLowerCase();
                 
-                while (st.hasMoreTokens()) {
-                    data = st.nextToken();                                     
-                    switch (data) {
-                        case "@inputs":
-                            flagInputs = true;
-                            break;
-                        case "@outputs":
-                            flagInputs = false;
-                            break;
-                        case "@output":
-                            flagInputs = false;
-                            break;
-                    }                  
-                    // while flagInputs == true, I will count the number of 
-                    // input variables
-                    if ((flagInputs == true) && (!data.equals("@inputs")))
-                        inputs++;                    
-                    // when data is equal @data, will start the samples' data
-                    if (!st.hasMoreTokens() && data.equals("@data")) 
-                        line = null; 
-                    else if (!st.hasMoreTokens() && !data.equals("@data")) {                        
-                        line = leitor.readLine();
-                    }
-                }// end while
-            }// end while               
-            // 1 is the output variable
+                if (header.startsWith("@attribute")) {
+                    readAttributeType(line, vars);
+                    vars++;
+                }
+                else if (header.startsWith("@data"))
+                    break;
+            }// end while            
             // numberOfVariables_ is the number of variables of the database (input + output variables)
-            numberOfVariables_ = inputs + 1;
-            System.out.println(numberOfVariables_);
+            numberOfVariables_ = vars;            
             
-            // this while reads the all samples and stores in one arrayList "listOfSamples"
-            idx = 0; // index of the list
-            while ((line = leitor.readLine()) != null) {
-                st = new StringTokenizer(line, ",| ");  
-                oneSample = new String[numberOfVariables_];
-                count = 0;
-                while (st.hasMoreTokens()) {
-                    data = st.nextToken();
-                    oneSample[count] = data;                    
-                    count++;
-                }                   
-                listOfSamples.add(idx, oneSample);                
-                idx++;            
+            int output = numberOfVariables_ - 1;
+            // when the output is nominal, its codes follow the order of the header
+            if (classLabels_.size() == 0 && output < nominalValues_.size() && nominalValues_.get(output) != null) {
+                Dictionary labels = nominalValues_.get(output);
+                for (int k = 0; k < labels.size(); k++)
+                    classLabels_.encode(labels.getLabel(k));
+            }
+            
+            Dictionary[] dictionaries = new Dictionary[numberOfVariables_];
+            for (int var = 0; var < numberOfVariables_ && var < nominalValues_.size(); var++)
+                dictionaries[var] = nominalValues_.get(var);
+            
+            // this while reads the all samples, storing them straight in the fold
+            Fold fold = new Fold(numberOfVariables_);
+            String[] tokens = new String[numberOfVariables_];
+            while ((line = leitor.readLine()) != null) {               
+                if (splitSample(line, tokens) == 0)
+                    continue;
+                
+                int i = fold.add();
+                for (int var = 0; var < numberOfVariables_; var++) {
+                    if (dictionaries[var] != null)
+                        fold.columns_[var][i] = dictionaries[var].encode(tokens[var]);
+                    else {
+                        try {
+                            fold.columns_[var][i] = Double.parseDouble(tokens[var]);
+                        }
+                        catch (NumberFormatException | NullPointerException e) {
+                            fold.columns_[var][i] = Double.NaN;
+                        }
+                    }
+                }
+                fold.classes_[i] = classLabels_.encode(tokens[output]);
             } // end while
-            numberOfSamples_ = listOfSamples.size();
+            fold.trim();
             
-            leitor.close();  
-            reader.close();  
-            return listOfSamples;
+            return fold;
         } 
         catch (Exception e) {             
-           System.out.println("Erro encontrado: "+ e);
-           return null;
+            System.err.println("Samples class > readDataSet method error: " + fileName + " " + e);
+            System.exit(-1);
+            return null;
         }      
     } // end readDataSet method 
-    */
     
-    private List<String[]> readDataSet (String fileName) {       
+    /**
+     * This method splits one line of samples in the same tokens of a
+     * StringTokenizer with the delimiters ",| ", without creating it
+     * @param line Line of the dataset
+     * @param tokens Vector that receives the tokens. The ones that are
+     * missing in the line are set to null and the extra ones are ignored
+     * @return The number of tokens of the line
+     */
+    private static int splitSample(String line, String[] tokens) {
+        int count = 0, begin = -1;
+        char c;
+        
+        for (int k = 0; k <= line.length(); k++) {
+            c = (k < line.length()) ? line.charAt(k) : ' ';
+            if (c == ',' || c == '|' || c == ' ') {
+                if (begin >= 0) {
+                    if (count < tokens.length)
+                        tokens[count] = line.substring(begin, k);
+                    count++;
+                    begin = -1;
+                }
+            }
+            else if (begin < 0)
+                begin = k;
+        }
+        for (int k = count; k < tokens.length; k++)
+            tokens[k] = null;
+        
+        return count;
+    } // end splitSample method
+    
+    /**
+     * This method reads the type of one variable from its "@attribute" line
+     * of the header. The nominal variables receive one dictionary with
+     * the labels in the same order of the header
+     * @param line Line of the header
+     * @param index Index of the variable
+     */
+    private void readAttributeType(String line, int index) {
+        // the folds have the same header, so the dictionaries are created only
+        // when the first fold is read
+        if (index < nominalValues_.size())
+            return;
+        
+        int begin = line.indexOf('{'), end = line.lastIndexOf('}');
+        Dictionary dictionary = null;
+        
+        if (begin >= 0 && end > begin) {
+            dictionary = new Dictionary();
+            StringTokenizer st = new StringTokenizer(line.substring(begin + 1, end), ",| ");
+            while (st.hasMoreTokens())
+                dictionary.encode(st.nextToken());
+        }
+        nominalValues_.add(dictionary);
+    } // end readAttributeType method
+    
+    /**
+     * This method reads the samples of one fold as strings, split in the same
+     * tokens of readDataSet
+     * @param fileName Name of the fold
+     * @param nSamples Number of samples of the fold
+     * @return Matrix String[][] with the samples
+     */
+    private String[][] readSamples(String fileName, int nSamples) {
         try (FileReader reader = new FileReader(fileName);            
              BufferedReader leitor = new BufferedReader(reader); )  
         {    
-            StringTokenizer st;   
-            String line, data;
-            String[] oneSample;
-            int idx, count, vars = 0; // vars is the counter of the input variables            
-            List<String[]> listOfSamples;
-            listOfSamples = new ArrayList<>();
-            line = leitor.readLine();
+            String[][] samples = new String[nSamples][];
+            String line;
             
-            // this while reads the file's header
-            while (line != null) {
-                st = new StringTokenizer(line, ",| ");
-                
-                while (st.hasMoreTokens()) {
-                    data = st.nextToken();       
-                    //System.out.println(data);
-                    if (data.equalsIgnoreCase("@attribute")) {
-                        vars++;                    
-                    }                    
-                    else if (data.equalsIgnoreCase("@data")) {
-                        line = null;
-                    }
-
-                    if ((st.hasMoreTokens() == false) && (!data.equalsIgnoreCase("@data"))) {
-                        line = leitor.readLine();
-                    }
-                }// end while
-            }// end while            
-            // numberOfVariables_ is the number of variables of the database (input + output variables)
-            numberOfVariables_ = vars;            
+            // this while skips the file's header
+            while ((line = leitor.readLine()) != null) {
+                if (line.trim().toLowerCase().startsWith("@data"))
+                    break;
+            }
             
-            // this while reads the all samples and stores in one arrayList "listOfSamples"
-            idx = 0; // index of the list
-            while ((line = leitor.readLine()) != null) {               
-                st = new StringTokenizer(line, ",| ");  
-                oneSample = new String[numberOfVariables_];
-                count = 0;
-                while (st.hasMoreTokens()) {
-                    data = st.nextToken();
-                    oneSample[count] = data;                    
-                    count++;
-                }               
-                listOfSamples.add(idx, oneSample);                
-                idx++;            
-            } // end while
-            numberOfSamples_ = listOfSamples.size();            
+            int i = 0;
+            while ((line = leitor.readLine()) != null && i < nSamples) {
+                String[] tokens = new String[numberOfVariables_];
+                if (splitSample(line, tokens) > 0)
+                    samples[i++] = tokens;
+            }
             
-            leitor.close();  
-            reader.close();  
-            return listOfSamples;
+            return samples;
         } 
         catch (Exception e) {             
-           System.out.println("Erro encontrado: "+ e);
-           return null;
+            System.err.println("Samples class > readSamples method error: " + fileName + " " + e);
+            System.exit(-1);
+            return null;
         }      
-    } // end readDataSet method 
-    
+    } // end readSamples method
     
     /**
-     * This method copy samples from list to one matrix      
-     * @param list It contain the samples
-     * @param nSamples Number of samples of the list
-     * @return Matrix String[][] with the samples
+     * This class stores one fold while it is read. The vectors grow as the
+     * samples are added and are trimmed to the number of samples at the end
      */
-    private String[][] copySamplesFromList(List<String[]> list, int nSamples) {
-        String[][] samples = new String[nSamples][numberOfVariables_];
-        int i = 0, j;       
+    private static class Fold {
+        private double[][] columns_;
+        private int[] classes_;
+        private int size_;
         
-        for (String[] next : list) {
-            j = 0;
-            for (String next1 : next) {                
-                samples[i][j] = next1;                
-                j++;
-            }
-            i++;
-        } 
-        return samples;
-    }//end of copySamplesFromList method    
+        Fold(int numberOfVariables) {
+            columns_ = new double[numberOfVariables][256];
+            classes_ = new int[256];
+            size_    = 0;
+        }
+        
+        /**
+         * @return The index of the new sample
+         */
+        int add() {
+            if (size_ == classes_.length)
+                resize(2 * size_);
+            return size_++;
+        }
+        
+        void trim() {
+            if (size_ < classes_.length)
+                resize(size_);
+        }
+        
+        private void resize(int capacity) {
+            for (int var = 0; var < columns_.length; var++)
+                columns_[var] = Arrays.copyOf(columns_[var], capacity);
+            classes_ = Arrays.copyOf(classes_, capacity);
+        }
+    } // end Fold class
     
     public void printEuclideanDistance(Map<String,Object> dist) {
         String key;
@@ -495,6 +657,9 @@ public class Samples {
        
         //double[][] distance = null;        
         
+        if (DistanceKernel.ENABLED)
+            return getBlockedEuclideanDistanceMatrix(flag);
+        
         switch (flag) {
             case "test":
             {
@@ -563,6 +728,47 @@ public class Samples {
         return null;
     } // end getEuclideanDistance method
 
+    /**
+     * This method calculates the same matrices of getEuclideanDistanceMatrix
+     * with the blocked kernel of DistanceKernel, which reads the numeric
+     * columns of the samples. The distances are exactly the same.
+     * @param flag "test", "knn" or "train", as in getEuclideanDistanceMatrix
+     * @return one double[][] Euclidean distance matrix
+     */
+    private double[][] getBlockedEuclideanDistanceMatrix(String flag) {
+        
+        int dimensions = numberOfVariables_ - 1;
+        
+        switch (flag) {
+            case "test":
+            {
+                // the selected training samples are copied in their original order
+                int[] selected = new int[numberOfSelectedSamples_];
+                int column = 0;
+                for (int j = 0; j < numberOfTraSamples_ && column < numberOfSelectedSamples_; j++) {
+                    if (selectedSamples_[j] == true) {
+                        selected[column] = j;
+                        column++;
+                    }
+                }
+                double[][] selectedColumns = DistanceKernel.gather(traColumns_, dimensions,
+                        selected, numberOfSelectedSamples_);
+                return DistanceKernel.cross(testColumns_, numberOfTestSamples_,
+                        selectedColumns, numberOfSelectedSamples_, dimensions);
+            }
+            case "knn":
+                return DistanceKernel.cross(testColumns_, numberOfTestSamples_,
+                        traColumns_, numberOfTraSamples_, dimensions);
+            case "train":
+                return DistanceKernel.upperTriangle(traColumns_, dimensions, numberOfTraSamples_);
+            default:
+                System.err.print("Samples class > getEuclideanDistanceMatrix method error: "
+                   + this.getTypeProcedure() + " invalid.");
+                System.exit(-1);
+        }
+        return null;
+    } // end getBlockedEuclideanDistanceMatrix method
+
     /**
      * This method calculates the Euclidean distance between samples i and j. 
      * The samples are from training samples matrix or test samples matrix
@@ -579,8 +785,8 @@ public class Samples {
         */
         if (flag.equals("test")) {
             for (int var = 0; var < (numberOfVariables_ - 1); var++) {
-                x = Double.parseDouble(testSamples_[i][var]);
-                y = Double.parseDouble(traSamples_[j][var]);
+                x = testColumns_[var][i];
+                y = traColumns_[var][j];
             
                 aux += (x - y) * (x - y);                   
             }
@@ -589,8 +795,8 @@ public class Samples {
         else {
             for (int var = 0; var < (numberOfVariables_ - 1); var++) {
                 //System.out.print(traSamples_[i][var] + " " + traSamples_[j][var] + " ");            
-                x = Double.parseDouble(traSamples_[i][var]);
-                y = Double.parseDouble(traSamples_[j][var]);
+                x = traColumns_[var][i];
+                y = traColumns_[var][j];
             
                 aux += (x - y) * (x - y);                   
             }
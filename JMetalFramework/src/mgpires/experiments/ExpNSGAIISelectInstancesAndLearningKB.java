@@ -4,6 +4,8 @@ import java.io.IOException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+import jmetal.util.RandomStream;
 import mgpires.metaheuristics.nsgaII.NSGAII_SelectInstances_and_LearningKB;
 import mgpires.algorithms.Printer;
 
@@ -30,6 +32,9 @@ public class ExpNSGAIISelectInstancesAndLearningKB {
         // stratificationDataset can be 5 or 10
         String stratificationDataset = "10";
         int numberOfFolds            = 3; 
+        // every fold gets its own random numbers, derived from this seed, the
+        // dataset and the fold, so the results don't depend on the threads
+        long seed                    = 20150731L;
         
         // parameters AGMO -> SelectInstances
         int populationSizeSelectInstances          = 100;
@@ -91,6 +96,7 @@ public class ExpNSGAIISelectInstancesAndLearningKB {
                     probabilityMutationChangeFunctionsLearningKB,
                     pathResult); 
 
+                experiment.setSeed(RandomStream.mix(seed, idxDataSet));
                 p[idxFold - 1] = new Thread(experiment);
                 p[idxFold - 1].start();           
             }
@@ -106,6 +112,10 @@ public class ExpNSGAIISelectInstancesAndLearningKB {
             
             Printer.printFinalResult(datasetName[idxDataSet], pathResult, pathResultAll);
         } //end for       
+        
+        // calls that waited for the generator shared by the threads without their own
+        System.out.println("Shared random generator: " + PseudoRandom.getSharedCalls() + 
+                " calls, " + PseudoRandom.getContendedCalls() + " contended");
     } //end main   
     
 } // end ExpNSGAIISelectInstancesAndLearningKB class
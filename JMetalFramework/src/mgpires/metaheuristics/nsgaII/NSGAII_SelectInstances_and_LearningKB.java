@@ -11,7 +11,10 @@ import jmetal.core.SolutionSet;
 import jmetal.operators.crossover.CrossoverFactory;
 import jmetal.operators.mutation.MutationFactory;
 import jmetal.operators.selection.SelectionFactory;
+import jmetal.problems.CachedProblem;
 import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+import jmetal.util.RandomStream;
 import mgpires.algorithms.Printer;
 import mgpires.algorithms.Rules;
 import mgpires.core.FuzzyReasoning;
@@ -54,6 +57,9 @@ public class NSGAII_SelectInstances_and_LearningKB implements Runnable {
     
     int indexFold;
     
+    // seed of the random numbers of the fold, null to use the shared generator
+    private Long seed;
+    
     // parameters AGMO SelectInstances
     private final int populationSizeSelectInstances, maxEvaluationsSelectInstances;
     private final double probabilityCrossoverSelectInstances, probabilityMutationSelectInstances;
@@ -99,13 +105,27 @@ public class NSGAII_SelectInstances_and_LearningKB implements Runnable {
         this.pathResult = pathResult;
     } 
     
+    /**
+     * Gives the fold its own stream of random numbers, derived from the seed
+     * and the index of the fold. The results of the fold are then the same
+     * whatever the number of folds running at the same time
+     * @param seed seed shared by all the folds of the experiment
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    } // end setSeed method
+    
     @Override
     public void run () {
+        if (seed != null)
+            PseudoRandom.setThreadGenerator(new RandomStream(seed).split(indexFold));
         try {
             execute();
         } catch (JMException | ClassNotFoundException | IOException ex) {
             System.err.println("NSGAII_SelectInstances_and_LearningKB class > run method error: " + ex);
             System.exit(-1);
+        } finally {
+            PseudoRandom.removeThreadGenerator();
         }
     }   
    
@@ -134,7 +154,9 @@ public class NSGAII_SelectInstances_and_LearningKB implements Runnable {
         double[][] distance;
         distance = samples.getEuclideanDistanceMatrix("train");
         
-        problem = new SelectInstances("ArrayBinarySolutionType", samples, distance);        
+        SelectInstances selectInstances = new SelectInstances("ArrayBinarySolutionType", samples, distance);
+        // the offspring equal to chromosomes already evaluated take the objectives from the cache
+        problem = new CachedProblem(selectInstances, maxEvaluationsSelectInstances);
         
         /*System.out.println("Problem name....................: " + problem.getName());
         System.out.println("Database name...................: " + datasetName);
@@ -153,11 +175,13 @@ public class NSGAII_SelectInstances_and_LearningKB implements Runnable {
     
         parameters = new HashMap();
         parameters.put("probability", probabilityCrossoverSelectInstances);        
-        crossover = CrossoverFactory.getCrossoverOperator("HUXCrossover", parameters);   
+        // HUX on 64-bit words: swaps half of the differing bits
+        crossover = CrossoverFactory.getCrossoverOperator("WordHUXCrossover", parameters);   
     
         parameters = new HashMap();        
         parameters.put("probability", probabilityMutationSelectInstances);        
-        mutation = MutationFactory.getMutationOperator("BitFlipMutation", parameters);                    
+        // same as BitFlipMutation, drawing only the positions of the flipped bits
+        mutation = MutationFactory.getMutationOperator("GeometricBitFlipMutation", parameters);                    
         
         parameters = null ;
         selection = SelectionFactory.getSelectionOperator("BinaryTournament2", parameters) ;                           
@@ -182,7 +206,7 @@ public class NSGAII_SelectInstances_and_LearningKB implements Runnable {
         //population.printVariablesToFile("VAR_SelectInstances_" + Integer.toString(indexFold));
         //population.printObjectivesToFile("FUN_SelectInstances_" + Integer.toString(indexFold));
         
-        double reductionRate = ((SelectInstances)problem).getSolutionFromPareto(population);
+        double reductionRate = selectInstances.getSolutionFromPareto(population);
         //samples.printSelectedSamples();
         /* ---------------------------------------------------------------------
            End of part 1: Selecting instances
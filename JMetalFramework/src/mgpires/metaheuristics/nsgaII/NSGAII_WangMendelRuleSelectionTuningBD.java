@@ -242,13 +242,13 @@ public SolutionSet execute() throws JMException, ClassNotFoundException {
         else {
             for (int k = 0; k < size1; k++)
                 //System.out.println("Offspring 1: " + p1.bits_.get(k) + " Offspring 2: " + p2.bits_.get(k));            
-                System.out.println(off1.bits_.get(k));
+                System.out.println(off1.getIth(k));
             
             System.out.println(" ");
 
             for (int k = 0; k < size1; k++)
                 //System.out.println("Offspring 1: " + p1.bits_.get(k) + " Offspring 2: " + p2.bits_.get(k));            
-                System.out.println(off2.bits_.get(k));        
+                System.out.println(off2.getIth(k));        
         }      
     }    
     /**
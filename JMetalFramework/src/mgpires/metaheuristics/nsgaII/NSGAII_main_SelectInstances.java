@@ -10,6 +10,7 @@ import jmetal.core.SolutionSet;
 import jmetal.operators.crossover.CrossoverFactory;
 import jmetal.operators.mutation.MutationFactory;
 import jmetal.operators.selection.SelectionFactory;
+import jmetal.problems.CachedProblem;
 import jmetal.util.JMException;
 import mgpires.core.Samples;
 import mgpires.problems.SelectInstances;
@@ -57,7 +58,9 @@ public class NSGAII_main_SelectInstances {
         
         samples.printEuclideanDistanceMatrix(distance,"train");
         
-        problem = new SelectInstances("ArrayBinarySolutionType", samples, distance);
+        SelectInstances selectInstances = new SelectInstances("ArrayBinarySolutionType", samples, distance);
+        // the offspring equal to chromosomes already evaluated take the objectives from the cache
+        problem = new CachedProblem(selectInstances, 1000);
     
         // printing some data about the problem
         System.out.println("Problem name....................: " + problem.getName());
@@ -74,11 +77,13 @@ public class NSGAII_main_SelectInstances {
     
         parameters = new HashMap();
         parameters.put("probability", 0.9);        
-        crossover = CrossoverFactory.getCrossoverOperator("HUXCrossover", parameters);   
+        // HUX on 64-bit words: swaps half of the differing bits
+        crossover = CrossoverFactory.getCrossoverOperator("WordHUXCrossover", parameters);   
     
         parameters = new HashMap();        
         parameters.put("probability", 0.2) ;        
-        mutation = MutationFactory.getMutationOperator("BitFlipMutation", parameters);                    
+        // same as BitFlipMutation, drawing only the positions of the flipped bits
+        mutation = MutationFactory.getMutationOperator("GeometricBitFlipMutation", parameters);                    
         
         parameters = null ;
         selection = SelectionFactory.getSelectionOperator("BinaryTournament2", parameters) ;                           
@@ -106,7 +111,7 @@ public class NSGAII_main_SelectInstances {
         population.printVariablesToFile("VAR_SelectInstances");        
         population.printObjectivesToFile("FUN_SelectInstances");
         
-        Solution SelectInstanceSolution = ((SelectInstances)problem).getMidPointSolutionFromPareto(population);
+        Solution SelectInstanceSolution = selectInstances.getMidPointSolutionFromPareto(population);
         double reductionRate = SelectInstanceSolution.getObjective(1);
         System.out.println("Reduction rate...........: " + (-1.0 * reductionRate));
         
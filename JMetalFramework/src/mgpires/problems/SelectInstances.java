@@ -10,6 +10,7 @@ import jmetal.core.SolutionType;
 import jmetal.encodings.variable.Binary;
 import jmetal.util.JMException;
 import mgpires.algorithms.KNN;
+import mgpires.algorithms.NeighbourRanking;
 import mgpires.core.ObjectivesAccuracyComplexity;
 import mgpires.core.Samples;
 import mgpires.solutionType.ArrayBinarySolutionType;
@@ -30,13 +31,15 @@ public class SelectInstances extends Problem {
     private Samples samples_;
     //private Map<String,Object> distance_;
     double[][] distance_;
+    // ranking_ stores the closest neighbour of each training sample
+    NeighbourRanking ranking_;
 
     @Override
     public void evaluate(Solution solution) throws JMException {   
         
         double[] test;       
         
-        test = KNN.calcAccuracyAndReduction(solution, samples_.getTraSamples(), distance_, samples_.getNumberOfTraSamples(), numberOfVariables_);
+        test = KNN.calcAccuracyAndReduction(solution, samples_.getTraClasses(), ranking_, samples_.getNumberOfTraSamples());
         
         // test[0] = accuracy (rate)   test[1] = reduction of samples (rate)
         solution.setObjective(0, -1 * test[0]);
@@ -63,6 +66,9 @@ public class SelectInstances extends Problem {
         numberOfVariables_ = samples_.getNumberOfVariables();     
         // distance_ is a double matrix with distance values among training samples
         distance_ = distance;
+        /* the 1-NN classifier only needs the closest neighbour of each sample,
+        so the ranking is built once and truncated in one neighbour */
+        ranking_ = new NeighbourRanking(distance_, samples_.getNumberOfTraSamples(), 1);
         
         if (solutionType.compareTo("ArrayBinarySolutionType") == 0) {            
             // Samples_.getNumberOfTraSamples() will be the length of chromossome.
@@ -91,7 +97,7 @@ public class SelectInstances extends Problem {
      * solution gotten from Pareto front is encoded in samples_ attribute
      */
     public double getSolutionFromPareto(SolutionSet population) {
-        int numberOfSolutions, index, bits, count;        
+        int numberOfSolutions, index;        
         double max;
         Binary sol;        
         /* max will store the higher value of accuracy (objective zero)
@@ -109,15 +115,10 @@ public class SelectInstances extends Problem {
         }
         
         sol = (Binary)population.get(index).getDecisionVariables()[0];
-        bits = sol.getNumberOfBits();        
-        count = 0;
-        for (int i = 0; i < bits; i++) {
-            if (sol.getIth(i) == true) {
-                samples_.setSelectedSamples(i, true);                
-                count++;
-            }
-        }    
-        samples_.setNumberOfSelectedSamples(count);
+        // only the ones of the chromosome are visited
+        for (int i = sol.nextSetBit(0); i >= 0; i = sol.nextSetBit(i + 1))
+            samples_.setSelectedSamples(i, true);
+        samples_.setNumberOfSelectedSamples(sol.cardinality());
         
         // returns the reduction rate
         return population.get(index).getObjective(1);
@@ -137,7 +138,7 @@ public class SelectInstances extends Problem {
     //public double getMidPointSolutionFromPareto(SolutionSet population) {
     public Solution getMidPointSolutionFromPareto(SolutionSet population) {
         
-        int numberOfSolutions = population.size(), index = -1, bits, count;        
+        int numberOfSolutions = population.size(), index = -1;        
         double accuracy, reduction;        
         List<ObjectivesAccuracyComplexity> listSolution = new ArrayList<>();                
 
@@ -162,15 +163,10 @@ public class SelectInstances extends Problem {
         }   
         
         Binary sol = (Binary)population.get(index).getDecisionVariables()[0];
-        bits = sol.getNumberOfBits();        
-        count = 0;
-        for (int i = 0; i < bits; i++) {
-            if (sol.getIth(i) == true) {
-                samples_.setSelectedSamples(i, true);                
-                count++;
-            }
-        }    
-        samples_.setNumberOfSelectedSamples(count);
+        // only the ones of the chromosome are visited
+        for (int i = sol.nextSetBit(0); i >= 0; i = sol.nextSetBit(i + 1))
+            samples_.setSelectedSamples(i, true);
+        samples_.setNumberOfSelectedSamples(sol.cardinality());
         
         // returns the reduction rate
         //return population.get(index).getObjective(1);   
@@ -3,7 +3,7 @@ package mgpires.solutionType;
 import jmetal.core.Problem;
 import jmetal.core.SolutionType;
 import jmetal.core.Variable;
-import jmetal.encodings.variable.Binary;
+import jmetal.encodings.variable.CompactBinary;
 
  /** 
  * Class representing the solution type of solutions composed of a binary string.
@@ -29,14 +29,14 @@ public class ArrayBinarySolutionType extends SolutionType {
 
     /**
      * Creates the variables of the solution
-     * @return One binary string
+     * @return One binary string, stored in 64-bit words
      * @throws ClassNotFoundException
      */
     @Override
     public Variable[] createVariables() throws ClassNotFoundException {
             Variable [] variables = new Variable[1];
 
-        variables[0] = new Binary(binaryStringLength_); 
+        variables[0] = new CompactBinary(binaryStringLength_); 
         return variables ;
     } // createVariables
         
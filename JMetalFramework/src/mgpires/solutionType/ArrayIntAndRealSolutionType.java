@@ -60,8 +60,8 @@ public class ArrayIntAndRealSolutionType extends SolutionType {
     public Variable[] createVariables() throws ClassNotFoundException {
         Variable[] variables = new Variable[3];      
         
-        // variables[0] encodes the rules
-        variables[0] = new ArrayInt(maxLengthOfArrayInt_, arrayIntLowerBounds_, arrayIntUpperBounds_);
+        // variables[0] encodes the rules, and keeps the state of the fuzzy reasoning
+        variables[0] = new ArrayIntRules(maxLengthOfArrayInt_, arrayIntLowerBounds_, arrayIntUpperBounds_);
         
         // variables[1] encodes the displacement parameters of membership functions
         variables[1] = new ArrayReal(realLength_, problem_);
@@ -0,0 +1,56 @@
+package mgpires.solutionType;
+
+import jmetal.core.Variable;
+import jmetal.encodings.variable.ArrayInt;
+import mgpires.core.FuzzyReasoningState;
+
+/**
+ * This class is the integer array that encodes the rules of one
+ * ArrayIntAndRealSolutionType chromosome. Besides the genes, it keeps the
+ * state of the fuzzy reasoning of its last evaluation, so the offspring of one
+ * chromosome (the copies of the array) only evaluate again the rules that were
+ * changed by the operators.
+ * The state is never modified, so the copies share it. It stores the rules that
+ * were evaluated, so it is valid whatever the operators change in the genes.
+ *
+ * @date 2026/10/17
+ */
+public class ArrayIntRules extends ArrayInt {
+
+    // null while the rules were not evaluated
+    private FuzzyReasoningState reasoningState_;
+
+    /**
+     * Constructor
+     * @param size The size of the array
+     * @param lowerBounds Lower bounds
+     * @param upperBounds Upper bounds
+     */
+    public ArrayIntRules(int size, double[] lowerBounds, double[] upperBounds) {
+        super(size, lowerBounds, upperBounds);
+        reasoningState_ = null;
+    } // Constructor
+
+    /**
+     * Copy constructor. The copy shares the state of the fuzzy reasoning
+     * @param arrayInt The array to copy
+     */
+    private ArrayIntRules(ArrayIntRules arrayInt) {
+        super(arrayInt);
+        reasoningState_ = arrayInt.reasoningState_;
+    } // Copy Constructor
+
+    @Override
+    public Variable deepCopy() {
+        return new ArrayIntRules(this);
+    } // deepCopy
+
+    public FuzzyReasoningState getReasoningState_() {
+        return reasoningState_;
+    }
+
+    public void setReasoningState_(FuzzyReasoningState reasoningState) {
+        this.reasoningState_ = reasoningState;
+    }
+
+} // end ArrayIntRules class
@@ -0,0 +1,203 @@
+package jmetal.encodings.variable;
+
+import jmetal.core.Operator;
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.core.Variable;
+import jmetal.encodings.solutionType.ArrayRealAndBinarySolutionType;
+import jmetal.operators.crossover.HUXCrossover;
+import jmetal.operators.crossover.SBXSinglePointCrossover;
+import jmetal.operators.crossover.SinglePointCrossover;
+import jmetal.operators.crossover.WordHUXCrossover;
+import jmetal.operators.mutation.BitFlipMutation;
+import jmetal.operators.mutation.GeometricBitFlipMutation;
+import jmetal.operators.mutation.PolynomialBitFlipMutation;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+import mgpires.solutionType.ArrayBinarySolutionType;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Runs every binary operator on CompactBinary chromosomes and on Binary
+ * chromosomes with the same bits and the same random numbers. Both must give
+ * the same offspring.
+ */
+public class CompactBinaryTest {
+
+  private static final int BITS = 200 ;
+
+  @After
+  public void tearDown() {
+    PseudoRandom.removeThreadGenerator() ;
+  }
+
+  @Test
+  public void hammingDistanceMixesBothEncodings() {
+    Random random = new Random(1) ;
+    for (int i = 0; i < 20; i++) {
+      Binary first = randomBinary(random) ;
+      Binary second = randomBinary(random) ;
+      int expected = first.hammingDistance(second) ;
+
+      assertEquals(expected, compact(first).hammingDistance(compact(second))) ;
+      assertEquals(expected, first.hammingDistance(compact(second))) ;
+      assertEquals(expected, compact(first).hammingDistance(second)) ;
+    }
+  }
+
+  @Test
+  public void crossoversMatchBinary() throws Exception {
+    HashMap<String, Object> parameters = new HashMap<String, Object>() ;
+    parameters.put("probability", 1.0) ;
+    checkCrossover(new HUXCrossover(parameters)) ;
+    checkCrossover(new SinglePointCrossover(parameters)) ;
+    checkCrossover(new WordHUXCrossover(parameters)) ;
+
+    parameters.put("uniform", true) ;
+    checkCrossover(new WordHUXCrossover(parameters)) ;
+  }
+
+  @Test
+  public void mutationsMatchBinary() throws Exception {
+    HashMap<String, Object> parameters = new HashMap<String, Object>() ;
+    parameters.put("probability", 0.05) ;
+    checkMutation(new BitFlipMutation(parameters)) ;
+    checkMutation(new GeometricBitFlipMutation(parameters)) ;
+  }
+
+  @Test
+  public void realAndBinaryOperatorsMatchBinary() throws Exception {
+    Problem problem = new TestProblem(true) ;
+    Random random = new Random(2) ;
+
+    HashMap<String, Object> parameters = new HashMap<String, Object>() ;
+    parameters.put("realCrossoverProbability", 1.0) ;
+    parameters.put("binaryrossoverProbability", 1.0) ;
+    SBXSinglePointCrossover crossover = new SBXSinglePointCrossover(parameters) ;
+
+    parameters = new HashMap<String, Object>() ;
+    parameters.put("realMutationProbability", 0.5) ;
+    parameters.put("binaryMutationProbability", 0.05) ;
+    PolynomialBitFlipMutation mutation = new PolynomialBitFlipMutation(parameters) ;
+
+    for (int i = 0; i < 20; i++) {
+      Solution[] parents = {new Solution(problem), new Solution(problem)} ;
+      parents[0].getDecisionVariables()[1] = randomBinary(random) ;
+      parents[1].getDecisionVariables()[1] = randomBinary(random) ;
+      Solution[] compactParents = {compact(parents[0], 1), compact(parents[1], 1)} ;
+
+      PseudoRandom.setThreadSeed(i) ;
+      Solution[] offspring = (Solution[]) crossover.execute(parents) ;
+      mutation.execute(offspring[0]) ;
+      PseudoRandom.setThreadSeed(i) ;
+      Solution[] compactOffspring = (Solution[]) crossover.execute(compactParents) ;
+      mutation.execute(compactOffspring[0]) ;
+
+      for (int s = 0; s < 2; s++) {
+        assertEquals(offspring[s].getDecisionVariables()[0].toString(),
+                     compactOffspring[s].getDecisionVariables()[0].toString()) ;
+        assertBits(offspring[s].getDecisionVariables()[1], compactOffspring[s].getDecisionVariables()[1]) ;
+      }
+    }
+  }
+
+  private static void checkCrossover(Operator crossover) throws JMException, ClassNotFoundException {
+    Problem problem = new TestProblem(false) ;
+    Random random = new Random(3) ;
+
+    for (int i = 0; i < 20; i++) {
+      Solution[] parents = {new Solution(problem), new Solution(problem)} ;
+      parents[0].getDecisionVariables()[0] = randomBinary(random) ;
+      parents[1].getDecisionVariables()[0] = randomBinary(random) ;
+      Solution[] compactParents = {compact(parents[0], 0), compact(parents[1], 0)} ;
+
+      PseudoRandom.setThreadSeed(i) ;
+      Solution[] offspring = (Solution[]) crossover.execute(parents) ;
+      PseudoRandom.setThreadSeed(i) ;
+      Solution[] compactOffspring = (Solution[]) crossover.execute(compactParents) ;
+
+      for (int s = 0; s < 2; s++)
+        assertBits(offspring[s].getDecisionVariables()[0], compactOffspring[s].getDecisionVariables()[0]) ;
+      // the parents are not changed
+      assertBits(parents[0].getDecisionVariables()[0], compactParents[0].getDecisionVariables()[0]) ;
+    }
+  }
+
+  private static void checkMutation(Operator mutation) throws JMException, ClassNotFoundException {
+    Problem problem = new TestProblem(false) ;
+    Random random = new Random(4) ;
+
+    for (int i = 0; i < 20; i++) {
+      Solution solution = new Solution(problem) ;
+      solution.getDecisionVariables()[0] = randomBinary(random) ;
+      Solution compactSolution = compact(solution, 0) ;
+      Variable original = solution.getDecisionVariables()[0].deepCopy() ;
+      // a copy shares the words of the chromosome until it is mutated
+      Solution copy = new Solution(compactSolution) ;
+
+      PseudoRandom.setThreadSeed(i) ;
+      mutation.execute(solution) ;
+      PseudoRandom.setThreadSeed(i) ;
+      mutation.execute(compactSolution) ;
+
+      assertBits(solution.getDecisionVariables()[0], compactSolution.getDecisionVariables()[0]) ;
+      assertBits(original, copy.getDecisionVariables()[0]) ;
+    }
+  }
+
+  private static void assertBits(Variable expected, Variable actual) {
+    assertEquals(CompactBinary.class, actual.getClass()) ;
+    Binary binary = (Binary) expected ;
+    Binary compact = (Binary) actual ;
+    assertEquals(binary.getNumberOfBits(), compact.getNumberOfBits()) ;
+    for (int i = 0; i < binary.getNumberOfBits(); i++)
+      assertEquals("bit " + i, binary.getIth(i), compact.getIth(i)) ;
+    assertEquals(binary.cardinality(), compact.cardinality()) ;
+  }
+
+  private static Binary randomBinary(Random random) {
+    Binary binary = new Binary(BITS) ;
+    for (int i = 0; i < BITS; i++)
+      binary.setIth(i, random.nextBoolean()) ;
+    return binary ;
+  }
+
+  private static CompactBinary compact(Binary binary) {
+    CompactBinary compact = new CompactBinary(binary.getNumberOfBits()) ;
+    for (int i = 0; i < binary.getNumberOfBits(); i++)
+      compact.setIth(i, binary.getIth(i)) ;
+    return compact ;
+  }
+
+  // a copy of the solution with the binary variable as a CompactBinary
+  private static Solution compact(Solution solution, int variable) {
+    Solution copy = new Solution(solution) ;
+    copy.getDecisionVariables()[variable] = compact((Binary) solution.getDecisionVariables()[variable]) ;
+    return copy ;
+  }
+
+  private static class TestProblem extends Problem {
+
+    TestProblem(boolean withReals) {
+      numberOfObjectives_ = 2 ;
+      if (withReals) {
+        numberOfVariables_ = 3 ;
+        lowerLimit_ = new double[] {0, 0, 0} ;
+        upperLimit_ = new double[] {1, 1, 1} ;
+        solutionType_ = new ArrayRealAndBinarySolutionType(this, numberOfVariables_, BITS) ;
+      } else {
+        numberOfVariables_ = 1 ;
+        solutionType_ = new ArrayBinarySolutionType(this, BITS) ;
+      }
+    }
+
+    public void evaluate(Solution solution) {
+    }
+  }
+}
@@ -0,0 +1,178 @@
+package jmetal.operators.crossover;
+
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.encodings.variable.Binary;
+import jmetal.encodings.variable.CompactBinary;
+import jmetal.util.PseudoRandom;
+import mgpires.solutionType.ArrayBinarySolutionType;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Checks that WordHUXCrossover swaps exactly half of the bits that differ
+ * between the parents, rounded down, and only those, and that the uniform
+ * mode swaps each of them with probability 0.5. The random numbers are
+ * seeded, and the bounds are about five standard deviations wide.
+ */
+public class WordHUXCrossoverTest {
+
+  @After
+  public void tearDown() {
+    PseudoRandom.removeThreadGenerator() ;
+  }
+
+  @Test
+  public void huxSwapsHalfOfTheDifferingBits() throws Exception {
+    PseudoRandom.setThreadSeed(1) ;
+    WordHUXCrossover crossover = new WordHUXCrossover(parameters(false)) ;
+
+    // lengths around the word boundaries
+    for (int bits : new int[] {1, 2, 63, 64, 65, 130, 1000}) {
+      for (boolean compact : new boolean[] {false, true}) {
+        for (int t = 0; t < 50; t++) {
+          Solution[] parents = parents(bits, compact) ;
+          boolean[] swapped = cross(crossover, parents) ;
+          int differing = differing(parents) ;
+          assertEquals(bits + " bits", differing / 2, count(swapped)) ;
+        }
+      }
+    }
+  }
+
+  @Test
+  public void huxChoosesEveryDifferingBitAlike() throws Exception {
+    PseudoRandom.setThreadSeed(2) ;
+    WordHUXCrossover crossover = new WordHUXCrossover(parameters(false)) ;
+    int bits = 130, trials = 4000 ;
+
+    // the parents differ in the odd bits, so 32 of the 65 are swapped
+    Solution[] parents = parents(bits, true) ;
+    for (int i = 0; i < bits; i++) {
+      ((Binary) parents[0].getDecisionVariables()[0]).setIth(i, false) ;
+      ((Binary) parents[1].getDecisionVariables()[0]).setIth(i, i % 2 == 1) ;
+    }
+
+    int[] swaps = new int[bits] ;
+    for (int t = 0; t < trials; t++) {
+      boolean[] swapped = cross(crossover, parents) ;
+      for (int i = 0; i < bits; i++)
+        if (swapped[i])
+          swaps[i]++ ;
+    }
+
+    double probability = 32.0 / 65 ;
+    double bound = 5 * Math.sqrt(trials * probability * (1 - probability)) ;
+    for (int i = 0; i < bits; i++) {
+      if (i % 2 == 0)
+        assertEquals("bit " + i, 0, swaps[i]) ;
+      else
+        assertEquals("bit " + i, trials * probability, swaps[i], bound) ;
+    }
+  }
+
+  @Test
+  public void uniformSwapsEachDifferingBitWithHalfProbability() throws Exception {
+    PseudoRandom.setThreadSeed(3) ;
+    WordHUXCrossover crossover = new WordHUXCrossover(parameters(true)) ;
+    int bits = 130, trials = 4000 ;
+
+    Solution[] parents = parents(bits, false) ;
+    for (int i = 0; i < bits; i++) {
+      ((Binary) parents[0].getDecisionVariables()[0]).setIth(i, false) ;
+      ((Binary) parents[1].getDecisionVariables()[0]).setIth(i, true) ;
+    }
+
+    int[] swaps = new int[bits] ;
+    for (int t = 0; t < trials; t++) {
+      boolean[] swapped = cross(crossover, parents) ;
+      for (int i = 0; i < bits; i++)
+        if (swapped[i])
+          swaps[i]++ ;
+    }
+
+    double bound = 5 * Math.sqrt(trials * 0.25) ;
+    for (int i = 0; i < bits; i++)
+      assertEquals("bit " + i, trials * 0.5, swaps[i], bound) ;
+  }
+
+  @Test
+  public void halfMaskOfNoBitsIsEmpty() {
+    PseudoRandom.setThreadSeed(4) ;
+    long[] chosen = WordHUXCrossover.halfMask(new long[3]) ;
+    for (long word : chosen)
+      assertEquals(0, word) ;
+
+    // a single differing bit is never swapped
+    chosen = WordHUXCrossover.halfMask(new long[] {0, 1L << 5}) ;
+    assertEquals(0, chosen[0] | chosen[1]) ;
+  }
+
+  /**
+   * Crosses the parents and checks that the offspring are the parents with
+   * the same bits swapped, all of them differing ones
+   * @return The swapped bits
+   */
+  private static boolean[] cross(WordHUXCrossover crossover, Solution[] parents) throws Exception {
+    Solution[] offspring = (Solution[]) crossover.execute(parents) ;
+    Binary p1 = (Binary) parents[0].getDecisionVariables()[0] ;
+    Binary p2 = (Binary) parents[1].getDecisionVariables()[0] ;
+    Binary o1 = (Binary) offspring[0].getDecisionVariables()[0] ;
+    Binary o2 = (Binary) offspring[1].getDecisionVariables()[0] ;
+
+    boolean[] swapped = new boolean[p1.getNumberOfBits()] ;
+    for (int i = 0; i < swapped.length; i++) {
+      swapped[i] = o1.getIth(i) != p1.getIth(i) ;
+      assertEquals("bit " + i, swapped[i], o2.getIth(i) != p2.getIth(i)) ;
+      if (swapped[i])
+        assertFalse("bit " + i, p1.getIth(i) == p2.getIth(i)) ;
+    }
+    return swapped ;
+  }
+
+  private static int differing(Solution[] parents) {
+    Binary p1 = (Binary) parents[0].getDecisionVariables()[0] ;
+    Binary p2 = (Binary) parents[1].getDecisionVariables()[0] ;
+    return p1.hammingDistance(p2) ;
+  }
+
+  private static int count(boolean[] bits) {
+    int count = 0 ;
+    for (boolean bit : bits)
+      if (bit)
+        count++ ;
+    return count ;
+  }
+
+  private static Solution[] parents(int bits, boolean compact) throws Exception {
+    Problem problem = new TestProblem(bits) ;
+    Solution[] parents = {new Solution(problem), new Solution(problem)} ;
+    for (Solution parent : parents)
+      parent.getDecisionVariables()[0] = compact ? new CompactBinary(bits) : new Binary(bits) ;
+    return parents ;
+  }
+
+  private static HashMap<String, Object> parameters(boolean uniform) {
+    HashMap<String, Object> parameters = new HashMap<String, Object>() ;
+    parameters.put("probability", 1.0) ;
+    parameters.put("uniform", uniform) ;
+    return parameters ;
+  }
+
+  private static class TestProblem extends Problem {
+
+    TestProblem(int bits) {
+      numberOfObjectives_ = 2 ;
+      numberOfVariables_ = 1 ;
+      solutionType_ = new ArrayBinarySolutionType(this, bits) ;
+    }
+
+    public void evaluate(Solution solution) {
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package jmetal.operators.mutation;
+
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.encodings.variable.Binary;
+import jmetal.encodings.variable.CompactBinary;
+import jmetal.util.PseudoRandom;
+import mgpires.solutionType.ArrayBinarySolutionType;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that GeometricBitFlipMutation flips every bit independently with the
+ * mutation probability, as BitFlipMutation does. The random numbers are
+ * seeded, and the bounds are about five standard deviations wide.
+ */
+public class GeometricBitFlipMutationTest {
+
+  private final GeometricBitFlipMutation mutation =
+    new GeometricBitFlipMutation(new HashMap<String, Object>()) ;
+
+  @After
+  public void tearDown() {
+    PseudoRandom.removeThreadGenerator() ;
+  }
+
+  @Test
+  public void everyBitFlipsWithTheProbability() throws Exception {
+    // 130 bits: three words, the last one partial
+    int bits = 130, trials = 5000 ;
+    double probability = 0.2 ;
+
+    for (boolean compact : new boolean[] {false, true}) {
+      PseudoRandom.setThreadSeed(1) ;
+      int[] flips = new int[bits] ;
+      for (int t = 0; t < trials; t++) {
+        boolean[] flipped = mutate(bits, probability, compact) ;
+        for (int i = 0; i < bits; i++)
+          if (flipped[i])
+            flips[i]++ ;
+      }
+
+      double expected = trials * probability ;
+      double bound = 5 * Math.sqrt(trials * probability * (1 - probability)) ;
+      for (int i = 0; i < bits; i++)
+        assertEquals("bit " + i, expected, flips[i], bound) ;
+    }
+  }
+
+  @Test
+  public void numberOfFlipsIsBinomial() throws Exception {
+    int bits = 2000, trials = 2000 ;
+    double probability = 0.01 ;
+
+    for (boolean compact : new boolean[] {false, true}) {
+      PseudoRandom.setThreadSeed(2) ;
+      double sum = 0, sumOfSquares = 0 ;
+      for (int t = 0; t < trials; t++) {
+        int flips = count(mutate(bits, probability, compact)) ;
+        sum += flips ;
+        sumOfSquares += (double) flips * flips ;
+      }
+
+      double mean = sum / trials ;
+      double variance = (sumOfSquares - sum * mean) / (trials - 1) ;
+      double binomialMean = bits * probability ;
+      double binomialVariance = bits * probability * (1 - probability) ;
+      assertEquals(binomialMean, mean, 5 * Math.sqrt(binomialVariance / trials)) ;
+      // the variance of the sample variance is about 2 * variance^2 / trials
+      assertEquals(binomialVariance, variance, 5 * binomialVariance * Math.sqrt(2.0 / trials)) ;
+    }
+  }
+
+  @Test
+  public void extremeProbabilities() throws Exception {
+    PseudoRandom.setThreadSeed(3) ;
+    for (boolean compact : new boolean[] {false, true}) {
+      assertEquals(0, count(mutate(100, 0.0, compact))) ;
+      assertEquals(100, count(mutate(100, 1.0, compact))) ;
+    }
+  }
+
+  @Test
+  public void gapsStayInsideTheChromosome() {
+    PseudoRandom.setThreadSeed(4) ;
+    for (int t = 0; t < 10000; t++) {
+      int position = GeometricBitFlipMutation.nextFlip(-1, 0.001, 10) ;
+      assertTrue(position >= 0 && position <= 10) ;
+    }
+    assertEquals(10, GeometricBitFlipMutation.nextFlip(9, 0.5, 10)) ;
+  }
+
+  // mutates a random chromosome and returns which bits were flipped
+  private boolean[] mutate(int bits, double probability, boolean compact) throws Exception {
+    Solution solution = new Solution(new TestProblem(bits)) ;
+    Binary binary = compact ? new CompactBinary(bits) : new Binary(bits) ;
+    Binary original = (Binary) binary.deepCopy() ;
+    solution.getDecisionVariables()[0] = binary ;
+    mutation.doMutation(probability, solution) ;
+
+    Binary mutated = (Binary) solution.getDecisionVariables()[0] ;
+    boolean[] flipped = new boolean[bits] ;
+    for (int i = 0; i < bits; i++)
+      flipped[i] = original.getIth(i) != mutated.getIth(i) ;
+    return flipped ;
+  }
+
+  private static int count(boolean[] flipped) {
+    int count = 0 ;
+    for (boolean bit : flipped)
+      if (bit)
+        count++ ;
+    return count ;
+  }
+
+  private static class TestProblem extends Problem {
+
+    TestProblem(int bits) {
+      numberOfObjectives_ = 2 ;
+      numberOfVariables_ = 1 ;
+      solutionType_ = new ArrayBinarySolutionType(this, bits) ;
+    }
+
+    public void evaluate(Solution solution) {
+    }
+  }
+}
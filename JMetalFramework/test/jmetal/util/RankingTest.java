@@ -0,0 +1,128 @@
+package jmetal.util;
+
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.util.comparators.DominanceComparator;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Checks that the fronts computed with DominanceSort are the ones of the
+ * pairwise comparisons of Ranking, with the solutions of every front in the
+ * same order. The pairwise comparisons are reproduced here, as Ranking had
+ * them, because Ranking only uses them when jmetal.ranking is "pairwise" or a
+ * solution violates its constraints.
+ */
+public class RankingTest {
+
+  @Test
+  public void sortMatchesPairwiseRanking() {
+    Random random = new Random(1) ;
+    for (int t = 0; t < 600; t++) {
+      int numberOfObjectives = 2 + t % 3 ;
+      int size = random.nextInt(150) ;
+      // few distinct values, so there are many ties and repeated points
+      int values = 2 + random.nextInt(20) ;
+      SolutionSet solutionSet = randomSet(random, size, numberOfObjectives, values) ;
+
+      List<List<Solution>> expected = pairwiseFronts(solutionSet) ;
+      int[] expectedRanks = new int[size] ;
+      for (int f = 0; f < expected.size(); f++)
+        for (Solution solution : expected.get(f))
+          expectedRanks[indexOf(solutionSet, solution)] = f ;
+
+      Ranking ranking = new Ranking(solutionSet) ;
+      assertEquals(expected.size(), ranking.getNumberOfSubfronts()) ;
+      for (int f = 0; f < expected.size(); f++) {
+        SolutionSet front = ranking.getSubfront(f) ;
+        assertEquals(expected.get(f).size(), front.size()) ;
+        for (int k = 0; k < front.size(); k++)
+          assertSame("front " + f + ", solution " + k, expected.get(f).get(k), front.get(k)) ;
+      }
+      for (int p = 0; p < size; p++)
+        assertEquals(expectedRanks[p], solutionSet.get(p).getRank()) ;
+    }
+  }
+
+  @Test
+  public void emptySet() {
+    Ranking ranking = new Ranking(new SolutionSet(0)) ;
+    assertEquals(0, ranking.getNumberOfSubfronts()) ;
+  }
+
+  private static SolutionSet randomSet(Random random, int size, int numberOfObjectives, int values) {
+    SolutionSet solutionSet = new SolutionSet(size) ;
+    for (int p = 0; p < size; p++) {
+      Solution solution = new Solution(numberOfObjectives) ;
+      for (int m = 0; m < numberOfObjectives; m++)
+        solution.setObjective(m, random.nextInt(values)) ;
+      solutionSet.add(solution) ;
+    }
+    return solutionSet ;
+  }
+
+  private static int indexOf(SolutionSet solutionSet, Solution solution) {
+    for (int p = 0; p < solutionSet.size(); p++)
+      if (solutionSet.get(p) == solution)
+        return p ;
+    return -1 ;
+  }
+
+  // the fast non dominated sorting of Ranking, with the pairwise comparisons
+  private static List<List<Solution>> pairwiseFronts(SolutionSet solutionSet) {
+    Comparator dominance = new DominanceComparator() ;
+    int size = solutionSet.size() ;
+    int[] dominateMe = new int[size] ;
+    List<List<Integer>> iDominate = new ArrayList<List<Integer>>() ;
+    for (int p = 0; p < size; p++)
+      iDominate.add(new ArrayList<Integer>()) ;
+
+    for (int p = 0; p < size - 1; p++) {
+      for (int q = p + 1; q < size; q++) {
+        int flagDominate = dominance.compare(solutionSet.get(p), solutionSet.get(q)) ;
+        if (flagDominate == -1) {
+          iDominate.get(p).add(q) ;
+          dominateMe[q]++ ;
+        }
+        else if (flagDominate == 1) {
+          iDominate.get(q).add(p) ;
+          dominateMe[p]++ ;
+        }
+      }
+    }
+
+    List<List<Integer>> front = new ArrayList<List<Integer>>() ;
+    front.add(new ArrayList<Integer>()) ;
+    for (int p = 0; p < size; p++)
+      if (dominateMe[p] == 0)
+        front.get(0).add(p) ;
+    int i = 0 ;
+    while (!front.get(i).isEmpty()) {
+      front.add(new ArrayList<Integer>()) ;
+      i++ ;
+      for (int p : front.get(i - 1)) {
+        for (int index : iDominate.get(p)) {
+          dominateMe[index]-- ;
+          if (dominateMe[index] == 0)
+            front.get(i).add(index) ;
+        }
+      }
+    }
+
+    List<List<Solution>> fronts = new ArrayList<List<Solution>>() ;
+    for (int j = 0; j < i; j++) {
+      List<Solution> solutions = new ArrayList<Solution>() ;
+      for (int p : front.get(j))
+        solutions.add(solutionSet.get(p)) ;
+      fronts.add(solutions) ;
+    }
+    return fronts ;
+  }
+}
@@ -0,0 +1,180 @@
+package mgpires.algorithms;
+
+import java.util.Arrays;
+import java.util.Random;
+import jmetal.core.Solution;
+import jmetal.encodings.variable.ArrayInt;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+import mgpires.core.SyntheticDataset;
+import mgpires.problems.LearningKB;
+import mgpires.solutionType.ArrayIntAndRealSolutionType;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the hashed deleteDuplicateRules method keeps the same rules of
+ * the pairwise comparison it replaced, which is copied below.
+ *
+ * The old method moved the kept rules through XInt, which does not accept the
+ * ArrayIntAndRealSolutionType chromosomes, so only the number of rules was
+ * updated. The copy moves the rules straight in the genes, as it was meant to.
+ */
+public class RulesTest {
+
+    @After
+    public void tearDown() {
+        PseudoRandom.removeThreadGenerator();
+    }
+
+    @Test
+    public void deleteDuplicateRulesMatchesThePairwiseComparison() throws Exception {
+        Random random = new Random(1);
+        PseudoRandom.setThreadSeed(1);
+        int withDuplicates = 0;
+
+        for (int t = 0; t < 40; t++) {
+            // few fuzzy sets, so many rules have the same antecedent
+            int[] sets = new int[1 + random.nextInt(3)];
+            for (int v = 0; v < sets.length; v++)
+                sets[v] = 1 + random.nextInt(3);
+            SyntheticDataset dataset = new SyntheticDataset(random, sets, 1 + random.nextInt(3), 10, 10);
+            LearningKB problem = new LearningKB("ArrayIntAndRealSolutionType", dataset.getSamples(),
+                dataset.getPartition(), 1, 1 + random.nextInt(40));
+            int numberOfVariables = problem.getNumberOfVariables();
+
+            for (int s = 0; s < 50; s++) {
+                Solution solution = new Solution(problem);
+                ArrayInt rules = (ArrayInt)solution.getDecisionVariables()[0];
+                int numberOfRules = (int)solution.getDecisionVariables()[2].getValue();
+                // copies of other rules, some of them with other output
+                for (int r = 1; r < numberOfRules; r++) {
+                    if (random.nextInt(4) == 0) {
+                        int other = random.nextInt(r);
+                        for (int v = 0; v < numberOfVariables; v++)
+                            rules.setValue(r * numberOfVariables + v, rules.getValue(other * numberOfVariables + v));
+                        if (random.nextBoolean())
+                            rules.setValue(r * numberOfVariables + numberOfVariables - 1, 1 + random.nextInt(3));
+                    }
+                }
+
+                Solution expected = new Solution(solution);
+                oldDeleteDuplicateRules(expected);
+                Rules.deleteDuplicateRules(solution);
+
+                assertEquals(expected.getDecisionVariables()[2].getValue(), solution.getDecisionVariables()[2].getValue(), 0);
+                assertArrayEquals(((ArrayInt)expected.getDecisionVariables()[0]).array_, rules.array_);
+                if (solution.getDecisionVariables()[2].getValue() < numberOfRules)
+                    withDuplicates++;
+            }
+        }
+        // most of the chromosomes had rules to delete
+        assertEquals(true, withDuplicates > 1000);
+    }
+
+    @Test
+    public void rulesWithoutDuplicatesAreNotChanged() throws Exception {
+        Random random = new Random(2);
+        PseudoRandom.setThreadSeed(2);
+        SyntheticDataset dataset = new SyntheticDataset(random, new int[] {5, 5, 5}, 2, 10, 10);
+        LearningKB problem = new LearningKB("ArrayIntAndRealSolutionType", dataset.getSamples(),
+            dataset.getPartition(), 1, 3);
+
+        for (int s = 0; s < 200; s++) {
+            Solution solution = new Solution(problem);
+            ArrayInt rules = (ArrayInt)solution.getDecisionVariables()[0];
+            int numberOfRules = (int)solution.getDecisionVariables()[2].getValue();
+            // the rules have different antecedents
+            for (int r = 0; r < numberOfRules; r++)
+                rules.setValue(r * problem.getNumberOfVariables(), r);
+            int[] genes = rules.array_.clone();
+
+            Rules.deleteDuplicateRules(solution);
+            assertEquals(numberOfRules, solution.getDecisionVariables()[2].getValue(), 0);
+            assertArrayEquals(genes, rules.array_);
+        }
+    }
+
+    // the deleteDuplicateRules method before the hash table
+    private static void oldDeleteDuplicateRules(Solution offSpring) throws JMException {
+        int numberOfRules, numberOfVariables, idx;
+        int[] rule1, rule2, ant1, ant2, verifiedRules;
+        boolean flag = false;
+
+        numberOfRules = (int)offSpring.getDecisionVariables()[2].getValue();
+        numberOfVariables = offSpring.numberOfVariables();
+
+        verifiedRules = new int[numberOfRules];
+        for (int i = 0; i < numberOfRules; i++)
+            verifiedRules[i] = -1;
+
+        idx = 1;
+        for (int i = 0; i < numberOfRules; i++) {
+            if (verifiedRules[i] == -1) {
+                rule1 = getRule(offSpring, i, numberOfVariables);
+                verifiedRules[i] = idx;
+                idx++;
+                for (int j = 0; j < numberOfRules; j++) {
+                    if (i !=j) {
+                        if (verifiedRules[j] == -1) {
+                            rule2 = getRule(offSpring, j, numberOfVariables);
+
+                            if (Arrays.equals(rule1, rule2)) {
+                                verifiedRules[j] = 0;
+                                flag = true;
+                            }
+                            else {
+                                ant1 = getAntecedent(offSpring, i, numberOfVariables);
+                                ant2 = getAntecedent(offSpring, j, numberOfVariables);
+
+                                if (Arrays.equals(ant1, ant2)) {
+                                    verifiedRules[i] = 0;
+                                    verifiedRules[j] = 0;
+                                    flag = true;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        if (flag == true) {
+            int count;
+            int maxLength = ((ArrayIntAndRealSolutionType)offSpring.getType()).getMaxLengthOfArrayInt_();
+            ArrayInt offs = (ArrayInt)offSpring.getDecisionVariables()[0];
+            int[] auxOff = offs.array_.clone();
+
+            idx = 0; count = 0;
+            for (int i = 0; i < numberOfRules; i ++) {
+                if (verifiedRules[i] != 0) {
+                    count++;
+                    for (int j = i * numberOfVariables; j < (i + 1) * numberOfVariables; j++) {
+                        offs.setValue(idx, auxOff[j]);
+                        idx++;
+                    }
+                }
+            }
+            for (int j = idx; j < maxLength; j++)
+                offs.setValue(j, -1);
+            offSpring.getDecisionVariables()[2].setValue(count);
+        }
+    } // end oldDeleteDuplicateRules method
+
+    private static int[] getRule(Solution offSpring, int idxRule, int numberOfVariables) throws JMException {
+        int[] aux = new int[numberOfVariables];
+        for (int i = 0; i < numberOfVariables; i++)
+            aux[i] = ((ArrayInt)offSpring.getDecisionVariables()[0]).getValue(idxRule * numberOfVariables + i);
+        return aux;
+    }
+
+    private static int[] getAntecedent(Solution offSpring, int idxRule, int numberOfVariables) throws JMException {
+        int[] aux = new int[numberOfVariables - 1];
+        for (int i = 0; i < numberOfVariables - 1; i++)
+            aux[i] = ((ArrayInt)offSpring.getDecisionVariables()[0]).getValue(idxRule * numberOfVariables + i);
+        return aux;
+    }
+
+} // end RulesTest class
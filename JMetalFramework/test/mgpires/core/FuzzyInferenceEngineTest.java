@@ -0,0 +1,390 @@
+package mgpires.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.encodings.solutionType.ArrayRealAndBinarySolutionType;
+import jmetal.encodings.variable.ArrayInt;
+import jmetal.encodings.variable.ArrayReal;
+import jmetal.encodings.variable.Binary;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+import jmetal.util.wrapper.XReal;
+import mgpires.problems.LearningKB;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the CompiledRuleBase and FuzzyInferenceEngine classes give the
+ * same winner rules and the same accuracies of the fuzzy reasoning they
+ * replaced, which read the chromosome (or the RuleBase) for each sample and
+ * each rule. The old reasoning is copied below.
+ */
+public class FuzzyInferenceEngineTest {
+
+    @After
+    public void tearDown() {
+        PseudoRandom.removeThreadGenerator();
+    }
+
+    @Test
+    public void chromosomeReasoningMatchesTheOldReasoning() throws Exception {
+        Random random = new Random(1);
+        PseudoRandom.setThreadSeed(1);
+
+        for (int t = 0; t < 30; t++) {
+            SyntheticDataset dataset = new SyntheticDataset(random, randomSets(random, 1 + random.nextInt(4)),
+                2 + random.nextInt(3), 20 + random.nextInt(300), 20 + random.nextInt(300));
+            checkChromosomes(random, dataset, 1 + random.nextInt(15), 20);
+        }
+    }
+
+    @Test
+    public void largeDatasetsMatchTheOldReasoning() throws Exception {
+        Random random = new Random(2);
+        PseudoRandom.setThreadSeed(2);
+
+        // enough samples and conditions to split the samples across the threads
+        SyntheticDataset dataset = new SyntheticDataset(random, new int[] {3, 5, 4, 3}, 3, 5000, 7000);
+        checkChromosomes(random, dataset, 60, 5);
+    }
+
+    @Test
+    public void ruleSelectionMatchesTheOldReasoning() throws Exception {
+        Random random = new Random(3);
+        PseudoRandom.setThreadSeed(3);
+
+        for (int t = 0; t < 20; t++) {
+            int numberOfInputVariables = 1 + random.nextInt(4);
+            SyntheticDataset dataset = new SyntheticDataset(random, randomSets(random, numberOfInputVariables),
+                2 + random.nextInt(3), 20 + random.nextInt(300), 20 + random.nextInt(300));
+            Samples samples = dataset.getSamples();
+            PartitionFuzzy partition = dataset.getPartition();
+
+            RuleBase rulebase = new RuleBase(samples.getNumberOfVariables());
+            rulebase.createRulesWithWangMendel(partition.getPartitionFuzzyInput_(), partition.getPartitionFuzzyOutput_(),
+                samples.getTraSamples(), samples.getNumberOfTraSamples(), partition.getNumberOfFuzzySets_(),
+                partition.getOutput_(), partition.getTypeOfOutputVariable_());
+            RuleSelectionProblem problem = new RuleSelectionProblem(partition, rulebase.getNumberOfRules_());
+
+            for (int s = 0; s < 20; s++) {
+                Solution solution = new Solution(problem);
+                XReal displacements = new XReal(solution);
+                Binary ruleSelected = (Binary)solution.getDecisionVariables()[1];
+                // some displacements are zero, so the fuzzy sets of the partition are used
+                for (int i = 0; i < problem.realPartLength_; i++)
+                    if (random.nextInt(3) == 0)
+                        displacements.setValue(i, 0);
+
+                CompiledRuleBase ruleBase = new CompiledRuleBase(partition, samples, rulebase, displacements, ruleSelected);
+                assertArrayEquals(oldReasoning(partition, samples, rulebase, displacements, ruleSelected),
+                    FuzzyInferenceEngine.classify(ruleBase, samples.getTestColumns(), null, samples.getNumberOfTestSamples()));
+
+                /* both methods read ruleClasses with the index of the rule starting in one, so
+                they throw when the last rule wins one sample. -1 stands for the exception
+                */
+                int expected, count;
+                try {
+                    expected = oldClassicFuzzyReasoning(partition, samples, rulebase, displacements, ruleSelected);
+                } catch (ArrayIndexOutOfBoundsException e) {
+                    expected = -1;
+                }
+                try {
+                    count = FuzzyReasoning.classicFuzzyReasoning(partition, samples, rulebase, displacements, ruleSelected);
+                } catch (ArrayIndexOutOfBoundsException e) {
+                    count = -1;
+                }
+                assertEquals(expected, count);
+            }
+        }
+    }
+
+    // compares the winner rules and the accuracies of random chromosomes of the LearningKB problem
+    private static void checkChromosomes(Random random, SyntheticDataset dataset, int maxNumberOfRules,
+        int numberOfChromosomes) throws Exception {
+
+        Samples samples = dataset.getSamples();
+        PartitionFuzzy partition = dataset.getPartition();
+        LearningKB problem = new LearningKB("ArrayIntAndRealSolutionType", samples, partition, 1, maxNumberOfRules);
+        int numberOfVariables = samples.getNumberOfVariables();
+
+        int numberOfSelected = 0;
+        for (int i = 0; i < samples.getNumberOfTraSamples(); i++) {
+            boolean selected = random.nextBoolean();
+            samples.setSelectedSamples(i, selected);
+            if (selected)
+                numberOfSelected++;
+        }
+        samples.setNumberOfSelectedSamples(numberOfSelected);
+        int[] rows = new int[numberOfSelected];
+        for (int i = 0, idx = 0; i < samples.getNumberOfTraSamples(); i++)
+            if (samples.getSelectedSamples()[i])
+                rows[idx++] = i;
+
+        for (int s = 0; s < numberOfChromosomes; s++) {
+            Solution solution = new Solution(problem);
+            ArrayInt rules = (ArrayInt)solution.getDecisionVariables()[0];
+            int numberOfRules = (int)solution.getDecisionVariables()[2].getValue();
+            for (int r = 0; r < numberOfRules; r++) {
+                // disabled rules, and copies of other rules, which are tied with them
+                if (random.nextInt(10) == 0)
+                    rules.setValue(r * numberOfVariables + random.nextInt(numberOfVariables - 1), -1);
+                else if (r > 0 && random.nextInt(5) == 0) {
+                    int other = random.nextInt(r);
+                    for (int v = 0; v < numberOfVariables; v++)
+                        rules.setValue(r * numberOfVariables + v, rules.getValue(other * numberOfVariables + v));
+                }
+            }
+
+            CompiledRuleBase ruleBase = new CompiledRuleBase(solution, partition, samples);
+            assertArrayEquals(oldReasoning(solution, samples, partition, samples.getTraColumns(), null,
+                samples.getNumberOfTraSamples()), FuzzyInferenceEngine.classify(ruleBase, samples.getTraColumns(), null,
+                samples.getNumberOfTraSamples()));
+            assertArrayEquals(oldReasoning(solution, samples, partition, samples.getTraColumns(), rows, numberOfSelected),
+                FuzzyInferenceEngine.classify(ruleBase, samples.getTraColumns(), rows, numberOfSelected));
+            assertArrayEquals(oldReasoning(solution, samples, partition, samples.getTestColumns(), null,
+                samples.getNumberOfTestSamples()), FuzzyInferenceEngine.classify(ruleBase, samples.getTestColumns(), null,
+                samples.getNumberOfTestSamples()));
+
+            for (String type : new String[] {"trainingKB", "training", "test"})
+                assertEquals(type, oldClassicFuzzyReasoning(solution, samples, partition, type),
+                    FuzzyReasoning.classicFuzzyReasoning(solution, samples, partition, type), 0);
+        }
+    } // end checkChromosomes method
+
+    private static int[] randomSets(Random random, int numberOfInputVariables) {
+        int[] sets = new int[numberOfInputVariables];
+        for (int v = 0; v < numberOfInputVariables; v++)
+            sets[v] = 1 + random.nextInt(5);
+        return sets;
+    }
+
+    // the classicFuzzyReasoning method of the chromosomes, before the CompiledRuleBase class
+    private static double oldClassicFuzzyReasoning(Solution solution, Samples samples, PartitionFuzzy partition,
+        String type) throws JMException {
+
+        int numberOfSamples, sample;
+        double[][] columns;
+        int[] classes, rows;
+
+        if (type.equalsIgnoreCase("training")) {
+            boolean[] sel = samples.getSelectedSamples();
+            rows = new int[samples.getNumberOfSelectedSamples()];
+            for (int i = 0, line = 0; i < sel.length; i++)
+                if (sel[i])
+                    rows[line++] = i;
+            columns = samples.getTraColumns();
+            classes = samples.getTraClasses();
+            numberOfSamples = samples.getNumberOfSelectedSamples();
+        }
+        else if (type.equalsIgnoreCase("trainingKB")) {
+            numberOfSamples = samples.getNumberOfTraSamples();
+            rows = null;
+            columns = samples.getTraColumns();
+            classes = samples.getTraClasses();
+        }
+        else {
+            numberOfSamples = samples.getNumberOfTestSamples();
+            rows = null;
+            columns = samples.getTestColumns();
+            classes = samples.getTestClasses();
+        }
+
+        int numberOfRules = (int)solution.getDecisionVariables()[2].getValue();
+        int[] resultFuzzyReasoning = oldReasoning(solution, samples, partition, columns, rows, numberOfSamples);
+        int[] ruleClasses = new int[numberOfRules + 1];
+        for (int idxRule = 1; idxRule <= numberOfRules; idxRule++) {
+            int set = ((ArrayInt)solution.getDecisionVariables()[0]).getValue((idxRule * samples.getNumberOfVariables()) - 1);
+            ruleClasses[idxRule] = samples.getClassCode(Integer.toString(set));
+        }
+
+        int count = 0;
+        for (int idxSample = 0; idxSample < numberOfSamples; idxSample++) {
+            sample = (rows == null) ? idxSample : rows[idxSample];
+            if (resultFuzzyReasoning[idxSample] != -1)
+                if (classes[sample] == ruleClasses[resultFuzzyReasoning[idxSample]])
+                    count++;
+        }
+        return (double)count / numberOfSamples;
+    } // end oldClassicFuzzyReasoning method
+
+    // the winner rules of the old classicFuzzyReasoning method of the chromosomes
+    private static int[] oldReasoning(Solution solution, Samples samples, PartitionFuzzy partition, double[][] columns,
+        int[] rows, int numberOfSamples) throws JMException {
+
+        int numberOfRules = (int)solution.getDecisionVariables()[2].getValue();
+        int numberOfInputVariables = samples.getNumberOfVariables() - 1;
+        int idx, set, sample;
+        double prod, value;
+        double[] points;
+        List<Double> listCompatRules = new ArrayList<>();
+        int[] resultFuzzyReasoning = new int[numberOfSamples];
+
+        for (int idxSample = 0; idxSample < numberOfSamples; idxSample++) {
+            sample = (rows == null) ? idxSample : rows[idxSample];
+            idx = 0;
+            for (int idxRule = 0; idxRule < numberOfRules; idxRule++) {
+                prod = 1.0;
+                for (int idxVar = 0; idxVar <= numberOfInputVariables; idxVar++) {
+                    if (idxVar == numberOfInputVariables)
+                        idx++;
+                    else {
+                        set = ((ArrayInt)solution.getDecisionVariables()[0]).getValue(idx);
+                        idx++;
+                        if ((set != 0) && (set != -1)) {
+                            points = getPointsOfMembershipFunction(solution, partition, idxVar, set);
+                            value = MembershipDegree.calcMembershipTriangularFunction(columns[idxVar][sample], points);
+                            prod *= value;
+                        }
+                        else if (set == -1)
+                            prod = 0;
+                    }
+                }
+                listCompatRules.add(prod);
+            }
+            resultFuzzyReasoning[idxSample] = getRuleIdxWithMaxCompatibility(listCompatRules);
+            listCompatRules.clear();
+        }
+        return resultFuzzyReasoning;
+    } // end oldReasoning method
+
+    // the classicFuzzyReasoning method of the rule selection, before the CompiledRuleBase class
+    private static int oldClassicFuzzyReasoning(PartitionFuzzy partition, Samples samples, RuleBase rulebase,
+        XReal displacements, Binary ruleSelected) throws JMException {
+
+        int numberOfSamples = samples.getNumberOfTestSamples();
+        int numberOfRules = rulebase.getNumberOfRules_();
+        int numberOfInputVariables = partition.getNumberOfInputVariables_();
+        int[] resultFuzzyReasoning = oldReasoning(partition, samples, rulebase, displacements, ruleSelected);
+        int[] classes = samples.getTestClasses();
+
+        int[] ruleClasses = new int[numberOfRules];
+        for (int j = 0; j < numberOfRules; j++)
+            ruleClasses[j] = samples.getClassCode(rulebase.getFuzzySetfromRule(j, numberOfInputVariables));
+
+        int count = 0;
+        for (int i = 0; i < numberOfSamples; i++)
+            if (resultFuzzyReasoning[i] != -1)
+                if (classes[i] == ruleClasses[resultFuzzyReasoning[i]])
+                    count++;
+        return count;
+    } // end oldClassicFuzzyReasoning method
+
+    // the winner rules of the old classicFuzzyReasoning method of the rule selection
+    private static int[] oldReasoning(PartitionFuzzy partition, Samples samples, RuleBase rulebase,
+        XReal displacements, Binary ruleSelected) throws JMException {
+
+        List<Double> listCompatSample = new ArrayList<>();
+        double value, prod;
+        int numberOfSamples, numberOfInputVariables, numberOfRules, index, aux;
+
+        numberOfSamples = samples.getNumberOfTestSamples();
+        numberOfRules = rulebase.getNumberOfRules_();
+        numberOfInputVariables = partition.getNumberOfInputVariables_();
+        int[] resultFuzzyReasoning = new int[numberOfSamples];
+
+        for (int i = 0; i < numberOfSamples; i++) {
+            for (int j = 0; j < numberOfRules; j++) {
+                if (ruleSelected.getIth(j) == true) {
+                    aux = 0;
+                    prod = 1.0;
+                    for (int k = 0; k < numberOfInputVariables; k++) {
+                        if (k == 0)
+                            index = Integer.parseInt(rulebase.getFuzzySetfromRule(j,k)) - 1;
+                        else {
+                            aux = aux + partition.getNumberOfFuzzySetsOfIthVariable(k - 1);
+                            index = (aux + Integer.parseInt(rulebase.getFuzzySetfromRule(j,k))) - 1;
+                        }
+                        value = MembershipDegree.calcMembershipWithLateralDisplacement(samples.getNumericValueOfTestSamples(i, k), k,
+                                Integer.parseInt(rulebase.getFuzzySetfromRule(j,k))-1,
+                                partition.getPartitionFuzzyInput_(), "input", displacements.getValue(index));
+                        prod *= value;
+                    }
+                    listCompatSample.add(prod);
+                }
+                else
+                    listCompatSample.add(0.0);
+            }
+            resultFuzzyReasoning[i] = getRuleIdxWithMaxCompatibility(listCompatSample);
+            listCompatSample.clear();
+        }
+        return resultFuzzyReasoning;
+    } // end oldReasoning method
+
+    private static int getRuleIdxWithMaxCompatibility(List<Double> list) {
+        double max, firstMax, secondMax, degree;
+        int idx = -1;
+
+        max = 0;
+        for (int i = 0; i < list.size(); i++) {
+            degree = list.get(i);
+            if (degree > max) {
+                max = degree;
+                idx = i + 1;
+            }
+        }
+        Collections.sort(list);
+        if (list.size() > 1) {
+            firstMax = list.get(list.size()-1);
+            secondMax = list.get(list.size()-2);
+            if (firstMax == secondMax)
+                idx = -1;
+        }
+        return idx;
+    }
+
+    private static double[] getPointsOfMembershipFunction(Solution solution, PartitionFuzzy partition, int idxVar,
+        int idxSet) throws JMException {
+
+        double[] result = new double[3];
+        result[0] = partition.getValuePartition(idxVar, idxSet - 1, 0, "input");
+        result[2] = partition.getValuePartition(idxVar, idxSet - 1, 2, "input");
+
+        int idx = -1;
+        if ((idxVar == 0) && (idxSet == 0))
+            idx = 0;
+        else {
+            int vet[] = partition.getNumberOfFuzzySets_();
+            for (int i = 0; i < idxVar; i++)
+                idx = idx + vet[i];
+            idx = idx + idxSet;
+        }
+        result[1] = ((ArrayReal)solution.getDecisionVariables()[1]).getValue(idx);
+        return result;
+    }
+
+    // the chromosomes of the WangMendelRuleSelectionTuningBD problem: the displacements and the selected rules
+    private static class RuleSelectionProblem extends Problem {
+
+        final int realPartLength_;
+
+        RuleSelectionProblem(PartitionFuzzy partition, int numberOfRules) {
+            int[] vet = partition.getNumberOfFuzzySets_();
+            int realPartLength = 0;
+            for (int j = 0; j < vet.length - 1; j++)
+                realPartLength += vet[j];
+            realPartLength_ = realPartLength;
+
+            numberOfVariables_ = 2;
+            numberOfObjectives_ = 3;
+            upperLimit_ = new double[realPartLength];
+            lowerLimit_ = new double[realPartLength];
+            for (int var = 0; var < realPartLength; var++) {
+                lowerLimit_[var] = -0.5;
+                upperLimit_[var] = 0.5;
+            }
+            solutionType_ = new ArrayRealAndBinarySolutionType(this, realPartLength, numberOfRules);
+        }
+
+        @Override
+        public void evaluate(Solution solution) {
+        }
+    }
+
+} // end FuzzyInferenceEngineTest class
@@ -0,0 +1,153 @@
+package mgpires.core;
+
+import java.util.Random;
+import jmetal.core.Solution;
+import jmetal.encodings.variable.ArrayInt;
+import jmetal.encodings.variable.ArrayReal;
+import jmetal.util.PseudoRandom;
+import mgpires.algorithms.Rules;
+import mgpires.problems.LearningKB;
+import mgpires.solutionType.ArrayIntRules;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the incremental evaluation of the FuzzyReasoningState class
+ * gives the same winner rules and the same accuracy of evaluating all the
+ * rule base, along lineages of chromosomes where each offspring changes a few
+ * rules or cores of its parent, as the operators do.
+ */
+public class FuzzyReasoningStateTest {
+
+    @After
+    public void tearDown() {
+        PseudoRandom.removeThreadGenerator();
+    }
+
+    @Test
+    public void incrementalEvaluationMatchesTheFullEvaluation() throws Exception {
+        Random random = new Random(1);
+        PseudoRandom.setThreadSeed(1);
+
+        for (int t = 0; t < 20; t++) {
+            int[] sets = new int[1 + random.nextInt(4)];
+            for (int v = 0; v < sets.length; v++)
+                sets[v] = 1 + random.nextInt(5);
+            SyntheticDataset dataset = new SyntheticDataset(random, sets, 2 + random.nextInt(3),
+                20 + random.nextInt(400), 20);
+            Samples samples = dataset.getSamples();
+            PartitionFuzzy partition = dataset.getPartition();
+            LearningKB problem = new LearningKB("ArrayIntAndRealSolutionType", samples, partition, 1,
+                10 + random.nextInt(40));
+            selectSamples(random, samples);
+
+            Solution solution = new Solution(problem);
+            FuzzyReasoningState state = null;
+            for (int g = 0; g < 100; g++) {
+                // the offspring is one copy, which shares the state of its parent
+                solution = new Solution(solution);
+                change(random, problem, solution);
+                if (random.nextInt(20) == 0)
+                    // other samples, the state of the parent must not be used
+                    selectSamples(random, samples);
+
+                int[] rows = selectedRows(samples);
+                CompiledRuleBase ruleBase = new CompiledRuleBase(solution, partition, samples);
+                state = FuzzyReasoningState.evaluate(state, ruleBase, samples.getTraColumns(), rows, rows.length);
+                assertArrayEquals("generation " + g, FuzzyInferenceEngine.classify(ruleBase, samples.getTraColumns(),
+                    rows, rows.length), state.getResult());
+
+                // the same, through the state kept by the chromosome
+                double expected = accuracy(samples, ruleBase, FuzzyInferenceEngine.classify(ruleBase,
+                    samples.getTraColumns(), rows, rows.length), rows);
+                assertEquals(expected, FuzzyReasoning.classicFuzzyReasoning(solution, samples, partition, "training"), 0);
+                assertArrayEquals(state.getResult(),
+                    ((ArrayIntRules)solution.getDecisionVariables()[0]).getReasoningState_().getResult());
+            }
+        }
+    }
+
+    // changes a few genes, as the crossover and mutation operators do
+    private static void change(Random random, LearningKB problem, Solution solution) throws Exception {
+        ArrayInt rules = (ArrayInt)solution.getDecisionVariables()[0];
+        ArrayReal cores = (ArrayReal)solution.getDecisionVariables()[1];
+        int numberOfVariables = problem.getNumberOfVariables();
+        int numberOfRules = (int)solution.getDecisionVariables()[2].getValue();
+        int maxNumberOfRules = problem.getMaxNumberRules_();
+
+        // deleteDuplicateRules can delete all the rules, then one rule is added
+        switch (numberOfRules == 0 ? 2 : random.nextInt(6)) {
+            case 0:
+                // one gene of one rule, antecedent or output
+                int gene = random.nextInt(numberOfRules * numberOfVariables);
+                rules.setValue(gene, (int)rules.getLowerBound(gene) + random.nextInt((int)rules.getUpperBound(gene) -
+                    (int)rules.getLowerBound(gene) + 1));
+                break;
+            case 1:
+                // one core of one fuzzy set
+                int idx = random.nextInt(cores.getLength());
+                cores.setValue(idx, cores.getLowerBound(idx) + random.nextDouble() *
+                    (cores.getUpperBound(idx) - cores.getLowerBound(idx)));
+                break;
+            case 2:
+                // one new rule, copied from other rule or random
+                if (numberOfRules < maxNumberOfRules) {
+                    int other = random.nextInt(Math.max(numberOfRules, 1));
+                    boolean copy = (numberOfRules > 0) && random.nextBoolean();
+                    for (int v = 0; v < numberOfVariables; v++) {
+                        gene = numberOfRules * numberOfVariables + v;
+                        rules.setValue(gene, copy ? rules.getValue(other * numberOfVariables + v) :
+                            (int)rules.getLowerBound(gene) + random.nextInt((int)rules.getUpperBound(gene) -
+                            (int)rules.getLowerBound(gene) + 1));
+                    }
+                    solution.getDecisionVariables()[2].setValue(numberOfRules + 1);
+                }
+                break;
+            case 3:
+                // the last rule is removed
+                if (numberOfRules > 1) {
+                    for (int v = 0; v < numberOfVariables; v++)
+                        rules.setValue((numberOfRules - 1) * numberOfVariables + v, -1);
+                    solution.getDecisionVariables()[2].setValue(numberOfRules - 1);
+                }
+                break;
+            case 4:
+                // one rule disabled
+                rules.setValue(random.nextInt(numberOfRules) * numberOfVariables, -1);
+                break;
+            default:
+                Rules.deleteDuplicateRules(solution);
+        }
+    } // end change method
+
+    private static void selectSamples(Random random, Samples samples) {
+        int numberOfSelected = 0;
+        for (int i = 0; i < samples.getNumberOfTraSamples(); i++) {
+            boolean selected = random.nextInt(4) != 0;
+            samples.setSelectedSamples(i, selected);
+            if (selected)
+                numberOfSelected++;
+        }
+        samples.setNumberOfSelectedSamples(numberOfSelected);
+    }
+
+    private static int[] selectedRows(Samples samples) {
+        int[] rows = new int[samples.getNumberOfSelectedSamples()];
+        for (int i = 0, idx = 0; i < samples.getNumberOfTraSamples(); i++)
+            if (samples.getSelectedSamples()[i])
+                rows[idx++] = i;
+        return rows;
+    }
+
+    private static double accuracy(Samples samples, CompiledRuleBase ruleBase, int[] result, int[] rows) {
+        int count = 0;
+        for (int i = 0; i < rows.length; i++)
+            if ((result[i] != -1) && (samples.getTraClasses()[rows[i]] == ruleBase.getRuleClass(result[i])))
+                count++;
+        return (double)count / rows.length;
+    }
+
+} // end FuzzyReasoningStateTest class
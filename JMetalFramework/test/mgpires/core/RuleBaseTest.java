@@ -0,0 +1,250 @@
+package mgpires.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the parallel Wang and Mendel algorithm of the RuleBase class
+ * creates the same rule base of the sequential algorithm it replaced, which is
+ * copied below, whatever the number of threads.
+ *
+ * The old algorithm compared the antecedents as the concatenation of the fuzzy
+ * sets, without separator, so with ten or more fuzzy sets one antecedent like
+ * (1, 11) was equal to (11, 1). The copy separates the fuzzy sets, which is the
+ * only change, and one test checks that these antecedents are kept apart.
+ */
+public class RuleBaseTest {
+
+    @Test
+    public void rulesMatchTheSequentialAlgorithm() throws Exception {
+        Random random = new Random(1);
+
+        for (int t = 0; t < 40; t++) {
+            int numberOfVar = 2 + random.nextInt(5);
+            // the large datasets are split in several tasks
+            int numberOfSamples = (t % 4 == 0) ? 3000 + random.nextInt(3000) : 1 + random.nextInt(1000);
+            // up to 12 fuzzy sets, so some antecedents would collide in the old keys
+            int[] numberOfFuzzySets = new int[numberOfVar];
+            for (int j = 0; j < numberOfVar; j++)
+                numberOfFuzzySets[j] = 1 + random.nextInt(t % 3 == 0 ? 12 : 5);
+            boolean continuous = t % 5 == 1;
+            if (continuous && numberOfFuzzySets[numberOfVar - 1] == 1)
+                numberOfFuzzySets[numberOfVar - 1] = 2;
+
+            checkRules(random, numberOfVar, numberOfSamples, numberOfFuzzySets, continuous);
+        }
+    }
+
+    @Test
+    public void rulesDoNotDependOnTheNumberOfThreads() throws Exception {
+        final Random random = new Random(2);
+        for (final int parallelism : new int[] {1, 2, 4, 7}) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        // inside the pool the tasks are forked in it
+                        checkRules(random, 4, 10000, new int[] {3, 4, 3, 2}, false);
+                        checkRules(random, 3, 8000, new int[] {12, 11, 3}, false);
+                        return null;
+                    }
+                }).get();
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void antecedentsWithTenOrMoreFuzzySetsAreKeptApart() {
+        int[] numberOfFuzzySets = {12, 12, 2};
+        double[][][] partitionFuzzyInput = uniformPartition(numberOfFuzzySets);
+        String[] outputDiscrete = {"a", "b"};
+        // the antecedents (1, 11) and (11, 1): the same old key "111"
+        String[][] samples = {
+            {"0.0", String.valueOf(10 / 11.0), "a"},
+            {String.valueOf(10 / 11.0), "0.0", "b"}
+        };
+
+        RuleBase rulebase = new RuleBase(3);
+        rulebase.createRulesWithWangMendel(partitionFuzzyInput, null, samples, samples.length, numberOfFuzzySets,
+            outputDiscrete, "discrete");
+        assertEquals(2, rulebase.getNumberOfRules_());
+        assertArrayEquals(new String[] {"1", "11", "1"}, rulebase.getRuleBase()[0]);
+        assertArrayEquals(new String[] {"11", "1", "2"}, rulebase.getRuleBase()[1]);
+        assertEquals(1, oldRuleBase(partitionFuzzyInput, null, samples, samples.length, numberOfFuzzySets,
+            outputDiscrete, "discrete", 3, "").size());
+    }
+
+    // compares the rule base of one random dataset with the one of the old algorithm
+    private static void checkRules(Random random, int numberOfVar, int numberOfSamples, int[] numberOfFuzzySets,
+        boolean continuous) {
+
+        double[][][] partitionFuzzyInput = uniformPartition(numberOfFuzzySets);
+        double[][][] partitionFuzzyOutput = {partitionFuzzyInput[numberOfVar - 1]};
+        String[] outputDiscrete = new String[numberOfFuzzySets[numberOfVar - 1]];
+        for (int k = 0; k < outputDiscrete.length; k++)
+            outputDiscrete[k] = "c" + k;
+        String type = continuous ? "continuous" : "discrete";
+
+        // values on one grid, so there are many equal antecedents and equal degrees
+        int grid = 1 + random.nextInt(4);
+        String[][] samples = new String[numberOfSamples][numberOfVar];
+        for (int i = 0; i < numberOfSamples; i++) {
+            for (int j = 0; j < numberOfVar; j++) {
+                int steps = grid * Math.max(numberOfFuzzySets[j] - 1, 1);
+                samples[i][j] = String.valueOf(random.nextInt(steps + 1) / (double)steps);
+            }
+            if (!continuous)
+                samples[i][numberOfVar - 1] = outputDiscrete[random.nextInt(outputDiscrete.length)];
+        }
+
+        List<int[]> expected = oldRuleBase(partitionFuzzyInput, partitionFuzzyOutput, samples, numberOfSamples,
+            numberOfFuzzySets, outputDiscrete, type, numberOfVar, ",");
+        RuleBase rulebase = new RuleBase(numberOfVar);
+        rulebase.createRulesWithWangMendel(partitionFuzzyInput, partitionFuzzyOutput, samples, numberOfSamples,
+            numberOfFuzzySets, outputDiscrete, type);
+
+        assertEquals(expected.size(), rulebase.getNumberOfRules_());
+        for (int i = 0; i < expected.size(); i++) {
+            String[] rule = new String[numberOfVar];
+            for (int j = 0; j < numberOfVar; j++)
+                rule[j] = String.valueOf(expected.get(i)[j]);
+            assertArrayEquals("rule " + i, rule, rulebase.getRuleBase()[i]);
+        }
+    } // end checkRules method
+
+    // one uniform partition in [0, 1] for each variable
+    private static double[][][] uniformPartition(int[] numberOfFuzzySets) {
+        double[][][] partition = new double[numberOfFuzzySets.length][][];
+        for (int j = 0; j < numberOfFuzzySets.length; j++) {
+            int sets = numberOfFuzzySets[j];
+            partition[j] = new double[sets][];
+            for (int k = 0; k < sets; k++) {
+                double core = (sets == 1) ? 0 : (double)k / (sets - 1);
+                double width = (sets == 1) ? 1 : 1.0 / (sets - 1);
+                partition[j][k] = new double[] {core - width, core, core + width};
+            }
+        }
+        return partition;
+    }
+
+    /* the createRulesWithWangMendel method before the parallel tasks. separator
+    is put between the fuzzy sets of the antecedents, "" as the old method did
+    */
+    private static List<int[]> oldRuleBase(double[][][] partitionFuzzyInput, double[][][] partitionFuzzyOutput,
+        String[][] samples, int numberOfSamples, int[] numberOfFuzzySets, String[] outputDiscrete,
+        String typeOfOutputVariable, int numberOfVar, String separator) {
+
+        List<Double> listValuesOfMembership = new ArrayList<>();
+        List<int[]> listOfRules = new ArrayList<>();
+        List<Double> listOfDegreeRules = new ArrayList<>();
+        double value, auxDegreeRule;
+        int[] rule;
+
+        for (int i = 0; i < numberOfSamples; i++) {
+            auxDegreeRule = 1.0;
+            rule = new int[numberOfVar];
+            for (int j = 0; j < numberOfVar; j++) {
+                for (int k = 0; k < numberOfFuzzySets[j]; k++) {
+                    if ((j == numberOfVar-1) && (typeOfOutputVariable.equals("continuous")))
+                        value = MembershipDegree.calcMembership(samples[i][j], j, k, partitionFuzzyOutput, "output");
+                    else if ((j == numberOfVar-1) && (typeOfOutputVariable.equals("discrete")))
+                        value = MembershipDegree.calcMembership(samples[i][j], outputDiscrete[k]);
+                    else
+                        value = MembershipDegree.calcMembership(samples[i][j], j, k, partitionFuzzyInput, "input");
+                    listValuesOfMembership.add(value);
+                }
+                rule[j] = returnIdxSet(listValuesOfMembership);
+                Collections.sort(listValuesOfMembership);
+                auxDegreeRule *= listValuesOfMembership.get(listValuesOfMembership.size()-1);
+                listValuesOfMembership.clear();
+            }
+            listOfRules.add(i, rule);
+            listOfDegreeRules.add(i, auxDegreeRule);
+        }
+        return cleanRuleBase(listOfRules, listOfDegreeRules, numberOfVar, separator);
+    } // end oldRuleBase method
+
+    private static int returnIdxSet(List<Double> listValuesOfMembership) {
+        double max = 0;
+        int idx = 0;
+        for (int i = 0; i < listValuesOfMembership.size(); i++) {
+            Double get = listValuesOfMembership.get(i);
+            if (get >= max) {
+                max = get;
+                idx = i + 1;
+            }
+        }
+        return idx;
+    }
+
+    // the antecedents are copied once, the old method copied them in each comparison
+    private static List<int[]> cleanRuleBase(List<int[]> listOfRules, List<Double> listOfDegree, int numberOfVar,
+        String separator) {
+
+        String ant1;
+        List<int[]> newList = new ArrayList<>();
+        int idx, idxRule;
+        int[] verifiedRules = new int[listOfRules.size()];
+        double max, degreeRule1, degreeRule2;
+        String[] antecedents = new String[listOfRules.size()];
+        for (int i = 0; i < listOfRules.size(); i++)
+            antecedents[i] = copyAntecedent(listOfRules.get(i), separator);
+
+        Arrays.fill(verifiedRules, -1);
+        idx = 1;
+        for (int i = 0; i < listOfRules.size(); i++) {
+            if (verifiedRules[i] == -1) {
+                degreeRule1 = listOfDegree.get(i);
+                ant1 = antecedents[i];
+                idxRule = i;
+                verifiedRules[i] = 0;
+                max = 0;
+                for (int j = 0; j < listOfRules.size(); j++) {
+                    degreeRule2 = listOfDegree.get(j);
+                    if ((i != j) && (verifiedRules[j] == -1) && (ant1.equals(antecedents[j]))) {
+                        if (degreeRule1 > degreeRule2) {
+                            if (degreeRule1 >= max) {
+                                idxRule = i;
+                                max = degreeRule1;
+                            }
+                        }
+                        else {
+                            if (degreeRule2 >= max) {
+                                idxRule = j;
+                                max = degreeRule2;
+                            }
+                        }
+                        verifiedRules[j] = 0;
+                    }
+                }
+                verifiedRules[idxRule] = idx;
+                idx++;
+            }
+        }
+
+        for (int i = 0; i < verifiedRules.length; i++)
+            if (verifiedRules[i] != 0)
+                newList.add(listOfRules.get(i));
+        return newList;
+    } // end cleanRuleBase method
+
+    private static String copyAntecedent(int[] rule, String separator) {
+        String aux = "";
+        for (int k = 0; k < rule.length - 1; k++)
+            aux += String.valueOf(rule[k]) + separator;
+        return aux;
+    }
+
+} // end RuleBaseTest class
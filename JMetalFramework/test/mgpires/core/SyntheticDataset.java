@@ -0,0 +1,118 @@
+package mgpires.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Random;
+
+/**
+ * One synthetic classification dataset for the tests of the fuzzy rule bases.
+ * The folds are written in the KEEL format to a temporary folder, with the
+ * config file of the fuzzy partition, and loaded as the experiments do.
+ *
+ * Half of the values are points of the uniform partition, so there are samples
+ * with membership degree 1 or 0 and rules tied with the same compatibility
+ * degree. The classes are the labels "1", "2", ..., as the rules encode them.
+ */
+public class SyntheticDataset {
+
+    private final Samples samples_;
+    private final PartitionFuzzy partition_;
+
+    /**
+     * Creates one dataset
+     * @param random The source of the values
+     * @param numberOfFuzzySets Number of fuzzy sets of each input variable
+     * @param numberOfClasses Number of classes
+     * @param numberOfTraSamples Number of training samples
+     * @param numberOfTestSamples Number of test samples
+     * @throws IOException
+     */
+    public SyntheticDataset(Random random, int[] numberOfFuzzySets, int numberOfClasses, int numberOfTraSamples,
+        int numberOfTestSamples) throws IOException {
+
+        File folder = File.createTempFile("dataset", "");
+        folder.delete();
+        folder.mkdir();
+        // the files are deleted in the reverse order, so the folder is registered before them
+        folder.deleteOnExit();
+        String name = new File(folder, "syn").getPath();
+        int numberOfInputVariables = numberOfFuzzySets.length;
+        double[] lower = new double[numberOfInputVariables];
+        double[] upper = new double[numberOfInputVariables];
+        for (int v = 0; v < numberOfInputVariables; v++) {
+            lower[v] = -random.nextInt(5);
+            upper[v] = lower[v] + 1 + random.nextInt(5);
+        }
+
+        File config = new File(folder, "config.txt");
+        try (PrintWriter writer = new PrintWriter(config)) {
+            for (int v = 0; v < numberOfInputVariables; v++)
+                writer.println(lower[v] + " " + upper[v] + " " + numberOfFuzzySets[v]);
+            writer.println("@output discrete " + numberOfClasses);
+            StringBuilder labels = new StringBuilder();
+            for (int c = 1; c <= numberOfClasses; c++)
+                labels.append(c == 1 ? "" : " ").append(c);
+            writer.println(labels);
+        }
+        writeFold(new File(name + "-10-1tra.dat"), random, lower, upper, numberOfFuzzySets, numberOfClasses,
+            numberOfTraSamples);
+        writeFold(new File(name + "-10-1tst.dat"), random, lower, upper, numberOfFuzzySets, numberOfClasses,
+            numberOfTestSamples);
+
+        samples_ = new Samples();
+        samples_.loadSamples(name, "10", 1);
+        samples_.setTypeDataSet("classification");
+        partition_ = new PartitionFuzzy();
+        partition_.createPartition(config.getPath());
+
+        // the folds are read again when the String matrices are asked for
+        for (File file : folder.listFiles())
+            file.deleteOnExit();
+    } // end constructor
+
+    private static void writeFold(File file, Random random, double[] lower, double[] upper, int[] numberOfFuzzySets,
+        int numberOfClasses, int numberOfSamples) throws IOException {
+
+        int numberOfInputVariables = numberOfFuzzySets.length;
+        try (PrintWriter writer = new PrintWriter(file)) {
+            writer.println("@relation syn");
+            for (int v = 0; v < numberOfInputVariables; v++)
+                writer.println("@attribute X" + v + " real[" + lower[v] + "," + upper[v] + "]");
+            StringBuilder classes = new StringBuilder();
+            for (int c = 1; c <= numberOfClasses; c++)
+                classes.append(c == 1 ? "" : ",").append(c);
+            writer.println("@attribute Class {" + classes + "}");
+            StringBuilder inputs = new StringBuilder();
+            for (int v = 0; v < numberOfInputVariables; v++)
+                inputs.append(v == 0 ? "" : ", ").append("X").append(v);
+            writer.println("@inputs " + inputs);
+            writer.println("@outputs Class");
+            writer.println("@data");
+
+            for (int i = 0; i < numberOfSamples; i++) {
+                StringBuilder line = new StringBuilder();
+                for (int v = 0; v < numberOfInputVariables; v++) {
+                    double value;
+                    if (random.nextBoolean() && numberOfFuzzySets[v] > 1)
+                        // one point of the uniform partition
+                        value = lower[v] + (upper[v] - lower[v]) * random.nextInt(numberOfFuzzySets[v]) / (numberOfFuzzySets[v] - 1);
+                    else
+                        value = lower[v] + (upper[v] - lower[v]) * random.nextDouble();
+                    line.append(value).append(", ");
+                }
+                line.append(1 + random.nextInt(numberOfClasses));
+                writer.println(line);
+            }
+        }
+    } // end writeFold method
+
+    public Samples getSamples() {
+        return samples_;
+    }
+
+    public PartitionFuzzy getPartition() {
+        return partition_;
+    }
+
+} // end SyntheticDataset class
@@ -1,15 +1,22 @@
 package jpssena.algorithm.multiobjective;
 
+import jpssena.algorithm.util.Checkpoint;
+import jpssena.algorithm.util.Checkpointable;
+import jpssena.algorithm.util.RankingContext;
+import jpssena.algorithm.util.RunRandomGenerator;
 import jpssena.algorithm.util.comparator.RankingAndDistanceOrientedComparator;
 import jpssena.operator.selection.RankingAndDistanceOrientedSelection;
+import jpssena.util.CheckpointWriter;
 import org.uma.jmetal.algorithm.impl.AbstractGeneticAlgorithm;
 import org.uma.jmetal.operator.CrossoverOperator;
 import org.uma.jmetal.operator.MutationOperator;
 import org.uma.jmetal.operator.SelectionOperator;
 import org.uma.jmetal.problem.Problem;
 import org.uma.jmetal.solution.Solution;
+import org.uma.jmetal.util.JMetalLogger;
 import org.uma.jmetal.util.SolutionListUtils;
 import org.uma.jmetal.util.evaluator.SolutionListEvaluator;
+import org.uma.jmetal.util.pseudorandom.PseudoRandomGenerator;
 
 import java.io.BufferedWriter;
 import java.io.File;
@@ -24,7 +31,7 @@ import java.util.List;
  * Most of the code in this class is a copy of the NSGA-II code given that the NSGA-DO is a modification of the NSGA-II.
  * The changed part is commented in the code
  */
-public class NSGADO<S extends Solution<?>> extends AbstractGeneticAlgorithm<S, List<S>> {
+public class NSGADO<S extends Solution<?>> extends AbstractGeneticAlgorithm<S, List<S>> implements Checkpointable {
     private final int maxEvaluations;
     private final SolutionListEvaluator<S> evaluator;
     private int evaluations;
@@ -34,6 +41,20 @@ public class NSGADO<S extends Solution<?>> extends AbstractGeneticAlgorithm<S, L
     protected int iterationBal = 0;
     BufferedWriter writer;
 
+    //Ranking of the joint population, shared by the replacement and the stopping condition.
+    //It is kept between generations so the ideal points of an unchanged front are reused
+    private final RankingContext<S> rankingContext = new RankingContext<>();
+
+    //The state of the run is saved there after every generation, null when the run has no checkpoints
+    private File checkpointFile;
+    //Identifies the run in the experiment, part of the key of its checkpoints
+    private String checkpointRun;
+    //When the current execution of the run started, and the time it had taken before it was resumed
+    private long startTime;
+    private long resumedComputingTime;
+    //The random generator of the current run, created at its start or restored from its checkpoint
+    private PseudoRandomGenerator randomGenerator;
+
     //Default Constructor
     public NSGADO(Problem<S> problem, int maxEvaluations, int populationSize,
                   CrossoverOperator<S> crossoverOperator, MutationOperator<S> mutationOperator,
@@ -56,6 +77,118 @@ public class NSGADO<S extends Solution<?>> extends AbstractGeneticAlgorithm<S, L
         }
     }
 
+    protected int getMaxEvaluations() {
+        return maxEvaluations;
+    }
+
+    protected int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public void setCheckpointFile(File checkpointFile, String run) {
+        this.checkpointFile = checkpointFile;
+        this.checkpointRun = run;
+    }
+
+    @Override
+    public long getResumedComputingTime() {
+        return resumedComputingTime;
+    }
+
+    /**
+     * The loop of AbstractEvolutionaryAlgorithm, starting from the checkpoint of an interrupted run when there is one,
+     * and saving a checkpoint after every generation
+     */
+    @Override
+    public void run() {
+        boolean resumed = resumeFromCheckpoint();
+        PseudoRandomGenerator previousGenerator = RunRandomGenerator.enter(randomGenerator);
+        try {
+            if (!resumed) {
+                setPopulation(evaluatePopulation(createInitialPopulation()));
+                initProgress();
+                saveCheckpoint();
+            }
+
+            while (!isStoppingConditionReached()) {
+                List<S> offspringPopulation = reproduction(selection(getPopulation()));
+                offspringPopulation = evaluatePopulation(offspringPopulation);
+                setPopulation(replacement(getPopulation(), offspringPopulation));
+                updateProgress();
+                saveCheckpoint();
+            }
+        } finally {
+            RunRandomGenerator.leave(previousGenerator);
+        }
+    }
+
+    /**
+     * Restores the population, the counters, the computing time and the random generator saved in the checkpoint file.
+     * Without a checkpoint the run gets a new random generator, see {@link #getRandomGenerator()}. It's the start of the
+     * run, so the time taken by this execution is counted from here
+     * @return If the run was resumed, false when there is no checkpoint to resume from
+     */
+    protected boolean resumeFromCheckpoint() {
+        startTime = System.currentTimeMillis();
+        resumedComputingTime = 0;
+        randomGenerator = RunRandomGenerator.createGenerator();
+        if (checkpointFile == null)
+            return false;
+        Checkpoint<S> checkpoint = Checkpoint.read(checkpointFile, getProblem(), getCheckpointKey());
+        if (checkpoint == null)
+            return false;
+
+        setPopulation(checkpoint.getPopulation());
+        iterations = checkpoint.getIterations();
+        evaluations = checkpoint.getEvaluations();
+        iterationFit = checkpoint.getIterationFit();
+        iterationBal = checkpoint.getIterationBal();
+        resumedComputingTime = checkpoint.getComputingTime();
+        if (checkpoint.getRandomGenerator() != null)
+            randomGenerator = checkpoint.getRandomGenerator();
+
+        JMetalLogger.logger.info("Resuming " + getName() + " on " + getProblem().getName() + " at iteration "
+                + iterations + " from " + checkpointFile);
+        return true;
+    }
+
+    /**
+     * Saves the state of the run at the end of a generation. It's encoded here and written in the background
+     */
+    protected void saveCheckpoint() {
+        if (checkpointFile == null)
+            return;
+        if (!Checkpoint.supports(getPopulation())) {
+            JMetalLogger.logger.warning(getName() + " can't save checkpoints of " + getProblem().getName());
+            checkpointFile = null;
+            return;
+        }
+
+        long computingTime = resumedComputingTime + System.currentTimeMillis() - startTime;
+        Checkpoint<S> checkpoint = new Checkpoint<>(iterations, evaluations, iterationFit, iterationBal, computingTime,
+                getPopulation(), randomGenerator);
+        CheckpointWriter.write(checkpointFile, checkpoint.toBytes(getCheckpointKey()));
+    }
+
+    /**
+     * The key of the checkpoints of the run: the run in the experiment, which tells the folds apart (all of them have the
+     * same problem name), the algorithm and problem names, the population size and the number of evaluations. The size of
+     * the training set is checked with the chromosomes when they are read
+     */
+    private String getCheckpointKey() {
+        return checkpointRun + "|" + getName() + "|" + getProblem().getName() + "|" + getMaxPopulationSize() + "|"
+                + maxEvaluations;
+    }
+
+    /**
+     * @return The random generator of the current run, to be entered with {@link RunRandomGenerator#enter} by every thread
+     * that draws numbers for the run
+     */
+    protected PseudoRandomGenerator getRandomGenerator() {
+        return randomGenerator;
+    }
+
     //Copied Method
     @Override
     protected void initProgress() {
@@ -75,16 +208,8 @@ public class NSGADO<S extends Solution<?>> extends AbstractGeneticAlgorithm<S, L
     @Override
     protected boolean isStoppingConditionReached() {
         List<S> population = getPopulation();
-        double lvalue = -1;
-        for (S individual : population) {
-            double acc = individual.getObjective(0);
-            double red = individual.getObjective(1);
-            double value = Math.sqrt(acc * acc + red * red);
-            //double value = acc * red;
-            if (value > lvalue) {
-                lvalue = value;
-            }
-        }
+        //Largest sqrt(acc * acc + red * red) of the population
+        double lvalue = rankingContext.getLargestNorm(population);
         if (lvalue > iterationFit) {
             iterationFit = lvalue;
             iterationBal = 0;
@@ -141,7 +266,7 @@ public class NSGADO<S extends Solution<?>> extends AbstractGeneticAlgorithm<S, L
 
         //This new Ranking class will do the NSGA-DO trick
         RankingAndDistanceOrientedSelection<S> rankingAndIdealSelection
-                = new RankingAndDistanceOrientedSelection<>(getMaxPopulationSize());
+                = new RankingAndDistanceOrientedSelection<>(getMaxPopulationSize(), rankingContext);
 
         //Here we tells the framework to execute and select all the solution it should. (recommended to open the execute() method)
         return rankingAndIdealSelection.execute(jointPopulation);
@@ -1,6 +1,8 @@
 package jpssena.algorithm.multiobjective;
 
 import jpssena.algorithm.util.comparator.RankingAndDistanceOrientedComparator;
+import jpssena.algorithm.util.evaluator.ForkJoinSolutionListEvaluator;
+import jpssena.util.ThreadsUtil;
 import org.uma.jmetal.operator.CrossoverOperator;
 import org.uma.jmetal.operator.MutationOperator;
 import org.uma.jmetal.operator.SelectionOperator;
@@ -10,7 +12,6 @@ import org.uma.jmetal.solution.Solution;
 import org.uma.jmetal.util.AlgorithmBuilder;
 import org.uma.jmetal.util.JMetalException;
 import org.uma.jmetal.util.evaluator.SolutionListEvaluator;
-import org.uma.jmetal.util.evaluator.impl.SequentialSolutionListEvaluator;
 
 import java.util.List;
 
@@ -18,6 +19,8 @@ import java.util.List;
  * Created by João Paulo on 31/08/2017.
  */
 public class NSGADOBuilder<S extends Solution<?>> implements AlgorithmBuilder<NSGADO<S>> {
+    public enum NSGADOVariant {NSGADO, SteadyStateNSGADO}
+
     private final Problem<S> problem;
     private int maxEvaluations;
     private int populationSize;
@@ -25,6 +28,8 @@ public class NSGADOBuilder<S extends Solution<?>> implements AlgorithmBuilder<NS
     private MutationOperator<S> mutationOperator;
     private SelectionOperator<List<S>, S> selectionOperator;
     private SolutionListEvaluator<S> evaluator;
+    private NSGADOVariant variant;
+    private int numberOfThreads;
 
     public NSGADOBuilder(Problem<S> problem, CrossoverOperator<S> crossoverOperator, MutationOperator<S> mutationOperator) {
         this.problem = problem;
@@ -33,7 +38,11 @@ public class NSGADOBuilder<S extends Solution<?>> implements AlgorithmBuilder<NS
         this.crossoverOperator = crossoverOperator ;
         this.mutationOperator = mutationOperator ;
         selectionOperator = new BinaryTournamentSelection<>(new RankingAndDistanceOrientedComparator<S>()) ;
-        evaluator = new SequentialSolutionListEvaluator<>();
+        //Evaluates the population in the pool shared with the experiment
+        evaluator = new ForkJoinSolutionListEvaluator<>();
+        variant = NSGADOVariant.NSGADO;
+        //Used by the steady-state variant, one worker for each core
+        numberOfThreads = ThreadsUtil.calculateNumThreads();
     }
 
     public NSGADOBuilder<S> setMaxEvaluations(int maxEvaluations) {
@@ -68,9 +77,33 @@ public class NSGADOBuilder<S extends Solution<?>> implements AlgorithmBuilder<NS
         return this;
     }
 
+    public NSGADOBuilder<S> setVariant(NSGADOVariant variant) {
+        if (variant == null)
+            throw new JMetalException("Variant is null");
+
+        this.variant = variant;
+        return this;
+    }
+
+    /**
+     * @param numberOfThreads The number of workers of the steady-state variant, that create and evaluate offspring at the same time
+     */
+    public NSGADOBuilder<S> setNumberOfThreads(int numberOfThreads) {
+        if (numberOfThreads < 1)
+            throw new JMetalException("The number of threads must be at least 1: " + numberOfThreads);
+
+        this.numberOfThreads = numberOfThreads;
+        return this;
+    }
+
     @Override
     public NSGADO<S> build() {
-        NSGADO<S> algorithm = new NSGADO<>(problem, maxEvaluations, populationSize, crossoverOperator, mutationOperator, selectionOperator, evaluator);
+        NSGADO<S> algorithm;
+        if (variant == NSGADOVariant.SteadyStateNSGADO)
+            algorithm = new SteadyStateNSGADO<>(problem, maxEvaluations, populationSize, crossoverOperator, mutationOperator,
+                    selectionOperator, evaluator, numberOfThreads);
+        else
+            algorithm = new NSGADO<>(problem, maxEvaluations, populationSize, crossoverOperator, mutationOperator, selectionOperator, evaluator);
         return algorithm;
     }
 
@@ -101,4 +134,12 @@ public class NSGADOBuilder<S extends Solution<?>> implements AlgorithmBuilder<NS
     public SolutionListEvaluator<S> getSolutionListEvaluator() {
         return evaluator;
     }
+
+    public NSGADOVariant getVariant() {
+        return variant;
+    }
+
+    public int getNumberOfThreads() {
+        return numberOfThreads;
+    }
 }
@@ -1,5 +1,6 @@
 package jpssena.algorithm.multiobjective;
 
+import jpssena.algorithm.util.solutionattribute.FastDominanceRanking;
 import org.uma.jmetal.algorithm.impl.AbstractGeneticAlgorithm;
 import org.uma.jmetal.algorithm.multiobjective.nsgaiii.NSGAIIIBuilder;
 import org.uma.jmetal.algorithm.multiobjective.nsgaiii.util.EnvironmentalSelection;
@@ -9,7 +10,6 @@ import org.uma.jmetal.util.JMetalLogger;
 import org.uma.jmetal.util.SolutionListUtils;
 import org.uma.jmetal.util.evaluator.SolutionListEvaluator;
 import org.uma.jmetal.util.solutionattribute.Ranking;
-import org.uma.jmetal.util.solutionattribute.impl.DominanceRanking;
 
 import java.io.BufferedWriter;
 import java.io.File;
@@ -220,7 +220,7 @@ public class NSGAIII_II<S extends Solution<?>> extends AbstractGeneticAlgorithm<
   }
 
   protected Ranking<S> computeRanking(List<S> solutionList) {
-    Ranking<S> ranking = new DominanceRanking<>() ;
+    Ranking<S> ranking = new FastDominanceRanking<>() ;
     ranking.computeRanking(solutionList) ;
 
     return ranking ;
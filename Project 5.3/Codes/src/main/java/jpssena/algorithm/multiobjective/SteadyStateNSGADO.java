@@ -0,0 +1,157 @@
+package jpssena.algorithm.multiobjective;
+
+import jpssena.algorithm.util.RunRandomGenerator;
+import jpssena.util.ThreadsUtil;
+import org.uma.jmetal.operator.CrossoverOperator;
+import org.uma.jmetal.operator.MutationOperator;
+import org.uma.jmetal.operator.SelectionOperator;
+import org.uma.jmetal.problem.Problem;
+import org.uma.jmetal.solution.Solution;
+import org.uma.jmetal.util.JMetalException;
+import org.uma.jmetal.util.evaluator.SolutionListEvaluator;
+import org.uma.jmetal.util.pseudorandom.PseudoRandomGenerator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Asynchronous steady-state version of the NSGA-DO, based on the ssNSGAII of jMetal.
+ *
+ * Each worker creates one offspring at a time from the current population, evaluates it, and inserts it with the
+ * distance oriented replacement of the NSGA-DO, the population plus the offspring reduced to the population size.
+ * The evaluations run outside of the lock, so a slow evaluation doesn't stop the other workers: there is no barrier at
+ * the end of a generation, and the workers keep the cores busy until the evaluations run out.
+ *
+ * Every populationSize inserted offspring count as a generation for the stopping condition and the checkpoints of the
+ * NSGA-DO.
+ * The workers run in the pool shared with the experiment ({@link ThreadsUtil#getSharedPool()}), and the problem must be
+ * safe to evaluate different solutions at the same time.
+ */
+public class SteadyStateNSGADO<S extends Solution<?>> extends NSGADO<S> {
+    private final int numberOfThreads;
+    //Guards the population, the operators and the counters
+    private final Object lock = new Object();
+    private int createdOffspring;
+    private int insertedOffspring;
+    private boolean finished;
+
+    public SteadyStateNSGADO(Problem<S> problem, int maxEvaluations, int populationSize,
+                             CrossoverOperator<S> crossoverOperator, MutationOperator<S> mutationOperator,
+                             SelectionOperator<List<S>, S> selectionOperator, SolutionListEvaluator<S> evaluator,
+                             int numberOfThreads) {
+        super(problem, maxEvaluations, populationSize, crossoverOperator, mutationOperator, selectionOperator, evaluator);
+        if (numberOfThreads < 1)
+            throw new JMetalException("The number of threads must be at least 1: " + numberOfThreads);
+
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    @Override
+    public void run() {
+        if (!resumeFromCheckpoint()) {
+            PseudoRandomGenerator previousGenerator = RunRandomGenerator.enter(getRandomGenerator());
+            try {
+                setPopulation(evaluatePopulation(createInitialPopulation()));
+            } finally {
+                RunRandomGenerator.leave(previousGenerator);
+            }
+            initProgress();
+            saveCheckpoint();
+        }
+
+        //The offspring of the generations already done, none unless the run was resumed
+        createdOffspring = (getIterations() - 1) * getMaxPopulationSize();
+        insertedOffspring = createdOffspring;
+        finished = getMaxPopulationSize() >= getMaxEvaluations();
+
+        final List<Worker> workers = new ArrayList<>(numberOfThreads);
+        for (int i = 0; i < numberOfThreads; i++)
+            workers.add(new Worker());
+
+        //Inside the pool the workers are forked from the current thread, outside of it they are submitted to the pool
+        if (ForkJoinTask.inForkJoinPool())
+            ForkJoinTask.invokeAll(workers);
+        else
+            ThreadsUtil.getSharedPool().invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(workers);
+                }
+            });
+    }
+
+    //Selects the parents and creates an offspring, or returns null when no more evaluations are left
+    private S createOffspring() {
+        synchronized (lock) {
+            if (finished || getMaxPopulationSize() + createdOffspring >= getMaxEvaluations())
+                return null;
+            createdOffspring++;
+
+            List<S> parents = new ArrayList<>(2);
+            parents.add(selectionOperator.execute(getPopulation()));
+            parents.add(selectionOperator.execute(getPopulation()));
+
+            S offspring = crossoverOperator.execute(parents).get(0);
+            mutationOperator.execute(offspring);
+            return offspring;
+        }
+    }
+
+    //Replaces the population with the best of the population and the offspring, and checks the stopping condition
+    private void insertOffspring(S offspring) {
+        synchronized (lock) {
+            setPopulation(replacement(getPopulation(), Collections.singletonList(offspring)));
+            insertedOffspring++;
+
+            if (insertedOffspring % getMaxPopulationSize() == 0) {
+                updateProgress();
+                if (isStoppingConditionReached())
+                    finished = true;
+                saveCheckpoint();
+            }
+            if (getMaxPopulationSize() + insertedOffspring >= getMaxEvaluations())
+                finished = true;
+        }
+    }
+
+    private void stop() {
+        synchronized (lock) {
+            finished = true;
+        }
+    }
+
+    //Creates, evaluates and inserts offspring until the evaluations are over
+    private class Worker extends RecursiveAction {
+        @Override
+        protected void compute() {
+            //The workers draw the numbers of the run, whatever thread of the pool they run in
+            PseudoRandomGenerator previousGenerator = RunRandomGenerator.enter(getRandomGenerator());
+            try {
+                S offspring;
+                while ((offspring = createOffspring()) != null) {
+                    getProblem().evaluate(offspring);
+                    insertOffspring(offspring);
+                }
+            } catch (RuntimeException e) {
+                //The other workers stop at their next offspring
+                stop();
+                throw e;
+            } finally {
+                RunRandomGenerator.leave(previousGenerator);
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "ssNSGA-DO";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Asynchronous steady-state Nondominated Sorting Genetic Algorithm Distance Oriented";
+    }
+}
@@ -0,0 +1,259 @@
+package jpssena.algorithm.util;
+
+import jpssena.algorithm.util.solutionattribute.IdealDistance;
+import org.uma.jmetal.problem.Problem;
+import org.uma.jmetal.solution.BinarySolution;
+import org.uma.jmetal.solution.Solution;
+import org.uma.jmetal.util.JMetalException;
+import org.uma.jmetal.util.JMetalLogger;
+import org.uma.jmetal.util.binarySet.BinarySet;
+import org.uma.jmetal.util.pseudorandom.PseudoRandomGenerator;
+import org.uma.jmetal.util.solutionattribute.impl.DominanceRanking;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The state of a run of the NSGA-DO at the end of a generation: the counters of the progress and of the stopping
+ * condition, the time the run has taken so far, the state of the random generator and the population, with its ranks
+ * and ideal distances.
+ *
+ * It's written in a compact binary format: a header with the key of the run and the counters, the serialized random
+ * generator, and for every solution the words of its bits, its objectives, its rank and its ideal distance.
+ * Only binary solutions are supported, which are the chromosomes of the instance selection problems.
+ *
+ * The key identifies the run and its configuration (see NSGADO), a checkpoint is only read back by a run with the same
+ * key. The problem name alone isn't enough: every fold of the instance selection problems has the same name.
+ *
+ * The random generator is the one of the run ({@link RunRandomGenerator}), not the one shared by the runs of the
+ * experiment: resuming a run restores only its own sequence, and the runs executed at the same time don't change it.
+ */
+public class Checkpoint<S extends Solution<?>> {
+    private static final int MAGIC = 0x4E534443;
+    private static final int VERSION = 2;
+
+    private final int iterations;
+    private final int evaluations;
+    private final double iterationFit;
+    private final int iterationBal;
+    //Milliseconds the run has taken, in this execution and in the ones it was resumed from
+    private final long computingTime;
+    private final List<S> population;
+    //null when it couldn't be serialized or read
+    private final PseudoRandomGenerator randomGenerator;
+
+    public Checkpoint(int iterations, int evaluations, double iterationFit, int iterationBal, long computingTime,
+                      List<S> population, PseudoRandomGenerator randomGenerator) {
+        this.iterations = iterations;
+        this.evaluations = evaluations;
+        this.iterationFit = iterationFit;
+        this.iterationBal = iterationBal;
+        this.computingTime = computingTime;
+        this.population = population;
+        this.randomGenerator = randomGenerator;
+    }
+
+    /**
+     * @param population The population to save
+     * @return If every solution of the population can be saved in a checkpoint
+     */
+    public static boolean supports(List<? extends Solution<?>> population) {
+        for (Solution<?> solution : population)
+            if (!(solution instanceof BinarySolution))
+                return false;
+        return true;
+    }
+
+    /**
+     * Encodes the checkpoint, to be written by {@link jpssena.util.CheckpointWriter}
+     * @param key The key of the run, checked when it's read
+     * @return The bytes of the checkpoint
+     */
+    public byte[] toBytes(String key) {
+        DominanceRanking<S> ranking = new DominanceRanking<>();
+        IdealDistance<S> idealDistance = new IdealDistance<>();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeUTF(key);
+            output.writeInt(iterations);
+            output.writeInt(evaluations);
+            output.writeDouble(iterationFit);
+            output.writeInt(iterationBal);
+            output.writeLong(computingTime);
+
+            byte[] generator = serialize(randomGenerator);
+            output.writeInt(generator.length);
+            output.write(generator);
+
+            int numberOfVariables = population.isEmpty() ? 0 : population.get(0).getNumberOfVariables();
+            int numberOfObjectives = population.isEmpty() ? 0 : population.get(0).getNumberOfObjectives();
+            output.writeInt(population.size());
+            output.writeInt(numberOfVariables);
+            output.writeInt(numberOfObjectives);
+            for (S solution : population) {
+                BinarySolution binary = (BinarySolution) solution;
+                for (int v = 0; v < numberOfVariables; v++) {
+                    long[] words = binary.getVariableValue(v).toLongArray();
+                    output.writeInt(binary.getNumberOfBits(v));
+                    output.writeInt(words.length);
+                    for (long word : words)
+                        output.writeLong(word);
+                }
+                for (int m = 0; m < numberOfObjectives; m++)
+                    output.writeDouble(solution.getObjective(m));
+
+                Integer rank = ranking.getAttribute(solution);
+                Double distance = idealDistance.getAttribute(solution);
+                output.writeInt(rank == null ? -1 : rank);
+                output.writeDouble(distance == null ? Double.NaN : distance);
+            }
+        } catch (IOException e) {
+            //A ByteArrayOutputStream doesn't throw
+            throw new JMetalException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a checkpoint, creating its solutions with the problem
+     * @param file The checkpoint file
+     * @param problem The problem of the run
+     * @param key The key of the run
+     * @return The checkpoint, or null when the file is missing, can't be read or belongs to another run
+     */
+    public static <S extends Solution<?>> Checkpoint<S> read(File file, Problem<S> problem, String key) {
+        if (!file.isFile())
+            return null;
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION || !input.readUTF().equals(key))
+                return null;
+            int iterations = input.readInt();
+            int evaluations = input.readInt();
+            double iterationFit = input.readDouble();
+            int iterationBal = input.readInt();
+            long computingTime = input.readLong();
+
+            byte[] generator = new byte[input.readInt()];
+            input.readFully(generator);
+
+            int size = input.readInt();
+            int numberOfVariables = input.readInt();
+            int numberOfObjectives = input.readInt();
+
+            DominanceRanking<S> ranking = new DominanceRanking<>();
+            IdealDistance<S> idealDistance = new IdealDistance<>();
+            List<S> population = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                S solution = problem.createSolution();
+                if (!(solution instanceof BinarySolution) || solution.getNumberOfVariables() != numberOfVariables
+                        || solution.getNumberOfObjectives() != numberOfObjectives)
+                    return null;
+
+                BinarySolution binary = (BinarySolution) solution;
+                for (int v = 0; v < numberOfVariables; v++) {
+                    int bits = input.readInt();
+                    long[] words = new long[input.readInt()];
+                    for (int w = 0; w < words.length; w++)
+                        words[w] = input.readLong();
+                    if (bits != binary.getNumberOfBits(v))
+                        return null;
+
+                    BinarySet variable = new BinarySet(bits);
+                    variable.or(BitSet.valueOf(words));
+                    binary.setVariableValue(v, variable);
+                }
+                for (int m = 0; m < numberOfObjectives; m++)
+                    solution.setObjective(m, input.readDouble());
+
+                int rank = input.readInt();
+                double distance = input.readDouble();
+                if (rank >= 0)
+                    ranking.setAttribute(solution, rank);
+                if (!Double.isNaN(distance))
+                    idealDistance.setAttribute(solution, distance);
+                population.add(solution);
+            }
+
+            return new Checkpoint<>(iterations, evaluations, iterationFit, iterationBal, computingTime, population,
+                    deserialize(generator));
+        } catch (IOException | RuntimeException e) {
+            JMetalLogger.logger.warning("Ignoring the unreadable checkpoint " + file + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * @return The random generator of the run in the state it had when the checkpoint was saved, null when it couldn't be
+     * saved or read
+     */
+    public PseudoRandomGenerator getRandomGenerator() {
+        return randomGenerator;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public int getEvaluations() {
+        return evaluations;
+    }
+
+    public double getIterationFit() {
+        return iterationFit;
+    }
+
+    public int getIterationBal() {
+        return iterationBal;
+    }
+
+    /**
+     * @return The milliseconds the run had taken when the checkpoint was saved, counting the executions it was resumed from
+     */
+    public long getComputingTime() {
+        return computingTime;
+    }
+
+    public List<S> getPopulation() {
+        return population;
+    }
+
+    private static byte[] serialize(PseudoRandomGenerator generator) {
+        if (generator == null)
+            return new byte[0];
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(generator);
+        } catch (IOException e) {
+            //A generator that isn't serializable, the run resumes with the current one
+            return new byte[0];
+        }
+        return bytes.toByteArray();
+    }
+
+    private static PseudoRandomGenerator deserialize(byte[] bytes) {
+        if (bytes.length == 0)
+            return null;
+
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (PseudoRandomGenerator) input.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            return null;
+        }
+    }
+}
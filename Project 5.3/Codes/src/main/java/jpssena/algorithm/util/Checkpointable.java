@@ -0,0 +1,22 @@
+package jpssena.algorithm.util;
+
+import java.io.File;
+
+/**
+ * An algorithm that saves the state of its run to a checkpoint file after every generation, and resumes from it when the
+ * file is there at the start of the run.
+ */
+public interface Checkpointable {
+    /**
+     * @param checkpointFile The checkpoint of the next run, or null to run without checkpoints
+     * @param run Identifies the next run in the experiment (algorithm, fold and number of the run), only a checkpoint saved
+     *            by the same run is resumed
+     */
+    void setCheckpointFile(File checkpointFile, String run);
+
+    /**
+     * @return The milliseconds the last run had taken in the executions before it was resumed from its checkpoint, 0 when
+     * it ran from the start
+     */
+    long getResumedComputingTime();
+}
@@ -0,0 +1,345 @@
+package jpssena.algorithm.util;
+
+import java.util.Arrays;
+
+/**
+ * Non-dominated sorting (minimization) on primitive arrays, with the same fronts as the pairwise comparisons of
+ * {@link org.uma.jmetal.util.solutionattribute.impl.DominanceRanking}.
+ *
+ * The points are sorted lexicographically, so a point can only be dominated by the points before it, and each point is placed
+ * with a binary search on the fronts found so far (Efficient Non-dominated Sort, binary search version): when a front dominates
+ * the point, every front before it does too.
+ * With two objectives only the last point added to a front must be checked, and the sort is O(N log N).
+ * With more objectives the points of a front are checked from the last one, O(M N^2) in the worst case but usually much less.
+ */
+public class DominanceSort {
+
+    /**
+     * Computes the front of every point.
+     * @param objectives The points, objectives[i][m] is the objective m of the point i
+     * @param numberOfObjectives The number of objectives of every point
+     * @return The front of each point, from 0 (the non-dominated points)
+     */
+    public static int[] sort(double[][] objectives, int numberOfObjectives) {
+        return sort(objectives, numberOfObjectives, new Buffers());
+    }
+
+    /**
+     * Computes the front of every point, with arrays that are reused between calls.
+     * @param objectives The points, objectives[i][m] is the objective m of the point i
+     * @param numberOfObjectives The number of objectives of every point
+     * @param buffers The arrays used by the sort, they grow when needed
+     * @return The front of each point, from 0 (the non-dominated points), in the first objectives.length positions of an array
+     * of the buffers, valid until they are used again
+     */
+    public static int[] sort(double[][] objectives, int numberOfObjectives, Buffers buffers) {
+        int size = objectives.length;
+        buffers.ensureCapacity(size);
+        int[] order = buffers.order;
+        for (int i = 0; i < size; i++)
+            order[i] = i;
+        mergeSort(order, buffers.buffer, 0, size, objectives, numberOfObjectives);
+
+        if (numberOfObjectives == 2)
+            return sortTwoObjectives(objectives, size, order, buffers);
+        return sortObjectives(objectives, size, order, numberOfObjectives, buffers);
+    }
+
+    /**
+     * @param ranks The fronts returned by {@link #sort(double[][], int)}
+     * @return The number of fronts
+     */
+    public static int numberOfFronts(int[] ranks) {
+        return numberOfFronts(ranks, ranks.length);
+    }
+
+    /**
+     * @param ranks The fronts returned by {@link #sort(double[][], int, Buffers)}
+     * @param size The number of points
+     * @return The number of fronts
+     */
+    public static int numberOfFronts(int[] ranks, int size) {
+        int fronts = 0;
+        for (int i = 0; i < size; i++)
+            fronts = Math.max(fronts, ranks[i] + 1);
+        return fronts;
+    }
+
+    /**
+     * Lists the points of every front in the order of the pairwise comparisons of
+     * {@link org.uma.jmetal.util.solutionattribute.impl.DominanceRanking}: the first front in the order of the points, and every
+     * other front by the position, in the front before it, of the last point that dominates each of its points, then in the
+     * order of the points.
+     * @param objectives The points, objectives[i][m] is the objective m of the point i
+     * @param numberOfObjectives The number of objectives of every point
+     * @param ranks The fronts returned by {@link #sort(double[][], int, Buffers)}
+     * @param size The number of points
+     * @return The points of each front, fronts[f][k] is the k-th point of the front f
+     */
+    public static int[][] fronts(double[][] objectives, int numberOfObjectives, int[] ranks, int size) {
+        int numberOfFronts = numberOfFronts(ranks, size);
+
+        int[][] fronts = new int[numberOfFronts][];
+        int[] frontSize = new int[numberOfFronts];
+        for (int p = 0; p < size; p++)
+            frontSize[ranks[p]]++;
+        for (int f = 0; f < numberOfFronts; f++)
+            fronts[f] = new int[frontSize[f]];
+        Arrays.fill(frontSize, 0);
+        for (int p = 0; p < size; p++)
+            fronts[ranks[p]][frontSize[ranks[p]]++] = p;
+        if (numberOfFronts == 0)
+            return fronts;
+
+        //position[p] is the position of the point p in its front
+        int[] position = new int[size];
+        for (int k = 0; k < fronts[0].length; k++)
+            position[fronts[0][k]] = k;
+
+        for (int f = 1; f < numberOfFronts; f++) {
+            int[] previous = fronts[f - 1];
+            int[] front = fronts[f];
+            int[] last = numberOfObjectives == 2
+                    ? lastDominatorsTwoObjectives(objectives, previous, position, front)
+                    : lastDominators(objectives, previous, front, numberOfObjectives);
+
+            //Counting sort by the last dominator, stable, so the ties keep the order of the points
+            int[] start = new int[previous.length + 1];
+            for (int k = 0; k < front.length; k++)
+                start[last[k] + 1]++;
+            for (int k = 0; k < previous.length; k++)
+                start[k + 1] += start[k];
+            int[] sorted = new int[front.length];
+            for (int k = 0; k < front.length; k++)
+                sorted[start[last[k]]++] = front[k];
+
+            fronts[f] = sorted;
+            for (int k = 0; k < sorted.length; k++)
+                position[sorted[k]] = k;
+        }
+
+        return fronts;
+    }
+
+    /**
+     * The arrays of the sort, to sort again without allocating them.
+     */
+    public static class Buffers {
+        private int[] order = new int[0];
+        private int[] buffer = new int[0];
+        private int[] rank = new int[0];
+        private double[] lastFirst = new double[0];
+        private double[] lastSecond = new double[0];
+        private int[][] front = new int[0][];
+        private int[] frontSize = new int[0];
+
+        private void ensureCapacity(int size) {
+            if (order.length >= size)
+                return;
+            order = new int[size];
+            buffer = new int[size];
+            rank = new int[size];
+            lastFirst = new double[size];
+            lastSecond = new double[size];
+            front = Arrays.copyOf(front, size);
+            frontSize = new int[size];
+        }
+    }
+
+    //In lexicographic order the points of a front have decreasing second objectives,
+    //so the last point of a front dominates a new point when any point of the front does
+    private static int[] sortTwoObjectives(double[][] objectives, int size, int[] order, Buffers buffers) {
+        int[] rank = buffers.rank;
+        double[] lastFirst = buffers.lastFirst;
+        double[] lastSecond = buffers.lastSecond;
+        int fronts = 0;
+
+        for (int k = 0; k < size; k++) {
+            int point = order[k];
+            double first = objectives[point][0];
+            double second = objectives[point][1];
+
+            //The first front whose last point doesn't dominate this one. The last point comes before this one,
+            //so its first objective isn't greater
+            int low = 0;
+            int high = fronts;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (lastSecond[middle] < second || (lastSecond[middle] == second && lastFirst[middle] < first))
+                    low = middle + 1;
+                else
+                    high = middle;
+            }
+
+            rank[point] = low;
+            lastFirst[low] = first;
+            lastSecond[low] = second;
+            if (low == fronts)
+                fronts++;
+        }
+
+        return rank;
+    }
+
+    private static int[] sortObjectives(double[][] objectives, int size, int[] order, int numberOfObjectives, Buffers buffers) {
+        int[] rank = buffers.rank;
+        int[][] front = buffers.front;
+        int[] frontSize = buffers.frontSize;
+        int fronts = 0;
+
+        for (int k = 0; k < size; k++) {
+            int point = order[k];
+            int low = 0;
+            int high = fronts;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (isDominatedByFront(objectives, front[middle], frontSize[middle], point, numberOfObjectives))
+                    low = middle + 1;
+                else
+                    high = middle;
+            }
+
+            if (low == fronts) {
+                if (front[fronts] == null)
+                    front[fronts] = new int[8];
+                frontSize[fronts++] = 0;
+            }
+            if (frontSize[low] == front[low].length)
+                front[low] = Arrays.copyOf(front[low], 2 * front[low].length);
+            front[low][frontSize[low]++] = point;
+            rank[point] = low;
+        }
+
+        return rank;
+    }
+
+    //Any number of objectives: the front before is checked from its last point
+    private static int[] lastDominators(double[][] objectives, int[] previous, int[] front, int numberOfObjectives) {
+        int[] last = new int[front.length];
+        for (int k = 0; k < front.length; k++) {
+            int dominator = previous.length - 1;
+            while (!dominates(objectives[previous[dominator]], objectives[front[k]], numberOfObjectives))
+                dominator--;
+            last[k] = dominator;
+        }
+        return last;
+    }
+
+    //Two objectives: in lexicographic order, the points of the front before that dominate a point are the ones with a first
+    //objective not greater and a second objective not greater, a range found with two binary searches. The last of them is
+    //the maximum position in the range, read from a sparse table
+    private static int[] lastDominatorsTwoObjectives(double[][] objectives, int[] previous, int[] position, int[] front) {
+        int size = previous.length;
+        int[] sorted = previous.clone();
+        mergeSort(sorted, new int[size], 0, size, objectives, 2);
+
+        //table[j][i] is the maximum position of the points sorted[i .. i + 2^j - 1]
+        int levels = 32 - Integer.numberOfLeadingZeros(size);
+        int[][] table = new int[levels][];
+        table[0] = new int[size];
+        for (int i = 0; i < size; i++)
+            table[0][i] = position[sorted[i]];
+        for (int j = 1; j < levels; j++) {
+            int width = 1 << (j - 1);
+            table[j] = new int[size - 2 * width + 1];
+            for (int i = 0; i < table[j].length; i++)
+                table[j][i] = Math.max(table[j - 1][i], table[j - 1][i + width]);
+        }
+
+        int[] last = new int[front.length];
+        for (int k = 0; k < front.length; k++) {
+            double first = objectives[front[k]][0];
+            double second = objectives[front[k]][1];
+
+            //The first point with a second objective not greater
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (objectives[sorted[middle]][1] > second)
+                    low = middle + 1;
+                else
+                    high = middle;
+            }
+            int from = low;
+
+            //The first point with a greater first objective
+            high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (objectives[sorted[middle]][0] <= first)
+                    low = middle + 1;
+                else
+                    high = middle;
+            }
+            int to = low - 1;
+
+            int j = 31 - Integer.numberOfLeadingZeros(to - from + 1);
+            last[k] = Math.max(table[j][from], table[j][to - (1 << j) + 1]);
+        }
+        return last;
+    }
+
+    private static boolean dominates(double[] a, double[] b, int numberOfObjectives) {
+        boolean better = false;
+        for (int m = 0; m < numberOfObjectives; m++) {
+            if (a[m] > b[m])
+                return false;
+            if (a[m] < b[m])
+                better = true;
+        }
+        return better;
+    }
+
+    //The members come before the point, so they can't be dominated by it. The last ones are the most likely to dominate it
+    private static boolean isDominatedByFront(double[][] objectives, int[] front, int size, int point, int numberOfObjectives) {
+        double[] candidate = objectives[point];
+        for (int k = size - 1; k >= 0; k--) {
+            double[] member = objectives[front[k]];
+            boolean better = false;
+            boolean worse = false;
+            for (int m = 0; m < numberOfObjectives && !worse; m++) {
+                if (member[m] < candidate[m])
+                    better = true;
+                else if (member[m] > candidate[m])
+                    worse = true;
+            }
+            if (better && !worse)
+                return true;
+        }
+        return false;
+    }
+
+    //Sorts the indexes of the points lexicographically by their objectives
+    private static void mergeSort(int[] order, int[] buffer, int from, int to, double[][] objectives, int numberOfObjectives) {
+        if (to - from < 2)
+            return;
+
+        int middle = (from + to) >>> 1;
+        mergeSort(order, buffer, from, middle, objectives, numberOfObjectives);
+        mergeSort(order, buffer, middle, to, objectives, numberOfObjectives);
+
+        if (compare(objectives[order[middle - 1]], objectives[order[middle]], numberOfObjectives) <= 0)
+            return;
+
+        System.arraycopy(order, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int k = from; k < to; k++) {
+            if (right >= to || (left < middle && compare(objectives[buffer[left]], objectives[buffer[right]], numberOfObjectives) <= 0))
+                order[k] = buffer[left++];
+            else
+                order[k] = buffer[right++];
+        }
+    }
+
+    private static int compare(double[] a, double[] b, int numberOfObjectives) {
+        for (int m = 0; m < numberOfObjectives; m++) {
+            if (a[m] < b[m])
+                return -1;
+            if (a[m] > b[m])
+                return 1;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,154 @@
+package jpssena.algorithm.util;
+
+import java.util.List;
+
+/**
+ * A k-d tree over a set of points, to find the distance from a query to the nearest of them in O(log k) on average.
+ *
+ * The tree is stored in a flat array: the median of each range on the splitting dimension is the node, and the halves
+ * before and after it are its subtrees, so the queries don't allocate. The tree can be built again with other points in the
+ * same array. The distances are the same euclidean distances of {@link PointUtil#distance(Point, Point)}, compared squared
+ * and with a single square root.
+ */
+public class NearestPointIndex {
+    private int dimensions;
+    private int size;
+    //coordinates[i * dimensions + d] is the coordinate d of the i-th point in tree order
+    private double[] coordinates = new double[0];
+
+    //An empty tree, to be built with build(double[][], int)
+    public NearestPointIndex() {
+    }
+
+    /**
+     * Builds the tree
+     * @param points The points to search, all with the same number of dimensions
+     */
+    public NearestPointIndex(List<Point> points) {
+        double[][] values = new double[points.size()][];
+        for (int i = 0; i < values.length; i++) {
+            List<Double> point = points.get(i).getValues();
+            values[i] = new double[point.size()];
+            for (int d = 0; d < values[i].length; d++)
+                values[i][d] = point.get(d);
+        }
+        build(values, values.length);
+    }
+
+    /**
+     * Builds the tree again with other points, reusing its array when it is large enough
+     * @param points The points to search, points[0, size), all with the same number of dimensions
+     * @param size The amount of points
+     */
+    public void build(double[][] points, int size) {
+        this.size = size;
+        dimensions = size == 0 ? 0 : points[0].length;
+        if (coordinates.length < size * dimensions)
+            coordinates = new double[size * dimensions];
+
+        for (int i = 0; i < size; i++) {
+            if (points[i].length != dimensions)
+                throw new UnsupportedOperationException("All the points must have the same amount of dimensions");
+            System.arraycopy(points[i], 0, coordinates, i * dimensions, dimensions);
+        }
+
+        build(0, size, 0);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the distance from the query to the nearest point of the tree
+     * @param query The coordinates of the query, with the dimensions of the points
+     * @return The euclidean distance to the nearest point, or Double.MAX_VALUE when there are no points or no finite distances
+     */
+    public double nearestDistance(double[] query) {
+        double best = nearest(query, 0, size, 0, Double.POSITIVE_INFINITY);
+        return best == Double.POSITIVE_INFINITY ? Double.MAX_VALUE : Math.sqrt(best);
+    }
+
+    //Returns the smaller of best and the squared distances from the query to the points in [from, to)
+    private double nearest(double[] query, int from, int to, int depth, double best) {
+        if (from >= to)
+            return best;
+
+        int middle = (from + to) >>> 1;
+        double squared = squaredDistance(query, middle);
+        if (squared < best)
+            best = squared;
+
+        int dimension = depth % dimensions;
+        double difference = query[dimension] - coordinates[middle * dimensions + dimension];
+
+        //The side of the query first, the other one only when it can have a closer point
+        if (difference < 0) {
+            best = nearest(query, from, middle, depth + 1, best);
+            if (difference * difference < best)
+                best = nearest(query, middle + 1, to, depth + 1, best);
+        } else {
+            best = nearest(query, middle + 1, to, depth + 1, best);
+            if (difference * difference < best)
+                best = nearest(query, from, middle, depth + 1, best);
+        }
+
+        return best;
+    }
+
+    private double squaredDistance(double[] query, int point) {
+        int offset = point * dimensions;
+        double sum = 0;
+        for (int d = 0; d < dimensions; d++) {
+            double difference = query[d] - coordinates[offset + d];
+            sum += difference * difference;
+        }
+        return sum;
+    }
+
+    //Puts the median of the range on the splitting dimension in the middle, the smaller points before it and the greater
+    //after it, and builds the subtrees at both sides
+    private void build(int from, int to, int depth) {
+        if (to - from < 2)
+            return;
+
+        int dimension = depth % dimensions;
+        int middle = (from + to) >>> 1;
+        select(from, to - 1, middle, dimension);
+
+        build(from, middle, depth + 1);
+        build(middle + 1, to, depth + 1);
+    }
+
+    //Quickselect of the k-th point of [left, right] on the dimension
+    private void select(int left, int right, int k, int dimension) {
+        while (left < right) {
+            double pivot = coordinates[((left + right) >>> 1) * dimensions + dimension];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (Double.compare(coordinates[i * dimensions + dimension], pivot) < 0)
+                    i++;
+                while (Double.compare(coordinates[j * dimensions + dimension], pivot) > 0)
+                    j--;
+                if (i <= j)
+                    swap(i++, j--);
+            }
+
+            if (k <= j)
+                right = j;
+            else if (k >= i)
+                left = i;
+            else
+                return;
+        }
+    }
+
+    private void swap(int a, int b) {
+        for (int d = 0; d < dimensions; d++) {
+            double value = coordinates[a * dimensions + d];
+            coordinates[a * dimensions + d] = coordinates[b * dimensions + d];
+            coordinates[b * dimensions + d] = value;
+        }
+    }
+}
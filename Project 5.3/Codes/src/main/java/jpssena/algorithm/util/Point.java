@@ -9,6 +9,9 @@ import java.util.List;
  * Created by João Paulo on 02/10/2017.
  */
 public class Point implements Comparable<Point>{
+    //Two points are equal when they are at this distance or closer
+    public static final double EQUAL_DISTANCE = 0.00001;
+
     private List<Double> values;
     private int sortingIndex;
 
@@ -69,7 +72,7 @@ public class Point implements Comparable<Point>{
         if (obj instanceof Point) {
             Point other = (Point)obj;
             //Two points are equal if they are really close to each other
-            return PointUtil.distance(this, other) <= 0.00001;
+            return PointUtil.distance(this, other) <= EQUAL_DISTANCE;
         }
 
         return false;
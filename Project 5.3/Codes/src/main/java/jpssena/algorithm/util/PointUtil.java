@@ -3,6 +3,7 @@ package jpssena.algorithm.util;
 import org.uma.jmetal.solution.Solution;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -43,7 +44,8 @@ public class PointUtil {
             Double a = one.getValues().get(i);
             Double b = other.getValues().get(i);
 
-            number += Math.pow(a - b, 2);
+            double difference = a - b;
+            number += difference * difference;
         }
 
         return Math.sqrt(number);
@@ -144,18 +146,237 @@ public class PointUtil {
     }
 
     /**
-     * Removes duplicated points in a list
+     * Removes duplicated points in a list, keeping the first of the points that are equal (see {@link Point#equals(Object)})
      * @param points List of points to be analyzed
      * @return A list of unique points
      */
     public static List<Point> removeDuplicated(List<Point> points) {
-        List<Point> uniques = new ArrayList<>();
+        double[][] values = new double[points.size()][];
+        for (int i = 0; i < values.length; i++) {
+            List<Double> point = points.get(i).getValues();
+            values[i] = new double[point.size()];
+            for (int d = 0; d < values[i].length; d++)
+                values[i][d] = point.get(d);
+        }
+
+        int[] kept = new int[values.length];
+        int size = removeDuplicated(values, values.length, new DuplicateGrid(), kept);
+
+        List<Point> uniques = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            uniques.add(points.get(kept[i]));
+        return uniques;
+    }
+
+    //Arithmetic on double[] points. The results are written in an output array, which may be one of the operands
+
+    /**
+     * The squared euclidean distance between 2 points
+     */
+    public static double squaredDistance(double[] one, double[] other) {
+        if (other.length != one.length)
+            throw new UnsupportedOperationException("Both points must have the same amount of dimensions");
 
-        for (Point point : points) {
-            if (!uniques.contains(point))
-                uniques.add(point);
+        double number = 0;
+        for (int i = 0; i < one.length; i++) {
+            double difference = one[i] - other[i];
+            number += difference * difference;
+        }
+        return number;
+    }
+
+    /**
+     * The euclidean distance between 2 points, the same of {@link #distance(Point, Point)}
+     */
+    public static double distance(double[] one, double[] other) {
+        return Math.sqrt(squaredDistance(one, other));
+    }
+
+    /**
+     * result = one - other
+     */
+    public static double[] difference(double[] one, double[] other, double[] result) {
+        for (int i = 0; i < one.length; i++)
+            result[i] = one[i] - other[i];
+        return result;
+    }
+
+    /**
+     * result = one + other
+     */
+    public static double[] sum(double[] one, double[] other, double[] result) {
+        for (int i = 0; i < one.length; i++)
+            result[i] = one[i] + other[i];
+        return result;
+    }
+
+    /**
+     * result = point / scalar
+     */
+    public static double[] divideByScalar(double[] point, double scalar, double[] result) {
+        for (int i = 0; i < point.length; i++)
+            result[i] = point[i] / scalar;
+        return result;
+    }
+
+    /**
+     * result = point * scalar
+     */
+    public static double[] multiplyByScalar(double[] point, double scalar, double[] result) {
+        for (int i = 0; i < point.length; i++)
+            result[i] = point[i] * scalar;
+        return result;
+    }
+
+    /**
+     * Finds the point P at a distance d from A along the line between A and B, with the same operations of
+     * {@link #findPointAtDistanceAlongLine(Point, Point, double)}
+     * @param a Point A
+     * @param b Point B
+     * @param desiredDistance Distance from A
+     * @param result Where the point is written, it can't be A
+     * @return The result array
+     */
+    public static double[] findPointAtDistanceAlongLine(double[] a, double[] b, double desiredDistance, double[] result) {
+        double distance = distance(a, b);
+        difference(b, a, result);
+        divideByScalar(result, distance, result);
+        multiplyByScalar(result, desiredDistance, result);
+        return sum(a, result, result);
+    }
+
+    /**
+     * Removes the duplicated points of points[0, size), moving the unique ones to the beginning of the array in their order.
+     * Like {@link #removeDuplicated(List)}, a point is removed when it is equal to a unique point before it, and the points
+     * close to it are found in a hash grid, instead of comparing it with all of them.
+     * @param points The points, the array is reordered
+     * @param size The amount of points
+     * @param grid The grid used to find the duplicated points, reused between calls
+     * @param kept Where the original indexes of the unique points are written, or null
+     * @return The amount of unique points
+     */
+    public static int removeDuplicated(double[][] points, int size, DuplicateGrid grid, int[] kept) {
+        grid.clear();
+        int uniques = 0;
+
+        for (int i = 0; i < size; i++) {
+            double[] point = points[i];
+            if (grid.containsEqual(points, point))
+                continue;
+
+            //Swaps so the unique points stay at the beginning and no row is lost
+            points[i] = points[uniques];
+            points[uniques] = point;
+            grid.add(points, uniques);
+            if (kept != null)
+                kept[uniques] = i;
+            uniques++;
         }
 
         return uniques;
     }
+
+    /**
+     * A hash grid with cells twice as large as the distance of equal points, so the points equal to another are in its cell
+     * or in the cells next to it. It keeps the indexes of the points in open addressing arrays, which grow only when needed.
+     */
+    public static class DuplicateGrid {
+        private static final double CELL = 2 * Point.EQUAL_DISTANCE;
+
+        //Open addressing table from the key of a cell to the last point added to it, the others are chained in next
+        private long[] keys = new long[64];
+        private int[] heads = new int[64];
+        private int[] next = new int[64];
+        private int cells;
+        private long[] cell = new long[0];
+
+        public DuplicateGrid() {
+            clear();
+        }
+
+        void clear() {
+            Arrays.fill(heads, -1);
+            cells = 0;
+        }
+
+        void add(double[][] points, int index) {
+            if (index >= next.length)
+                next = Arrays.copyOf(next, 2 * (index + 1));
+            if (2 * (cells + 1) > keys.length)
+                rehash();
+
+            long key = key(cellOf(points[index]));
+            int slot = slot(key);
+            if (heads[slot] == -1) {
+                keys[slot] = key;
+                cells++;
+            }
+            next[index] = heads[slot];
+            heads[slot] = index;
+        }
+
+        boolean containsEqual(double[][] points, double[] point) {
+            return containsEqual(points, point, cellOf(point), 0);
+        }
+
+        //Visits the cells next to the cell of the point in every dimension, from the dimension d
+        private boolean containsEqual(double[][] points, double[] point, long[] cell, int d) {
+            if (d == cell.length) {
+                for (int j = heads[slot(key(cell))]; j != -1; j = next[j])
+                    if (distance(points[j], point) <= Point.EQUAL_DISTANCE)
+                        return true;
+                return false;
+            }
+
+            long center = cell[d];
+            boolean found = false;
+            for (int offset = -1; offset <= 1 && !found; offset++) {
+                cell[d] = center + offset;
+                found = containsEqual(points, point, cell, d + 1);
+            }
+            cell[d] = center;
+            return found;
+        }
+
+        private long[] cellOf(double[] point) {
+            if (cell.length != point.length)
+                cell = new long[point.length];
+            for (int d = 0; d < point.length; d++)
+                cell[d] = (long) Math.floor(point[d] / CELL);
+            return cell;
+        }
+
+        private static long key(long[] cell) {
+            long key = 0x9E3779B97F4A7C15L;
+            for (long c : cell) {
+                key = (key ^ c) * 0xBF58476D1CE4E5B9L;
+                key ^= key >>> 31;
+            }
+            return key;
+        }
+
+        //The slot of the key, or the empty slot where it goes
+        private int slot(long key) {
+            int mask = keys.length - 1;
+            int slot = (int) (key ^ (key >>> 32)) & mask;
+            while (heads[slot] != -1 && keys[slot] != key)
+                slot = (slot + 1) & mask;
+            return slot;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            int[] oldHeads = heads;
+            keys = new long[2 * oldKeys.length];
+            heads = new int[keys.length];
+            Arrays.fill(heads, -1);
+            for (int s = 0; s < oldKeys.length; s++) {
+                if (oldHeads[s] != -1) {
+                    int slot = slot(oldKeys[s]);
+                    keys[slot] = oldKeys[s];
+                    heads[slot] = oldHeads[s];
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,69 @@
+package jpssena.algorithm.util;
+
+import jpssena.algorithm.util.solutionattribute.FastDominanceRanking;
+import jpssena.algorithm.util.solutionattribute.IdealDistance;
+import org.uma.jmetal.solution.Solution;
+import org.uma.jmetal.util.solutionattribute.Ranking;
+
+import java.util.List;
+
+/**
+ * The ranking of the joint population of a generation, computed once and shared by the selection, the ideal points
+ * and the stopping condition of the NSGA-DO.
+ *
+ * The same context is kept between generations, so the {@link IdealDistance} can reuse the ideal points while the
+ * non-dominated front doesn't change.
+ */
+public class RankingContext<S extends Solution<?>> {
+    private final IdealDistance<S> idealDistance = new IdealDistance<>();
+    private final Ranking<S> ranking = new FastDominanceRanking<>();
+    private List<S> solutions;
+    private boolean idealDistanceComputed;
+
+    /**
+     * Ranks the solutions of a new generation
+     * @param solutions The joint population, parent + offspring
+     */
+    public void update(List<S> solutions) {
+        this.solutions = solutions;
+        ranking.computeRanking(solutions);
+        idealDistanceComputed = false;
+    }
+
+    public List<S> getSolutions() {
+        return solutions;
+    }
+
+    public Ranking<S> getRanking() {
+        return ranking;
+    }
+
+    /**
+     * Computes the distance to the ideal points of every solution the first time it is called in the generation
+     * @return The ideal distance, which orders the fronts
+     */
+    public IdealDistance<S> getIdealDistance() {
+        if (!idealDistanceComputed) {
+            idealDistance.computeIdealDistance(solutions, ranking);
+            idealDistanceComputed = true;
+        }
+        return idealDistance;
+    }
+
+    /**
+     * The largest euclidean norm of the objectives of the population, with a single square root
+     * @param population The solutions to check
+     * @return The largest norm, or -1 if the population is empty
+     */
+    public double getLargestNorm(List<S> population) {
+        double largest = -1;
+        for (S solution : population) {
+            double squared = 0;
+            for (int i = 0; i < solution.getNumberOfObjectives(); i++)
+                squared += solution.getObjective(i) * solution.getObjective(i);
+            if (squared > largest)
+                largest = squared;
+        }
+        return largest < 0 ? -1 : Math.sqrt(largest);
+    }
+}
@@ -0,0 +1,111 @@
+package jpssena.algorithm.util;
+
+import org.uma.jmetal.util.pseudorandom.JMetalRandom;
+import org.uma.jmetal.util.pseudorandom.PseudoRandomGenerator;
+import org.uma.jmetal.util.pseudorandom.impl.JavaRandomGenerator;
+
+/**
+ * The random generator of jMetal routed to the generator of the run executing in the current thread.
+ *
+ * The operators of jMetal draw their numbers from {@link JMetalRandom}, a single generator for all the runs of an
+ * experiment. Once installed, this generator takes its place and sends the numbers of a thread to the generator of the
+ * run it executes ({@link #enter(PseudoRandomGenerator)}), or to the generator jMetal had before when it executes none.
+ * So the runs executed at the same time don't take numbers from each other, and the state of the generator of a run can be
+ * saved in its checkpoint and restored without touching the other runs.
+ *
+ * A run enters its generator in every thread that draws numbers for it, and leaves it when it's done. A thread that
+ * executes another run while it waits (a task stolen in the fork/join pool) enters and leaves that run's generator inside,
+ * so the generators of a thread are nested.
+ */
+public class RunRandomGenerator implements PseudoRandomGenerator {
+    //The generator of the run executing in each thread, null when it executes none
+    private static final ThreadLocal<PseudoRandomGenerator> runGenerator = new ThreadLocal<>();
+
+    //The generator jMetal had when this one was installed, used outside of the runs
+    private final PseudoRandomGenerator sharedGenerator;
+
+    private RunRandomGenerator(PseudoRandomGenerator sharedGenerator) {
+        this.sharedGenerator = sharedGenerator;
+    }
+
+    /**
+     * Creates the generator of a new run, seeded with a number of the generator shared by the runs
+     * @return The generator
+     */
+    public static PseudoRandomGenerator createGenerator() {
+        PseudoRandomGenerator shared = install().sharedGenerator;
+        //53 random bits, more than the 48 of the seed of java.util.Random
+        long seed = (long) (shared.nextDouble() * (1L << 53));
+        return new JavaRandomGenerator(seed);
+    }
+
+    /**
+     * Makes the current thread draw the numbers of jMetal from the generator of a run
+     * @param generator The generator of the run
+     * @return The generator the thread had before, to be given to {@link #leave(PseudoRandomGenerator)}
+     */
+    public static PseudoRandomGenerator enter(PseudoRandomGenerator generator) {
+        install();
+        PseudoRandomGenerator previous = runGenerator.get();
+        runGenerator.set(generator);
+        return previous;
+    }
+
+    /**
+     * Makes the current thread go back to the generator it had before {@link #enter(PseudoRandomGenerator)}
+     * @param previous The generator returned by enter
+     */
+    public static void leave(PseudoRandomGenerator previous) {
+        if (previous == null)
+            runGenerator.remove();
+        else
+            runGenerator.set(previous);
+    }
+
+    //Puts the routing generator in JMetalRandom, unless it's there already
+    private static synchronized RunRandomGenerator install() {
+        JMetalRandom random = JMetalRandom.getInstance();
+        PseudoRandomGenerator generator = random.getRandomGenerator();
+        if (generator instanceof RunRandomGenerator)
+            return (RunRandomGenerator) generator;
+
+        RunRandomGenerator routing = new RunRandomGenerator(generator);
+        random.setRandomGenerator(routing);
+        return routing;
+    }
+
+    private PseudoRandomGenerator current() {
+        PseudoRandomGenerator generator = runGenerator.get();
+        return generator == null ? sharedGenerator : generator;
+    }
+
+    @Override
+    public int nextInt(int lowerBound, int upperBound) {
+        return current().nextInt(lowerBound, upperBound);
+    }
+
+    @Override
+    public double nextDouble(double lowerBound, double upperBound) {
+        return current().nextDouble(lowerBound, upperBound);
+    }
+
+    @Override
+    public double nextDouble() {
+        return current().nextDouble();
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        current().setSeed(seed);
+    }
+
+    @Override
+    public long getSeed() {
+        return current().getSeed();
+    }
+
+    @Override
+    public String getName() {
+        return current().getName();
+    }
+}
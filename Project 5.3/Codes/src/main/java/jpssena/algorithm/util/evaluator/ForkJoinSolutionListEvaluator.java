@@ -0,0 +1,72 @@
+package jpssena.algorithm.util.evaluator;
+
+import jpssena.util.ThreadsUtil;
+import org.uma.jmetal.problem.Problem;
+import org.uma.jmetal.util.JMetalException;
+import org.uma.jmetal.util.evaluator.SolutionListEvaluator;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Evaluates the population in parallel, splitting it into fork/join tasks.
+ *
+ * The tasks run in the pool shared with the experiment ({@link ThreadsUtil#getSharedPool()}), the same one where
+ * ExecuteAlgorithms runs the algorithms. An algorithm that is already running in that pool pushes its evaluations
+ * to its own queue, so the threads left idle when there are fewer runs than cores steal them, and no thread is created
+ * beyond the pool size.
+ *
+ * The problem must be safe to evaluate different solutions at the same time.
+ */
+public class ForkJoinSolutionListEvaluator<S> implements SolutionListEvaluator<S> {
+
+    @Override
+    public List<S> evaluate(List<S> solutionList, Problem<S> problem) {
+        if (solutionList == null)
+            throw new JMetalException("The solution list is null");
+
+        EvaluationTask<S> task = new EvaluationTask<>(solutionList, problem, 0, solutionList.size());
+
+        //Inside the pool the task is forked from the current thread, outside of it the task is submitted to the pool
+        if (ForkJoinTask.inForkJoinPool())
+            task.invoke();
+        else
+            ThreadsUtil.getSharedPool().invoke(task);
+
+        return solutionList;
+    }
+
+    @Override
+    public void shutdown() {
+        //The pool is shared with the experiment, so it isn't shut down here
+    }
+
+    //Evaluates the solutions from start (inclusive) to end (exclusive), halving the range until one solution is left
+    private static class EvaluationTask<S> extends RecursiveAction {
+        private final List<S> solutionList;
+        private final Problem<S> problem;
+        private final int start;
+        private final int end;
+
+        EvaluationTask(List<S> solutionList, Problem<S> problem, int start, int end) {
+            this.solutionList = solutionList;
+            this.problem = problem;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= 1) {
+                if (end > start)
+                    problem.evaluate(solutionList.get(start));
+                return;
+            }
+
+            int middle = (start + end) >>> 1;
+            invokeAll(new EvaluationTask<>(solutionList, problem, start, middle),
+                    new EvaluationTask<>(solutionList, problem, middle, end));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package jpssena.algorithm.util.solutionattribute;
+
+import jpssena.algorithm.util.DominanceSort;
+import org.uma.jmetal.solution.Solution;
+import org.uma.jmetal.util.JMetalException;
+import org.uma.jmetal.util.solutionattribute.Ranking;
+import org.uma.jmetal.util.solutionattribute.impl.DominanceRanking;
+import org.uma.jmetal.util.solutionattribute.impl.OverallConstraintViolation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dominance ranking computed with {@link DominanceSort}, O(N log N) for the bi-objective problems.
+ *
+ * The rank is stored in the same attribute as {@link DominanceRanking}, so the comparators that read it still work.
+ * The solutions of each subfront are in the order {@link DominanceRanking} gives them. When a solution violates its constraints the
+ * pairwise comparisons of {@link DominanceRanking} are used, because they compare the violations first.
+ */
+public class FastDominanceRanking<S extends Solution<?>> extends DominanceRanking<S> {
+    private final OverallConstraintViolation<S> constraintViolation = new OverallConstraintViolation<>();
+    //null when the ranking was computed by DominanceRanking
+    private List<List<S>> subfronts;
+    //The objectives of the solutions and the arrays of the sort, reused when the ranking is computed again
+    private double[][] objectives = new double[0][];
+    private final DominanceSort.Buffers buffers = new DominanceSort.Buffers();
+
+    public FastDominanceRanking() {
+        super(DominanceRanking.class);
+    }
+
+    @Override
+    public Ranking<S> computeRanking(List<S> solutionList) {
+        if (hasConstraintViolations(solutionList)) {
+            subfronts = null;
+            return super.computeRanking(solutionList);
+        }
+
+        int size = solutionList.size();
+        int numberOfObjectives = size == 0 ? 0 : solutionList.get(0).getNumberOfObjectives();
+        if (objectives.length != size || (size > 0 && objectives[0].length != numberOfObjectives))
+            objectives = new double[size][numberOfObjectives];
+        for (int i = 0; i < size; i++)
+            for (int m = 0; m < numberOfObjectives; m++)
+                objectives[i][m] = solutionList.get(i).getObjective(m);
+
+        int[] rank = DominanceSort.sort(objectives, numberOfObjectives, buffers);
+        int[][] fronts = DominanceSort.fronts(objectives, numberOfObjectives, rank, size);
+
+        subfronts = new ArrayList<>(fronts.length);
+        for (int f = 0; f < fronts.length; f++) {
+            List<S> subfront = new ArrayList<>(fronts[f].length);
+            for (int i : fronts[f]) {
+                S solution = solutionList.get(i);
+                setAttribute(solution, f);
+                subfront.add(solution);
+            }
+            subfronts.add(subfront);
+        }
+
+        return this;
+    }
+
+    @Override
+    public List<S> getSubfront(int rank) {
+        if (subfronts == null)
+            return super.getSubfront(rank);
+        if (rank >= subfronts.size())
+            throw new JMetalException("Invalid rank: " + rank + ". Max rank = " + (subfronts.size() - 1));
+        return subfronts.get(rank);
+    }
+
+    @Override
+    public int getNumberOfSubfronts() {
+        return subfronts == null ? super.getNumberOfSubfronts() : subfronts.size();
+    }
+
+    private boolean hasConstraintViolations(List<S> solutionList) {
+        for (S solution : solutionList) {
+            Double violation = constraintViolation.getAttribute(solution);
+            if (violation != null && violation < 0)
+                return true;
+        }
+        return false;
+    }
+}
@@ -1,14 +1,14 @@
 package jpssena.algorithm.util.solutionattribute;
 
+import jpssena.algorithm.util.NearestPointIndex;
 import jpssena.algorithm.util.Point;
 import jpssena.algorithm.util.PointUtil;
 import jpssena.util.Debug;
 import org.uma.jmetal.solution.Solution;
 import org.uma.jmetal.util.solutionattribute.Ranking;
-import org.uma.jmetal.util.solutionattribute.impl.DominanceRanking;
 import org.uma.jmetal.util.solutionattribute.impl.GenericSolutionAttribute;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -18,34 +18,53 @@ import java.util.List;
  */
 public class IdealDistance<S extends Solution<?>> extends GenericSolutionAttribute<S, Double> {
 
+    //The non dominated front of the last generation and the tree of its ideal points
+    private double[][] lastFront = new double[0][];
+    private int lastFrontSize = -1;
+    private final NearestPointIndex lastIdealPoints = new NearestPointIndex();
+
+    //Buffers of the points of the front and of the ideal points, reused between generations so the selection
+    //doesn't allocate for each solution
+    private double[][] points = new double[0][];
+    private double[][] sortBuffer = new double[0][];
+    private double[][] idealPoints = new double[0][];
+    private final PointUtil.DuplicateGrid duplicateGrid = new PointUtil.DuplicateGrid();
+
     /**
      * Computes the distance between the solutions and the ideal points at the pareto subfront.
      * @param solutionList the population in this generation.
      */
     public void computeIdealDistance(List<S> solutionList) {
         //Creates Dominance ranking to compute the non dominated list
-        Ranking<S> ranking = new DominanceRanking<>();
+        Ranking<S> ranking = new FastDominanceRanking<>();
         //computes the dominance ranking
         ranking.computeRanking(solutionList);
 
-        //find ideal points using the pareto subfront 0 (non dominated)
-        List<Point> idealPoints = findIdealPoints(ranking.getSubfront(0));
+        computeIdealDistance(solutionList, ranking);
+    }
+
+    /**
+     * Computes the distance between the solutions and the ideal points, using a ranking already computed.
+     * @param solutionList the population in this generation.
+     * @param ranking the dominance ranking of the solution list
+     */
+    public void computeIdealDistance(List<S> solutionList, Ranking<S> ranking) {
+        //find ideal points using the pareto subfront 0 (non dominated), and the tree to search them
+        NearestPointIndex idealPoints = getIdealPointIndex(ranking.getSubfront(0));
+
+        //The point of each solution is written in the same array, as in Point, the objectives are taken as positive
+        double[] solutionPoint = null;
 
         //For each solution in the solution list, calculate find the distance to the closest ideal point
         for (S solution : solutionList) {
-            //Auxiliary variable starts at max value
-            double minDistance = Double.MAX_VALUE;
-
-            //Creates a point from solution to calculate distance;
-            Point solutionPoint = new Point(solution);
+            if (solutionPoint == null || solutionPoint.length != solution.getNumberOfObjectives())
+                solutionPoint = new double[solution.getNumberOfObjectives()];
+            for (int i = 0; i < solutionPoint.length; i++)
+                solutionPoint[i] = Math.abs(solution.getObjective(i));
 
-            //Find distance to closest ideal point
-            for (Point ideal : idealPoints) {
-                double distance = PointUtil.distance(solutionPoint, ideal);
+            //Find distance to closest ideal point, Double.MAX_VALUE when there is none
+            double minDistance = idealPoints.nearestDistance(solutionPoint);
 
-                if (distance < minDistance)
-                    minDistance = distance;
-            }
             //Sets the attribute of distance from ideal point to the distance found;
             solution.setAttribute(getAttributeIdentifier(), minDistance);
         }
@@ -79,30 +98,76 @@ public class IdealDistance<S extends Solution<?>> extends GenericSolutionAttribu
         return front;
     }
 
+    /**
+     * Returns the tree of the ideal points of the non dominated front, reusing the one of the last call when the front
+     * has the same objectives in the same order.
+     * @param nonDominated The list of non dominated solutions
+     * @return the ideal points, ready for the nearest point queries
+     */
+    private NearestPointIndex getIdealPointIndex(List<S> nonDominated) {
+        if (!isLastFront(nonDominated)) {
+            int size = nonDominated.size();
+            lastFront = ensureCapacity(lastFront, size);
+            for (int i = 0; i < size; i++) {
+                S solution = nonDominated.get(i);
+                lastFront[i] = ensureLength(lastFront[i], solution.getNumberOfObjectives());
+                for (int m = 0; m < lastFront[i].length; m++)
+                    lastFront[i][m] = solution.getObjective(m);
+            }
+            lastFrontSize = size;
+
+            int ideals = findIdealPoints(nonDominated);
+            lastIdealPoints.build(idealPoints, ideals);
+        }
+        return lastIdealPoints;
+    }
+
+    //Whether the front has the objectives of the last one, in the same order
+    private boolean isLastFront(List<S> nonDominated) {
+        if (nonDominated.size() != lastFrontSize)
+            return false;
+
+        for (int i = 0; i < lastFrontSize; i++) {
+            S solution = nonDominated.get(i);
+            if (solution.getNumberOfObjectives() != lastFront[i].length)
+                return false;
+            for (int m = 0; m < lastFront[i].length; m++)
+                if (Double.compare(solution.getObjective(m), lastFront[i][m]) != 0)
+                    return false;
+        }
+        return true;
+    }
+
     /**
      * Finds the ideal points in the pareto front that are equally spaced.
      * @param nonDominated The list of non dominated solutions
-     * @return a list of ideal points
+     * @return the amount of ideal points, written at the beginning of idealPoints
      */
-    private List<Point> findIdealPoints(List<S> nonDominated) {
-        //Transforms the list of solutions in a list of points in space based on objectives values
-        List<Point> points = PointUtil.getPointsFromSolutionList(nonDominated, 1);
+    private int findIdealPoints(List<S> nonDominated) {
+        //Transforms the list of solutions in points in space based on objectives values, positive as in Point
+        int numOfSolutions = nonDominated.size();
+        points = ensureCapacity(points, numOfSolutions);
+        for (int i = 0; i < numOfSolutions; i++) {
+            S solution = nonDominated.get(i);
+            points[i] = ensureLength(points[i], solution.getNumberOfObjectives());
+            for (int m = 0; m < points[i].length; m++)
+                points[i][m] = Math.abs(solution.getObjective(m));
+        }
         //Remove duplicated points
-        points = PointUtil.removeDuplicated(points);
-
-        int numOfSolutions = points.size();
+        numOfSolutions = PointUtil.removeDuplicated(points, numOfSolutions, duplicateGrid, null);
 
-        //Sorts the list based on the objective 1 (Reduction)
-        Collections.sort(points);
+        //Sorts the points based on the objective 1 (Reduction)
+        sortBuffer = ensureCapacity(sortBuffer, numOfSolutions);
+        sortByObjective(points, sortBuffer, 0, numOfSolutions, 1);
 
         //Accumulator of the Sum
         double accumulator = 0;
 
         //We are going to get 2 points and calculate the distance between them, and add it to the accumulator
         //In the end we will have the full length of the pareto subfront
-        for (int i = 1; i < points.size(); i++) {
-            Point a = points.get(i - 1);
-            Point b = points.get(i);
+        for (int i = 1; i < numOfSolutions; i++) {
+            double[] a = points[i - 1];
+            double[] b = points[i];
 
             accumulator += PointUtil.distance(a, b);
         }
@@ -110,25 +175,26 @@ public class IdealDistance<S extends Solution<?>> extends GenericSolutionAttribu
         //Finds the ideal spacing between points dividing the full size by number of solutions - 1
         double E = accumulator/(numOfSolutions - 1);
 
-        //Creates a list of ideal points
-        List<Point> idealPoints = new ArrayList<>();
+        //The amount of ideal points
+        int ideals = 0;
 
-        if (points.size() <= 2) {
+        if (numOfSolutions <= 2) {
             //if we have only 1, 2 or 0 non dominated solutions we say that these are the ideal points
-            idealPoints.addAll(points);
+            for (int i = 0; i < numOfSolutions; i++)
+                copy(points[i], ideals++);
         } else {
             //Otherwise, we start at the first solution
-            idealPoints.add(points.get(0));
+            copy(points[0], ideals++);
 
             //Creates a variable to know when we should create a ideal point, basically this is the length covered since we
             //reached an ideal point (because we added the first point as an ideal it starts at 0)
             double lengthCovered = 0;
 
             //We want to take solutions in pairs
-            for (int k = 0; k < points.size() - 1; k++) {
+            for (int k = 0; k < numOfSolutions - 1; k++) {
                 //References the pair of solutions
-                Point a = points.get(k);
-                Point b = points.get(k + 1);
+                double[] a = points[k];
+                double[] b = points[k + 1];
 
                 //Because solutions are like points in space, we can create a line that unites these solutions
                 //Our main point here is to check that if between these solutions there is a ideal point.
@@ -166,8 +232,8 @@ public class IdealDistance<S extends Solution<?>> extends GenericSolutionAttribu
                     //Adds it to the actual point between these solutions
                     actualPoint += desiredDistance;
 
-                    //Finds the point and add it to the ideal points list
-                    idealPoints.add(PointUtil.findPointAtDistanceAlongLine(a, b, actualPoint));
+                    //Finds the point and add it to the ideal points
+                    PointUtil.findPointAtDistanceAlongLine(a, b, actualPoint, nextIdealPoint(ideals++, a.length));
 
                     //We reset the length covered since we marked a new point
                     lengthCovered = 0;
@@ -181,14 +247,65 @@ public class IdealDistance<S extends Solution<?>> extends GenericSolutionAttribu
 
             //In some cases the last point is automatically added, but sometimes it is not.
             //To guarantee that it is aways added.
-            Point last = points.get(points.size() - 1);
-            if (!idealPoints.contains(last)) {
+            double[] last = points[numOfSolutions - 1];
+            if (!containsEqual(last, ideals)) {
                 //if it were not added, add it
-                idealPoints.add(last);
+                copy(last, ideals++);
             }
         }
 
-        //return the ideal points
-        return idealPoints;
+        //return the amount of ideal points
+        return ideals;
+    }
+
+    //Whether one of the first ideal points is equal to the point, as in Point.equals
+    private boolean containsEqual(double[] point, int ideals) {
+        for (int i = 0; i < ideals; i++)
+            if (PointUtil.distance(point, idealPoints[i]) <= Point.EQUAL_DISTANCE)
+                return true;
+        return false;
+    }
+
+    private void copy(double[] point, int index) {
+        System.arraycopy(point, 0, nextIdealPoint(index, point.length), 0, point.length);
+    }
+
+    //The array of the ideal point at the index, growing the buffer when needed
+    private double[] nextIdealPoint(int index, int dimensions) {
+        if (index >= idealPoints.length)
+            idealPoints = Arrays.copyOf(idealPoints, 2 * index + 8);
+        idealPoints[index] = ensureLength(idealPoints[index], dimensions);
+        return idealPoints[index];
+    }
+
+    //Stable merge sort of the points by one objective, as Collections.sort does with Point
+    private static void sortByObjective(double[][] points, double[][] buffer, int from, int to, int objective) {
+        if (to - from < 2)
+            return;
+
+        int middle = (from + to) >>> 1;
+        sortByObjective(points, buffer, from, middle, objective);
+        sortByObjective(points, buffer, middle, to, objective);
+
+        if (Double.compare(points[middle - 1][objective], points[middle][objective]) <= 0)
+            return;
+
+        System.arraycopy(points, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int k = from; k < to; k++) {
+            if (right >= to || (left < middle && Double.compare(buffer[left][objective], buffer[right][objective]) <= 0))
+                points[k] = buffer[left++];
+            else
+                points[k] = buffer[right++];
+        }
+    }
+
+    private static double[][] ensureCapacity(double[][] buffer, int size) {
+        return buffer.length >= size ? buffer : Arrays.copyOf(buffer, Math.max(size, 2 * buffer.length));
+    }
+
+    private static double[] ensureLength(double[] array, int length) {
+        return array != null && array.length == length ? array : new double[length];
     }
 }
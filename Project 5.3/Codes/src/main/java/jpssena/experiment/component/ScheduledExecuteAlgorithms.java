@@ -0,0 +1,285 @@
+package jpssena.experiment.component;
+
+import jpssena.experiment.util.ExperimentAlgorithmWithTime;
+import jpssena.problem.CachedProblem;
+import jpssena.util.ThreadsUtil;
+import org.uma.jmetal.problem.BinaryProblem;
+import org.uma.jmetal.problem.Problem;
+import org.uma.jmetal.solution.Solution;
+import org.uma.jmetal.util.JMetalException;
+import org.uma.jmetal.util.JMetalLogger;
+import org.uma.jmetal.util.experiment.Experiment;
+import org.uma.jmetal.util.experiment.ExperimentComponent;
+import org.uma.jmetal.util.experiment.util.ExperimentAlgorithm;
+import org.uma.jmetal.util.experiment.util.ExperimentProblem;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs the algorithms of an experiment like jMetal's ExecuteAlgorithms, but scheduling every (algorithm, problem, run)
+ * job of the whole experiment longest first, instead of running the algorithms of one run at a time in list order.
+ *
+ * The cost of a job is estimated from the size of its training set (the evaluation of a chromosome compares every pair
+ * of samples, so it grows with its square) and from the times of the jobs already finished: the "Time:" lines that
+ * ExperimentAlgorithmWithTime writes in the function files of a previous execution, and the jobs of this execution,
+ * which correct the estimates of the jobs not started yet.
+ *
+ * The jobs run in the pool shared with the experiment ({@link ThreadsUtil#getSharedPool()}), bounded to the number of
+ * cores of the experiment, one job for each core. When no job can start on a thread it leaves it, and the parallel
+ * evaluators of the jobs still running use it. The runs of an ExperimentAlgorithm reuse the same algorithm object, so
+ * they run one after the other, in order.
+ *
+ * To resume a sweep that was interrupted, the runs whose function file already has its "Time:" line can be skipped; the
+ * runs left in the middle resume from their checkpoints (see {@link ExperimentAlgorithmWithTime}).
+ */
+public class ScheduledExecuteAlgorithms<S extends Solution<?>, Result> implements ExperimentComponent {
+    private final Experiment<S, Result> experiment;
+    //Skips the runs finished by a previous execution
+    private final boolean skipCompletedRuns;
+
+    //Guards the jobs and the times
+    private final Object lock = new Object();
+    private final List<Job> pending = new ArrayList<>();
+    //The algorithm objects running, by identity
+    private final Set<Object> running = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+    //Seconds and squared training set sizes of the finished jobs, for each algorithm tag and for all of them (key null)
+    private final Map<String, double[]> times = new HashMap<>();
+    //The algorithms that ran at least once in this execution, by identity
+    private final Set<Object> executed = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+
+    public ScheduledExecuteAlgorithms(Experiment<S, Result> experiment) {
+        this(experiment, false);
+    }
+
+    /**
+     * @param experiment The experiment to run
+     * @param skipCompletedRuns Skips the runs with a "Time:" line in their function file, written by a previous execution
+     */
+    public ScheduledExecuteAlgorithms(Experiment<S, Result> experiment, boolean skipCompletedRuns) {
+        this.experiment = experiment;
+        this.skipCompletedRuns = skipCompletedRuns;
+    }
+
+    @Override
+    public void run() {
+        //As ExecuteAlgorithms does. It only bounds the pool when nothing used it yet, otherwise the main must call it first
+        ThreadsUtil.setSharedPoolParallelism(experiment.getNumberOfCores());
+        if (ForkJoinPool.getCommonPoolParallelism() != experiment.getNumberOfCores())
+            JMetalLogger.logger.warning("ScheduledExecuteAlgorithms: the shared pool was created before with "
+                    + ForkJoinPool.getCommonPoolParallelism() + " threads, not " + experiment.getNumberOfCores());
+
+        JMetalLogger.logger.info("ScheduledExecuteAlgorithms: Preparing output directory");
+        prepareOutputDirectory();
+
+        int skipped = 0;
+        Map<String, Double> sizes = new HashMap<>();
+        for (ExperimentProblem<S> problem : experiment.getProblemList())
+            sizes.put(problem.getTag(), estimateSize(problem.getProblem()));
+
+        for (ExperimentAlgorithm<S, Result> algorithm : experiment.getAlgorithmList()) {
+            Double size = sizes.get(algorithm.getProblemTag());
+            for (int run = 0; run < experiment.getIndependentRuns(); run++) {
+                Job job = new Job(algorithm, run, size == null ? 1 : size);
+                job.previousTime = readPreviousTime(algorithm, run);
+                if (job.previousTime >= 0)
+                    addTime(job.algorithm.getAlgorithmTag(), job.size, job.previousTime);
+                if (job.previousTime >= 0 && skipCompletedRuns)
+                    skipped++;
+                else
+                    pending.add(job);
+            }
+        }
+        JMetalLogger.logger.info("ScheduledExecuteAlgorithms: " + pending.size() + " jobs, " + skipped + " skipped");
+
+        int numberOfDispatchers = Math.max(1, Math.min(experiment.getNumberOfCores(), pending.size()));
+        final List<Dispatcher> dispatchers = new ArrayList<>(numberOfDispatchers);
+        for (int i = 0; i < numberOfDispatchers; i++)
+            dispatchers.add(new Dispatcher());
+
+        //Inside the pool the dispatchers are forked from the current thread, outside of it they are submitted to the pool
+        if (ForkJoinTask.inForkJoinPool())
+            ForkJoinTask.invokeAll(dispatchers);
+        else
+            ThreadsUtil.getSharedPool().invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(dispatchers);
+                }
+            });
+    }
+
+    /**
+     * @param algorithm An algorithm of the experiment
+     * @return If it ran in this execution, so it has a result. False after {@link #run()} when all its runs were skipped
+     */
+    public boolean wasExecuted(ExperimentAlgorithm<S, Result> algorithm) {
+        synchronized (lock) {
+            return executed.contains(algorithm);
+        }
+    }
+
+    /**
+     * Takes the job with the largest estimated cost among those whose algorithm isn't running and whose earlier runs are
+     * done. The jobs left wait for a running job, whose dispatcher takes them when it finishes.
+     * @return The job, or null when no job can start now
+     */
+    private Job nextJob() {
+        synchronized (lock) {
+            Job longest = null;
+            double longestCost = -1;
+            for (Job job : pending) {
+                if (!isReady(job))
+                    continue;
+                double cost = estimateCost(job);
+                if (cost > longestCost) {
+                    longest = job;
+                    longestCost = cost;
+                }
+            }
+
+            if (longest != null) {
+                pending.remove(longest);
+                running.add(longest.algorithm.getAlgorithm());
+            }
+            return longest;
+        }
+    }
+
+    //The algorithm object isn't running another run, and the runs before this one are done
+    private boolean isReady(Job job) {
+        if (running.contains(job.algorithm.getAlgorithm()))
+            return false;
+        for (Job other : pending)
+            if (other.algorithm == job.algorithm && other.run < job.run)
+                return false;
+        return true;
+    }
+
+    private void finished(Job job, double seconds) {
+        synchronized (lock) {
+            running.remove(job.algorithm.getAlgorithm());
+            executed.add(job.algorithm);
+            addTime(job.algorithm.getAlgorithmTag(), job.size, seconds);
+        }
+    }
+
+    /**
+     * The time of the job in the previous execution if there is one, otherwise its size scaled by the seconds per unit
+     * of size of the jobs of the same algorithm, or of all the jobs, already finished
+     */
+    private double estimateCost(Job job) {
+        if (job.previousTime >= 0)
+            return job.previousTime;
+
+        double[] algorithmTimes = times.get(job.algorithm.getAlgorithmTag());
+        if (algorithmTimes != null && algorithmTimes[1] > 0)
+            return job.size * algorithmTimes[0] / algorithmTimes[1];
+
+        double[] allTimes = times.get(null);
+        if (allTimes != null && allTimes[1] > 0)
+            return job.size * allTimes[0] / allTimes[1];
+        return job.size;
+    }
+
+    private void addTime(String algorithmTag, double size, double seconds) {
+        for (String key : new String[]{algorithmTag, null}) {
+            double[] sums = times.get(key);
+            if (sums == null) {
+                sums = new double[2];
+                times.put(key, sums);
+            }
+            sums[0] += seconds;
+            sums[1] += size;
+        }
+    }
+
+    /**
+     * The square of the training set size, the number of bits of the chromosome of the instance selection problems.
+     * It's read from the problem without creating a solution, which would take numbers from the seeded JMetalRandom
+     */
+    private double estimateSize(Problem<S> problem) {
+        Problem<?> sized = problem;
+        while (sized instanceof CachedProblem)
+            sized = ((CachedProblem<?>) sized).getProblem();
+
+        double size = sized instanceof BinaryProblem
+                ? ((BinaryProblem) sized).getTotalNumberOfBits()
+                : sized.getNumberOfVariables();
+        return size * size;
+    }
+
+    //Reads the "Time:" line of the function file of the run written by a previous execution, -1 when there is none
+    private double readPreviousTime(ExperimentAlgorithm<S, Result> algorithm, int run) {
+        File funFile = new File(experiment.getExperimentBaseDirectory() + "/data/" + algorithm.getAlgorithmTag() + "/"
+                + algorithm.getProblemTag() + "/" + experiment.getOutputParetoFrontFileName() + run + ".tsv");
+        if (!funFile.isFile())
+            return -1;
+
+        double time = -1;
+        try (BufferedReader reader = new BufferedReader(new FileReader(funFile))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("Time:"))
+                    time = Double.parseDouble(line.substring("Time:".length()).trim());
+            }
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+        return time;
+    }
+
+    //The same as ExecuteAlgorithms does
+    private void prepareOutputDirectory() {
+        File experimentDirectory = new File(experiment.getExperimentBaseDirectory());
+        if (experimentDirectory.exists() && experimentDirectory.isDirectory())
+            return;
+
+        if (experimentDirectory.exists())
+            experimentDirectory.delete();
+        if (!experimentDirectory.mkdirs())
+            throw new JMetalException("Error creating experiment directory: " + experiment.getExperimentBaseDirectory());
+    }
+
+    //A run of an algorithm on its problem
+    private class Job {
+        private final ExperimentAlgorithm<S, Result> algorithm;
+        private final int run;
+        private final double size;
+        private double previousTime = -1;
+
+        Job(ExperimentAlgorithm<S, Result> algorithm, int run, double size) {
+            this.algorithm = algorithm;
+            this.run = run;
+            this.size = size;
+        }
+    }
+
+    //Runs jobs until none is left
+    private class Dispatcher extends RecursiveAction {
+        @Override
+        protected void compute() {
+            Job job;
+            while ((job = nextJob()) != null) {
+                long start = System.currentTimeMillis();
+                try {
+                    job.algorithm.runAlgorithm(job.run, experiment);
+                } finally {
+                    finished(job, (System.currentTimeMillis() - start) * 0.001);
+                }
+            }
+        }
+    }
+}
@@ -5,6 +5,8 @@ import org.uma.jmetal.util.experiment.Experiment;
 import org.uma.jmetal.util.experiment.ExperimentComponent;
 import org.uma.jmetal.util.experiment.util.ExperimentAlgorithm;
 import jpssena.util.GeneticUtil;
+import jpssena.util.FoldCache;
+import weka.core.Instances;
 
 import java.io.File;
 import java.io.IOException;
@@ -69,13 +71,13 @@ public class SelectBestChromosome<S extends Solution<?>, Result> implements Expe
                 File baseDirectory = new File(experiment.getExperimentBaseDirectory());
                 String datasets = baseDirectory.getParent();
 
-                //Gets the training file related to this fold to serve as a model to create the reduced dataset
-                File trainingFile = new File(datasets + "/" + problemTag + "/" + problemTag + "-" + stratification + "-" + problemFold + "tra.arff");
+                //Gets the training samples related to this fold to serve as a model to create the reduced dataset
+                Instances training = FoldCache.load(datasets + "/" + problemTag + "/" + problemTag + "-" + stratification + "-" + problemFold + "tra", false).getInstances();
                 //The Reduced dataset is marked with a red in the end of it
                 File result = new File(problemBase + "/" + problemTag + "-" + stratification + "-" + problemFold + "red_" + run + ".arff");
 
                 //Writes the result
-                GeneticUtil.createFileWithBitSet(selected, trainingFile, result);
+                GeneticUtil.createFileWithBitSet(selected, training, result);
                 //Adds this result to the list
 
                 allValues.clear();
@@ -1,5 +1,6 @@
 package jpssena.experiment.component;
 
+import jpssena.util.FoldCache;
 import org.apache.commons.io.FileUtils;
 import org.uma.jmetal.solution.Solution;
 import org.uma.jmetal.util.experiment.Experiment;
@@ -41,12 +42,10 @@ public class TestSelectedChromosome<S extends Solution<?>, Result> implements Ex
             String problemFold = experimentAlgorithm.getProblemTag().split("-")[1];
             String problemBase = algorithmDirectory + "/" + problemTag;
 
-            File fileTest = new File(experiment.getExperimentBaseDirectory() + "/../" + problemTag + "/" + problemTag + "-" + stratification + "-" + problemFold + "tst.arff");
+            String testBaseName = experiment.getExperimentBaseDirectory() + "/../" + problemTag + "/" + problemTag + "-" + stratification + "-" + problemFold + "tst";
 
-            //Get the test file from Keel Database
-            Instances test = new Instances(new FileReader(fileTest));
-
-            if (test.classIndex() == -1) test.setClassIndex(test.numAttributes() - 1);
+            //Get the test file from Keel Database, mapped from its .fold cache (the .dat file is parsed only when the cache is out of date)
+            Instances test = FoldCache.load(testBaseName, false).getInstances();
 
             File resultFile = new File(problemBase + "/execution_test.txt");
 
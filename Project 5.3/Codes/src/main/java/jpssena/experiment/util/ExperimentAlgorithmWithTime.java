@@ -1,5 +1,7 @@
 package jpssena.experiment.util;
 
+import jpssena.algorithm.util.Checkpointable;
+import jpssena.util.CheckpointWriter;
 import org.uma.jmetal.algorithm.Algorithm;
 import org.uma.jmetal.solution.Solution;
 import org.uma.jmetal.util.AlgorithmRunner;
@@ -58,8 +60,19 @@ public class ExperimentAlgorithmWithTime<S extends Solution<?>, Result> extends
                         ", run: " + id +
                         ", funFile: " + funFile);
 
+        //The algorithms that support it save their state after every generation, and resume from it when a previous
+        //execution was interrupted in the middle of this run. Then the time taken before the interruption, saved in the
+        //checkpoint, is added to the time of the resumed part
+        File checkpointFile = new File(outputDirectoryName + "/CHECKPOINT" + id + ".bin");
+        boolean checkpointable = getAlgorithm() instanceof Checkpointable;
+        if (checkpointable)
+            ((Checkpointable) getAlgorithm()).setCheckpointFile(checkpointFile, getAlgorithmTag() + "/" + getProblemTag()
+                    + "/" + id);
+
         //Here is the new trick. Saves the time in seconds to this new variable
         long estimatedTime = new AlgorithmRunner.Executor(getAlgorithm()).execute().getComputingTime();
+        if (checkpointable)
+            estimatedTime += ((Checkpointable) getAlgorithm()).getResumedComputingTime();
         double aux = estimatedTime * 0.001;
         Result population = getAlgorithm().getResult();
 
@@ -79,5 +92,9 @@ public class ExperimentAlgorithmWithTime<S extends Solution<?>, Result> extends
         } catch (IOException e) {
             e.printStackTrace();
         }
+
+        //The run is complete, the next executions skip it
+        if (checkpointable)
+            CheckpointWriter.delete(checkpointFile);
     }
 }
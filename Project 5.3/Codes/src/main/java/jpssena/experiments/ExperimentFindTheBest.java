@@ -1,11 +1,14 @@
 package jpssena.experiments;
 
 import jpssena.algorithm.multiobjective.NSGAIII_II;
+import jpssena.algorithm.util.evaluator.ForkJoinSolutionListEvaluator;
 import jpssena.experiment.component.GenerateStatistics;
+import jpssena.experiment.component.ScheduledExecuteAlgorithms;
 import jpssena.experiment.component.SelectBestChromosome;
 import jpssena.experiment.component.TestSelectedChromosome;
 import jpssena.experiment.util.ExperimentAlgorithmWithTime;
 import jpssena.problem.LearnMultiObjectivesSelectInstances;
+import jpssena.util.CheckpointWriter;
 import org.uma.jmetal.algorithm.Algorithm;
 import org.uma.jmetal.algorithm.multiobjective.nsgaiii.NSGAIIIBuilder;
 import org.uma.jmetal.operator.impl.crossover.HUXCrossover;
@@ -15,7 +18,6 @@ import org.uma.jmetal.problem.Problem;
 import org.uma.jmetal.solution.BinarySolution;
 import org.uma.jmetal.util.experiment.Experiment;
 import org.uma.jmetal.util.experiment.ExperimentBuilder;
-import org.uma.jmetal.util.experiment.component.ExecuteAlgorithms;
 import org.uma.jmetal.util.experiment.util.ExperimentAlgorithm;
 import org.uma.jmetal.util.experiment.util.ExperimentProblem;
 import weka.core.Instances;
@@ -59,7 +61,9 @@ public class ExperimentFindTheBest {
             System.exit(0);
         }
         //Executes the Experiment
-        new ExecuteAlgorithms<>(experiment).run();
+        //Runs the jobs of every fold, algorithm and run longest first
+        new ScheduledExecuteAlgorithms<>(experiment).run();
+        CheckpointWriter.flush();
 
         for (ExperimentAlgorithm<BinarySolution, List<BinarySolution>> algorithmExp : experiment.getAlgorithmList()) {
             Algorithm<List<BinarySolution>> algorithm = algorithmExp.getAlgorithm();
@@ -163,6 +167,7 @@ public class ExperimentFindTheBest {
                         .setCrossoverOperator(new HUXCrossover(crossoverProbability))
                         .setMutationOperator(new BitFlipMutation(mutationProbability))
                         .setSelectionOperator(new BinaryTournamentSelection<BinarySolution>())
+                        .setSolutionListEvaluator(new ForkJoinSolutionListEvaluator<BinarySolution>())
                         .setPopulationSize(50)
                         .setMaxIterations(50));
 
@@ -175,6 +180,7 @@ public class ExperimentFindTheBest {
                         .setCrossoverOperator(new HUXCrossover(crossoverProbability))
                         .setMutationOperator(new BitFlipMutation(mutationProbability))
                         .setSelectionOperator(new BinaryTournamentSelection<BinarySolution>())
+                        .setSolutionListEvaluator(new ForkJoinSolutionListEvaluator<BinarySolution>())
                         .setPopulationSize(100)
                         .setMaxIterations(50));
 
@@ -187,6 +193,7 @@ public class ExperimentFindTheBest {
                         .setCrossoverOperator(new HUXCrossover(crossoverProbability))
                         .setMutationOperator(new BitFlipMutation(mutationProbability))
                         .setSelectionOperator(new BinaryTournamentSelection<BinarySolution>())
+                        .setSolutionListEvaluator(new ForkJoinSolutionListEvaluator<BinarySolution>())
                         .setPopulationSize(50)
                         .setMaxIterations(100));
 
@@ -199,6 +206,7 @@ public class ExperimentFindTheBest {
                         .setCrossoverOperator(new HUXCrossover(crossoverProbability))
                         .setMutationOperator(new BitFlipMutation(mutationProbability))
                         .setSelectionOperator(new BinaryTournamentSelection<BinarySolution>())
+                        .setSolutionListEvaluator(new ForkJoinSolutionListEvaluator<BinarySolution>())
                         .setPopulationSize(100)
                         .setMaxIterations(100));
                 algorithms.add(new ExperimentAlgorithmWithTime<BinarySolution, List<BinarySolution>>(nsga_iii_100_100, exp_problem.getTag()));
@@ -210,6 +218,7 @@ public class ExperimentFindTheBest {
                         .setCrossoverOperator(new HUXCrossover(crossoverProbability))
                         .setMutationOperator(new BitFlipMutation(mutationProbability))
                         .setSelectionOperator(new BinaryTournamentSelection<BinarySolution>())
+                        .setSolutionListEvaluator(new ForkJoinSolutionListEvaluator<BinarySolution>())
                         .setPopulationSize(25)
                         .setMaxIterations(100));
 
@@ -1,17 +1,25 @@
 package jpssena.experiments;
 
 import jpssena.algorithm.multiobjective.NSGADOBuilder;
+import jpssena.algorithm.util.evaluator.ForkJoinSolutionListEvaluator;
 import jpssena.experiment.component.GenerateStatistics;
+import jpssena.experiment.component.ScheduledExecuteAlgorithms;
 import jpssena.experiment.component.SelectBestChromosome;
 import jpssena.experiment.component.TestSelectedChromosome;
 import jpssena.experiment.util.ExperimentAlgorithmWithTime;
+import jpssena.operator.crossover.WordHUXCrossover;
+import jpssena.operator.mutation.GeometricBitFlipMutation;
+import jpssena.problem.CachedProblem;
 import jpssena.problem.LearnMultiObjectivesSelectInstances;
-import jpssena.util.DatFileParser;
+import jpssena.problem.knn.DistanceIndex;
+import jpssena.util.CheckpointWriter;
+import jpssena.util.FitnessCache;
+import jpssena.util.FoldCache;
+import jpssena.util.KeelDataLoader;
+import jpssena.util.ThreadsUtil;
 import org.uma.jmetal.algorithm.Algorithm;
 import org.uma.jmetal.algorithm.multiobjective.nsgaii.NSGAIIBuilder;
 import org.uma.jmetal.algorithm.multiobjective.nsgaiii.NSGAIIIBuilder;
-import org.uma.jmetal.operator.impl.crossover.HUXCrossover;
-import org.uma.jmetal.operator.impl.mutation.BitFlipMutation;
 import org.uma.jmetal.operator.impl.selection.BinaryTournamentSelection;
 import org.uma.jmetal.problem.Problem;
 import org.uma.jmetal.solution.BinarySolution;
@@ -21,13 +29,10 @@ import org.uma.jmetal.util.experiment.ExperimentBuilder;
 import org.uma.jmetal.util.experiment.component.*;
 import org.uma.jmetal.util.experiment.util.ExperimentAlgorithm;
 import org.uma.jmetal.util.experiment.util.ExperimentProblem;
-import jpssena.util.DatFixer;
 import jpssena.util.Debug;
 import weka.core.Instances;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.BitSet;
@@ -50,8 +55,23 @@ public class ExperimentLearnMultiObjective {
     private static final double mutationProbability = 0.2;
     private static final int maxEvaluations = 1000;
     private static final int populationSize = 100;
+    //Every fold precomputes its distances once, and the 3 algorithms and all the runs of the fold read them.
+    //Off heap, so the indexes of all the folds loaded at once don't weigh on the garbage collector
+    private static final DistanceIndex.Storage distanceStorage = DistanceIndex.Storage.OFF_HEAP;
+    //Keeps every parsed fold, with its distances, in a .fold file next to the .dat file. The next runs map it instead of
+    //parsing the fold and computing the distances again
+    private static final boolean useFoldCache = true;
+    //The runs and the evaluations of their populations share one pool with this many threads
+    private static final int numberOfCores = Runtime.getRuntime().availableProcessors();
+    //The algorithms and runs of a fold share one cache of objectives, big enough for every chromosome they evaluate
+    private static final int fitnessCacheSize = maxEvaluations * INDEPENDENT_RUNS * 3;
+    //Continues the sweep of an interrupted execution in the same directory instead of running it all again
+    private static final boolean resume = true;
 
     public static void main (String[] args) {
+        //Must be bounded before anything uses the pool
+        ThreadsUtil.setSharedPoolParallelism(numberOfCores);
+
         //Extract the List of Problems that are going to be solved;
         List<ExperimentProblem<BinarySolution>> problems = configureProblems();
 
@@ -68,7 +88,7 @@ public class ExperimentLearnMultiObjective {
                 .setOutputParetoFrontFileName("FUN")                            //Name of the Function values file
                 .setOutputParetoSetFileName("VAR")                              //Name of the Variable values file
                 .setIndependentRuns(INDEPENDENT_RUNS)                           //Number of times every problem should run independently
-                .setNumberOfCores(Runtime.getRuntime().availableProcessors())   //Number of Threads to Use
+                .setNumberOfCores(numberOfCores)                                //Number of Threads to Use
                 .build();
 
         System.out.println("The experiment will start in 10 seconds.");
@@ -82,12 +102,20 @@ public class ExperimentLearnMultiObjective {
             System.exit(0);
         }
         //Executes the Experiment
-        new ExecuteAlgorithms<>(experiment).run();
+        //Runs the jobs of every fold, algorithm and run longest first.
+        //The runs finished by an interrupted execution are skipped, and the ones in the middle resume from their checkpoints
+        ScheduledExecuteAlgorithms<BinarySolution, List<BinarySolution>> executeAlgorithms
+                = new ScheduledExecuteAlgorithms<>(experiment, resume);
+        executeAlgorithms.run();
+        CheckpointWriter.flush();
 
         //-----------------------------------------
         //This is a debugging area
 
         for (ExperimentAlgorithm<BinarySolution, List<BinarySolution>> algorithmExp : experiment.getAlgorithmList()) {
+            //Skipped, its results are in the files of the previous execution
+            if (!executeAlgorithms.wasExecuted(algorithmExp))
+                continue;
             Algorithm<List<BinarySolution>> algorithm = algorithmExp.getAlgorithm();
 
             System.out.println("\n\nAlgorithm................: " + algorithm.getName());
@@ -154,8 +182,8 @@ public class ExperimentLearnMultiObjective {
 
             Algorithm<List<BinarySolution>> nsga_do = new NSGADOBuilder<>(
                     problem,                                     //The problem this algorithm is going to solve in the jpssena.experiment
-                    new HUXCrossover(crossoverProbability),      //Using HUXCrossover with 0.9 probability
-                    new BitFlipMutation(mutationProbability))    //Using BitFlipMutation with 0.2 probability
+                    new WordHUXCrossover(crossoverProbability),  //HUX on 64-bit words with 0.9 probability
+                    new GeometricBitFlipMutation(mutationProbability))    //Bit flip with 0.2 probability, drawing only the flipped bits
                     .setMaxEvaluations(maxEvaluations)           //Using 1000 max evaluations
                     .setPopulationSize(populationSize)           //Using a population size of 100
                     .setSelectionOperator(new BinaryTournamentSelection<BinarySolution>())
@@ -168,20 +196,22 @@ public class ExperimentLearnMultiObjective {
 
             Algorithm<List<BinarySolution>> nsga_iii = new NSGAIIIBuilder<>(
                     problem)
-                    .setCrossoverOperator(new HUXCrossover(crossoverProbability))
-                    .setMutationOperator(new BitFlipMutation(mutationProbability))
+                    .setCrossoverOperator(new WordHUXCrossover(crossoverProbability))
+                    .setMutationOperator(new GeometricBitFlipMutation(mutationProbability))
                     .setPopulationSize(populationSize)
                     .setMaxIterations(maxEvaluations)
+                    .setSolutionListEvaluator(new ForkJoinSolutionListEvaluator<BinarySolution>())
                     .build();
 
             algorithms.add(new ExperimentAlgorithmWithTime<BinarySolution, List<BinarySolution>>(nsga_iii, exp_problem.getTag()));
 
             Algorithm<List<BinarySolution>> nsga_ii = new NSGAIIBuilder<>(
                     problem,                                    //The problem this algorithm is going to solve in the jpssena.experiment
-                    new HUXCrossover(crossoverProbability),     //Using HUXCrossover with 0.9 probability
-                    new BitFlipMutation(mutationProbability))   //Using BitFlipMutation with 0.2 probability
+                    new WordHUXCrossover(crossoverProbability), //HUX on 64-bit words with 0.9 probability
+                    new GeometricBitFlipMutation(mutationProbability))   //Bit flip with 0.2 probability, drawing only the flipped bits
                     .setMaxEvaluations(maxEvaluations)          //Using 1000 max evaluations
                     .setPopulationSize(populationSize)          //Using a population size of 100
+                    .setSolutionListEvaluator(new ForkJoinSolutionListEvaluator<BinarySolution>())
                     .build();
 
             algorithms.add(new ExperimentAlgorithmWithTime<BinarySolution, List<BinarySolution>>(nsga_ii, exp_problem.getTag()));
@@ -228,37 +258,29 @@ public class ExperimentLearnMultiObjective {
 
         //Folding are almost from 1 to 10 all the time...
         for (int i = foldStart; i <= foldFinish; i++) {
-            //References the Training and the Test file [Assumes it already fixed for Weka]
-            String baseName = directory.getAbsolutePath() + "\\" + directory.getName() + "-" + stratification + "-" + i;
-            File training   = new File(baseName + "tra.arff");
-            File testing    = new File(baseName + "tst.arff");
-
-            //If they don't exists it's probably because it's not fix yet.
-            if (!training.exists()) {
-                training = DatFixer.fixDatFormat(new File(baseName + "tra.dat"));
-                //training = new DatFileParser(new File(baseName + "tra.dat")).fixDatFormat();
-            }
-
-            if (!testing.exists()) {
-                testing = DatFixer.fixDatFormat(new File(baseName + "tst.dat"));
-                //testing = new DatFileParser(new File(baseName + "tst.dat")).fixDatFormat();
-            }
+            //References the Training file, without the extension. The test file is only read by TestSelectedChromosome
+            String baseName = directory.getAbsolutePath() + "/" + directory.getName() + "-" + stratification + "-" + i;
 
-            Instances trainingInstances = null;
-            Instances testingInstances = null;
             try {
-                //Creates the Weka Instances class
-                trainingInstances = new Instances(new BufferedReader(new FileReader(training)));
-                testingInstances  = new Instances(new BufferedReader(new FileReader(testing)));
-
-                //Sets the class index as the last attribute
-                if (trainingInstances.classIndex() == -1)
-                    trainingInstances.setClassIndex(trainingInstances.numAttributes() - 1);
+                LearnMultiObjectivesSelectInstances learnProblem;
+                if (useFoldCache) {
+                    //Maps the cached fold, parsing the .dat file (or the .arff file) only when the cache is out of date
+                    FoldCache fold = FoldCache.load(baseName + "tra", distanceStorage != null);
+                    learnProblem = fold.getDistanceIndex() != null
+                            ? new LearnMultiObjectivesSelectInstances(fold.getInstances(), "Learn Select Instances", fold.getDistanceIndex())
+                            : new LearnMultiObjectivesSelectInstances(fold.getInstances(), "Learn Select Instances", distanceStorage);
+                } else {
+                    //Reads the .dat file straight into the Weka Instances (or the .arff file, if there's no .dat)
+                    Instances trainingInstances = KeelDataLoader.load(baseName + "tra");
+                    learnProblem = new LearnMultiObjectivesSelectInstances(trainingInstances, "Learn Select Instances", distanceStorage);
+                }
 
                 //Add this new problem to the ExperimentProblem list
-                problems.add(new ExperimentProblem<>(new LearnMultiObjectivesSelectInstances(trainingInstances), directory.getName() + "-" + i));
+                //The problem only reads the first variable, so it alone identifies the chromosome in the cache
+                Problem<BinarySolution> problem = new CachedProblem<BinarySolution>(learnProblem, new FitnessCache(fitnessCacheSize), 1);
+                problems.add(new ExperimentProblem<>(problem, directory.getName() + "-" + i));
             } catch (IOException e) {
-                System.out.println("Failed to get instances for fold: " + ((trainingInstances == null) ? training.getAbsolutePath() : testing.getAbsolutePath()));
+                System.out.println("Failed to get instances for fold: " + baseName + "tra");
                 System.out.println("Raised exception: " + e.getClass());
                 System.out.println("Exception message: " + e.getMessage() + "\n");
             }
@@ -3,9 +3,12 @@ package jpssena.experiments;
 import jpssena.algorithm.multiobjective.NSGADOBuilder;
 import jpssena.algorithm.multiobjective.NSGAIII_II;
 import jpssena.algorithm.multiobjective.NSGAII_Alt;
+import jpssena.algorithm.util.evaluator.ForkJoinSolutionListEvaluator;
+import jpssena.experiment.component.ScheduledExecuteAlgorithms;
 import jpssena.experiment.util.ExperimentAlgorithmWithTime;
 import jpssena.problem.LearnMultiObjectivesSelectInstances;
-import jpssena.util.DatFixer;
+import jpssena.util.CheckpointWriter;
+import jpssena.util.KeelDataLoader;
 import org.uma.jmetal.algorithm.Algorithm;
 import org.uma.jmetal.algorithm.multiobjective.nsgaii.NSGAIIBuilder;
 import org.uma.jmetal.algorithm.multiobjective.nsgaiii.NSGAIIIBuilder;
@@ -15,17 +18,12 @@ import org.uma.jmetal.operator.impl.selection.BinaryTournamentSelection;
 import org.uma.jmetal.problem.Problem;
 import org.uma.jmetal.solution.BinarySolution;
 import org.uma.jmetal.util.comparator.RankingAndCrowdingDistanceComparator;
-import org.uma.jmetal.util.evaluator.impl.SequentialSolutionListEvaluator;
 import org.uma.jmetal.util.experiment.Experiment;
 import org.uma.jmetal.util.experiment.ExperimentBuilder;
-import org.uma.jmetal.util.experiment.component.ExecuteAlgorithms;
 import org.uma.jmetal.util.experiment.util.ExperimentAlgorithm;
 import org.uma.jmetal.util.experiment.util.ExperimentProblem;
 import weka.core.Instances;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.BitSet;
@@ -65,7 +63,9 @@ public class ExperimentParams {
             System.exit(0);
         }
 
-        new ExecuteAlgorithms<>(experiment).run();
+        //Runs the jobs of every fold, algorithm and run longest first
+        new ScheduledExecuteAlgorithms<>(experiment).run();
+        CheckpointWriter.flush();
 
         for (ExperimentAlgorithm<BinarySolution, List<BinarySolution>> algorithmExp : experiment.getAlgorithmList()) {
             Algorithm<List<BinarySolution>> algorithm = algorithmExp.getAlgorithm();
@@ -96,32 +96,14 @@ public class ExperimentParams {
         List<ExperimentProblem<BinarySolution>> problems = new ArrayList<>();
         for (int i = 1; i <= 5; i++) {
             String baseName = baseDirectory + "\\australian\\" + "australian" + "-" + stratification + "-" + i;
-            File training = new File(baseName + "tra.arff");
-            if (!training.exists()) {
-                training = DatFixer.fixDatFormat(new File(baseName + "tra.dat"));
-                //training = new DatFileParser(new File(baseName + "tra.dat")).fixDatFormat();
-            }
-
-            Instances trainingInstances = new Instances(new BufferedReader(new FileReader(training)));
-
-            if (trainingInstances.classIndex() == -1)
-                trainingInstances.setClassIndex(trainingInstances.numAttributes() - 1);
+            Instances trainingInstances = KeelDataLoader.load(baseName + "tra");
 
             problems.add(new ExperimentProblem<>(new LearnMultiObjectivesSelectInstances(trainingInstances, "australian"), "australian" + "-" + i));
         }
 
         for (int i = 1; i <= 5; i++) {
             String baseName = baseDirectory + "\\car\\" + "car" + "-" + stratification + "-" + i;
-            File training = new File(baseName + "tra.arff");
-            if (!training.exists()) {
-                training = DatFixer.fixDatFormat(new File(baseName + "tra.dat"));
-                //training = new DatFileParser(new File(baseName + "tra.dat")).fixDatFormat();
-            }
-
-            Instances trainingInstances = new Instances(new BufferedReader(new FileReader(training)));
-
-            if (trainingInstances.classIndex() == -1)
-                trainingInstances.setClassIndex(trainingInstances.numAttributes() - 1);
+            Instances trainingInstances = KeelDataLoader.load(baseName + "tra");
 
             problems.add(new ExperimentProblem<>(new LearnMultiObjectivesSelectInstances(trainingInstances, "car"), "car" + "-" + i));
         }
@@ -155,6 +137,7 @@ public class ExperimentParams {
                     .setMutationOperator(new BitFlipMutation(mutationProbability))
                     .setPopulationSize(100)
                     .setSelectionOperator(new BinaryTournamentSelection<BinarySolution>())
+                    .setSolutionListEvaluator(new ForkJoinSolutionListEvaluator<BinarySolution>())
                     .setMaxIterations(0));
 
             algorithms.add(new ExperimentAlgorithmWithTime<BinarySolution, List<BinarySolution>>(nsga_iii, exp_problem.getTag()));
@@ -166,7 +149,7 @@ public class ExperimentParams {
                     new HUXCrossover(crossoverProbability),     //Using HUXCrossover with 0.9 probability
                     new BitFlipMutation(mutationProbability),   //Using BitFlipMutation with 0.2 probability
                     new BinaryTournamentSelection<BinarySolution>(new RankingAndCrowdingDistanceComparator<BinarySolution>()),
-                    new SequentialSolutionListEvaluator<BinarySolution>());
+                    new ForkJoinSolutionListEvaluator<BinarySolution>());
 
             algorithms.add(new ExperimentAlgorithmWithTime<BinarySolution, List<BinarySolution>>(nsga_ii, exp_problem.getTag()));
 
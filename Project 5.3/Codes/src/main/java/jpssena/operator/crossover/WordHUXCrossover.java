@@ -0,0 +1,128 @@
+package jpssena.operator.crossover;
+
+import org.uma.jmetal.operator.impl.crossover.HUXCrossover;
+import org.uma.jmetal.solution.BinarySolution;
+import org.uma.jmetal.util.JMetalException;
+import org.uma.jmetal.util.binarySet.BinarySet;
+import org.uma.jmetal.util.pseudorandom.JMetalRandom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * HUX crossover computed one 64-bit word at a time.
+ *
+ * The bits that differ between the parents are found with a xor of their words, and the bits to swap are chosen among them
+ * with a mask: exactly half of them (rounded down), every subset of that size with the same probability, as in the original HUX.
+ * In uniform mode each differing bit is swapped with probability 0.5 instead, which is what {@link HUXCrossover} does bit by bit.
+ * The swap is a xor of each offspring with the mask of the chosen bits.
+ */
+public class WordHUXCrossover extends HUXCrossover {
+    private final boolean uniform;
+    private final JMetalRandom random = JMetalRandom.getInstance();
+
+    public WordHUXCrossover(double crossoverProbability) {
+        this(crossoverProbability, false);
+    }
+
+    /**
+     * @param crossoverProbability The probability of crossing the parents
+     * @param uniform Swaps each differing bit with probability 0.5, instead of exactly half of them
+     */
+    public WordHUXCrossover(double crossoverProbability, boolean uniform) {
+        super(crossoverProbability);
+        this.uniform = uniform;
+    }
+
+    @Override
+    public List<BinarySolution> doCrossover(double probability, BinarySolution parent1, BinarySolution parent2)
+            throws JMetalException {
+        List<BinarySolution> offspring = new ArrayList<>(2);
+        offspring.add((BinarySolution) parent1.copy());
+        offspring.add((BinarySolution) parent2.copy());
+
+        if (random.nextDouble() < probability) {
+            for (int i = 0; i < parent1.getNumberOfVariables(); i++) {
+                BinarySet first = parent1.getVariableValue(i);
+                BinarySet second = parent2.getVariableValue(i);
+                int numberOfWords = (first.getBinarySetLength() + 63) >>> 6;
+
+                long[] difference = Arrays.copyOf(first.toLongArray(), numberOfWords);
+                long[] other = Arrays.copyOf(second.toLongArray(), numberOfWords);
+                for (int w = 0; w < numberOfWords; w++)
+                    difference[w] ^= other[w];
+
+                //The chosen bits differ, so flipping them in both offspring swaps them
+                BitSet swap = BitSet.valueOf(uniform ? uniformMask(difference) : halfMask(difference));
+                offspring.get(0).getVariableValue(i).xor(swap);
+                offspring.get(1).getVariableValue(i).xor(swap);
+            }
+        }
+
+        return offspring;
+    }
+
+    //Chooses each bit of the mask with probability 0.5
+    private long[] uniformMask(long[] mask) {
+        long[] chosen = new long[mask.length];
+        for (int w = 0; w < mask.length; w++)
+            if (mask[w] != 0)
+                chosen[w] = mask[w] & randomWord();
+        return chosen;
+    }
+
+    //Chooses half of the bits of the mask, rounded down, every subset of that size with the same probability.
+    //It starts with the uniform choice, which has about half of the bits, and removes or adds random bits until it has exactly half
+    private long[] halfMask(long[] mask) {
+        int total = bitCount(mask);
+        int half = total / 2;
+
+        long[] chosen = uniformMask(mask);
+        int count = bitCount(chosen);
+
+        while (count > half) {
+            int bit = select(chosen, null, random.nextInt(0, count - 1));
+            chosen[bit >>> 6] &= ~(1L << bit);
+            count--;
+        }
+        while (count < half) {
+            //Among the bits of the mask not chosen yet
+            int bit = select(mask, chosen, random.nextInt(0, total - count - 1));
+            chosen[bit >>> 6] |= 1L << bit;
+            count++;
+        }
+
+        return chosen;
+    }
+
+    //Finds the n-th bit (from 0) set in words and not set in excluded, skipping whole words by their number of bits
+    private static int select(long[] words, long[] excluded, int n) {
+        for (int w = 0; w < words.length; w++) {
+            long word = excluded == null ? words[w] : words[w] & ~excluded[w];
+            int count = Long.bitCount(word);
+            if (n < count) {
+                for (; n > 0; n--)
+                    word &= word - 1;
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            n -= count;
+        }
+        throw new JMetalException("Not enough bits to select");
+    }
+
+    private static int bitCount(long[] words) {
+        int count = 0;
+        for (long word : words)
+            count += Long.bitCount(word);
+        return count;
+    }
+
+    //64 random bits, from two random numbers
+    private long randomWord() {
+        long high = (long) (random.nextDouble() * 4294967296.0);
+        long low = (long) (random.nextDouble() * 4294967296.0);
+        return (high << 32) | low;
+    }
+}
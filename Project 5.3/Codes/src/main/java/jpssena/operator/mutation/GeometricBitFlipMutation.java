@@ -0,0 +1,75 @@
+package jpssena.operator.mutation;
+
+import org.uma.jmetal.operator.impl.mutation.BitFlipMutation;
+import org.uma.jmetal.solution.BinarySolution;
+import org.uma.jmetal.util.binarySet.BinarySet;
+import org.uma.jmetal.util.pseudorandom.JMetalRandom;
+import org.uma.jmetal.util.pseudorandom.RandomGenerator;
+
+import java.util.BitSet;
+
+/**
+ * Bit flip mutation that draws the positions of the flipped bits instead of one random number per bit.
+ *
+ * The number of bits kept between two flips follows a geometric distribution with the mutation probability as parameter,
+ * so every bit still flips independently with that probability, as in {@link BitFlipMutation}, but only about
+ * probability * numberOfBits random numbers are drawn. The flips are gathered in 64-bit masks and applied with a single xor.
+ * It's a {@link BitFlipMutation}, so it can be used wherever one is expected.
+ */
+public class GeometricBitFlipMutation extends BitFlipMutation {
+    private final RandomGenerator<Double> randomGenerator;
+
+    public GeometricBitFlipMutation(double mutationProbability) {
+        this(mutationProbability, new RandomGenerator<Double>() {
+            @Override
+            public Double getRandomValue() {
+                return JMetalRandom.getInstance().nextDouble();
+            }
+        });
+    }
+
+    public GeometricBitFlipMutation(double mutationProbability, RandomGenerator<Double> randomGenerator) {
+        super(mutationProbability, randomGenerator);
+        this.randomGenerator = randomGenerator;
+    }
+
+    @Override
+    public void doMutation(double probability, BinarySolution solution) {
+        for (int i = 0; i < solution.getNumberOfVariables(); i++) {
+            BinarySet variable = solution.getVariableValue(i);
+            int numberOfBits = variable.getBinarySetLength();
+
+            int bit = nextFlip(-1, probability, numberOfBits);
+            if (bit == numberOfBits)
+                continue;
+
+            long[] mask = new long[(numberOfBits + 63) >>> 6];
+            while (bit < numberOfBits) {
+                mask[bit >>> 6] |= 1L << bit;
+                bit = nextFlip(bit, probability, numberOfBits);
+            }
+            variable.xor(BitSet.valueOf(mask));
+        }
+    }
+
+    /**
+     * Draws the next bit to flip.
+     * @param position The last bit flipped, -1 at the start
+     * @param probability The mutation probability
+     * @param length The number of bits
+     * @return The next bit to flip, or length when no other bit flips
+     */
+    private int nextFlip(int position, double probability, int length) {
+        if (probability <= 0)
+            return length;
+        if (probability >= 1)
+            return position + 1;
+
+        //P(gap >= k) = P(u <= (1 - p)^k) = (1 - p)^k, with u uniform in (0, 1]
+        double u = 1.0 - randomGenerator.getRandomValue();
+        double gap = Math.floor(Math.log(u) / Math.log1p(-probability));
+        if (gap >= length - position - 1)
+            return length;
+        return position + 1 + (int) gap;
+    }
+}
@@ -3,6 +3,7 @@ package jpssena.operator.selection;
 import jpssena.algorithm.util.Point;
 import jpssena.algorithm.util.PointUtil;
 import jpssena.algorithm.util.Point_Old;
+import jpssena.algorithm.util.RankingContext;
 import jpssena.algorithm.util.SolutionSpacing;
 import jpssena.algorithm.util.solutionattribute.IdealDistance;
 import org.uma.jmetal.operator.SelectionOperator;
@@ -10,7 +11,6 @@ import org.uma.jmetal.operator.impl.selection.RankingAndCrowdingSelection;
 import org.uma.jmetal.solution.Solution;
 import org.uma.jmetal.util.JMetalException;
 import org.uma.jmetal.util.solutionattribute.Ranking;
-import org.uma.jmetal.util.solutionattribute.impl.DominanceRanking;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -22,10 +22,20 @@ public class RankingAndDistanceOrientedSelection<S extends Solution<?>> implemen
     private int solutionsToSelect;
     private List<S> nonDominated;
     private List<S> solutions;
+    private RankingContext<S> context;
 
     //Default constructor
     public RankingAndDistanceOrientedSelection(int maxPopulationSize) {
+        this(maxPopulationSize, new RankingContext<S>());
+    }
+
+    /**
+     * @param maxPopulationSize the amount of solutions to select
+     * @param context the context that ranks the solutions, kept by the algorithm between generations
+     */
+    public RankingAndDistanceOrientedSelection(int maxPopulationSize, RankingContext<S> context) {
         solutionsToSelect = maxPopulationSize;
+        this.context = context;
     }
 
     /**
@@ -51,9 +61,9 @@ public class RankingAndDistanceOrientedSelection<S extends Solution<?>> implemen
 
 
         //At first we need to calculate the Dominance ranking of the solutions and determine the pareto fronts [0, 1, 2, ...]
-        Ranking<S> ranking = new DominanceRanking<>();
-        //We call computeRanking(solutions) to do so. And the framework will take care of this part for us
-        ranking.computeRanking(solutions);
+        //The context does it once for the generation, and the ideal points reuse the same ranking
+        context.update(solutions);
+        Ranking<S> ranking = context.getRanking();
 
         //Then we create a reference to the non-dominated solutions front
         //This front will be necessary because the ideal points are calculated based on it
@@ -113,10 +123,8 @@ public class RankingAndDistanceOrientedSelection<S extends Solution<?>> implemen
         //Reorder the list using how close each solution is from a ideal point
         //List<S> solutionsOrdered = SolutionSpacing.calculateDistanceToPointsOrdered(front, idealPoints);
 
-        //Creates the Ideal Distance Calculator
-        IdealDistance<S> idealDistance = new IdealDistance<>();
-        //Computes the distance from every solution to the ideal point
-        idealDistance.computeIdealDistance(solutions);
+        //Computes the distance from every solution to the ideal point, with the ranking of the context
+        IdealDistance<S> idealDistance = context.getIdealDistance();
         //Sort the desired front list based on distance to ideal point
         List<S> solutionsOrderedV2 = idealDistance.getOrderedPoints(front);
 
@@ -0,0 +1,121 @@
+package jpssena.problem;
+
+import jpssena.util.FitnessCache;
+import org.uma.jmetal.problem.Problem;
+import org.uma.jmetal.solution.Solution;
+import org.uma.jmetal.util.JMetalException;
+
+import java.util.BitSet;
+
+/**
+ * Decorates a problem keeping the objectives of the evaluated chromosomes in a {@link FitnessCache}.
+ * A chromosome evaluated again (an offspring equal to one of its parents, for instance) takes the objectives from the
+ * cache instead of being evaluated by the problem. The problem must be deterministic.
+ *
+ * The chromosome is identified by its first variables, which may be all of them or only the ones the problem reads
+ * (LearnMultiObjectivesSelectInstances only reads the first one). The supported values are BitSet and Number.
+ * Only the objectives are cached, so the attributes a problem leaves in the solution are not set on a hit.
+ */
+public class CachedProblem<S extends Solution<?>> implements Problem<S> {
+    private final Problem<S> problem;
+    private final FitnessCache cache;
+    private final int keyVariables;
+
+    /**
+     * @param problem The problem that evaluates the chromosomes not in the cache
+     * @param capacity Maximum number of chromosomes kept in the cache
+     */
+    public CachedProblem(Problem<S> problem, int capacity) {
+        this(problem, new FitnessCache(capacity), problem.getNumberOfVariables());
+    }
+
+    /**
+     * @param problem The problem that evaluates the chromosomes not in the cache
+     * @param cache The cache, it may be shared by problems that compute the same objectives
+     * @param keyVariables Number of variables, from the first one, that identify the chromosome
+     */
+    public CachedProblem(Problem<S> problem, FitnessCache cache, int keyVariables) {
+        if (keyVariables < 1 || keyVariables > problem.getNumberOfVariables())
+            throw new JMetalException("Invalid number of variables for the fitness cache: " + keyVariables);
+
+        this.problem = problem;
+        this.cache = cache;
+        this.keyVariables = keyVariables;
+    }
+
+    @Override
+    public void evaluate(S solution) {
+        long fingerprint = fingerprint(solution);
+        double[] objectives = cache.get(fingerprint);
+
+        if (objectives == null) {
+            problem.evaluate(solution);
+
+            objectives = new double[solution.getNumberOfObjectives()];
+            for (int i = 0; i < objectives.length; i++)
+                objectives[i] = solution.getObjective(i);
+            cache.put(fingerprint, objectives);
+        } else {
+            for (int i = 0; i < objectives.length; i++)
+                solution.setObjective(i, objectives[i]);
+        }
+    }
+
+    @Override
+    public S createSolution() {
+        return problem.createSolution();
+    }
+
+    @Override
+    public int getNumberOfVariables() {
+        return problem.getNumberOfVariables();
+    }
+
+    @Override
+    public int getNumberOfObjectives() {
+        return problem.getNumberOfObjectives();
+    }
+
+    @Override
+    public int getNumberOfConstraints() {
+        return problem.getNumberOfConstraints();
+    }
+
+    @Override
+    public String getName() {
+        return problem.getName();
+    }
+
+    public Problem<S> getProblem() {
+        return problem;
+    }
+
+    public FitnessCache getCache() {
+        return cache;
+    }
+
+    //Combines the values of the key variables into a fingerprint
+    private long fingerprint(S solution) {
+        long h = FitnessCache.SEED;
+
+        for (int i = 0; i < keyVariables; i++) {
+            Object value = solution.getVariableValue(i);
+
+            if (value instanceof BitSet) {
+                //The words after the last set bit are zero, so the length is mixed in as well
+                long[] words = ((BitSet) value).toLongArray();
+                for (long word : words)
+                    h = FitnessCache.combine(h, word);
+                h = FitnessCache.combine(h, words.length);
+            } else if (value instanceof Double || value instanceof Float) {
+                h = FitnessCache.combine(h, Double.doubleToLongBits(((Number) value).doubleValue()));
+            } else if (value instanceof Number) {
+                h = FitnessCache.combine(h, ((Number) value).longValue());
+            } else {
+                throw new JMetalException("The fitness cache doesn't support variables of type " +
+                        (value == null ? "null" : value.getClass().getName()));
+            }
+        }
+        return h;
+    }
+}
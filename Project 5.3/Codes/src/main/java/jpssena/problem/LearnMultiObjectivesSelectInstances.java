@@ -1,11 +1,12 @@
 package jpssena.problem;
 
+import jpssena.problem.knn.DistanceIndex;
+import jpssena.problem.knn.IncrementalNearestNeighbour;
+import jpssena.problem.knn.NeighbourhoodAttribute;
+import jpssena.problem.knn.NeighbourhoodState;
 import org.uma.jmetal.problem.impl.AbstractBinaryProblem;
 import org.uma.jmetal.solution.BinarySolution;
 import org.uma.jmetal.solution.impl.DefaultBinarySolution;
-import weka.classifiers.Evaluation;
-import weka.classifiers.functions.MultilayerPerceptron;
-import weka.classifiers.lazy.IBk;
 import weka.core.Instances;
 
 import java.util.BitSet;
@@ -16,52 +17,23 @@ import java.util.BitSet;
 public class LearnMultiObjectivesSelectInstances extends AbstractBinaryProblem {
     private Instances samples;
     private int bits;
+    private IncrementalNearestNeighbour nearestNeighbour;
+    private NeighbourhoodAttribute neighbourhood = new NeighbourhoodAttribute();
 
     @Override
     public void evaluate(BinarySolution solution) {
         BitSet bitSet = solution.getVariableValue(0);
-        int selected = 0;
-
-        Instances instances = new Instances(samples);
-        //for each bit (every training sample)
-        for (int i = bitSet.length() - 1; i >= 0; i--) {
-            if (bitSet.get(i)) {
-                selected++;
-            } else {
-                instances.remove(i);
-            }
-        }
-        //Selected rate calculation
-        double value = (samples.numInstances() - selected) / (double)samples.numInstances();
-
-        IBk knn = new IBk();
-
-        double accuracy  = 0;
 
-        try {
-            Evaluation evaluation = new Evaluation(instances);
-            knn.buildClassifier(instances);
-            //Classify the full into the few
-            evaluation.evaluateModel(knn, samples);
-            //The number of correct answers
-            accuracy = evaluation.correct();
+        //The state left by the last evaluation of this chromosome (or of its parent, since copies keep the attributes)
+        //lets the engine update only the samples affected by the flipped bits
+        NeighbourhoodState state = nearestNeighbour.evaluate(bitSet, neighbourhood.getAttribute(solution));
+        neighbourhood.setAttribute(solution, state);
 
-            /*
-            MultilayerPerceptron neuralNetwork = new MultilayerPerceptron();
-            neuralNetwork.buildClassifier(instances);
-            Evaluation neuralEvaluation = new Evaluation(instances);
-            neuralEvaluation.evaluateModel(neuralNetwork, samples);
-            double neuralAccuracy = neuralEvaluation.correct();
-
-            neuralAccuracy = neuralAccuracy/samples.numInstances();
-            */
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.exit(-1);
-        }
-
-        accuracy = accuracy / samples.numInstances();
+        //Selected rate calculation
+        double value = (samples.numInstances() - state.getNumberOfSelected()) / (double)samples.numInstances();
 
+        //Classify the full into the few
+        double accuracy = state.getCorrect() / (double)samples.numInstances();
 
         //Multiply count -1 to minimize
         solution.setObjective(0, accuracy * -1);
@@ -72,6 +44,7 @@ public class LearnMultiObjectivesSelectInstances extends AbstractBinaryProblem {
     public LearnMultiObjectivesSelectInstances(Instances samples) {
         this.samples = samples;
         this.bits = samples.numInstances();
+        this.nearestNeighbour = new IncrementalNearestNeighbour(samples);
 
         setName("Learn Select Instances");
         setNumberOfObjectives(2);
@@ -81,6 +54,40 @@ public class LearnMultiObjectivesSelectInstances extends AbstractBinaryProblem {
     public LearnMultiObjectivesSelectInstances(Instances samples, String modName) {
         this.samples = samples;
         this.bits = samples.numInstances();
+        this.nearestNeighbour = new IncrementalNearestNeighbour(samples);
+
+        setName(modName);
+        setNumberOfObjectives(2);
+        setNumberOfVariables(samples.numAttributes());
+    }
+
+    /**
+     * Creates the problem with the distances between the samples precomputed once.
+     * Every algorithm that solves this problem instance shares these distances.
+     * @param samples The training samples
+     * @param modName The problem name
+     * @param storage Where to keep the distances
+     */
+    public LearnMultiObjectivesSelectInstances(Instances samples, String modName, DistanceIndex.Storage storage) {
+        this.samples = samples;
+        this.bits = samples.numInstances();
+        this.nearestNeighbour = new IncrementalNearestNeighbour(samples, storage, false);
+
+        setName(modName);
+        setNumberOfObjectives(2);
+        setNumberOfVariables(samples.numAttributes());
+    }
+
+    /**
+     * Creates the problem with distances between the samples computed before, such as the ones kept by a fold cache.
+     * @param samples The training samples
+     * @param modName The problem name
+     * @param distanceIndex The distances between the samples
+     */
+    public LearnMultiObjectivesSelectInstances(Instances samples, String modName, DistanceIndex distanceIndex) {
+        this.samples = samples;
+        this.bits = samples.numInstances();
+        this.nearestNeighbour = new IncrementalNearestNeighbour(samples, distanceIndex);
 
         setName(modName);
         setNumberOfObjectives(2);
@@ -0,0 +1,134 @@
+package jpssena.problem.knn;
+
+import org.uma.jmetal.util.JMetalException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Immutable table with the squared distance between every pair of training samples of a fold.
+ *
+ * Only the upper triangle is stored, packed row after row, so a fold of n samples takes n(n-1)/2 values. The values are
+ * split in segments of 2^27 values, so a buffer never passes the 2GB a single buffer can address, and large folds (more
+ * than about 23 thousand samples off the heap) are indexed as well.
+ * The buffers can live in the heap or outside of it (direct buffers), and can keep the values in single precision to
+ * halve the memory. Once built it is only read, so every algorithm and every run of the fold can share it.
+ * It can also wrap a triangle computed before, such as the one mapped from a {@link jpssena.util.FoldCache}.
+ */
+public class DistanceIndex {
+    public enum Storage {
+        HEAP, OFF_HEAP
+    }
+
+    //Values of each segment: 2^27 doubles take 1GB
+    private static final int SEGMENT_BITS = 27;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final int numberOfSamples;
+    //Only one of them is used, depending on the precision
+    private final DoubleBuffer[] doubles;
+    private final FloatBuffer[] floats;
+
+    private DistanceIndex(int numberOfSamples, DoubleBuffer[] doubles) {
+        this.numberOfSamples = numberOfSamples;
+        this.doubles = doubles;
+        this.floats = null;
+    }
+
+    /**
+     * Wraps a triangle of squared distances computed before, without copying it.
+     * @param numberOfSamples The number of samples
+     * @param triangle The n(n-1)/2 squared distances, packed row after row from the position 0. It must not change
+     * @return The index
+     */
+    public static DistanceIndex wrap(int numberOfSamples, DoubleBuffer triangle) {
+        long size = (long) numberOfSamples * (numberOfSamples - 1) / 2;
+        if (triangle.capacity() < size)
+            throw new JMetalException("The triangle has " + triangle.capacity() + " distances, expected " + size);
+
+        //Views of the same buffer, one for each segment
+        DoubleBuffer[] segments = new DoubleBuffer[numberOfSegments(size)];
+        for (int s = 0; s < segments.length; s++) {
+            DoubleBuffer segment = triangle.duplicate();
+            segment.limit((int) Math.min((long) (s + 1) * SEGMENT_SIZE, size));
+            segment.position(s * SEGMENT_SIZE);
+            segments[s] = segment.slice();
+        }
+        return new DistanceIndex(numberOfSamples, segments);
+    }
+
+    DistanceIndex(IncrementalNearestNeighbour distance, Storage storage, boolean singlePrecision) {
+        numberOfSamples = distance.getNumberOfSamples();
+
+        long size = (long) numberOfSamples * (numberOfSamples - 1) / 2;
+        int segments = numberOfSegments(size);
+        int bytes = singlePrecision ? 4 : 8;
+
+        if (singlePrecision) {
+            floats = new FloatBuffer[segments];
+            doubles = null;
+        } else {
+            doubles = new DoubleBuffer[segments];
+            floats = null;
+        }
+        for (int s = 0; s < segments; s++) {
+            int values = (int) Math.min(SEGMENT_SIZE, size - (long) s * SEGMENT_SIZE);
+            if (singlePrecision) {
+                floats[s] = storage == Storage.HEAP
+                        ? FloatBuffer.allocate(values)
+                        : ByteBuffer.allocateDirect(values * bytes).order(ByteOrder.nativeOrder()).asFloatBuffer();
+            } else {
+                doubles[s] = storage == Storage.HEAP
+                        ? DoubleBuffer.allocate(values)
+                        : ByteBuffer.allocateDirect(values * bytes).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+            }
+        }
+
+        //Fills the triangle in the same order it's packed
+        long position = 0;
+        for (int i = 0; i < numberOfSamples; i++) {
+            for (int j = i + 1; j < numberOfSamples; j++, position++) {
+                double value = distance.computeSquaredDistance(i, j);
+                int segment = (int) (position >>> SEGMENT_BITS);
+                int offset = (int) (position & SEGMENT_MASK);
+                if (singlePrecision)
+                    floats[segment].put(offset, (float) value);
+                else
+                    doubles[segment].put(offset, value);
+            }
+        }
+    }
+
+    /**
+     * Returns the squared distance between 2 samples
+     * @param i The first sample
+     * @param j The second sample
+     * @return The squared distance, 0 when both are the same sample
+     */
+    public double get(int i, int j) {
+        if (i == j)
+            return 0;
+        if (i > j) {
+            int aux = i;
+            i = j;
+            j = aux;
+        }
+
+        //Row i starts after the rows 0..i-1, which have (n-1) + (n-2) + ... + (n-i) values
+        long position = (long) i * (2 * numberOfSamples - i - 1) / 2 + (j - i - 1);
+        int segment = (int) (position >>> SEGMENT_BITS);
+        int offset = (int) (position & SEGMENT_MASK);
+        return doubles != null ? doubles[segment].get(offset) : floats[segment].get(offset);
+    }
+
+    public int getNumberOfSamples() {
+        return numberOfSamples;
+    }
+
+    private static int numberOfSegments(long size) {
+        return (int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_BITS);
+    }
+}
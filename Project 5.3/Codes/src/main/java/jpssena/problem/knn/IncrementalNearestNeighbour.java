@@ -0,0 +1,315 @@
+package jpssena.problem.knn;
+
+import org.uma.jmetal.util.JMetalException;
+import weka.core.Attribute;
+import weka.core.Instance;
+import weka.core.Instances;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * 1-NN evaluation engine for the instance selection problem.
+ *
+ * It classifies every training sample by its nearest selected samples, the same as building an {@link weka.classifiers.lazy.IBk}
+ * with the selected samples and evaluating it with the full training set, but without copying the dataset for every chromosome.
+ * When the chromosome comes with the state of its parent, only the samples affected by the flipped bits are updated.
+ *
+ * The distance is the Weka Euclidean distance: numeric attributes are normalized to [0, 1] and nominal attributes count 1 when
+ * different. The normalization ranges are taken from the whole fold, which is what the Weka distance converges to after it has
+ * seen every evaluated sample.
+ *
+ * The distances can be precomputed once into a {@link DistanceIndex}. Every algorithm that solves the same problem instance
+ * shares the engine, and so the index.
+ */
+public class IncrementalNearestNeighbour {
+    //When more than this fraction of the bits changed, a full evaluation is cheaper than the delta
+    private static final double MAX_DELTA_FRACTION = 0.25;
+
+    private final int numberOfSamples;
+    private final int numberOfAttributes;
+    //Attribute values of every sample. Numeric values are normalized, nominal values are the index of the label and missing values are NaN
+    private final double[][] values;
+    private final boolean[] nominal;
+    private final int numberOfClasses;
+    //Class index of every sample. -1 when the class is missing
+    private final int[] classes;
+    //Precomputed distances, null when they are computed on demand
+    private final DistanceIndex distanceIndex;
+
+    public IncrementalNearestNeighbour(Instances samples) {
+        this(samples, null, false);
+    }
+
+    /**
+     * Creates the engine and precomputes the distance between every pair of samples.
+     * @param samples The training samples of the fold
+     * @param storage Where to keep the distances. null to compute them on demand
+     * @param singlePrecision Keeps the distances as floats. Distances that differ only beyond float precision become ties
+     */
+    public IncrementalNearestNeighbour(Instances samples, DistanceIndex.Storage storage, boolean singlePrecision) {
+        this(samples, storage, singlePrecision, null);
+    }
+
+    /**
+     * Creates the engine with distances precomputed before, such as the ones kept by a {@link jpssena.util.FoldCache}.
+     * @param samples The training samples of the fold
+     * @param distanceIndex The distances between these samples
+     */
+    public IncrementalNearestNeighbour(Instances samples, DistanceIndex distanceIndex) {
+        this(samples, null, false, distanceIndex);
+        if (distanceIndex.getNumberOfSamples() != numberOfSamples)
+            throw new JMetalException("The index has " + distanceIndex.getNumberOfSamples() + " samples, expected " + numberOfSamples);
+    }
+
+    private IncrementalNearestNeighbour(Instances samples, DistanceIndex.Storage storage, boolean singlePrecision,
+                                        DistanceIndex precomputed) {
+        numberOfSamples = samples.numInstances();
+        numberOfClasses = samples.numClasses();
+
+        //The class attribute is not a part of the distance
+        int classIndex = samples.classIndex();
+        int[] attributes = new int[samples.numAttributes() - 1];
+        int count = 0;
+        for (int a = 0; a < samples.numAttributes(); a++) {
+            if (a != classIndex)
+                attributes[count++] = a;
+        }
+        numberOfAttributes = count;
+
+        nominal = new boolean[numberOfAttributes];
+        double[] min = new double[numberOfAttributes];
+        double[] max = new double[numberOfAttributes];
+        for (int k = 0; k < numberOfAttributes; k++) {
+            Attribute attribute = samples.attribute(attributes[k]);
+            nominal[k] = attribute.isNominal();
+            min[k] = Double.POSITIVE_INFINITY;
+            max[k] = Double.NEGATIVE_INFINITY;
+        }
+
+        //Finds the range of every numeric attribute
+        for (int s = 0; s < numberOfSamples; s++) {
+            Instance instance = samples.instance(s);
+            for (int k = 0; k < numberOfAttributes; k++) {
+                if (!nominal[k] && !instance.isMissing(attributes[k])) {
+                    double value = instance.value(attributes[k]);
+                    if (value < min[k]) min[k] = value;
+                    if (value > max[k]) max[k] = value;
+                }
+            }
+        }
+
+        values = new double[numberOfSamples][numberOfAttributes];
+        classes = new int[numberOfSamples];
+        for (int s = 0; s < numberOfSamples; s++) {
+            Instance instance = samples.instance(s);
+            for (int k = 0; k < numberOfAttributes; k++) {
+                if (instance.isMissing(attributes[k])) {
+                    values[s][k] = Double.NaN;
+                } else if (nominal[k]) {
+                    values[s][k] = instance.value(attributes[k]);
+                } else {
+                    //Same normalization used by Weka. Constant attributes do not contribute to the distance
+                    double range = max[k] - min[k];
+                    values[s][k] = range == 0 ? 0 : (instance.value(attributes[k]) - min[k]) / range;
+                }
+            }
+            classes[s] = instance.classIsMissing() ? -1 : (int) instance.classValue();
+        }
+
+        if (precomputed != null)
+            distanceIndex = precomputed;
+        else
+            distanceIndex = storage == null ? null : new DistanceIndex(this, storage, singlePrecision);
+    }
+
+    /**
+     * Evaluates a chromosome.
+     * @param selected The selected samples
+     * @param parent The state of the chromosome this one derives from, it may be null
+     * @return The state of the chromosome
+     */
+    public NeighbourhoodState evaluate(BitSet selected, NeighbourhoodState parent) {
+        //Copies the chromosome because the solution will keep changing after it's evaluated
+        BitSet snapshot = (BitSet) selected.clone();
+
+        if (parent != null && parent.getOwner() == this) {
+            BitSet flipped = (BitSet) parent.getSelected().clone();
+            flipped.xor(snapshot);
+
+            int changes = flipped.cardinality();
+            if (changes == 0)
+                return parent;
+            if (changes <= numberOfSamples * MAX_DELTA_FRACTION)
+                return deltaEvaluation(snapshot, flipped, parent);
+        }
+
+        return fullEvaluation(snapshot);
+    }
+
+    /**
+     * @return The number of training samples
+     */
+    public int getNumberOfSamples() {
+        return numberOfSamples;
+    }
+
+    private NeighbourhoodState fullEvaluation(BitSet selected) {
+        int[] selectedSamples = toArray(selected);
+        double[] distance = new double[numberOfSamples];
+        int[] votes = new int[numberOfSamples * numberOfClasses];
+
+        for (int s = 0; s < numberOfSamples; s++) {
+            findNearest(s, selectedSamples, distance, votes);
+        }
+
+        return new NeighbourhoodState(this, selected, distance, votes, countCorrect(votes));
+    }
+
+    private NeighbourhoodState deltaEvaluation(BitSet selected, BitSet flipped, NeighbourhoodState parent) {
+        double[] distance = parent.getDistance().clone();
+        int[] votes = parent.getVotes().clone();
+
+        //Splits the flipped bits into the samples that were added and the ones that were removed
+        BitSet added = (BitSet) flipped.clone();
+        added.and(selected);
+        BitSet removed = flipped;
+        removed.andNot(selected);
+
+        int[] addedSamples = toArray(added);
+        int[] removedSamples = toArray(removed);
+        int[] selectedSamples = null;
+
+        for (int s = 0; s < numberOfSamples; s++) {
+            int base = s * numberOfClasses;
+
+            //Takes back the votes of the removed samples that were among the nearest ones
+            boolean lostAllNeighbours = false;
+            for (int candidate : removedSamples) {
+                if (classes[candidate] != -1 && squaredDistance(s, candidate) == distance[s]) {
+                    votes[base + classes[candidate]]--;
+                    lostAllNeighbours = sumVotes(votes, base) == 0;
+                }
+            }
+
+            if (lostAllNeighbours) {
+                //Every nearest sample is gone, so this one needs a full search
+                if (selectedSamples == null)
+                    selectedSamples = toArray(selected);
+
+                findNearest(s, selectedSamples, distance, votes);
+            } else {
+                //Otherwise only the new samples can be as close as the current neighbours
+                for (int candidate : addedSamples) {
+                    vote(s, candidate, squaredDistance(s, candidate), distance, votes);
+                }
+            }
+        }
+
+        return new NeighbourhoodState(this, selected, distance, votes, countCorrect(votes));
+    }
+
+    private void findNearest(int sample, int[] selectedSamples, double[] distance, int[] votes) {
+        distance[sample] = Double.POSITIVE_INFINITY;
+        Arrays.fill(votes, sample * numberOfClasses, (sample + 1) * numberOfClasses, 0);
+
+        for (int candidate : selectedSamples) {
+            vote(sample, candidate, squaredDistance(sample, candidate), distance, votes);
+        }
+    }
+
+    //Counts the candidate as a neighbour of the sample when it is at least as close as the current ones
+    private void vote(int sample, int candidate, double d, double[] distance, int[] votes) {
+        //Samples without class can't vote, as in Weka
+        if (classes[candidate] == -1 || d > distance[sample])
+            return;
+
+        int base = sample * numberOfClasses;
+        if (d < distance[sample]) {
+            distance[sample] = d;
+            Arrays.fill(votes, base, base + numberOfClasses, 0);
+        }
+        votes[base + classes[candidate]]++;
+    }
+
+    private int countCorrect(int[] votes) {
+        int correct = 0;
+        for (int s = 0; s < numberOfSamples; s++) {
+            if (classes[s] == -1)
+                continue;
+
+            //The most voted class wins and ties go to the first class, as Weka's Utils.maxIndex does.
+            //With nothing selected the Weka classifier falls back to its ZeroR model, which also answers the first class
+            int base = s * numberOfClasses;
+            int predicted = 0;
+            for (int c = 1; c < numberOfClasses; c++) {
+                if (votes[base + c] > votes[base + predicted])
+                    predicted = c;
+            }
+
+            if (predicted == classes[s])
+                correct++;
+        }
+        return correct;
+    }
+
+    private int sumVotes(int[] votes, int base) {
+        int sum = 0;
+        for (int c = 0; c < numberOfClasses; c++) {
+            sum += votes[base + c];
+        }
+        return sum;
+    }
+
+    private double squaredDistance(int a, int b) {
+        return distanceIndex != null ? distanceIndex.get(a, b) : computeSquaredDistance(a, b);
+    }
+
+    /**
+     * Computes the squared distance between 2 samples, without the index.
+     * @param a The first sample
+     * @param b The second sample
+     * @return The squared distance
+     */
+    public double computeSquaredDistance(int a, int b) {
+        double[] first = values[a];
+        double[] second = values[b];
+        double sum = 0;
+
+        for (int k = 0; k < numberOfAttributes; k++) {
+            double diff = difference(k, first[k], second[k]);
+            sum += diff * diff;
+        }
+
+        return sum;
+    }
+
+    //Difference between two values of an attribute, handling missing values as Weka does
+    private double difference(int attribute, double first, double second) {
+        boolean firstMissing = Double.isNaN(first);
+        boolean secondMissing = Double.isNaN(second);
+
+        if (nominal[attribute]) {
+            return (firstMissing || secondMissing || first != second) ? 1 : 0;
+        }
+
+        if (firstMissing || secondMissing) {
+            if (firstMissing && secondMissing)
+                return 1;
+
+            double diff = firstMissing ? second : first;
+            return diff < 0.5 ? 1 - diff : diff;
+        }
+
+        return first - second;
+    }
+
+    private static int[] toArray(BitSet bitSet) {
+        int[] array = new int[bitSet.cardinality()];
+        int i = 0;
+        for (int bit = bitSet.nextSetBit(0); bit >= 0; bit = bitSet.nextSetBit(bit + 1)) {
+            array[i++] = bit;
+        }
+        return array;
+    }
+}
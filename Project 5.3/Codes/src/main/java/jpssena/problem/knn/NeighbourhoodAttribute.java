@@ -0,0 +1,12 @@
+package jpssena.problem.knn;
+
+import org.uma.jmetal.solution.BinarySolution;
+import org.uma.jmetal.util.solutionattribute.impl.GenericSolutionAttribute;
+
+/**
+ * Attaches the last {@link NeighbourhoodState} computed for a chromosome to the solution.
+ * Because the attributes are copied together with the solution, the state follows the lineage of the chromosome
+ * through crossover and mutation.
+ */
+public class NeighbourhoodAttribute extends GenericSolutionAttribute<BinarySolution, NeighbourhoodState> {
+}
@@ -0,0 +1,63 @@
+package jpssena.problem.knn;
+
+import java.util.BitSet;
+
+/**
+ * Snapshot of a 1-NN evaluation of one chromosome.
+ * For every training sample it keeps the (squared) distance to its nearest selected samples and how many of them belong to
+ * each class. There is more than one nearest sample when several are tied, and Weka's IBk votes among all of them.
+ *
+ * A state is never modified after it is created, so offspring that inherit it from their parents
+ * (jMetal copies the attributes of a solution when it is copied) can share it safely, even between threads.
+ */
+public class NeighbourhoodState {
+    //The engine that created this state. A state is only reusable by the same engine (same fold)
+    private final IncrementalNearestNeighbour owner;
+    //The chromosome that was evaluated
+    private final BitSet selected;
+    //distance[s] is the squared distance from s to its nearest selected samples, infinity when nothing is selected
+    private final double[] distance;
+    //votes[s * numberOfClasses + c] is how many of the nearest selected samples of s belong to the class c
+    private final int[] votes;
+    private final int correct;
+    private final int numberOfSelected;
+
+    NeighbourhoodState(IncrementalNearestNeighbour owner, BitSet selected, double[] distance, int[] votes, int correct) {
+        this.owner = owner;
+        this.selected = selected;
+        this.distance = distance;
+        this.votes = votes;
+        this.correct = correct;
+        this.numberOfSelected = selected.cardinality();
+    }
+
+    IncrementalNearestNeighbour getOwner() {
+        return owner;
+    }
+
+    BitSet getSelected() {
+        return selected;
+    }
+
+    double[] getDistance() {
+        return distance;
+    }
+
+    int[] getVotes() {
+        return votes;
+    }
+
+    /**
+     * @return The number of training samples correctly classified by their nearest selected sample
+     */
+    public int getCorrect() {
+        return correct;
+    }
+
+    /**
+     * @return The number of selected samples in the chromosome
+     */
+    public int getNumberOfSelected() {
+        return numberOfSelected;
+    }
+}
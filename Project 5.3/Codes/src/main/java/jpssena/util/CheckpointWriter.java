@@ -0,0 +1,107 @@
+package jpssena.util;
+
+import org.uma.jmetal.util.JMetalLogger;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Writes the checkpoints of the runs in a background thread, so saving a checkpoint never blocks the generation loop.
+ *
+ * Only the latest checkpoint of each file is kept: when a run saves a new one before the previous was written, the
+ * previous is dropped. Every checkpoint is written to a temporary file and moved over the old one, so an interrupted
+ * execution leaves either the old checkpoint or the new one, never a partial file.
+ */
+public class CheckpointWriter {
+    //The checkpoints waiting to be written, by file
+    private static final Map<File, byte[]> pending = new ConcurrentHashMap<>();
+    //A single thread, so the writes and the deletions of a file happen in the order they were asked
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "checkpoint-writer");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    /**
+     * Schedules the write of a checkpoint, replacing the one of the same file not written yet
+     * @param file The checkpoint file
+     * @param data The content of the checkpoint
+     */
+    public static void write(final File file, byte[] data) {
+        if (pending.put(file, data) == null) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    byte[] latest = pending.remove(file);
+                    if (latest != null)
+                        writeNow(file, latest);
+                }
+            });
+        }
+    }
+
+    /**
+     * Schedules the deletion of a checkpoint, after the writes already running. The checkpoint not written yet is dropped
+     * @param file The checkpoint file
+     */
+    public static void delete(final File file) {
+        pending.remove(file);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Files.deleteIfExists(file.toPath());
+                } catch (IOException e) {
+                    JMetalLogger.logger.warning("Failed to delete the checkpoint " + file + ": " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Waits for the writes and deletions scheduled so far. The thread is a daemon, so the experiment must call it before
+     * it ends
+     */
+    public static void flush() {
+        try {
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        }
+    }
+
+    //A checkpoint that fails to be written is only reported, the run goes on without it
+    private static void writeNow(File file, byte[] data) {
+        File temporary = null;
+        try {
+            temporary = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+            try (FileOutputStream output = new FileOutputStream(temporary)) {
+                output.write(data);
+            }
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            JMetalLogger.logger.warning("Failed to write the checkpoint " + file + ": " + e.getMessage());
+        } finally {
+            if (temporary != null)
+                temporary.delete();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package jpssena.util;
+
+import org.uma.jmetal.util.JMetalException;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Objective values of the last evaluated chromosomes, keyed by a 64-bit fingerprint of the chromosome
+ * (see {@link #combine(long, long)}).
+ *
+ * The cache is bounded: when it is full, the least recently used chromosome is removed. The entries are split in
+ * {@link #SEGMENTS} segments by the fingerprint, each one with its own lock, so the parallel evaluators can use it.
+ * Two chromosomes with the same fingerprint would share the values, which is negligible with 64 bits for the number of
+ * chromosomes a run evaluates.
+ */
+public class FitnessCache implements Serializable {
+    //Number of segments, a power of two
+    public static final int SEGMENTS = 16;
+    //Initial value of a fingerprint
+    public static final long SEED = 0x2545F4914F6CDD1DL;
+
+    private final Segment[] segments;
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param capacity Maximum number of chromosomes kept in the cache
+     */
+    public FitnessCache(int capacity) {
+        if (capacity < 1)
+            throw new JMetalException("Invalid capacity for the fitness cache: " + capacity);
+
+        this.capacity = capacity;
+        this.segments = new Segment[SEGMENTS];
+
+        int segmentCapacity = Math.max(1, (capacity + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++)
+            segments[i] = new Segment(segmentCapacity);
+    }
+
+    /**
+     * Looks a chromosome up, marking it as recently used.
+     * @param fingerprint The fingerprint of the chromosome
+     * @return The values, or null if the chromosome isn't in the cache. The array must not be modified
+     */
+    public double[] get(long fingerprint) {
+        Segment segment = segmentOf(fingerprint);
+        double[] values;
+        synchronized (segment) {
+            values = segment.get(fingerprint);
+        }
+
+        if (values == null)
+            misses.increment();
+        else
+            hits.increment();
+        return values;
+    }
+
+    /**
+     * Stores the values of a chromosome, removing the least recently used one of its segment if it's full.
+     * @param fingerprint The fingerprint of the chromosome
+     * @param values The values. The cache keeps the array, so it must not be modified after this call
+     */
+    public void put(long fingerprint, double[] values) {
+        Segment segment = segmentOf(fingerprint);
+        synchronized (segment) {
+            segment.put(fingerprint, values);
+        }
+    }
+
+    /**
+     * Removes every chromosome. The counters are kept.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    //Number of lookups that found the chromosome
+    public long getHits() {
+        return hits.sum();
+    }
+
+    //Number of lookups that didn't find the chromosome
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRate() {
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    /**
+     * Adds a value to a fingerprint. A fingerprint starts as {@link #SEED} and receives, in order, every value that
+     * identifies the chromosome (the words of a BitSet, the bits of a double...).
+     * @param fingerprint The fingerprint so far
+     * @param value The next value
+     * @return The new fingerprint
+     */
+    public static long combine(long fingerprint, long value) {
+        long h = fingerprint * 0x9E3779B97F4A7C15L + value;
+        //MurmurHash3 finalizer, so every bit of the value changes half of the bits of the result
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private Segment segmentOf(long fingerprint) {
+        //The low bits are used by the hash table of the segment, the high ones choose it
+        return segments[(int) (fingerprint >>> 60) & (SEGMENTS - 1)];
+    }
+
+    //A LinkedHashMap in access order that removes the eldest entry when it's full
+    private static class Segment extends LinkedHashMap<Long, double[]> {
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, double[]> eldest) {
+            return size() > capacity;
+        }
+    }
+}
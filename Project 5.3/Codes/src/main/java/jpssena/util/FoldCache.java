@@ -0,0 +1,313 @@
+package jpssena.util;
+
+import jpssena.problem.knn.DistanceIndex;
+import jpssena.problem.knn.IncrementalNearestNeighbour;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Binary cache of a parsed fold, kept in a .fold file next to the .dat (or .arff) file it was read from.
+ *
+ * The first time a fold is loaded it's parsed with {@link KeelDataLoader} and written as: a header with the size,
+ * modification time and CRC32 of the source file, the relation, the attributes and the class index; the values of every
+ * attribute stored by column; and, optionally, the upper triangle of squared distances of a {@link DistanceIndex}.
+ * The next loads map the file with {@link FileChannel#map} and build the Instances from the columns, and the distance
+ * index reads the mapped triangle as it is, so nothing is parsed or computed again.
+ *
+ * The cache is rebuilt when the source changes: a different size, or a different modification time with a different CRC32
+ * (a file only touched keeps its cache). The values are written in the native byte order, a cache written on a machine
+ * with another order is rebuilt as well.
+ */
+public class FoldCache {
+    public static final String EXTENSION = ".fold";
+
+    private static final int MAGIC = 0x464F4C44;
+    private static final int VERSION = 1;
+    //Position of the modification time in the header, rewritten when a touched source keeps its cache
+    private static final int MODIFIED_POSITION = 16;
+    //Flags of the header
+    private static final int RNG_CLASSES = 1;
+    private static final int DISTANCES = 2;
+
+    private final File file;
+    private final Instances instances;
+    private final DistanceIndex distanceIndex;
+
+    private FoldCache(File file, Instances instances, DistanceIndex distanceIndex) {
+        this.file = file;
+        this.instances = instances;
+        this.distanceIndex = distanceIndex;
+    }
+
+    /**
+     * Loads one fold from its cache, creating or rebuilding the cache when it's missing or out of date.
+     * If the cache can't be written the fold is still loaded, straight from the source file.
+     * @param baseName The path of the file without the extension, ex.: ./small_unmod/car/car-10-1tra
+     * @param withDistances Keeps the distances between the samples in the cache too
+     * @return The fold
+     * @throws IOException If the source file can't be read
+     */
+    public static FoldCache load(String baseName, boolean withDistances) throws IOException {
+        File source = new File(baseName + ".dat");
+        if (!source.exists())
+            source = new File(baseName + ".arff");
+        File cache = new File(baseName + EXTENSION);
+
+        if (cache.exists()) {
+            try {
+                FoldCache fold = read(cache, source, withDistances);
+                if (fold != null)
+                    return fold;
+            } catch (IOException | RuntimeException e) {
+                //A truncated or corrupted cache, it's written again
+                Debug.println("Invalid fold cache " + cache + ": " + e);
+            }
+        }
+
+        Instances instances = KeelDataLoader.load(baseName);
+        try {
+            write(cache, source, instances, withDistances);
+            FoldCache fold = read(cache, source, withDistances);
+            if (fold != null)
+                return fold;
+        } catch (IOException e) {
+            Debug.println("Failed to write the fold cache " + cache + ": " + e.getMessage());
+        }
+        return new FoldCache(null, instances, null);
+    }
+
+    /**
+     * @return The samples, with the class index set
+     */
+    public Instances getInstances() {
+        return instances;
+    }
+
+    /**
+     * @return The distances read from the cache, null when they weren't requested or the cache couldn't be used
+     */
+    public DistanceIndex getDistanceIndex() {
+        return distanceIndex;
+    }
+
+    /**
+     * @return The cache file, null when the fold was loaded from the source file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    //Maps a cache and reads it. Returns null when the cache is out of date or lacks the distances
+    private static FoldCache read(File cache, File source, boolean withDistances) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(cache.toPath(), StandardOpenOption.READ)) {
+            //The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.nativeOrder());
+
+        if (buffer.remaining() < MODIFIED_POSITION + 8 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+            return null;
+
+        long length = buffer.getLong();
+        long modified = buffer.getLong();
+        long checksum = buffer.getLong();
+        int flags = buffer.getInt();
+        if (((flags & RNG_CLASSES) != 0) != Debug.RNG || (withDistances && (flags & DISTANCES) == 0))
+            return null;
+
+        if (length != source.length())
+            return null;
+        if (modified != source.lastModified()) {
+            if (checksum != checksum(source))
+                return null;
+            //Only touched, the next load doesn't need the checksum
+            touch(cache, source.lastModified());
+        }
+
+        //Header
+        String relation = readString(buffer);
+        int numberOfAttributes = buffer.getInt();
+        int numberOfInstances = buffer.getInt();
+        int classIndex = buffer.getInt();
+        ArrayList<Attribute> attributes = new ArrayList<>(numberOfAttributes);
+        for (int a = 0; a < numberOfAttributes; a++) {
+            String name = readString(buffer);
+            int numberOfLabels = buffer.getInt();
+            if (numberOfLabels < 0) {
+                attributes.add(new Attribute(name));
+            } else {
+                List<String> labels = new ArrayList<>(numberOfLabels);
+                for (int l = 0; l < numberOfLabels; l++)
+                    labels.add(readString(buffer));
+                attributes.add(new Attribute(name, labels));
+            }
+        }
+
+        //Columns
+        buffer.position(align(buffer.position()));
+        DoubleBuffer columns = buffer.asDoubleBuffer();
+        Instances instances = new Instances(relation, attributes, numberOfInstances);
+        instances.setClassIndex(classIndex);
+        for (int i = 0; i < numberOfInstances; i++) {
+            double[] values = new double[numberOfAttributes];
+            for (int a = 0; a < numberOfAttributes; a++)
+                values[a] = columns.get(a * numberOfInstances + i);
+            instances.add(new DenseInstance(1.0, values));
+        }
+
+        //Distances, read from the mapped file as they are
+        DistanceIndex distanceIndex = null;
+        if (withDistances) {
+            buffer.position(buffer.position() + 8 * numberOfAttributes * numberOfInstances);
+            if (buffer.remaining() < 8L * numberOfInstances * (numberOfInstances - 1) / 2)
+                throw new IOException("truncated distances");
+            distanceIndex = DistanceIndex.wrap(numberOfInstances, buffer.slice().order(ByteOrder.nativeOrder()).asDoubleBuffer());
+        }
+
+        return new FoldCache(cache, instances, distanceIndex);
+    }
+
+    //Writes the cache to a temporary file and moves it over the old one, so a reader never sees a partial cache
+    private static void write(File cache, File source, Instances instances, boolean withDistances) throws IOException {
+        int numberOfInstances = instances.numInstances();
+        int numberOfAttributes = instances.numAttributes();
+        long columnsSize = 8L * numberOfAttributes * numberOfInstances;
+        long distancesSize = withDistances ? 8L * numberOfInstances * (numberOfInstances - 1) / 2 : 0;
+        //Every section is read through a single mapping
+        if (columnsSize > Integer.MAX_VALUE || distancesSize > Integer.MAX_VALUE)
+            throw new IOException("fold too big to cache: " + numberOfInstances + " samples");
+
+        //Header
+        ByteBuffer header = ByteBuffer.allocate(headerSize(instances)).order(ByteOrder.nativeOrder());
+        header.putInt(MAGIC).putInt(VERSION);
+        header.putLong(source.length()).putLong(source.lastModified()).putLong(checksum(source));
+        header.putInt((Debug.RNG ? RNG_CLASSES : 0) | (withDistances ? DISTANCES : 0));
+        putString(header, instances.relationName());
+        header.putInt(numberOfAttributes).putInt(numberOfInstances).putInt(instances.classIndex());
+        for (int a = 0; a < numberOfAttributes; a++) {
+            Attribute attribute = instances.attribute(a);
+            if (!attribute.isNominal() && !attribute.isNumeric())
+                throw new IOException("unsupported type for attribute " + attribute.name());
+            putString(header, attribute.name());
+            if (attribute.isNominal()) {
+                header.putInt(attribute.numValues());
+                for (int l = 0; l < attribute.numValues(); l++)
+                    putString(header, attribute.value(l));
+            } else {
+                header.putInt(-1);
+            }
+        }
+        header.position(align(header.position()));
+        header.flip();
+
+        File temporary = File.createTempFile(cache.getName(), ".tmp", cache.getAbsoluteFile().getParentFile());
+        try {
+            try (FileChannel channel = FileChannel.open(temporary.toPath(), StandardOpenOption.WRITE)) {
+                while (header.hasRemaining())
+                    channel.write(header);
+
+                //Columns, one attribute after the other
+                ByteBuffer columns = ByteBuffer.allocate((int) columnsSize).order(ByteOrder.nativeOrder());
+                for (int a = 0; a < numberOfAttributes; a++)
+                    for (int i = 0; i < numberOfInstances; i++)
+                        columns.putDouble(instances.instance(i).value(a));
+                columns.flip();
+                while (columns.hasRemaining())
+                    channel.write(columns);
+
+                //Distances, packed row after row as the DistanceIndex reads them
+                if (withDistances) {
+                    IncrementalNearestNeighbour distance = new IncrementalNearestNeighbour(instances);
+                    ByteBuffer row = ByteBuffer.allocate(8 * Math.max(numberOfInstances - 1, 0)).order(ByteOrder.nativeOrder());
+                    for (int i = 0; i < numberOfInstances; i++) {
+                        row.clear();
+                        for (int j = i + 1; j < numberOfInstances; j++)
+                            row.putDouble(distance.computeSquaredDistance(i, j));
+                        row.flip();
+                        while (row.hasRemaining())
+                            channel.write(row);
+                    }
+                }
+            }
+            Files.move(temporary.toPath(), cache.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary.toPath());
+        }
+    }
+
+    private static void touch(File cache, long modified) {
+        ByteBuffer value = ByteBuffer.allocate(8).order(ByteOrder.nativeOrder());
+        value.putLong(modified).flip();
+        try (FileChannel channel = FileChannel.open(cache.toPath(), StandardOpenOption.WRITE)) {
+            channel.write(value, MODIFIED_POSITION);
+        } catch (IOException e) {
+            //Not a problem, the checksum is computed again on the next load
+            Debug.println("Failed to update the fold cache " + cache + ": " + e.getMessage());
+        }
+    }
+
+    private static long checksum(File source) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] bytes = new byte[1 << 16];
+        try (InputStream input = new FileInputStream(source)) {
+            int read;
+            while ((read = input.read(bytes)) != -1)
+                crc.update(bytes, 0, read);
+        }
+        return crc.getValue();
+    }
+
+    private static int headerSize(Instances instances) {
+        int size = 4 + 4 + 8 + 8 + 8 + 4 + stringSize(instances.relationName()) + 4 + 4 + 4;
+        for (int a = 0; a < instances.numAttributes(); a++) {
+            Attribute attribute = instances.attribute(a);
+            size += stringSize(attribute.name()) + 4;
+            if (attribute.isNominal())
+                for (int l = 0; l < attribute.numValues(); l++)
+                    size += stringSize(attribute.value(l));
+        }
+        return align(size);
+    }
+
+    //The columns start at a multiple of 8 bytes
+    private static int align(int position) {
+        return (position + 7) & ~7;
+    }
+
+    private static int stringSize(String value) {
+        return 4 + value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length).put(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining())
+            throw new IOException("corrupted string");
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
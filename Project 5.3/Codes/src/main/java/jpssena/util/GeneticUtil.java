@@ -1,5 +1,7 @@
 package jpssena.util;
 
+import weka.core.Instances;
+
 import java.io.*;
 import java.util.ArrayList;
 import java.util.BitSet;
@@ -95,33 +97,46 @@ public class GeneticUtil {
         return chromosomes;
     }
 
+    /**
+     * Writes the selected samples as an .arff file.
+     * @param selected The selected samples
+     * @param samples All the samples, in the order of the chromosome
+     * @param result The file to write
+     */
+    public static void createFileWithBitSet(BitSet selected, Instances samples, File result) throws IOException {
+        Instances reduced = new Instances(samples, selected.cardinality());
+        for (int i = selected.nextSetBit(0); i >= 0 && i < samples.numInstances(); i = selected.nextSetBit(i + 1))
+            reduced.add(samples.instance(i));
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(result))) {
+            writer.write(reduced.toString());
+            writer.write("\n");
+        }
+    }
+
     public static void createFileWithBitSet(BitSet selected, File file, File result) throws IOException {
         if (!result.exists())
             result.createNewFile();
 
-        BufferedReader reader = new BufferedReader(new FileReader(file));
-        BufferedWriter writer = new BufferedWriter(new FileWriter(result));
-
-        String line;
-        int bit = 0;
-        while ((line = reader.readLine()) != null) {
-            if (line.startsWith("@") || line.trim().isEmpty()) {
-                writer.write(line);
-                writer.write("\n");
-            }
-
-            else {
-                if (selected.get(bit)) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file));
+             BufferedWriter writer = new BufferedWriter(new FileWriter(result))) {
+            String line;
+            int bit = 0;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("@") || line.trim().isEmpty()) {
                     writer.write(line);
                     writer.write("\n");
                 }
 
-                bit++;
+                else {
+                    if (selected.get(bit)) {
+                        writer.write(line);
+                        writer.write("\n");
+                    }
+
+                    bit++;
+                }
             }
         }
-
-        reader.close();
-        writer.flush();
-        writer.close();
     }
 }
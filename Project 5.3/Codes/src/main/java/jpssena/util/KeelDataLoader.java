@@ -0,0 +1,199 @@
+package jpssena.util;
+
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a KEEL .dat file straight into Weka Instances, in a single pass.
+ *
+ * It replaces converting the file to .arff with {@link DatFixer} and parsing the converted file again with Weka:
+ * no file is written and every sample is parsed once, directly into the values of its instance.
+ * The header is read as DatFixer + Weka would read it: real and integer attributes are numeric (the range is ignored),
+ * the ones with {...} are nominal with the labels in the header order, and "?" or "&lt;null&gt;" are missing values.
+ * The class is the attribute named by @output(s), or the last one when there's none.
+ */
+public class KeelDataLoader {
+
+    /**
+     * Loads one fold, from the .dat file if it exists and from the .arff file otherwise.
+     * @param baseName The path of the file without the extension, ex.: ./small_unmod/car/car-10-1tra
+     * @return The samples, with the class index set
+     * @throws IOException If neither file can be read
+     */
+    public static Instances load(String baseName) throws IOException {
+        File dat = new File(baseName + ".dat");
+        if (dat.exists())
+            return load(dat);
+
+        Instances instances;
+        try (BufferedReader reader = new BufferedReader(new FileReader(baseName + ".arff"))) {
+            instances = new Instances(reader);
+        }
+        if (instances.classIndex() == -1)
+            instances.setClassIndex(instances.numAttributes() - 1);
+        return instances;
+    }
+
+    /**
+     * Loads a KEEL .dat file.
+     * @param file The .dat file
+     * @return The samples, with the class index set
+     * @throws IOException If the file can't be read or isn't a valid KEEL file
+     */
+    public static Instances load(File file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String relation = file.getName();
+            ArrayList<Attribute> attributes = new ArrayList<>();
+            String output = null;
+            String line;
+            int lineNumber = 0;
+
+            //Header
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                String lower = trimmed.toLowerCase();
+
+                if (trimmed.isEmpty() || trimmed.startsWith("%"))
+                    continue;
+
+                if (lower.startsWith("@relation")) {
+                    relation = unquote(trimmed.substring("@relation".length()).trim());
+                } else if (lower.startsWith("@attribute")) {
+                    attributes.add(readAttribute(trimmed.substring("@attribute".length()).trim(), file, lineNumber));
+                } else if (lower.startsWith("@output")) {
+                    //@output or @outputs, only the first output is used as class
+                    String names = trimmed.substring(lower.startsWith("@outputs") ? "@outputs".length() : "@output".length());
+                    output = unquote(names.split(",")[0].trim());
+                } else if (lower.startsWith("@data")) {
+                    break;
+                }
+                //@inputs is ignored, every attribute that isn't the output is an input
+            }
+
+            if (attributes.isEmpty())
+                throw new IOException(file + ": no attributes found");
+
+            Instances instances = new Instances(relation, attributes, 0);
+            Attribute classAttribute = output == null ? null : instances.attribute(output);
+            instances.setClassIndex(classAttribute == null ? attributes.size() - 1 : classAttribute.index());
+
+            //Samples, each one parsed straight into the values of its instance
+            int numberOfAttributes = attributes.size();
+            int classIndex = instances.classIndex();
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty() || line.startsWith("%"))
+                    continue;
+
+                double[] values = new double[numberOfAttributes];
+                int attribute = 0;
+                int begin = 0;
+                while (begin <= line.length()) {
+                    int end = line.indexOf(',', begin);
+                    if (end == -1)
+                        end = line.length();
+
+                    if (attribute == numberOfAttributes)
+                        throw new IOException(file + ":" + lineNumber + ": more than " + numberOfAttributes + " values");
+
+                    String token = line.substring(begin, end).trim();
+                    values[attribute] = parseValue(token, attributes.get(attribute), attribute == classIndex, file, lineNumber);
+                    attribute++;
+                    begin = end + 1;
+                }
+
+                if (attribute != numberOfAttributes)
+                    throw new IOException(file + ":" + lineNumber + ": " + attribute + " values, expected " + numberOfAttributes);
+
+                instances.add(new DenseInstance(1.0, values));
+            }
+
+            instances.compactify();
+            return instances;
+        }
+    }
+
+    //Reads the part of an @attribute line after the keyword: the name and the type
+    private static Attribute readAttribute(String declaration, File file, int lineNumber) throws IOException {
+        String name;
+        String type;
+
+        if (declaration.startsWith("'") || declaration.startsWith("\"")) {
+            int end = declaration.indexOf(declaration.charAt(0), 1);
+            if (end == -1)
+                throw new IOException(file + ":" + lineNumber + ": unterminated attribute name");
+            name = declaration.substring(1, end);
+            type = declaration.substring(end + 1).trim();
+        } else {
+            int end = 0;
+            while (end < declaration.length() && !Character.isWhitespace(declaration.charAt(end))
+                    && declaration.charAt(end) != '{' && declaration.charAt(end) != '[')
+                end++;
+            name = declaration.substring(0, end);
+            type = declaration.substring(end).trim();
+        }
+
+        if (type.startsWith("{")) {
+            int end = type.lastIndexOf('}');
+            if (end == -1)
+                throw new IOException(file + ":" + lineNumber + ": unterminated list of labels");
+
+            List<String> labels = new ArrayList<>();
+            for (String label : type.substring(1, end).split(","))
+                if (!label.trim().isEmpty())
+                    labels.add(unquote(label.trim()));
+            return new Attribute(name, labels);
+        }
+
+        String lower = type.toLowerCase();
+        if (lower.startsWith("real") || lower.startsWith("integer") || lower.startsWith("numeric"))
+            return new Attribute(name);
+
+        throw new IOException(file + ":" + lineNumber + ": unsupported type for attribute " + name + ": " + type);
+    }
+
+    private static double parseValue(String token, Attribute attribute, boolean isClass, File file, int lineNumber)
+            throws IOException {
+        if (token.equals("?") || token.equals("<null>"))
+            return Utils.missingValue();
+
+        if (attribute.isNominal()) {
+            //Datasets processed with RNG have the number of the class (from 1) instead of its label, as DatFixer does
+            if (isClass && Debug.RNG) {
+                try {
+                    return Integer.parseInt(token) - 1;
+                } catch (NumberFormatException e) {
+                    throw new IOException(file + ":" + lineNumber + ": invalid class number " + token);
+                }
+            }
+
+            int index = attribute.indexOfValue(unquote(token));
+            if (index == -1)
+                throw new IOException(file + ":" + lineNumber + ": " + token + " is not a label of " + attribute.name());
+            return index;
+        }
+
+        try {
+            return Double.parseDouble(token);
+        } catch (NumberFormatException e) {
+            throw new IOException(file + ":" + lineNumber + ": " + token + " is not a number");
+        }
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && (value.charAt(0) == '\'' || value.charAt(0) == '"')
+                && value.charAt(value.length() - 1) == value.charAt(0))
+            return value.substring(1, value.length() - 1);
+        return value;
+    }
+}
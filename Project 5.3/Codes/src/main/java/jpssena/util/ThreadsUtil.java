@@ -1,9 +1,14 @@
 package jpssena.util;
 
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * Created by João Paulo on 21/07/2017.
  */
 public class ThreadsUtil {
+    //System property read by the JVM when it creates the common ForkJoinPool
+    private static final String POOL_PARALLELISM = "java.util.concurrent.ForkJoinPool.common.parallelism";
+
     // Calculates a adequate number of threads to process in parallel
     public static int calculateNumThreads(int numFolds) {
         int cores = Runtime.getRuntime().availableProcessors();
@@ -25,4 +30,24 @@ public class ThreadsUtil {
     public static int calculateNumThreads() {
         return Runtime.getRuntime().availableProcessors();
     }
+
+    /**
+     * Bounds the pool shared by the experiment runs and the population evaluators.
+     * It only works before the pool is first used, so it must be called at the start of the experiment,
+     * with the same number of cores given to the ExperimentBuilder.
+     * @param threads Number of threads of the pool
+     */
+    public static void setSharedPoolParallelism(int threads) {
+        System.setProperty(POOL_PARALLELISM, Integer.toString(threads));
+    }
+
+    /**
+     * The pool shared by the whole experiment. It is the common ForkJoinPool because that is where ExecuteAlgorithms
+     * runs the algorithms (through a parallel stream), so the evaluations of a run and the runs themselves
+     * share the same bounded set of threads.
+     * @return The shared pool
+     */
+    public static ForkJoinPool getSharedPool() {
+        return ForkJoinPool.commonPool();
+    }
 }
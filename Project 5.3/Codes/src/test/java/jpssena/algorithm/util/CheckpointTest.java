@@ -0,0 +1,98 @@
+package jpssena.algorithm.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.uma.jmetal.problem.impl.AbstractBinaryProblem;
+import org.uma.jmetal.solution.BinarySolution;
+import org.uma.jmetal.util.pseudorandom.impl.JavaRandomGenerator;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks that a {@link Checkpoint} keeps the time taken by its run, and that only the run with the same key and the same
+ * training set size reads it back.
+ */
+public class CheckpointTest {
+    private static final String KEY = "NSGADO/car-10-1/0|NSGA-DO|Learn Select Instances|100|10000";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void checkpointKeepsTheComputingTime() throws IOException {
+        TestProblem problem = new TestProblem(70);
+        File file = write(problem, new Checkpoint<>(4, 400, 0.75, 2, 123456789L, population(problem), null));
+
+        Checkpoint<BinarySolution> checkpoint = Checkpoint.read(file, problem, KEY);
+        assertNotNull(checkpoint);
+        assertEquals(123456789L, checkpoint.getComputingTime());
+        assertEquals(4, checkpoint.getIterations());
+        assertEquals(400, checkpoint.getEvaluations());
+        assertEquals(0.75, checkpoint.getIterationFit(), 0);
+        assertEquals(2, checkpoint.getIterationBal());
+    }
+
+    @Test
+    public void checkpointOfAnotherRunIsNotRead() throws IOException {
+        TestProblem problem = new TestProblem(70);
+        File file = write(problem, new Checkpoint<>(4, 400, 0.75, 2, 1000, population(problem),
+                new JavaRandomGenerator(1)));
+
+        //Another fold, with the same problem name
+        assertNull(Checkpoint.read(file, problem, KEY.replace("car-10-1", "car-10-2")));
+        //Another population size
+        assertNull(Checkpoint.read(file, problem, KEY.replace("|100|", "|50|")));
+        //A training set of another size
+        assertNull(Checkpoint.read(file, new TestProblem(71), KEY));
+        assertNotNull(Checkpoint.read(file, problem, KEY));
+    }
+
+    private File write(TestProblem problem, Checkpoint<BinarySolution> checkpoint) throws IOException {
+        File file = folder.newFile("CHECKPOINT0.bin");
+        try (OutputStream output = new FileOutputStream(file)) {
+            output.write(checkpoint.toBytes(KEY));
+        }
+        return file;
+    }
+
+    private static List<BinarySolution> population(TestProblem problem) {
+        List<BinarySolution> population = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            BinarySolution solution = problem.createSolution();
+            solution.setObjective(0, -i);
+            solution.setObjective(1, i - 5);
+            population.add(solution);
+        }
+        return population;
+    }
+
+    private static class TestProblem extends AbstractBinaryProblem {
+        private final int bits;
+
+        TestProblem(int bits) {
+            this.bits = bits;
+            setNumberOfVariables(1);
+            setNumberOfObjectives(2);
+            setName("Learn Select Instances");
+        }
+
+        @Override
+        protected int getBitsPerVariable(int index) {
+            return bits;
+        }
+
+        @Override
+        public void evaluate(BinarySolution solution) {
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package jpssena.algorithm.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the distances of {@link NearestPointIndex} against a linear scan with {@link PointUtil#distance(Point, Point)}.
+ */
+public class NearestPointIndexTest {
+
+    @Test
+    public void nearestDistanceMatchesLinearScan() {
+        Random random = new Random(1);
+        for (int t = 0; t < 300; t++) {
+            int dimensions = 1 + t % 4;
+            //Few distinct values on half of the sets, so there are repeated points and ties on the splitting dimensions
+            int values = t % 2 == 0 ? 4 : 0;
+            List<Point> points = randomPoints(random, 1 + random.nextInt(200), dimensions, values);
+            NearestPointIndex index = new NearestPointIndex(points);
+            assertEquals(points.size(), index.size());
+
+            for (int q = 0; q < 50; q++) {
+                Point query = randomPoints(random, 1, dimensions, values).get(0);
+                assertEquals(linearScan(points, query), index.nearestDistance(values(query)), 0);
+            }
+            //The points themselves are at distance 0
+            assertEquals(0, index.nearestDistance(values(points.get(random.nextInt(points.size())))), 0);
+        }
+    }
+
+    @Test
+    public void rebuiltIndexMatchesLinearScan() {
+        Random random = new Random(2);
+        NearestPointIndex index = new NearestPointIndex();
+        for (int t = 0; t < 100; t++) {
+            //Smaller and greater sets, so the array is reused and grown
+            List<Point> points = randomPoints(random, 1 + random.nextInt(100), 3, 0);
+            double[][] array = new double[points.size() + 5][];
+            for (int i = 0; i < points.size(); i++)
+                array[i] = values(points.get(i));
+            index.build(array, points.size());
+
+            for (int q = 0; q < 20; q++) {
+                Point query = randomPoints(random, 1, 3, 0).get(0);
+                assertEquals(linearScan(points, query), index.nearestDistance(values(query)), 0);
+            }
+        }
+    }
+
+    @Test
+    public void emptyIndex() {
+        NearestPointIndex index = new NearestPointIndex(new ArrayList<Point>());
+        assertEquals(0, index.size());
+        assertEquals(Double.MAX_VALUE, index.nearestDistance(new double[]{1, 2}), 0);
+    }
+
+    private static double linearScan(List<Point> points, Point query) {
+        double best = Double.MAX_VALUE;
+        for (Point point : points)
+            best = Math.min(best, PointUtil.distance(point, query));
+        return best;
+    }
+
+    //values == 0 draws doubles in [0, 1), otherwise integers in [0, values)
+    private static List<Point> randomPoints(Random random, int size, int dimensions, int values) {
+        List<Point> points = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            double[] coordinates = new double[dimensions];
+            for (int d = 0; d < dimensions; d++)
+                coordinates[d] = values == 0 ? random.nextDouble() : random.nextInt(values);
+            points.add(new Point(i, coordinates));
+        }
+        return points;
+    }
+
+    private static double[] values(Point point) {
+        double[] values = new double[point.getValues().size()];
+        for (int d = 0; d < values.length; d++)
+            values[d] = point.getValues().get(d);
+        return values;
+    }
+}
@@ -0,0 +1,102 @@
+package jpssena.algorithm.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Checks that the hash grid of {@link PointUtil#removeDuplicated(List)} keeps the same points as the quadratic scan it
+ * replaced, which compared every point with all the unique points before it.
+ */
+public class PointUtilTest {
+
+    @Test
+    public void removeDuplicatedMatchesQuadraticScan() {
+        Random random = new Random(1);
+        for (int t = 0; t < 400; t++) {
+            List<Point> points = clusteredPoints(random, random.nextInt(300), 1 + t % 4);
+
+            List<Point> expected = quadraticScan(points);
+            List<Point> uniques = PointUtil.removeDuplicated(points);
+            assertEquals(expected.size(), uniques.size());
+            for (int i = 0; i < expected.size(); i++)
+                assertSame("point " + i, expected.get(i), uniques.get(i));
+        }
+    }
+
+    @Test
+    public void removeDuplicatedOnArraysKeepsEveryRow() {
+        Random random = new Random(2);
+        //Reused between calls, as IdealDistance does, and grown by the larger sets
+        PointUtil.DuplicateGrid grid = new PointUtil.DuplicateGrid();
+        for (int t = 0; t < 200; t++) {
+            List<Point> points = clusteredPoints(random, random.nextInt(500), 3);
+            int size = points.size();
+            double[][] array = new double[size][];
+            for (int i = 0; i < size; i++)
+                array[i] = values(points.get(i));
+            double[][] rows = array.clone();
+
+            int[] kept = new int[size];
+            int uniques = PointUtil.removeDuplicated(array, size, grid, kept);
+
+            List<Point> expected = quadraticScan(points);
+            assertEquals(expected.size(), uniques);
+            for (int i = 0; i < uniques; i++) {
+                assertSame(expected.get(i), points.get(kept[i]));
+                assertSame(rows[kept[i]], array[i]);
+            }
+
+            //The array is reordered, no row is lost
+            IdentityHashMap<double[], Boolean> seen = new IdentityHashMap<>();
+            for (double[] row : array)
+                seen.put(row, true);
+            assertEquals(size, seen.size());
+            for (double[] row : rows)
+                assertEquals(true, seen.containsKey(row));
+        }
+    }
+
+    //The removeDuplicated before the grid
+    private static List<Point> quadraticScan(List<Point> points) {
+        List<Point> uniques = new ArrayList<>();
+        for (Point point : points) {
+            if (!uniques.contains(point))
+                uniques.add(point);
+        }
+        return uniques;
+    }
+
+    //Points around a few centers, at distances about EQUAL_DISTANCE apart, some of them negative and across cell borders
+    private static List<Point> clusteredPoints(Random random, int size, int dimensions) {
+        double[][] centers = new double[1 + random.nextInt(40)][dimensions];
+        for (double[] center : centers)
+            for (int d = 0; d < dimensions; d++)
+                center[d] = random.nextInt(7) - 3 + (random.nextBoolean() ? 0 : 2 * Point.EQUAL_DISTANCE * random.nextInt(3));
+
+        List<Point> points = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            double[] center = centers[random.nextInt(centers.length)];
+            double[] values = Arrays.copyOf(center, dimensions);
+            if (random.nextInt(4) != 0)
+                for (int d = 0; d < dimensions; d++)
+                    values[d] += Point.EQUAL_DISTANCE * (1.5 * random.nextDouble() - 0.75);
+            points.add(new Point(0, values));
+        }
+        return points;
+    }
+
+    private static double[] values(Point point) {
+        double[] values = new double[point.getValues().size()];
+        for (int d = 0; d < values.length; d++)
+            values[d] = point.getValues().get(d);
+        return values;
+    }
+}
@@ -0,0 +1,176 @@
+package jpssena.algorithm.util;
+
+import org.junit.Test;
+import org.uma.jmetal.problem.impl.AbstractBinaryProblem;
+import org.uma.jmetal.solution.BinarySolution;
+import org.uma.jmetal.util.pseudorandom.JMetalRandom;
+import org.uma.jmetal.util.pseudorandom.PseudoRandomGenerator;
+import org.uma.jmetal.util.pseudorandom.impl.JavaRandomGenerator;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks that the runs draw the numbers of {@link JMetalRandom} from their own generators, without taking numbers from
+ * each other or from the code outside of the runs, and that a {@link Checkpoint} restores the generator of its run.
+ */
+public class RunRandomGeneratorTest {
+    private static final int DRAWS = 2000;
+
+    @Test
+    public void concurrentRunsDrawTheirOwnSequences() throws Exception {
+        final double[] expected = draws(new JavaRandomGenerator(7), DRAWS);
+
+        int threads = 4;
+        final CyclicBarrier barrier = new CyclicBarrier(threads);
+        final double[][] sequences = new double[threads][];
+        final Throwable[] errors = new Throwable[threads];
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int index = t;
+            Thread worker = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    PseudoRandomGenerator previous = RunRandomGenerator.enter(new JavaRandomGenerator(7));
+                    try {
+                        barrier.await();
+                        //Every thread draws at the same time from JMetalRandom, as the operators do
+                        double[] sequence = new double[DRAWS];
+                        for (int i = 0; i < DRAWS; i++) {
+                            sequence[i] = JMetalRandom.getInstance().nextDouble();
+                            if (i % 100 == 0)
+                                Thread.yield();
+                        }
+                        sequences[index] = sequence;
+                    } catch (Throwable e) {
+                        errors[index] = e;
+                    } finally {
+                        RunRandomGenerator.leave(previous);
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers)
+            worker.join();
+
+        for (int t = 0; t < threads; t++) {
+            assertNull(errors[t]);
+            assertArrayEquals("thread " + t, expected, sequences[t], 0);
+        }
+    }
+
+    @Test
+    public void runsDontTakeNumbersOutsideOfThem() {
+        JMetalRandom random = JMetalRandom.getInstance();
+        random.setSeed(5);
+        double[] expected = draws(random, 10);
+
+        random.setSeed(5);
+        double[] outside = new double[10];
+        for (int i = 0; i < 4; i++)
+            outside[i] = random.nextDouble();
+
+        //A run executed in the middle, with another one nested in it
+        double[] run = new double[4];
+        PseudoRandomGenerator previous = RunRandomGenerator.enter(new JavaRandomGenerator(9));
+        run[0] = random.nextDouble();
+        run[1] = random.nextDouble();
+        PseudoRandomGenerator nested = RunRandomGenerator.enter(new JavaRandomGenerator(3));
+        assertArrayEquals(draws(new JavaRandomGenerator(3), 2), draws(random, 2), 0);
+        RunRandomGenerator.leave(nested);
+        run[2] = random.nextDouble();
+        run[3] = random.nextDouble();
+        RunRandomGenerator.leave(previous);
+        assertArrayEquals(draws(new JavaRandomGenerator(9), 4), run, 0);
+
+        //Creating a run takes a single number, to seed its generator
+        outside[4] = random.nextDouble();
+        assertNotNull(RunRandomGenerator.createGenerator());
+        for (int i = 6; i < 10; i++)
+            outside[i] = random.nextDouble();
+        //The number drawn by createGenerator
+        outside[5] = expected[5];
+        assertArrayEquals(expected, outside, 0);
+    }
+
+    @Test
+    public void checkpointRestoresTheGeneratorOfTheRun() throws IOException {
+        TestProblem problem = new TestProblem();
+        PseudoRandomGenerator run = new JavaRandomGenerator(11);
+        PseudoRandomGenerator previous = RunRandomGenerator.enter(run);
+        try {
+            List<BinarySolution> population = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                BinarySolution solution = problem.createSolution();
+                solution.setObjective(0, i);
+                solution.setObjective(1, -i);
+                population.add(solution);
+            }
+
+            File file = File.createTempFile("checkpoint", ".bin");
+            file.deleteOnExit();
+            try (OutputStream output = new FileOutputStream(file)) {
+                output.write(new Checkpoint<>(3, 120, 0.5, 1, 0, population, run).toBytes("run"));
+            }
+            //Draws of the run and of other runs after the checkpoint don't change it
+            double[] afterSave = draws(JMetalRandom.getInstance(), 20);
+            RunRandomGenerator.leave(RunRandomGenerator.enter(new JavaRandomGenerator(1)));
+
+            Checkpoint<BinarySolution> checkpoint = Checkpoint.read(file, problem, "run");
+            assertNotNull(checkpoint);
+            assertEquals(3, checkpoint.getIterations());
+            assertEquals(population.size(), checkpoint.getPopulation().size());
+            for (int i = 0; i < population.size(); i++)
+                assertEquals(population.get(i).getVariableValue(0), checkpoint.getPopulation().get(i).getVariableValue(0));
+
+            RunRandomGenerator.enter(checkpoint.getRandomGenerator());
+            assertArrayEquals(afterSave, draws(JMetalRandom.getInstance(), 20), 0);
+        } finally {
+            RunRandomGenerator.leave(previous);
+        }
+    }
+
+    private static double[] draws(PseudoRandomGenerator generator, int size) {
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++)
+            values[i] = generator.nextDouble();
+        return values;
+    }
+
+    private static double[] draws(JMetalRandom random, int size) {
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++)
+            values[i] = random.nextDouble();
+        return values;
+    }
+
+    private static class TestProblem extends AbstractBinaryProblem {
+
+        TestProblem() {
+            setNumberOfVariables(1);
+            setNumberOfObjectives(2);
+            setName("RunRandomGeneratorTest");
+        }
+
+        @Override
+        protected int getBitsPerVariable(int index) {
+            return 70;
+        }
+
+        @Override
+        public void evaluate(BinarySolution solution) {
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package jpssena.algorithm.util.solutionattribute;
+
+import org.junit.Test;
+import org.uma.jmetal.problem.impl.AbstractBinaryProblem;
+import org.uma.jmetal.solution.BinarySolution;
+import org.uma.jmetal.util.solutionattribute.impl.DominanceRanking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Checks that {@link FastDominanceRanking} gives the ranks and the subfronts of {@link DominanceRanking}, with the
+ * solutions of every subfront in the same order.
+ */
+public class FastDominanceRankingTest {
+
+    @Test
+    public void rankingMatchesDominanceRanking() {
+        Random random = new Random(1);
+        FastDominanceRanking<BinarySolution> fast = new FastDominanceRanking<>();
+
+        for (int t = 0; t < 600; t++) {
+            int numberOfObjectives = 2 + t % 3;
+            //Few distinct values, so there are many ties and repeated points
+            List<BinarySolution> solutions = randomList(random, random.nextInt(150), numberOfObjectives, 2 + random.nextInt(20));
+
+            DominanceRanking<BinarySolution> expected = new DominanceRanking<>();
+            expected.computeRanking(solutions);
+            int[] expectedRanks = new int[solutions.size()];
+            for (int i = 0; i < solutions.size(); i++)
+                expectedRanks[i] = expected.getAttribute(solutions.get(i));
+
+            //Reused, as the algorithms do
+            fast.computeRanking(solutions);
+            assertEquals(expected.getNumberOfSubfronts(), fast.getNumberOfSubfronts());
+            for (int f = 0; f < expected.getNumberOfSubfronts(); f++) {
+                List<BinarySolution> expectedFront = expected.getSubfront(f);
+                List<BinarySolution> front = fast.getSubfront(f);
+                assertEquals(expectedFront.size(), front.size());
+                for (int k = 0; k < front.size(); k++)
+                    assertSame("subfront " + f + ", solution " + k, expectedFront.get(k), front.get(k));
+            }
+            for (int i = 0; i < solutions.size(); i++)
+                assertEquals(expectedRanks[i], (int) fast.getAttribute(solutions.get(i)));
+        }
+    }
+
+    private static List<BinarySolution> randomList(Random random, int size, int numberOfObjectives, int values) {
+        TestProblem problem = new TestProblem(numberOfObjectives);
+        List<BinarySolution> solutions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            BinarySolution solution = problem.createSolution();
+            for (int m = 0; m < numberOfObjectives; m++)
+                solution.setObjective(m, random.nextInt(values));
+            solutions.add(solution);
+        }
+        return solutions;
+    }
+
+    private static class TestProblem extends AbstractBinaryProblem {
+
+        TestProblem(int numberOfObjectives) {
+            setNumberOfVariables(1);
+            setNumberOfObjectives(numberOfObjectives);
+        }
+
+        @Override
+        protected int getBitsPerVariable(int index) {
+            return 1;
+        }
+
+        @Override
+        public void evaluate(BinarySolution solution) {
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package jpssena.operator.crossover;
+
+import org.junit.Test;
+import org.uma.jmetal.problem.impl.AbstractBinaryProblem;
+import org.uma.jmetal.solution.BinarySolution;
+import org.uma.jmetal.util.binarySet.BinarySet;
+import org.uma.jmetal.util.pseudorandom.JMetalRandom;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Checks that exactly half of the bits that differ between the parents are swapped, rounded down, and only those, and that
+ * the uniform mode swaps each of them with probability 0.5.
+ * The random numbers are seeded, and the bounds are about five standard deviations wide.
+ */
+public class WordHUXCrossoverTest {
+
+    @Test
+    public void huxSwapsHalfOfTheDifferingBits() {
+        JMetalRandom.getInstance().setSeed(1);
+        WordHUXCrossover crossover = new WordHUXCrossover(1.0);
+
+        //Lengths around the word boundaries
+        for (int bits : new int[]{1, 2, 63, 64, 65, 130, 1000}) {
+            TestProblem problem = new TestProblem(bits);
+            for (int t = 0; t < 50; t++) {
+                List<BinarySolution> parents = Arrays.asList(problem.createSolution(), problem.createSolution());
+                BitSet differing = (BitSet) parents.get(0).getVariableValue(0).clone();
+                differing.xor(parents.get(1).getVariableValue(0));
+
+                BitSet swapped = cross(crossover, parents);
+                assertEquals(bits + " bits", differing.cardinality() / 2, swapped.cardinality());
+            }
+        }
+    }
+
+    @Test
+    public void huxChoosesEveryDifferingBitAlike() {
+        JMetalRandom.getInstance().setSeed(2);
+        WordHUXCrossover crossover = new WordHUXCrossover(1.0);
+        int bits = 130, trials = 4000;
+
+        //The parents differ in the odd bits, so 32 of the 65 are swapped
+        List<BinarySolution> parents = parents(bits);
+        for (int i = 1; i < bits; i += 2)
+            parents.get(1).getVariableValue(0).set(i);
+
+        int[] swaps = swaps(crossover, parents, trials);
+        double probability = 32.0 / 65;
+        double bound = 5 * Math.sqrt(trials * probability * (1 - probability));
+        for (int i = 0; i < bits; i++) {
+            if (i % 2 == 0)
+                assertEquals("bit " + i, 0, swaps[i]);
+            else
+                assertEquals("bit " + i, trials * probability, swaps[i], bound);
+        }
+    }
+
+    @Test
+    public void uniformSwapsEachDifferingBitWithHalfProbability() {
+        JMetalRandom.getInstance().setSeed(3);
+        WordHUXCrossover crossover = new WordHUXCrossover(1.0, true);
+        int bits = 130, trials = 4000;
+
+        List<BinarySolution> parents = parents(bits);
+        parents.get(1).getVariableValue(0).set(0, bits);
+
+        int[] swaps = swaps(crossover, parents, trials);
+        double bound = 5 * Math.sqrt(trials * 0.25);
+        for (int i = 0; i < bits; i++)
+            assertEquals("bit " + i, trials * 0.5, swaps[i], bound);
+    }
+
+    private static int[] swaps(WordHUXCrossover crossover, List<BinarySolution> parents, int trials) {
+        int[] swaps = new int[parents.get(0).getNumberOfBits(0)];
+        for (int t = 0; t < trials; t++) {
+            BitSet swapped = cross(crossover, parents);
+            for (int i = swapped.nextSetBit(0); i >= 0; i = swapped.nextSetBit(i + 1))
+                swaps[i]++;
+        }
+        return swaps;
+    }
+
+    //Crosses the parents and checks that the offspring are the parents with the same differing bits swapped
+    private static BitSet cross(WordHUXCrossover crossover, List<BinarySolution> parents) {
+        List<BinarySolution> offspring = crossover.execute(parents);
+        BinarySet first = parents.get(0).getVariableValue(0);
+        BinarySet second = parents.get(1).getVariableValue(0);
+
+        BitSet swapped = (BitSet) offspring.get(0).getVariableValue(0).clone();
+        swapped.xor(first);
+        BitSet other = (BitSet) offspring.get(1).getVariableValue(0).clone();
+        other.xor(second);
+        assertEquals(swapped, other);
+
+        for (int i = swapped.nextSetBit(0); i >= 0; i = swapped.nextSetBit(i + 1))
+            assertFalse("bit " + i, first.get(i) == second.get(i));
+        return swapped;
+    }
+
+    //Two parents with all the bits false
+    private static List<BinarySolution> parents(int bits) {
+        TestProblem problem = new TestProblem(bits);
+        List<BinarySolution> parents = Arrays.asList(problem.createSolution(), problem.createSolution());
+        for (BinarySolution parent : parents)
+            parent.getVariableValue(0).clear();
+        return parents;
+    }
+
+    private static class TestProblem extends AbstractBinaryProblem {
+        private final int bits;
+
+        TestProblem(int bits) {
+            this.bits = bits;
+            setNumberOfVariables(1);
+            setNumberOfObjectives(2);
+        }
+
+        @Override
+        protected int getBitsPerVariable(int index) {
+            return bits;
+        }
+
+        @Override
+        public void evaluate(BinarySolution solution) {
+        }
+    }
+}
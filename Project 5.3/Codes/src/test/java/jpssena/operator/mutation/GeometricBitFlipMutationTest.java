@@ -0,0 +1,108 @@
+package jpssena.operator.mutation;
+
+import org.junit.Test;
+import org.uma.jmetal.problem.impl.AbstractBinaryProblem;
+import org.uma.jmetal.solution.BinarySolution;
+import org.uma.jmetal.util.binarySet.BinarySet;
+import org.uma.jmetal.util.pseudorandom.RandomGenerator;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that every bit flips independently with the mutation probability, as in the BitFlipMutation of jMetal.
+ * The random numbers are seeded, and the bounds are about five standard deviations wide.
+ */
+public class GeometricBitFlipMutationTest {
+
+    @Test
+    public void everyBitFlipsWithTheProbability() {
+        //130 bits: three words, the last one partial
+        int bits = 130, trials = 5000;
+        double probability = 0.2;
+        GeometricBitFlipMutation mutation = new GeometricBitFlipMutation(probability, seeded(1));
+        TestProblem problem = new TestProblem(bits);
+
+        int[] flips = new int[bits];
+        for (int t = 0; t < trials; t++) {
+            BitSet flipped = mutate(mutation, problem);
+            for (int i = flipped.nextSetBit(0); i >= 0; i = flipped.nextSetBit(i + 1))
+                flips[i]++;
+        }
+
+        double expected = trials * probability;
+        double bound = 5 * Math.sqrt(trials * probability * (1 - probability));
+        for (int i = 0; i < bits; i++)
+            assertEquals("bit " + i, expected, flips[i], bound);
+    }
+
+    @Test
+    public void numberOfFlipsIsBinomial() {
+        int bits = 2000, trials = 2000;
+        double probability = 0.01;
+        GeometricBitFlipMutation mutation = new GeometricBitFlipMutation(probability, seeded(2));
+        TestProblem problem = new TestProblem(bits);
+
+        double sum = 0, sumOfSquares = 0;
+        for (int t = 0; t < trials; t++) {
+            int flips = mutate(mutation, problem).cardinality();
+            sum += flips;
+            sumOfSquares += (double) flips * flips;
+        }
+
+        double mean = sum / trials;
+        double variance = (sumOfSquares - sum * mean) / (trials - 1);
+        double binomialMean = bits * probability;
+        double binomialVariance = bits * probability * (1 - probability);
+        assertEquals(binomialMean, mean, 5 * Math.sqrt(binomialVariance / trials));
+        //The variance of the sample variance is about 2 * variance^2 / trials
+        assertEquals(binomialVariance, variance, 5 * binomialVariance * Math.sqrt(2.0 / trials));
+    }
+
+    @Test
+    public void extremeProbabilities() {
+        TestProblem problem = new TestProblem(100);
+        assertEquals(0, mutate(new GeometricBitFlipMutation(0.0, seeded(3)), problem).cardinality());
+        assertEquals(100, mutate(new GeometricBitFlipMutation(1.0, seeded(3)), problem).cardinality());
+    }
+
+    //Mutates a random chromosome and returns the bits that were flipped
+    private static BitSet mutate(GeometricBitFlipMutation mutation, TestProblem problem) {
+        BinarySolution solution = problem.createSolution();
+        BitSet flipped = (BitSet) solution.getVariableValue(0).clone();
+        mutation.execute(solution);
+        flipped.xor(solution.getVariableValue(0));
+        return flipped;
+    }
+
+    private static RandomGenerator<Double> seeded(long seed) {
+        final Random random = new Random(seed);
+        return new RandomGenerator<Double>() {
+            @Override
+            public Double getRandomValue() {
+                return random.nextDouble();
+            }
+        };
+    }
+
+    private static class TestProblem extends AbstractBinaryProblem {
+        private final int bits;
+
+        TestProblem(int bits) {
+            this.bits = bits;
+            setNumberOfVariables(1);
+            setNumberOfObjectives(2);
+        }
+
+        @Override
+        protected int getBitsPerVariable(int index) {
+            return bits;
+        }
+
+        @Override
+        public void evaluate(BinarySolution solution) {
+        }
+    }
+}
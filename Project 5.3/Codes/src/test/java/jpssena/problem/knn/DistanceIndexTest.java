@@ -0,0 +1,64 @@
+package jpssena.problem.knn;
+
+import org.junit.Test;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class DistanceIndexTest {
+    private static final int SAMPLES = 70;
+
+    @Test
+    public void indexKeepsTheComputedDistances() {
+        IncrementalNearestNeighbour engine = new IncrementalNearestNeighbour(createFold());
+
+        for (DistanceIndex.Storage storage : DistanceIndex.Storage.values()) {
+            DistanceIndex doubles = new DistanceIndex(engine, storage, false);
+            DistanceIndex floats = new DistanceIndex(engine, storage, true);
+
+            for (int i = 0; i < SAMPLES; i++) {
+                for (int j = 0; j < SAMPLES; j++) {
+                    double expected = engine.computeSquaredDistance(i, j);
+                    assertEquals(expected, doubles.get(i, j), 0);
+                    assertEquals((float) expected, floats.get(i, j), 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void wrappedTriangleIsReadRowAfterRow() {
+        IncrementalNearestNeighbour engine = new IncrementalNearestNeighbour(createFold());
+
+        DoubleBuffer triangle = DoubleBuffer.allocate(SAMPLES * (SAMPLES - 1) / 2);
+        for (int i = 0; i < SAMPLES; i++)
+            for (int j = i + 1; j < SAMPLES; j++)
+                triangle.put(engine.computeSquaredDistance(i, j));
+
+        DistanceIndex index = DistanceIndex.wrap(SAMPLES, triangle);
+        for (int i = 0; i < SAMPLES; i++)
+            for (int j = 0; j < SAMPLES; j++)
+                assertEquals(engine.computeSquaredDistance(i, j), index.get(i, j), 0);
+    }
+
+    private static Instances createFold() {
+        ArrayList<Attribute> attributes = new ArrayList<>();
+        attributes.add(new Attribute("x"));
+        attributes.add(new Attribute("y"));
+        attributes.add(new Attribute("class", Arrays.asList("a", "b")));
+
+        Instances fold = new Instances("fold", attributes, SAMPLES);
+        fold.setClassIndex(2);
+        Random random = new Random(1);
+        for (int s = 0; s < SAMPLES; s++)
+            fold.add(new DenseInstance(1, new double[]{random.nextDouble(), 10 * random.nextGaussian(), random.nextInt(2)}));
+        return fold;
+    }
+}
@@ -0,0 +1,119 @@
+package jpssena.problem.knn;
+
+import org.junit.Test;
+import weka.classifiers.Evaluation;
+import weka.classifiers.lazy.IBk;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.EuclideanDistance;
+import weka.core.Instances;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the engine with building an IBk with the selected samples and evaluating it with the whole fold,
+ * which is what LearnMultiObjectivesSelectInstances did before.
+ *
+ * The numeric values are multiples of 1/4 in [0, 1], and every attribute takes the values 0 and 1, so the ranges of
+ * the fold do not change the distances and there are many tied neighbours. IBk doesn't normalize, since its ranges
+ * would come from the selected samples only.
+ */
+public class IncrementalNearestNeighbourTest {
+    private static final int SAMPLES = 120;
+
+    @Test
+    public void fullEvaluationMatchesIBk() throws Exception {
+        Instances fold = createFold(new Random(1));
+        IncrementalNearestNeighbour engine = new IncrementalNearestNeighbour(fold);
+        Random random = new Random(2);
+
+        for (int i = 0; i < 50; i++) {
+            BitSet selected = randomChromosome(random, random.nextDouble());
+            assertEquals(correctByIBk(fold, selected), engine.evaluate(selected, null).getCorrect());
+        }
+    }
+
+    @Test
+    public void deltaEvaluationMatchesIBk() throws Exception {
+        Instances fold = createFold(new Random(3));
+        Random random = new Random(4);
+
+        for (DistanceIndex.Storage storage : Arrays.asList(null, DistanceIndex.Storage.HEAP, DistanceIndex.Storage.OFF_HEAP)) {
+            IncrementalNearestNeighbour engine = new IncrementalNearestNeighbour(fold, storage, false);
+            BitSet selected = randomChromosome(random, 0.3);
+            NeighbourhoodState state = engine.evaluate(selected, null);
+
+            //Every offspring flips a few bits of its parent, so it takes the delta path
+            for (int i = 0; i < 100; i++) {
+                for (int flips = 1 + random.nextInt(SAMPLES / 8); flips > 0; flips--)
+                    selected.flip(random.nextInt(SAMPLES));
+
+                state = engine.evaluate(selected, state);
+                assertEquals(selected.cardinality(), state.getNumberOfSelected());
+                assertEquals(correctByIBk(fold, selected), state.getCorrect());
+            }
+        }
+    }
+
+    @Test
+    public void emptyChromosomeAnswersTheFirstClass() throws Exception {
+        Instances fold = createFold(new Random(5));
+        IncrementalNearestNeighbour engine = new IncrementalNearestNeighbour(fold);
+
+        BitSet selected = randomChromosome(new Random(6), 0.5);
+        NeighbourhoodState state = engine.evaluate(selected, null);
+        selected.clear();
+
+        assertEquals(correctByIBk(fold, selected), engine.evaluate(selected, state).getCorrect());
+    }
+
+    private static Instances createFold(Random random) {
+        ArrayList<Attribute> attributes = new ArrayList<>();
+        attributes.add(new Attribute("x"));
+        attributes.add(new Attribute("y"));
+        attributes.add(new Attribute("colour", Arrays.asList("red", "green", "blue")));
+        attributes.add(new Attribute("class", Arrays.asList("a", "b", "c")));
+
+        Instances fold = new Instances("fold", attributes, SAMPLES);
+        fold.setClassIndex(3);
+        for (int s = 0; s < SAMPLES; s++) {
+            //The first samples fix the range of the numeric attributes to [0, 1]
+            double x = s == 0 ? 0 : s == 1 ? 1 : random.nextInt(5) / 4.0;
+            double y = s == 0 ? 1 : s == 1 ? 0 : random.nextInt(5) / 4.0;
+            fold.add(new DenseInstance(1, new double[]{x, y, random.nextInt(3), random.nextInt(3)}));
+        }
+        return fold;
+    }
+
+    private static BitSet randomChromosome(Random random, double rate) {
+        BitSet selected = new BitSet(SAMPLES);
+        for (int s = 0; s < SAMPLES; s++) {
+            if (random.nextDouble() < rate)
+                selected.set(s);
+        }
+        return selected;
+    }
+
+    private static int correctByIBk(Instances fold, BitSet selected) throws Exception {
+        Instances instances = new Instances(fold);
+        for (int i = fold.numInstances() - 1; i >= 0; i--) {
+            if (!selected.get(i))
+                instances.remove(i);
+        }
+
+        EuclideanDistance distance = new EuclideanDistance();
+        distance.setDontNormalize(true);
+        IBk knn = new IBk();
+        knn.getNearestNeighbourSearchAlgorithm().setDistanceFunction(distance);
+        knn.buildClassifier(instances);
+
+        Evaluation evaluation = new Evaluation(instances);
+        evaluation.evaluateModel(knn, fold);
+        return (int) evaluation.correct();
+    }
+}
@@ -0,0 +1,143 @@
+package jpssena.util;
+
+import jpssena.problem.knn.DistanceIndex;
+import jpssena.problem.knn.IncrementalNearestNeighbour;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import weka.core.Instances;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class FoldCacheTest {
+    private static final int SAMPLES = 60;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void cacheKeepsTheParsedFoldAndItsDistances() throws IOException {
+        String baseName = writeFold(1);
+
+        //The first load writes the cache, the second one maps it
+        FoldCache written = FoldCache.load(baseName, true);
+        assertNotNull(written.getFile());
+        assertTrue(written.getFile().exists());
+        checkFold(baseName, written);
+        checkFold(baseName, FoldCache.load(baseName, true));
+    }
+
+    @Test
+    public void touchedSourceKeepsTheCache() throws IOException {
+        String baseName = writeFold(2);
+        File source = new File(baseName + ".dat");
+        File cache = FoldCache.load(baseName, true).getFile();
+        Object key = fileKey(cache);
+
+        assertTrue(source.setLastModified(source.lastModified() - 60000));
+        FoldCache fold = FoldCache.load(baseName, true);
+        assertEquals(key, fileKey(fold.getFile()));
+        checkFold(baseName, fold);
+
+        //The new modification time was kept, the next load doesn't compare the checksums
+        assertTrue(source.setLastModified(source.lastModified()));
+        assertEquals(key, fileKey(FoldCache.load(baseName, true).getFile()));
+    }
+
+    @Test
+    public void changedSourceRebuildsTheCache() throws IOException {
+        String baseName = writeFold(3);
+        File source = new File(baseName + ".dat");
+        File cache = FoldCache.load(baseName, true).getFile();
+        Object key = fileKey(cache);
+
+        //Another sample with the same size, so only the checksum tells the change apart
+        long length = source.length();
+        long modified = source.lastModified();
+        String content = new String(Files.readAllBytes(source.toPath()), StandardCharsets.UTF_8);
+        int position = content.indexOf('\n', content.indexOf("@data")) + 1;
+        char digit = content.charAt(position);
+        content = content.substring(0, position) + (digit == '9' ? '8' : '9') + content.substring(position + 1);
+        Files.write(source.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        assertTrue(source.setLastModified(modified - 60000));
+        assertEquals(length, source.length());
+
+        FoldCache fold = FoldCache.load(baseName, true);
+        assertNotEquals(key, fileKey(fold.getFile()));
+        checkFold(baseName, fold);
+
+        //A source with another size
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(source.toPath(), StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND))) {
+            writer.println("0.5, 7, b, yes");
+        }
+        key = fileKey(fold.getFile());
+        fold = FoldCache.load(baseName, true);
+        assertNotEquals(key, fileKey(fold.getFile()));
+        assertEquals(SAMPLES + 1, fold.getInstances().numInstances());
+        checkFold(baseName, fold);
+    }
+
+    //Compares a fold read from the cache with the fold parsed from the source file
+    private static void checkFold(String baseName, FoldCache fold) throws IOException {
+        Instances expected = KeelDataLoader.load(baseName);
+        Instances instances = fold.getInstances();
+
+        assertEquals(expected.relationName(), instances.relationName());
+        assertEquals(expected.classIndex(), instances.classIndex());
+        assertEquals(expected.numAttributes(), instances.numAttributes());
+        for (int a = 0; a < expected.numAttributes(); a++)
+            assertEquals(expected.attribute(a).toString(), instances.attribute(a).toString());
+        assertEquals(expected.numInstances(), instances.numInstances());
+        for (int i = 0; i < expected.numInstances(); i++)
+            assertArrayEquals(expected.instance(i).toDoubleArray(), instances.instance(i).toDoubleArray(), 0);
+
+        IncrementalNearestNeighbour distance = new IncrementalNearestNeighbour(expected);
+        DistanceIndex distanceIndex = fold.getDistanceIndex();
+        assertNotNull(distanceIndex);
+        assertEquals(expected.numInstances(), distanceIndex.getNumberOfSamples());
+        for (int i = 0; i < expected.numInstances(); i++)
+            for (int j = 0; j < expected.numInstances(); j++)
+                assertEquals(distance.computeSquaredDistance(i, j), distanceIndex.get(i, j), 0);
+    }
+
+    //The inode on Linux: the cache keeps it when it's reused, and the rebuilt cache is moved over it with another one
+    private static Object fileKey(File file) throws IOException {
+        Object key = Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+        assertNotNull(key);
+        return key;
+    }
+
+    private String writeFold(long seed) throws IOException {
+        File file = new File(folder.getRoot(), "fold-10-1tra.dat");
+        Random random = new Random(seed);
+        try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+            writer.println("@relation fold");
+            writer.println("@attribute X real [0.0, 1.0]");
+            writer.println("@attribute Count integer [0, 9]");
+            writer.println("@attribute Kind {a, b, c}");
+            writer.println("@attribute Class {no, yes}");
+            writer.println("@inputs X, Count, Kind");
+            writer.println("@outputs Class");
+            writer.println("@data");
+            for (int s = 0; s < SAMPLES; s++)
+                writer.println(random.nextInt(10) + "." + random.nextInt(10) + ", " + random.nextInt(10) + ", "
+                        + "abc".charAt(random.nextInt(3)) + ", " + (random.nextBoolean() ? "yes" : "no"));
+        }
+        String name = file.getPath();
+        return name.substring(0, name.length() - ".dat".length());
+    }
+}